@@ -0,0 +1,153 @@
+package com.dx.liferay.inventory.cache;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of the assembled inventory review document.
+ *
+ * Entries are keyed by company and inventory ID and hold the serialized JSON returned
+ * by the fetchData resource. The cache lives in Liferay's MultiVMPool so removals are
+ * replicated to every node when the portal runs in a cluster.
+ *
+ * Every removal advances a per-inventory generation on this node. A reader takes the
+ * generation before it assembles a document and the document is only stored if no removal
+ * happened in the meantime, so a document read before a write committed is not put back
+ * after the write's invalidation. Entries expire after
+ * {@link InventoryConstants#INVENTORY_REVIEW_CACHE_TTL_SECONDS}, which bounds how long a
+ * document assembled on one node can outlive a write invalidated from another.
+ */
+@Component(
+        immediate = true,
+        service = InventoryReviewCache.class
+)
+public class InventoryReviewCache {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryReviewCache.class);
+
+    private final Map<String, Long> _generations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached review document for an inventory.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @return the serialized JSON document, or null if it is not cached
+     */
+    public String get(long companyId, long inventoryId) {
+        return _portalCache.get(getKey(companyId, inventoryId));
+    }
+
+    /**
+     * Returns the current generation of an inventory's cache entry, to be taken before the
+     * review document is assembled and passed to {@link #put(long, long, String, long)}.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @return the number of removals of the entry seen on this node
+     */
+    public long getGeneration(long companyId, long inventoryId) {
+        return _generations.getOrDefault(getKey(companyId, inventoryId), 0L);
+    }
+
+    /**
+     * Stores the assembled review document for an inventory, unless the entry was removed
+     * after the given generation was taken.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @param inventoryJson the serialized JSON document
+     * @param generation the generation taken before the document was assembled
+     * @return true if the document was stored
+     */
+    public boolean put(long companyId, long inventoryId, String inventoryJson, long generation) {
+        String key = getKey(companyId, inventoryId);
+        boolean[] stored = new boolean[1];
+
+        // The check and the put run under the generation's map lock, which removals also take
+        _generations.compute(key, (k, currentGeneration) -> {
+            if (GetterUtil.getLong(currentGeneration) == generation) {
+                _portalCache.put(key, inventoryJson, InventoryConstants.INVENTORY_REVIEW_CACHE_TTL_SECONDS);
+                stored[0] = true;
+            }
+            return currentGeneration;
+        });
+
+        return stored[0];
+    }
+
+    /**
+     * Removes the cached review document for an inventory on every node.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     */
+    public void remove(long companyId, long inventoryId) {
+        if (inventoryId <= 0) {
+            return;
+        }
+
+        _generations.compute(getKey(companyId, inventoryId), (key, currentGeneration) -> {
+            _portalCache.remove(key);
+            return GetterUtil.getLong(currentGeneration) + 1;
+        });
+
+        if (_log.isDebugEnabled()) {
+            _log.debug("Invalidated review cache for inventory " + inventoryId);
+        }
+    }
+
+    /**
+     * Removes the cached review document for an inventory once the current transaction
+     * commits, or straight away outside a transaction. Writers call this instead of
+     * {@link #remove(long, long)} so a document assembled from the data they are still
+     * writing cannot be cached after the removal.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     */
+    public void removeAfterCommit(long companyId, long inventoryId) {
+        if (inventoryId <= 0) {
+            return;
+        }
+
+        TransactionCommitCallbackUtil.registerCallback(() -> {
+            remove(companyId, inventoryId);
+            return null;
+        });
+    }
+
+    private String getKey(long companyId, long inventoryId) {
+        return companyId + "_" + inventoryId;
+    }
+
+    @Activate
+    @SuppressWarnings("unchecked")
+    protected void activate() {
+        _portalCache = (PortalCache<String, String>) _multiVMPool.getPortalCache(
+                InventoryConstants.INVENTORY_REVIEW_CACHE_NAME);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        _multiVMPool.removePortalCache(InventoryConstants.INVENTORY_REVIEW_CACHE_NAME);
+    }
+
+    @Reference
+    MultiVMPool _multiVMPool;
+
+    private PortalCache<String, String> _portalCache;
+
+}
@@ -0,0 +1,158 @@
+package com.dx.liferay.inventory.cache;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.portal.kernel.lock.Lock;
+import com.liferay.portal.kernel.lock.LockManager;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Records which inventory a submission's idempotency key created, so a double-clicked or
+ * retried submission returns the existing inventory instead of writing every dataset again.
+ *
+ * Each key is a row of the portal's Lock_ table, unique per class name and key, so a claim
+ * is decided by the database and holds across cluster nodes whichever node a repeated
+ * request reaches. While the submission is written the row is owned by a claim token; on
+ * completion the owner is swapped for the created inventory ID. Completed keys are honoured
+ * for {@link InventoryConstants#IDEMPOTENCY_KEY_TTL_SECONDS} and claims for
+ * {@link InventoryConstants#IDEMPOTENCY_CLAIM_EXPIRATION_MS}, after which a new claim takes
+ * the row over, as a claim that old was left behind by a stopped node.
+ */
+@Component(
+        immediate = true,
+        service = SubmissionIdempotencyCache.class
+)
+public class SubmissionIdempotencyCache {
+
+    private static final Log _log = LogFactoryUtil.getLog(SubmissionIdempotencyCache.class);
+
+    private static final String LOCK_CLASS_NAME = SubmissionIdempotencyCache.class.getName();
+
+    private static final String CLAIM_OWNER_PREFIX = "claim_";
+
+    /**
+     * Returns the inventory a completed submission created.
+     *
+     * @param companyId the company ID
+     * @param userId the submitting user's ID
+     * @param idempotencyKey the key sent with the submission
+     * @return the inventory ID, or null if no submission with the key has completed
+     */
+    public Long getInventoryId(long companyId, long userId, String idempotencyKey) {
+        Lock lock = _lockManager.fetchLock(LOCK_CLASS_NAME, getKey(companyId, userId, idempotencyKey));
+
+        if (lock == null || isClaim(lock) || isExpired(lock)) {
+            return null;
+        }
+
+        return GetterUtil.getLong(lock.getOwner());
+    }
+
+    /**
+     * Claims a key before its submission is written. Fails if a submission with the same key
+     * is being written on any node or has already completed.
+     *
+     * @param companyId the company ID
+     * @param userId the submitting user's ID
+     * @param idempotencyKey the key sent with the submission
+     * @return the claim token to complete or release the claim with, or null if the key is taken
+     */
+    public String claim(long companyId, long userId, String idempotencyKey) {
+        String key = getKey(companyId, userId, idempotencyKey);
+        String claimToken = CLAIM_OWNER_PREFIX + PortalUUIDUtil.generate();
+
+        Lock lock = _lockManager.lock(LOCK_CLASS_NAME, key, claimToken);
+
+        if (claimToken.equals(lock.getOwner())) {
+            return claimToken;
+        }
+
+        if (isExpired(lock) &&
+                claimToken.equals(_lockManager.lock(LOCK_CLASS_NAME, key, lock.getOwner(), claimToken).getOwner())) {
+
+            return claimToken;
+        }
+
+        return null;
+    }
+
+    /**
+     * Records the inventory a claimed submission created, replacing the claim.
+     *
+     * @param companyId the company ID
+     * @param userId the submitting user's ID
+     * @param idempotencyKey the key sent with the submission
+     * @param claimToken the token returned by {@link #claim(long, long, String)}
+     * @param inventoryId the created inventory ID
+     */
+    public void complete(long companyId, long userId, String idempotencyKey, String claimToken, long inventoryId) {
+        String inventoryOwner = String.valueOf(inventoryId);
+
+        Lock lock = _lockManager.lock(LOCK_CLASS_NAME, getKey(companyId, userId, idempotencyKey), claimToken,
+                inventoryOwner);
+
+        if (!inventoryOwner.equals(lock.getOwner())) {
+            _log.warn("Claim of idempotency key " + idempotencyKey + " expired before inventory " + inventoryId +
+                    " was recorded");
+        } else if (_log.isDebugEnabled()) {
+            _log.debug("Recorded idempotency key " + idempotencyKey + " for inventory " + inventoryId);
+        }
+    }
+
+    /**
+     * Releases the claim of a submission that failed, so a retry can write it again.
+     *
+     * @param companyId the company ID
+     * @param userId the submitting user's ID
+     * @param idempotencyKey the key sent with the submission
+     * @param claimToken the token returned by {@link #claim(long, long, String)}
+     */
+    public void release(long companyId, long userId, String idempotencyKey, String claimToken) {
+        try {
+            _lockManager.unlock(LOCK_CLASS_NAME, getKey(companyId, userId, idempotencyKey), claimToken);
+        } catch (Exception e) {
+            _log.error("Error releasing idempotency key " + idempotencyKey, e);
+        }
+    }
+
+    /**
+     * Returns whether a key is usable: present and no longer than a UUID with some margin.
+     *
+     * @param idempotencyKey the key sent with the submission
+     * @return true if the key can be recorded
+     */
+    public boolean isValidKey(String idempotencyKey) {
+        return Validator.isNotNull(idempotencyKey) &&
+                idempotencyKey.length() <= InventoryConstants.MAX_IDEMPOTENCY_KEY_LENGTH;
+    }
+
+    private boolean isClaim(Lock lock) {
+        return lock.getOwner().startsWith(CLAIM_OWNER_PREFIX);
+    }
+
+    /**
+     * Checks whether a key's row is past its lifetime. The row's create date is reset when a
+     * claim is completed, so a completed key lives from its completion.
+     */
+    private boolean isExpired(Lock lock) {
+        long age = System.currentTimeMillis() - lock.getCreateDate().getTime();
+
+        if (isClaim(lock)) {
+            return age > InventoryConstants.IDEMPOTENCY_CLAIM_EXPIRATION_MS;
+        }
+        return age > InventoryConstants.IDEMPOTENCY_KEY_TTL_SECONDS * 1000L;
+    }
+
+    private String getKey(long companyId, long userId, String idempotencyKey) {
+        return companyId + "_" + userId + "_" + idempotencyKey;
+    }
+
+    @Reference
+    LockManager _lockManager;
+
+}
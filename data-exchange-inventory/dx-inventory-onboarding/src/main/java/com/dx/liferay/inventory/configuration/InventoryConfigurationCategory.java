@@ -0,0 +1,31 @@
+package com.dx.liferay.inventory.configuration;
+
+import com.liferay.configuration.admin.category.ConfigurationCategory;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * System Settings category grouping the inventory module's configurations, such as
+ * {@link UploadAdmissionConfiguration}, under the "other" section. The category label is
+ * read from the category.dx-inventory language key.
+ */
+@Component(service = ConfigurationCategory.class)
+public class InventoryConfigurationCategory implements ConfigurationCategory {
+
+    public static final String CATEGORY_KEY = "dx-inventory";
+
+    @Override
+    public String getCategoryIcon() {
+        return "forms";
+    }
+
+    @Override
+    public String getCategoryKey() {
+        return CATEGORY_KEY;
+    }
+
+    @Override
+    public String getCategorySection() {
+        return "other";
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.dx.liferay.inventory.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * System settings limiting how many uploaded workbooks the onboarding portlet parses at once
+ * on each node.
+ *
+ * Uploads are weighted by request size in megabytes, so a few large workbooks take the same
+ * share of the limit as many small ones. Requests that find the limit reached wait in a
+ * bounded queue; requests beyond the queue, or that wait longer than the timeout, are told
+ * to retry later.
+ */
+@ExtendedObjectClassDefinition(
+        category = InventoryConfigurationCategory.CATEGORY_KEY,
+        scope = ExtendedObjectClassDefinition.Scope.SYSTEM
+)
+@Meta.OCD(
+        id = "com.dx.liferay.inventory.configuration.UploadAdmissionConfiguration",
+        name = "Inventory Upload Admission"
+)
+public interface UploadAdmissionConfiguration {
+
+    @Meta.AD(
+            deflt = "64",
+            description = "Total megabytes of uploads parsed at the same time on a node. Each upload counts at least 1.",
+            name = "Concurrent upload megabytes",
+            required = false
+    )
+    int maxConcurrentUploadMegabytes();
+
+    @Meta.AD(
+            deflt = "20",
+            description = "Number of uploads that may wait for capacity before new uploads are turned away.",
+            name = "Upload queue size",
+            required = false
+    )
+    int maxQueuedUploads();
+
+    @Meta.AD(
+            deflt = "15",
+            description = "Seconds an upload waits for capacity before it is turned away.",
+            name = "Upload queue timeout",
+            required = false
+    )
+    int queueTimeoutSeconds();
+
+    @Meta.AD(
+            deflt = "30",
+            description = "Seconds a turned-away client is asked to wait before retrying.",
+            name = "Retry after",
+            required = false
+    )
+    int retryAfterSeconds();
+
+}
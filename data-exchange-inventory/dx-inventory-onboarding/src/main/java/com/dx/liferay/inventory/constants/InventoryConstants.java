@@ -1,5 +1,7 @@
 package com.dx.liferay.inventory.constants;
 
+import java.util.List;
+
 /**
  * Constants class for DX Inventory system object names and identifiers.
  *
@@ -18,15 +20,64 @@ public class InventoryConstants {
     public static final String VALIDATE_FILE_RESOURCE_ID = "validateFile";
     public static final String PROCESS_FILE_RESOURCE_ID = "processFile";
     public static final String FETCH_DATA_RESOURCE_ID = "fetchData";
+    public static final String FETCH_DATASET_ATTRIBUTES_RESOURCE_ID = "fetchDatasetAttributes";
+    public static final String MERGE_FILE_RESOURCE_ID = "mergeFile";
+    public static final String PATCH_ENTRY_RESOURCE_ID = "patchEntry";
+    public static final String OPEN_SUBMISSION_RESOURCE_ID = "openSubmission";
+    public static final String SUBMIT_CHUNK_RESOURCE_ID = "submitChunk";
+    public static final String COMMIT_SUBMISSION_RESOURCE_ID = "commitSubmission";
+    public static final int MAX_SUBMISSION_CHUNK_SIZE = 100;
+    public static final String AUTOSAVE_RESOURCE_ID = "autosave";
+    public static final int AUTOSAVE_FLUSH_INTERVAL_SECONDS = 10;
+    public static final long INVENTORY_LOCK_TIMEOUT_MS = 30000;
+    public static final long INVENTORY_LOCK_EXPIRATION_MS = 900000;
+    public static final int DEFAULT_ATTRIBUTE_PAGE_SIZE = 50;
+    public static final int MAX_ATTRIBUTE_PAGE_SIZE = 200;
+    public static final String SEARCH_INVENTORIES_RESOURCE_ID = "searchInventories";
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final String EXPORT_INVENTORY_RESOURCE_ID = "exportInventory";
+    public static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final String EXPORT_ANALYTICS_RESOURCE_ID = "exportAnalytics";
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    public static final String CSV_CONTENT_TYPE = "text/csv";
     public static final long MAX_FILE_SIZE_BYTES = 10 * 1024 * 1024;
     public static final int DEFAULT_HEADER_ROW_INDEX = 1;
 
 
     public static final int DEFAULT_HEADER_ROW_COUNT = 2;
+    public static final String TEMPLATE_ROW_NUMBER_COLUMN = "#";
+
+    /**
+     * Object field behind each column of the sample template, in template column order.
+     */
+    public static final List<String> TEMPLATE_COLUMN_FIELDS = List.of(
+            TEMPLATE_ROW_NUMBER_COLUMN, "datasetName", "datasetDescription", "datasetClassification",
+            "attribute", "attributeDescription", "userDemand", "economicImpact", "betterServices",
+            "betterGovernance", "definedOwner", "existingMetadata", "alreadyPublished", "openFormat",
+            "releaseYear", "releaseMonth");
     public static final String JSON_CONTENT_TYPE = "application/json";
     public static final String DEFAULT_ENCODING = "UTF-8";
     public static final int DRAFT_STATUS_CODE = 2;
     public static final int PENDING_STATUS_CODE = 1;
     public static final String CREATE_MUTATION_TYPE = "create";
     public static final String UPDATE_MUTATION_TYPE = "update";
+    public static final String DATASET_COUNT_FIELD = "datasetCount";
+    public static final String ATTRIBUTE_COUNT_FIELD = "attributeCount";
+    public static final String INVENTORY_COMPLIANCE_RATING_FIELD = "inventoryComplianceRating";
+    public static final String PRIORITIZATION_COMPLIANCE_RATING_FIELD = "prioritizationComplianceRating";
+    public static final String CLASSIFICATION_COMPLIANCE_RATING_FIELD = "classificationComplianceRating";
+    public static final String RELEASE_PLAN_COMPLIANCE_RATING_FIELD = "releasePlanComplianceRating";
+    public static final int MIN_COMPLIANCE_RATING = 0;
+    public static final int MAX_COMPLIANCE_RATING = 2;
+    public static final String COMPLIANCE_SCORE_FIELD = "complianceScore";
+    public static final String COMPLETE_DATASET_COUNT_FIELD = "completeDatasetCount";
+    public static final String REVIEW_REQUEST_STATE_FIELD = "reviewRequestState";
+    public static final String REVIEW_FEEDBACK_FIELD = "reviewFeedback";
+    public static final String EDIT_VERSION_FIELD = "editVersion";
+    public static final String INVENTORY_REVIEW_CACHE_NAME = "com.dx.liferay.inventory.cache.InventoryReviewCache";
+    public static final int INVENTORY_REVIEW_CACHE_TTL_SECONDS = 600;
+    public static final int IDEMPOTENCY_KEY_TTL_SECONDS = 3600;
+    public static final long IDEMPOTENCY_CLAIM_EXPIRATION_MS = 900000;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
 }
@@ -0,0 +1,26 @@
+package com.dx.liferay.inventory.exception;
+
+import com.liferay.portal.kernel.exception.PortalException;
+
+/**
+ * Exception thrown when an inventory entry was modified by another request after the
+ * submitting user loaded it, detected through the entry's edit version, or when another
+ * request kept the inventory locked for longer than a bulk update is willing to wait.
+ */
+public class ConcurrentInventoryUpdateException extends PortalException {
+
+    /**
+     * Constructs a new ConcurrentInventoryUpdateException with the specified detail message.
+     *
+     * @param message the detail message explaining the cause of the exception
+     */
+    public ConcurrentInventoryUpdateException(String message) { super(message); }
+
+    /**
+     * Constructs a new ConcurrentInventoryUpdateException with the specified detail message and cause.
+     *
+     * @param message the detail message explaining the cause of the exception
+     * @param cause the underlying cause of this exception
+     */
+    public ConcurrentInventoryUpdateException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,41 @@
+package com.dx.liferay.inventory.listener;
+
+import com.dx.liferay.inventory.search.DatasetNameIndex;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.ModelListenerException;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Model listener that keeps the dataset name index current as datasets are created,
+ * renamed, moved and removed. Entries of other object definitions are ignored by the index.
+ */
+@Component(
+        immediate = true,
+        service = ModelListener.class
+)
+public class DatasetNameIndexModelListener extends BaseModelListener<ObjectEntry> {
+
+    @Override
+    public void onAfterCreate(ObjectEntry objectEntry) throws ModelListenerException {
+        _datasetNameIndex.indexDataset(objectEntry);
+    }
+
+    @Override
+    public void onAfterUpdate(ObjectEntry originalObjectEntry, ObjectEntry objectEntry)
+            throws ModelListenerException {
+
+        _datasetNameIndex.indexDataset(objectEntry);
+    }
+
+    @Override
+    public void onAfterRemove(ObjectEntry objectEntry) throws ModelListenerException {
+        _datasetNameIndex.removeDataset(objectEntry);
+    }
+
+    @Reference
+    DatasetNameIndex _datasetNameIndex;
+
+}
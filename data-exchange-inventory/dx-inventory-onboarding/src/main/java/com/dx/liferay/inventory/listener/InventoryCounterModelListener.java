@@ -0,0 +1,120 @@
+package com.dx.liferay.inventory.listener;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.service.InventoryCounterService;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
+import com.dx.liferay.inventory.service.InventoryScoringService;
+import com.dx.liferay.inventory.util.InventoryCounterThreadLocal;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.ModelListenerException;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Model listener that keeps the datasetCount and attributeCount counters, and the compliance
+ * score derived from them, in sync for datasets and attributes written outside
+ * InventoryServiceImpl, such as through the headless object APIs. Writes made by the service
+ * adjust the counters and score in bulk and are skipped here through
+ * {@link InventoryCounterThreadLocal}.
+ */
+@Component(
+        immediate = true,
+        service = ModelListener.class
+)
+public class InventoryCounterModelListener extends BaseModelListener<ObjectEntry> {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryCounterModelListener.class);
+
+    @Override
+    public void onAfterCreate(ObjectEntry objectEntry) throws ModelListenerException {
+        adjustParentCounter(objectEntry, 1);
+    }
+
+    @Override
+    public void onAfterUpdate(ObjectEntry originalObjectEntry, ObjectEntry objectEntry)
+            throws ModelListenerException {
+
+        if (InventoryCounterThreadLocal.isManagedByService()) {
+            return;
+        }
+
+        try {
+            // Dataset field changes can change the dataset's completeness
+            if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(_inventoryHelper.getObjectDefinitionName(objectEntry))) {
+                _inventoryScoringService.refreshInventoryScore(
+                        objectEntry.getCompanyId(), getDatasetInventoryId(objectEntry));
+            }
+        } catch (Exception e) {
+            _log.error("Failed to refresh compliance score for entry: " + objectEntry.getObjectEntryId(), e);
+        }
+    }
+
+    @Override
+    public void onBeforeRemove(ObjectEntry objectEntry) throws ModelListenerException {
+        adjustParentCounter(objectEntry, -1);
+    }
+
+    /**
+     * Adjusts the counter of the parent entry of a dataset or attribute and refreshes the
+     * compliance score of the inventory, leaving out a removed dataset.
+     *
+     * @param objectEntry the dataset or attribute entry being created or removed
+     * @param delta 1 for a creation, -1 for a removal
+     */
+    private void adjustParentCounter(ObjectEntry objectEntry, int delta) {
+        if (InventoryCounterThreadLocal.isManagedByService()) {
+            return;
+        }
+
+        try {
+            String objectDefinitionName = _inventoryHelper.getObjectDefinitionName(objectEntry);
+
+            if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinitionName)) {
+                long inventoryId = getDatasetInventoryId(objectEntry);
+
+                _inventoryCounterService.adjustDatasetCount(inventoryId, delta);
+                _inventoryScoringService.refreshInventoryScore(
+                        objectEntry.getCompanyId(), inventoryId, delta < 0 ? objectEntry.getObjectEntryId() : 0);
+            } else if (InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME.equals(objectDefinitionName)) {
+                long datasetId = _inventoryProjectionService.getRelatedEntryId(
+                        objectEntry.getCompanyId(), objectDefinitionName,
+                        InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, objectEntry.getObjectEntryId());
+
+                _inventoryCounterService.adjustAttributeCount(datasetId, delta);
+
+                // The attribute counter is written without updating the dataset entry, so no update event follows
+                _inventoryScoringService.refreshInventoryScore(objectEntry.getCompanyId(),
+                        _inventoryProjectionService.getRelatedEntryId(
+                                objectEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, datasetId));
+            }
+        } catch (Exception e) {
+            _log.error("Failed to adjust counter for entry: " + objectEntry.getObjectEntryId(), e);
+        }
+    }
+
+    private long getDatasetInventoryId(ObjectEntry datasetEntry) throws PortalException {
+        return _inventoryProjectionService.getRelatedEntryId(
+                datasetEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, datasetEntry.getObjectEntryId());
+    }
+
+    @Reference
+    InventoryCounterService _inventoryCounterService;
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    InventoryScoringService _inventoryScoringService;
+
+}
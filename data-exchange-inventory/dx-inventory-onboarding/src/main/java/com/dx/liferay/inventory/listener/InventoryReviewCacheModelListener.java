@@ -0,0 +1,77 @@
+package com.dx.liferay.inventory.listener;
+
+import com.dx.liferay.inventory.cache.InventoryReviewCache;
+import com.dx.liferay.inventory.util.InventoryBulkDeleteThreadLocal;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.ModelListenerException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Model listener that drops the cached review document of an inventory whenever the
+ * inventory itself, one of its datasets or one of their attributes is written.
+ *
+ * The owning inventory is resolved while the write is running, and before the entry is
+ * deleted for removals so its relationship values can still be read, but the document is
+ * only dropped once the write commits, so a review read during the write cannot cache
+ * the data as it was before.
+ *
+ * Removals made by InventoryBulkDeleteService are skipped through
+ * {@link InventoryBulkDeleteThreadLocal}, as it invalidates each affected inventory once.
+ */
+@Component(
+        immediate = true,
+        service = ModelListener.class
+)
+public class InventoryReviewCacheModelListener extends BaseModelListener<ObjectEntry> {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryReviewCacheModelListener.class);
+
+    @Override
+    public void onAfterCreate(ObjectEntry objectEntry) throws ModelListenerException {
+        invalidate(objectEntry);
+    }
+
+    @Override
+    public void onAfterUpdate(ObjectEntry originalObjectEntry, ObjectEntry objectEntry)
+            throws ModelListenerException {
+
+        invalidate(objectEntry);
+    }
+
+    @Override
+    public void onBeforeRemove(ObjectEntry objectEntry) throws ModelListenerException {
+        if (InventoryBulkDeleteThreadLocal.isBulkDelete()) {
+            return;
+        }
+
+        invalidate(objectEntry);
+    }
+
+    /**
+     * Removes the cached document of the inventory owning the given entry after commit.
+     * Entries of unrelated object definitions resolve to no inventory and are ignored.
+     *
+     * @param objectEntry the inventory, dataset or attribute entry that changed
+     */
+    private void invalidate(ObjectEntry objectEntry) {
+        try {
+            _inventoryReviewCache.removeAfterCommit(
+                    objectEntry.getCompanyId(), _inventoryHelper.getOwningInventoryId(objectEntry));
+        } catch (Exception e) {
+            _log.error("Failed to invalidate review cache for entry: " + objectEntry.getObjectEntryId(), e);
+        }
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryReviewCache _inventoryReviewCache;
+
+}
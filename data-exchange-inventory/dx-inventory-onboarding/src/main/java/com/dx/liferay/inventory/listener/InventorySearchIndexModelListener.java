@@ -0,0 +1,63 @@
+package com.dx.liferay.inventory.listener;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.search.InventorySearchIndex;
+import com.dx.liferay.inventory.service.InventorySearchService;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.ModelListenerException;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Model listener that keeps the inventory search index current as datasets and attributes
+ * are created, updated and removed. Entries of other object definitions are ignored by
+ * the index. Writes to an inventory itself drop the cached visible inventories of its
+ * company, as its name, status or existence may have changed.
+ */
+@Component(
+        immediate = true,
+        service = ModelListener.class
+)
+public class InventorySearchIndexModelListener extends BaseModelListener<ObjectEntry> {
+
+    @Override
+    public void onAfterCreate(ObjectEntry objectEntry) throws ModelListenerException {
+        _inventorySearchIndex.indexEntry(objectEntry);
+        invalidateVisibleInventories(objectEntry);
+    }
+
+    @Override
+    public void onAfterUpdate(ObjectEntry originalObjectEntry, ObjectEntry objectEntry)
+            throws ModelListenerException {
+
+        _inventorySearchIndex.indexEntry(objectEntry);
+        invalidateVisibleInventories(objectEntry);
+    }
+
+    @Override
+    public void onAfterRemove(ObjectEntry objectEntry) throws ModelListenerException {
+        _inventorySearchIndex.removeEntry(objectEntry);
+        invalidateVisibleInventories(objectEntry);
+    }
+
+    private void invalidateVisibleInventories(ObjectEntry objectEntry) {
+        if (InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(
+                _inventoryHelper.getObjectDefinitionName(objectEntry))) {
+
+            _inventorySearchService.invalidateVisibleInventories(objectEntry.getCompanyId());
+        }
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventorySearchIndex _inventorySearchIndex;
+
+    @Reference
+    InventorySearchService _inventorySearchService;
+
+}
@@ -0,0 +1,22 @@
+package com.dx.liferay.inventory.model;
+
+/**
+ * Immutable dataset attribute as it moves from the review form or an uploaded workbook to
+ * the C_DatasetInventoryAttributeDetails object entry. Text fields are trimmed and
+ * never null when built through DatasetValuesMapper.
+ *
+ * @param actualAttributeId the stored attribute entry ID, or 0 for a new attribute
+ * @param formIndex the attribute's position within its dataset on the review form
+ * @param version the edit version of the stored entry the client loaded, or -1 to skip the version check
+ */
+public record Attribute(long actualAttributeId, int formIndex, String attributeName, String attributeDescription,
+                        long version) {
+
+    public boolean isExisting() {
+        return actualAttributeId > 0;
+    }
+
+    public boolean isVersionChecked() {
+        return isExisting() && version >= 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dx.liferay.inventory.model;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * State of a review form submitted in chunks, kept in the portlet session between the
+ * open, chunk and commit requests. Tracks the stored datasets the chunks have written,
+ * so datasets left out of an update can be deleted on commit, the sequence numbers of the
+ * written chunks, so a resent chunk is not written twice, and the running change counts.
+ * The claim of the form's idempotency key is held from open to commit, so the same form
+ * submitted again is not opened as a second submission.
+ */
+public class ChunkedSubmission implements Serializable {
+    private final String submissionId;
+    private final long inventoryId;
+    private final long userId;
+    private final boolean existingInventory;
+    private final String idempotencyKey;
+    private final String claimToken;
+    private final Set<Long> processedDatasetIds = new HashSet<>();
+    private final Set<Integer> processedChunkSequences = new HashSet<>();
+    private final InventoryChangeSummary changeSummary = new InventoryChangeSummary();
+    private int chunkCount;
+
+    /**
+     * Constructs a new ChunkedSubmission.
+     *
+     * @param submissionId the ID the client sends with each chunk
+     * @param inventoryId the C_InventoryDetails entry the datasets are written to
+     * @param userId the user submitting the inventory
+     * @param existingInventory true when updating an inventory, false when the submission created a draft
+     * @param idempotencyKey the key sent with the form, or null if it sent none
+     * @param claimToken the token of the key's claim, or null if it sent none
+     */
+    public ChunkedSubmission(String submissionId, long inventoryId, long userId, boolean existingInventory,
+                             String idempotencyKey, String claimToken) {
+        this.submissionId = submissionId;
+        this.inventoryId = inventoryId;
+        this.userId = userId;
+        this.existingInventory = existingInventory;
+        this.idempotencyKey = idempotencyKey;
+        this.claimToken = claimToken;
+    }
+
+    public String getSubmissionId() { return submissionId; }
+
+    public long getInventoryId() { return inventoryId; }
+
+    public long getUserId() { return userId; }
+
+    public boolean isExistingInventory() { return existingInventory; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+
+    public String getClaimToken() { return claimToken; }
+
+    public Set<Long> getProcessedDatasetIds() { return processedDatasetIds; }
+
+    public InventoryChangeSummary getChangeSummary() { return changeSummary; }
+
+    public int getChunkCount() { return chunkCount; }
+
+    /**
+     * Returns whether the chunk with a sequence number has already been written.
+     *
+     * @param chunkSequence the sequence number the client sent with the chunk
+     * @return true if the chunk was written before
+     */
+    public boolean isChunkProcessed(int chunkSequence) {
+        return processedChunkSequences.contains(chunkSequence);
+    }
+
+    /**
+     * Records a written chunk and adds its change counts to the submission's totals.
+     *
+     * @param chunkSequence the sequence number the client sent with the chunk
+     * @param chunkSummary the change counts of the chunk
+     */
+    public void addChunk(int chunkSequence, InventoryChangeSummary chunkSummary) {
+        processedChunkSequences.add(chunkSequence);
+        changeSummary.add(chunkSummary);
+        chunkCount++;
+    }
+}
@@ -0,0 +1,66 @@
+package com.dx.liferay.inventory.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents the compliance review submitted for one inventory: the section ratings, the
+ * request state and feedback, and the edit version of the inventory entry the reviewer
+ * was looking at.
+ */
+public class ComplianceRatingUpdate {
+    private final long inventoryId;
+    private final long expectedVersion;
+    private final Map<String, Integer> ratings = new LinkedHashMap<>();
+    private String requestState;
+    private String feedback;
+
+    /**
+     * Constructs a new ComplianceRatingUpdate.
+     *
+     * @param inventoryId the C_InventoryDetails entry ID
+     * @param expectedVersion the edit version the reviewer loaded, or a negative value to skip the check
+     */
+    public ComplianceRatingUpdate(long inventoryId, long expectedVersion) {
+        this.inventoryId = inventoryId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public long getInventoryId() { return inventoryId; }
+
+    public long getExpectedVersion() { return expectedVersion; }
+
+    /**
+     * Checks whether the update should be rejected when the entry has changed since it was loaded.
+     *
+     * @return true if an expected edit version was supplied
+     */
+    public boolean isVersionChecked() { return expectedVersion >= 0; }
+
+    /**
+     * Returns the ratings keyed by compliance rating field name.
+     *
+     * @return the ratings to write
+     */
+    public Map<String, Integer> getRatings() { return ratings; }
+
+    /**
+     * Sets a rating when one was provided. Negative values mean the section was not rated.
+     *
+     * @param fieldName the compliance rating field name
+     * @param rating the rating value
+     */
+    public void putRating(String fieldName, int rating) {
+        if (rating >= 0) {
+            ratings.put(fieldName, rating);
+        }
+    }
+
+    public String getRequestState() { return requestState; }
+
+    public void setRequestState(String requestState) { this.requestState = requestState; }
+
+    public String getFeedback() { return feedback; }
+
+    public void setFeedback(String feedback) { this.feedback = feedback; }
+}
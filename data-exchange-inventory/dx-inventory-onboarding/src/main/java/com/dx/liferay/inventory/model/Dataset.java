@@ -0,0 +1,49 @@
+package com.dx.liferay.inventory.model;
+
+import java.util.List;
+
+/**
+ * Immutable dataset as it moves from the review form or an uploaded workbook to the
+ * C_InventoryOnboarding object entry. Benefit ratings are held as primitives, 0 meaning
+ * not rated. Text fields are trimmed and never null when built through DatasetValuesMapper.
+ *
+ * @param actualDatasetId the stored dataset entry ID, or 0 for a new dataset
+ * @param formDatasetId the dataset's position on the review form, or 0 when not submitted from the form
+ * @param userLocale the locale the translatable fields were entered in
+ * @param attributes the dataset's attributes, in submitted order
+ * @param attributesLoaded false when the review screen never loaded the attributes, so they must be left untouched
+ * @param version the edit version of the stored entry the client loaded, or -1 to skip the version check
+ */
+public record Dataset(
+        long actualDatasetId,
+        int formDatasetId,
+        String userLocale,
+        String datasetName,
+        String datasetDescription,
+        String datasetClassification,
+        int userDemand,
+        int economicImpact,
+        int betterServices,
+        int betterGovernance,
+        String definedOwner,
+        String existingMetadata,
+        String alreadyPublished,
+        String openFormat,
+        String releaseYear,
+        String releaseMonth,
+        List<Attribute> attributes,
+        boolean attributesLoaded,
+        long version) {
+
+    public Dataset {
+        attributes = attributes != null ? List.copyOf(attributes) : List.of();
+    }
+
+    public boolean isExisting() {
+        return actualDatasetId > 0;
+    }
+
+    public boolean isVersionChecked() {
+        return isExisting() && version >= 0;
+    }
+}
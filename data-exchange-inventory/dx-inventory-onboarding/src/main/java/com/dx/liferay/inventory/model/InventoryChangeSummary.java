@@ -0,0 +1,84 @@
+package com.dx.liferay.inventory.model;
+
+import java.io.Serializable;
+
+/**
+ * Counts of the changes applied when datasets are updated from the review form or an
+ * uploaded workbook is merged into an existing inventory. Datasets and attributes whose
+ * values already match the stored entries are counted as unchanged and are not written.
+ */
+public class InventoryChangeSummary implements Serializable {
+    private int insertedDatasets;
+    private int updatedDatasets;
+    private int unchangedDatasets;
+    private int deletedDatasets;
+    private int insertedAttributes;
+    private int updatedAttributes;
+    private int unchangedAttributes;
+    private int deletedAttributes;
+
+    public int getInsertedDatasets() { return insertedDatasets; }
+
+    public int getUpdatedDatasets() { return updatedDatasets; }
+
+    public int getUnchangedDatasets() { return unchangedDatasets; }
+
+    public int getDeletedDatasets() { return deletedDatasets; }
+
+    public int getInsertedAttributes() { return insertedAttributes; }
+
+    public int getUpdatedAttributes() { return updatedAttributes; }
+
+    public int getUnchangedAttributes() { return unchangedAttributes; }
+
+    public int getDeletedAttributes() { return deletedAttributes; }
+
+    /**
+     * Returns the number of dataset and attribute entries that were written.
+     *
+     * @return the inserted, updated and deleted entry count
+     */
+    public int getTouchedEntries() {
+        return insertedDatasets + updatedDatasets + deletedDatasets + insertedAttributes + updatedAttributes +
+                deletedAttributes;
+    }
+
+    /**
+     * Returns the number of dataset and attribute entries skipped because nothing changed.
+     *
+     * @return the unchanged entry count
+     */
+    public int getSkippedEntries() { return unchangedDatasets + unchangedAttributes; }
+
+    public void addInsertedDataset() { insertedDatasets++; }
+
+    public void addUpdatedDataset() { updatedDatasets++; }
+
+    public void addUnchangedDataset() { unchangedDatasets++; }
+
+    public void addDeletedDatasets(int count) { deletedDatasets += count; }
+
+    public void addInsertedAttributes(int count) { insertedAttributes += count; }
+
+    public void addUpdatedAttribute() { updatedAttributes++; }
+
+    public void addUnchangedAttribute() { unchangedAttributes++; }
+
+    public void addDeletedAttributes(int count) { deletedAttributes += count; }
+
+    /**
+     * Adds the counts of another summary to this one, used to total the chunks of a submission.
+     *
+     * @param changeSummary the summary to add
+     */
+    public void add(InventoryChangeSummary changeSummary) {
+        insertedDatasets += changeSummary.insertedDatasets;
+        updatedDatasets += changeSummary.updatedDatasets;
+        unchangedDatasets += changeSummary.unchangedDatasets;
+        deletedDatasets += changeSummary.deletedDatasets;
+        insertedAttributes += changeSummary.insertedAttributes;
+        updatedAttributes += changeSummary.updatedAttributes;
+        unchangedAttributes += changeSummary.unchangedAttributes;
+        deletedAttributes += changeSummary.deletedAttributes;
+    }
+}
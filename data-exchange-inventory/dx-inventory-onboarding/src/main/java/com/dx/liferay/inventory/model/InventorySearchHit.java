@@ -0,0 +1,54 @@
+package com.dx.liferay.inventory.model;
+
+/**
+ * Represents a dataset or attribute matched by an inventory search, with the IDs needed
+ * to open it in the review screen and its relevance score.
+ */
+public class InventorySearchHit {
+    public static final String DATASET_TYPE = "dataset";
+    public static final String ATTRIBUTE_TYPE = "attribute";
+
+    private final long entryId;
+    private final String type;
+    private final long inventoryId;
+    private final long datasetId;
+    private final String title;
+    private final String description;
+    private final double score;
+
+    /**
+     * Constructs a new InventorySearchHit.
+     *
+     * @param entryId the matched dataset or attribute entry ID
+     * @param type the entry type, either {@link #DATASET_TYPE} or {@link #ATTRIBUTE_TYPE}
+     * @param inventoryId the owning inventory ID
+     * @param datasetId the dataset ID, equal to entryId for datasets
+     * @param title the dataset or attribute name
+     * @param description the dataset or attribute description
+     * @param score the relevance score, higher is better
+     */
+    public InventorySearchHit(long entryId, String type, long inventoryId, long datasetId, String title,
+                              String description, double score) {
+        this.entryId = entryId;
+        this.type = type;
+        this.inventoryId = inventoryId;
+        this.datasetId = datasetId;
+        this.title = title;
+        this.description = description;
+        this.score = score;
+    }
+
+    public long getEntryId() { return entryId; }
+
+    public String getType() { return type; }
+
+    public long getInventoryId() { return inventoryId; }
+
+    public long getDatasetId() { return datasetId; }
+
+    public String getTitle() { return title; }
+
+    public String getDescription() { return description; }
+
+    public double getScore() { return score; }
+}
@@ -0,0 +1,26 @@
+package com.dx.liferay.inventory.model;
+
+import java.util.List;
+
+/**
+ * Represents one page of inventory search hits together with the total number of matches.
+ */
+public class InventorySearchResults {
+    private final int total;
+    private final List<InventorySearchHit> hits;
+
+    /**
+     * Constructs a new InventorySearchResults.
+     *
+     * @param total the number of matching entries across all pages
+     * @param hits the hits of the requested page, best match first
+     */
+    public InventorySearchResults(int total, List<InventorySearchHit> hits) {
+        this.total = total;
+        this.hits = hits;
+    }
+
+    public int getTotal() { return total; }
+
+    public List<InventorySearchHit> getHits() { return hits; }
+}
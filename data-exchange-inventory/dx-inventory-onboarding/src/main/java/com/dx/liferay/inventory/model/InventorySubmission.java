@@ -0,0 +1,41 @@
+package com.dx.liferay.inventory.model;
+
+import java.util.List;
+
+/**
+ * Represents a submitted review form: the requested action, the inventory being updated
+ * and the extracted datasets, whether the form was posted as parameters or as JSON.
+ */
+public class InventorySubmission {
+    private final String actionType;
+    private final long inventoryId;
+    private final List<Dataset> datasets;
+    private final String idempotencyKey;
+
+    /**
+     * Constructs a new InventorySubmission.
+     *
+     * @param actionType the action type, either submit or draft
+     * @param inventoryId the inventory being updated, or 0 for a new inventory
+     * @param datasets the extracted datasets with their attributes
+     * @param idempotencyKey the key identifying repeats of the same submission, may be empty
+     */
+    public InventorySubmission(String actionType, long inventoryId, List<Dataset> datasets, String idempotencyKey) {
+        this.actionType = actionType;
+        this.inventoryId = inventoryId;
+        this.datasets = datasets;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getActionType() { return actionType; }
+
+    public long getInventoryId() { return inventoryId; }
+
+    public List<Dataset> getDatasets() { return datasets; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+
+    public boolean isDraft() {
+        return "draft".equals(actionType);
+    }
+}
@@ -0,0 +1,24 @@
+package com.dx.liferay.inventory.model;
+
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+/**
+ * Explicit settings for a ServiceContext built by InventoryServiceContextFactory, so every
+ * write states how it is indexed, permissioned and moved through workflow instead of
+ * inheriting whatever a shared context was last left with.
+ *
+ * @param indexingEnabled whether the written entry is reindexed as part of the write
+ * @param addGroupPermissions whether the entry gets the default site member permissions
+ * @param addGuestPermissions whether the entry gets the default guest permissions
+ * @param workflowAction the workflow action of the write, such as WorkflowConstants.ACTION_PUBLISH
+ */
+public record ServiceContextOptions(boolean indexingEnabled, boolean addGroupPermissions,
+                                    boolean addGuestPermissions, int workflowAction) {
+
+    /**
+     * The settings of a new ServiceContext: indexed, default permissions only, published.
+     */
+    public static final ServiceContextOptions DEFAULT =
+            new ServiceContextOptions(true, false, false, WorkflowConstants.ACTION_PUBLISH);
+
+}
@@ -1,14 +1,28 @@
 package com.dx.liferay.inventory.portlet;
 
+import com.dx.liferay.inventory.cache.SubmissionIdempotencyCache;
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.ChunkedSubmission;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.model.InventoryChangeSummary;
 import com.dx.liferay.inventory.model.ValidationResult;
+import com.dx.liferay.inventory.service.DatasetDuplicateService;
 import com.dx.liferay.inventory.service.ExcelParsingService;
+import com.dx.liferay.inventory.service.InventoryAnalyticsExportService;
+import com.dx.liferay.inventory.service.InventoryAutosaveService;
+import com.dx.liferay.inventory.service.InventoryExportService;
+import com.dx.liferay.inventory.service.InventoryLockService;
 import com.dx.liferay.inventory.service.InventoryReviewService;
+import com.dx.liferay.inventory.service.InventorySearchService;
 import com.dx.liferay.inventory.service.InventoryService;
+import com.dx.liferay.inventory.service.UploadAdmissionController;
 import com.dx.liferay.inventory.service.impl.InventoryServiceImpl;
 import com.dx.liferay.inventory.util.*;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
 import com.dx.liferay.inventory.exception.FileProcessingException;
 import com.liferay.object.model.ObjectDefinition;
+import com.liferay.petra.function.UnsafeBiConsumer;
+import com.liferay.petra.lang.SafeCloseable;
 import com.liferay.object.model.ObjectEntry;
 import com.liferay.object.service.ObjectDefinitionLocalService;
 import com.liferay.object.service.ObjectEntryLocalService;
@@ -25,15 +39,21 @@ import com.liferay.portal.kernel.portlet.bridges.mvc.MVCPortlet;
 import com.liferay.portal.kernel.repository.model.FileEntry;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
 import com.liferay.portal.kernel.upload.UploadPortletRequest;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.HttpHeaders;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.Portal;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.util.WebKeys;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import org.osgi.service.component.annotations.*;
 
 import javax.annotation.Resource;
 import javax.portlet.*;
+import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 /**
@@ -60,6 +80,8 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 
 	private static final Log _log = LogFactoryUtil.getLog(DxInventoryOnboardingPortlet.class);
 
+	private static final String SUBMISSION_SESSION_KEY_PREFIX = "inventorySubmission_";
+
 	/**
 	 * Renders the portlet view by setting up the sample document URL and delegating to the parent render method.
 	 *
@@ -98,14 +120,44 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 
 			switch (resourceID) {
 				case InventoryConstants.VALIDATE_FILE_RESOURCE_ID:
-					validateUploadedFile(resourceRequest, resourceResponse);
+					serveAdmittedUpload(resourceRequest, resourceResponse, this::validateUploadedFile);
 					break;
 				case InventoryConstants.PROCESS_FILE_RESOURCE_ID:
-					processUploadedFile(resourceRequest, resourceResponse);
+					serveAdmittedUpload(resourceRequest, resourceResponse, this::processUploadedFile);
+					break;
+				case InventoryConstants.MERGE_FILE_RESOURCE_ID:
+					serveAdmittedUpload(resourceRequest, resourceResponse, this::mergeUploadedFile);
+					break;
+				case InventoryConstants.OPEN_SUBMISSION_RESOURCE_ID:
+					openSubmission(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.SUBMIT_CHUNK_RESOURCE_ID:
+					submitChunk(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.COMMIT_SUBMISSION_RESOURCE_ID:
+					commitSubmission(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.AUTOSAVE_RESOURCE_ID:
+					autosave(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.PATCH_ENTRY_RESOURCE_ID:
+					patchEntry(resourceRequest, resourceResponse);
 					break;
 				case InventoryConstants.FETCH_DATA_RESOURCE_ID:
 					getInventoryData(resourceRequest,resourceResponse);
 					break;
+				case InventoryConstants.FETCH_DATASET_ATTRIBUTES_RESOURCE_ID:
+					getDatasetAttributes(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.SEARCH_INVENTORIES_RESOURCE_ID:
+					searchInventories(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.EXPORT_INVENTORY_RESOURCE_ID:
+					exportInventory(resourceRequest, resourceResponse);
+					break;
+				case InventoryConstants.EXPORT_ANALYTICS_RESOURCE_ID:
+					exportAnalytics(resourceRequest, resourceResponse);
+					break;
 				default:
 					super.serveResource(resourceRequest, resourceResponse);
 			}
@@ -114,6 +166,48 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 		}
 	}
 
+	/**
+	 * Runs a handler that parses an uploaded workbook once the upload admission controller
+	 * admits it. When the node is saturated the client gets 503 Service Unavailable with a
+	 * Retry-After header instead of waiting indefinitely.
+	 *
+	 * @param resourceRequest the resource request containing the uploaded file
+	 * @param resourceResponse the resource response for writing the handler's or the busy response
+	 * @param uploadHandler the handler that parses the upload
+	 */
+	private void serveAdmittedUpload(ResourceRequest resourceRequest, ResourceResponse resourceResponse,
+									 UnsafeBiConsumer<ResourceRequest, ResourceResponse, IOException> uploadHandler)
+			throws IOException {
+
+		SafeCloseable admission;
+
+		try {
+			admission = _uploadAdmissionController.admit(resourceRequest.getContentLengthLong());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			admission = null;
+		}
+
+		if (admission == null) {
+			int retryAfterSeconds = _uploadAdmissionController.getRetryAfterSeconds();
+
+			resourceResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			resourceResponse.setProperty(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+			JSONObject busyResponse = ResponseUtil.createErrorResponse(
+					"The server is busy processing other uploads. Please retry in " + retryAfterSeconds + " seconds.",
+					_jsonFactory);
+			busyResponse.put("retryAfter", retryAfterSeconds);
+
+			ResponseUtil.writeJsonResponse(resourceResponse, busyResponse);
+			return;
+		}
+
+		try (SafeCloseable safeCloseable = admission) {
+			uploadHandler.accept(resourceRequest, resourceResponse);
+		}
+	}
+
 	/**
 	 * Validates an uploaded file against a sample file template.
 	 * Checks file existence, compares structure with sample file, and returns validation results.
@@ -186,8 +280,18 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 			// Upload file to Document and Media after successful validation
 			 FileUtil.uploadFileToDocumentAndMedia(uploadedFile, fileName, mimeType, themeDisplay);
 
+			// Flag duplicate dataset names within the upload and against existing inventories
+			long inventoryId = ParamUtil.getLong(uploadPortletRequest, "inventoryId");
+			List<String> datasetNames = new ArrayList<>(datasets.size());
+			for (Map<String, Object> dataset : datasets) {
+				datasetNames.add(Objects.toString(dataset.get(sampleStructure.getDatasetNameField()), ""));
+			}
+			JSONObject duplicatesJson = _datasetDuplicateService.findDuplicates(
+					themeDisplay.getCompanyId(), datasetNames, inventoryId);
+
 			// Create and send success response
 			JSONObject responseJson = createSuccessResponse(datasets,sampleStructure);
+			responseJson.put("duplicates", duplicatesJson);
 			ResponseUtil.writeJsonResponse(resourceResponse, responseJson);
 
 		} catch (FileProcessingException e) {
@@ -201,6 +305,349 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 
 
 
+	/**
+	 * Merges an uploaded Excel file into an existing inventory on the server. The workbook is
+	 * diffed against the stored datasets and attributes, and only the resulting inserts,
+	 * updates and deletes are written, so the browser never has to load the merged datasets.
+	 * The inventory must belong to the user.
+	 *
+	 * @param resourceRequest the resource request containing the Excel file and inventoryId
+	 * @param resourceResponse the resource response for writing the merge summary as JSON
+	 */
+	private void mergeUploadedFile(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		try {
+			UploadPortletRequest uploadPortletRequest = _portal.getUploadPortletRequest(resourceRequest);
+			long inventoryId = ParamUtil.getLong(uploadPortletRequest, "inventoryId");
+			boolean removeMissingDatasets = ParamUtil.getBoolean(uploadPortletRequest, "removeMissingDatasets");
+
+			ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(inventoryId);
+			if (inventoryEntry == null || inventoryEntry.getUserId() != themeDisplay.getUserId() ||
+					inventoryEntry.getCompanyId() != themeDisplay.getCompanyId() ||
+					!InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(
+							_inventoryHelper.getObjectDefinitionName(inventoryEntry))) {
+
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Inventory cannot be edited", _jsonFactory);
+				return;
+			}
+
+			FileEntry sampleFileEntry = FileUtil.getSampleFileEntry(resourceRequest);
+
+			FileStructure sampleStructure = FileValidationUtil.readSampleFileWithRules(sampleFileEntry);
+			sampleStructure.identifySpecialFields();
+
+			List<Dataset> datasets = _excelParsingService.toDatasetValues(
+					_excelParsingService.parseExcelFile(uploadPortletRequest.getFile("file"), sampleFileEntry),
+					sampleStructure, themeDisplay.getLanguageId());
+
+			InventoryChangeSummary changeSummary = _inventoryService.mergeDatasets(
+					themeDisplay.getCompanyId(), themeDisplay.getUserId(), inventoryId, datasets,
+					themeDisplay.getLanguageId(), removeMissingDatasets);
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("summary", toSummaryJson(changeSummary));
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+
+		} catch (FileProcessingException e) {
+			_log.error("File merge failed: " + e.getMessage(), e);
+			ResponseUtil.writeErrorResponse(resourceResponse, e.getMessage(), _jsonFactory);
+		} catch (Exception e) {
+			_log.error("Unexpected error merging file: " + e.getMessage(), e);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to merge uploaded file. Please try again.", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Opens a chunked submission of the review form. A new inventory is created as a draft
+	 * straight away, so every chunk can be written against its C_InventoryDetails entry; an
+	 * existing inventory must belong to the user. The submission state is kept in the portlet
+	 * session until it is committed.
+	 *
+	 * The form's idempotency key is claimed before anything is written and held until the
+	 * submission is committed. A form whose submission already completed is answered with the
+	 * inventory it created and marked as repeated, so the client sends no chunks; a form whose
+	 * submission is still open is refused with 409.
+	 *
+	 * @param resourceRequest the resource request containing the inventoryId, or 0 for a new inventory, and the idempotencyKey
+	 * @param resourceResponse the resource response for writing the submission and inventory IDs as JSON
+	 */
+	private void openSubmission(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+		String idempotencyKey = ParamUtil.getString(resourceRequest, "idempotencyKey");
+		String claimToken = null;
+
+		try {
+			long inventoryId = ParamUtil.getLong(resourceRequest, "inventoryId");
+			boolean existingInventory = inventoryId > 0;
+
+			if (existingInventory) {
+				ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(inventoryId);
+
+				if (inventoryEntry == null || inventoryEntry.getUserId() != themeDisplay.getUserId() ||
+						!InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(
+								_inventoryHelper.getObjectDefinitionName(inventoryEntry))) {
+
+					resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+					ResponseUtil.writeErrorResponse(resourceResponse, "Inventory cannot be edited", _jsonFactory);
+					return;
+				}
+			}
+
+			if (_submissionIdempotencyCache.isValidKey(idempotencyKey)) {
+				claimToken = _submissionIdempotencyCache.claim(
+						themeDisplay.getCompanyId(), themeDisplay.getUserId(), idempotencyKey);
+
+				if (claimToken == null) {
+					writeRepeatedSubmissionResponse(resourceResponse, themeDisplay, idempotencyKey);
+					return;
+				}
+			} else {
+				idempotencyKey = null;
+			}
+
+			if (!existingInventory) {
+				inventoryId = _inventoryService.addInventory(themeDisplay.getCompanyId(), themeDisplay.getUserId(),
+						themeDisplay.getLanguageId(), true, resourceRequest).getObjectEntryId();
+			}
+
+			ChunkedSubmission submission = new ChunkedSubmission(UUID.randomUUID().toString(), inventoryId,
+					themeDisplay.getUserId(), existingInventory, idempotencyKey, claimToken);
+
+			resourceRequest.getPortletSession().setAttribute(
+					SUBMISSION_SESSION_KEY_PREFIX + submission.getSubmissionId(), submission);
+
+			// The submission now owns the claim and gives it up on commit or failure
+			claimToken = null;
+
+			_log.info("Opened chunked submission " + submission.getSubmissionId() + " for inventory ID: " + inventoryId);
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("submissionId", submission.getSubmissionId());
+			successResponse.put("inventoryId", inventoryId);
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (Exception e) {
+			_log.error("Error opening chunked submission: " + e.getMessage(), e);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to start the submission", _jsonFactory);
+		} finally {
+			if (claimToken != null) {
+				_submissionIdempotencyCache.release(
+						themeDisplay.getCompanyId(), themeDisplay.getUserId(), idempotencyKey, claimToken);
+			}
+		}
+	}
+
+	/**
+	 * Answers an open request whose idempotency key is taken: with the inventory its completed
+	 * submission created, or with 409 while that submission is still being written.
+	 */
+	private void writeRepeatedSubmissionResponse(ResourceResponse resourceResponse, ThemeDisplay themeDisplay,
+			String idempotencyKey) throws IOException {
+
+		Long existingInventoryId = _submissionIdempotencyCache.getInventoryId(
+				themeDisplay.getCompanyId(), themeDisplay.getUserId(), idempotencyKey);
+
+		_log.info("Ignoring repeated submission " + idempotencyKey +
+				(existingInventoryId != null ? " of inventory ID: " + existingInventoryId : " still in progress"));
+
+		if (existingInventoryId == null) {
+			resourceResponse.setStatus(HttpServletResponse.SC_CONFLICT);
+			ResponseUtil.writeErrorResponse(resourceResponse, "This inventory is already being saved", _jsonFactory);
+			return;
+		}
+
+		final JSONObject repeatedResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+		repeatedResponse.put("repeated", true);
+		repeatedResponse.put("inventoryId", existingInventoryId);
+
+		ResponseUtil.writeJsonResponse(resourceResponse, repeatedResponse);
+	}
+
+	/**
+	 * Writes one chunk of datasets of an open submission. The chunk is posted as a JSON body
+	 * in the same shape as a whole review form, together with its sequence number within the
+	 * submission, and is written in one transaction before the response is sent. A chunk that
+	 * failed left nothing behind and can be resent; a chunk whose sequence number was already
+	 * written, such as a retry after a lost response, is acknowledged without being written again.
+	 *
+	 * @param resourceRequest the resource request containing the submissionId, the chunkSequence and the chunk as JSON body
+	 * @param resourceResponse the resource response for writing the chunk's change counts as JSON
+	 */
+	private void submitChunk(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		String submissionId = ParamUtil.getString(resourceRequest, "submissionId");
+		int chunkSequence = ParamUtil.getInteger(resourceRequest, "chunkSequence", -1);
+
+		try {
+			ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+			ChunkedSubmission submission = getChunkedSubmission(resourceRequest, submissionId);
+
+			if (submission == null || submission.getUserId() != themeDisplay.getUserId()) {
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Submission not found", _jsonFactory);
+				return;
+			}
+
+			if (chunkSequence < 0) {
+				ResponseUtil.writeErrorResponse(resourceResponse, "Missing chunk sequence number", _jsonFactory);
+				return;
+			}
+
+			List<Dataset> datasets = _formExtractionUtil.extractSubmission(
+					resourceRequest, themeDisplay.getLanguageId()).getDatasets();
+
+			if (datasets.size() > InventoryConstants.MAX_SUBMISSION_CHUNK_SIZE) {
+				ResponseUtil.writeErrorResponse(resourceResponse, "Chunk exceeds the maximum of " +
+						InventoryConstants.MAX_SUBMISSION_CHUNK_SIZE + " datasets", _jsonFactory);
+				return;
+			}
+
+			InventoryChangeSummary chunkSummary = new InventoryChangeSummary();
+			boolean repeatedChunk;
+
+			// The sequence check and the write share the inventory lock, so a resent chunk racing its original waits for it
+			try (SafeCloseable inventoryLock = _inventoryLockService.lock(submission.getInventoryId())) {
+				repeatedChunk = submission.isChunkProcessed(chunkSequence);
+
+				if (!repeatedChunk) {
+					chunkSummary = _inventoryService.addDatasetChunk(themeDisplay.getCompanyId(),
+							themeDisplay.getUserId(), submission.getInventoryId(), datasets,
+							themeDisplay.getLanguageId(), submission.getProcessedDatasetIds());
+
+					submission.addChunk(chunkSequence, chunkSummary);
+
+					// Store the state again so session replication sees the updated dataset IDs and sequence numbers
+					resourceRequest.getPortletSession().setAttribute(
+							SUBMISSION_SESSION_KEY_PREFIX + submissionId, submission);
+				}
+			}
+
+			if (repeatedChunk) {
+				_log.info("Ignoring repeated chunk " + chunkSequence + " of submission " + submissionId);
+			}
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("chunkCount", submission.getChunkCount());
+			successResponse.put("repeated", repeatedChunk);
+			successResponse.put("summary", toSummaryJson(chunkSummary));
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (ConcurrentInventoryUpdateException e) {
+			_log.warn(e.getMessage());
+			releaseIdempotencyClaim(resourceRequest, submissionId);
+			resourceResponse.setStatus(HttpServletResponse.SC_CONFLICT);
+			ResponseUtil.writeErrorResponse(resourceResponse,
+					"The inventory was changed by another user. Reload it to see the latest values.", _jsonFactory);
+		} catch (Exception e) {
+			_log.error("Error writing chunk of submission " + submissionId + ": " + e.getMessage(), e);
+			releaseIdempotencyClaim(resourceRequest, submissionId);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to save the datasets", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Commits an open submission: deletes the stored datasets of an updated inventory that no
+	 * chunk referred to, refreshes the compliance score and, unless saved as a draft, moves the
+	 * inventory from draft to pending review.
+	 *
+	 * @param resourceRequest the resource request containing the submissionId and actionType
+	 * @param resourceResponse the resource response for writing the submission's change counts as JSON
+	 */
+	private void commitSubmission(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		String submissionId = ParamUtil.getString(resourceRequest, "submissionId");
+
+		try {
+			ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+			ChunkedSubmission submission = getChunkedSubmission(resourceRequest, submissionId);
+
+			if (submission == null || submission.getUserId() != themeDisplay.getUserId()) {
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Submission not found", _jsonFactory);
+				return;
+			}
+
+			boolean isDraft = "draft".equals(ParamUtil.getString(resourceRequest, "actionType", "submit"));
+
+			try (SafeCloseable inventoryLock = _inventoryLockService.lock(submission.getInventoryId())) {
+				_inventoryAutosaveService.discard(submission.getInventoryId());
+
+				submission.getChangeSummary().add(_inventoryService.completeChunkedSubmission(
+						themeDisplay.getCompanyId(), submission.getInventoryId(), submission.getProcessedDatasetIds(),
+						submission.isExistingInventory()));
+
+				if (!isDraft) {
+					_inventoryService.updateInventoryStatus(submission.getInventoryId(), false, resourceRequest);
+				}
+			}
+
+			resourceRequest.getPortletSession().removeAttribute(SUBMISSION_SESSION_KEY_PREFIX + submissionId);
+
+			if (submission.getClaimToken() != null) {
+				_submissionIdempotencyCache.complete(themeDisplay.getCompanyId(), themeDisplay.getUserId(),
+						submission.getIdempotencyKey(), submission.getClaimToken(), submission.getInventoryId());
+			}
+
+			_log.info("Committed chunked submission " + submissionId + " with " + submission.getChunkCount() +
+					" chunks for inventory ID: " + submission.getInventoryId());
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("inventoryId", submission.getInventoryId());
+			successResponse.put("summary", toSummaryJson(submission.getChangeSummary()));
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (Exception e) {
+			_log.error("Error committing submission " + submissionId + ": " + e.getMessage(), e);
+			releaseIdempotencyClaim(resourceRequest, submissionId);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to submit the inventory", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Gives up the idempotency key claim of a chunked submission that failed, so the form can
+	 * be submitted again.
+	 */
+	private void releaseIdempotencyClaim(ResourceRequest resourceRequest, String submissionId) {
+		ChunkedSubmission submission = getChunkedSubmission(resourceRequest, submissionId);
+
+		if (submission != null && submission.getClaimToken() != null) {
+			ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			_submissionIdempotencyCache.release(themeDisplay.getCompanyId(), submission.getUserId(),
+					submission.getIdempotencyKey(), submission.getClaimToken());
+		}
+	}
+
+	private ChunkedSubmission getChunkedSubmission(ResourceRequest resourceRequest, String submissionId) {
+		if (Validator.isNull(submissionId)) {
+			return null;
+		}
+
+		return (ChunkedSubmission) resourceRequest.getPortletSession().getAttribute(
+				SUBMISSION_SESSION_KEY_PREFIX + submissionId);
+	}
+
+	private JSONObject toSummaryJson(InventoryChangeSummary changeSummary) {
+		JSONObject summaryJson = _jsonFactory.createJSONObject();
+		summaryJson.put("insertedDatasets", changeSummary.getInsertedDatasets());
+		summaryJson.put("updatedDatasets", changeSummary.getUpdatedDatasets());
+		summaryJson.put("unchangedDatasets", changeSummary.getUnchangedDatasets());
+		summaryJson.put("deletedDatasets", changeSummary.getDeletedDatasets());
+		summaryJson.put("insertedAttributes", changeSummary.getInsertedAttributes());
+		summaryJson.put("updatedAttributes", changeSummary.getUpdatedAttributes());
+		summaryJson.put("deletedAttributes", changeSummary.getDeletedAttributes());
+		return summaryJson;
+	}
+
 	/**
 	 * Creates a JSON success response containing processed datasets and field metadata.
 	 *
@@ -284,6 +731,351 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 	}
 
 
+	/**
+	 * Serves one page of attributes for a dataset, used by the review screen when a dataset is opened.
+	 * Only datasets of inventories the user can see on the landing page may be read.
+	 *
+	 * @param resourceRequest the resource request containing datasetId, start and delta parameters
+	 * @param resourceResponse the resource response for writing JSON output
+	 */
+	public void getDatasetAttributes(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		final long datasetId = ParamUtil.getLong(resourceRequest, "datasetId");
+		final int start = Math.max(0, ParamUtil.getInteger(resourceRequest, "start"));
+		final int delta = Math.min(
+				ParamUtil.getInteger(resourceRequest, "delta", InventoryConstants.DEFAULT_ATTRIBUTE_PAGE_SIZE),
+				InventoryConstants.MAX_ATTRIBUTE_PAGE_SIZE);
+
+		if (datasetId <= 0 || delta <= 0) {
+			ResponseUtil.writeErrorResponse(resourceResponse, "Invalid attribute page request", _jsonFactory);
+			return;
+		}
+
+		try {
+			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			if (!isVisibleDataset(themeDisplay, datasetId)) {
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Not allowed to view this dataset", _jsonFactory);
+				return;
+			}
+
+			final JSONObject attributesPage = _inventoryReviewService.getDatasetAttributesPage(
+					datasetId, themeDisplay.getCompanyId(), start, delta);
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("page", attributesPage);
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (Exception e) {
+			_log.error("Error fetching attributes for dataset ID: " + datasetId, e);
+			ResponseUtil.writeErrorResponse(resourceResponse,
+					"Failed to retrieve dataset attributes", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Checks that a dataset belongs to the user's company and to an inventory the user can see,
+	 * applying the same rules as an inventory export to the dataset's owning inventory.
+	 */
+	private boolean isVisibleDataset(ThemeDisplay themeDisplay, long datasetId) {
+		final ObjectEntry datasetEntry = _objectEntryLocalService.fetchObjectEntry(datasetId);
+
+		if (datasetEntry == null || datasetEntry.getCompanyId() != themeDisplay.getCompanyId() ||
+				!InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(
+						_inventoryHelper.getObjectDefinitionName(datasetEntry))) {
+
+			return false;
+		}
+
+		final ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(
+				_inventoryHelper.getOwningInventoryId(datasetEntry));
+
+		return inventoryEntry != null && inventoryEntry.getCompanyId() == themeDisplay.getCompanyId() &&
+				InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(
+						_inventoryHelper.getObjectDefinitionName(inventoryEntry)) &&
+				_inventorySearchService.isVisibleInventory(themeDisplay.getUserId(), inventoryEntry);
+	}
+
+	/**
+	 * Applies a JSON patch to a single dataset or attribute of an inventory owned by the user.
+	 * The patch parameter holds the entry ID, the version the client loaded and the changed
+	 * field values, for example {"entryId": 123, "version": 4, "values": {"datasetDescription": "..."}}.
+	 * A patch of an entry changed by someone else is rejected with 409 Conflict.
+	 *
+	 * @param resourceRequest the resource request containing the patch parameter
+	 * @param resourceResponse the resource response for writing the changed field names and new version as JSON
+	 */
+	public void patchEntry(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		long entryId = 0;
+
+		try {
+			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			JSONObject patchJson = _jsonFactory.createJSONObject(ParamUtil.getString(resourceRequest, "patch"));
+			entryId = patchJson.getLong("entryId");
+			JSONObject valuesJson = patchJson.getJSONObject("values");
+
+			if (entryId <= 0 || valuesJson == null || valuesJson.length() == 0) {
+				ResponseUtil.writeErrorResponse(resourceResponse, "Invalid patch request", _jsonFactory);
+				return;
+			}
+
+			ObjectEntry objectEntry = _objectEntryLocalService.fetchObjectEntry(entryId);
+			ObjectEntry inventoryEntry = objectEntry != null ?
+					_objectEntryLocalService.fetchObjectEntry(_inventoryHelper.getOwningInventoryId(objectEntry)) : null;
+
+			if (inventoryEntry == null || inventoryEntry.getUserId() != themeDisplay.getUserId()) {
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Entry cannot be edited", _jsonFactory);
+				return;
+			}
+
+			Map<String, String> values = new HashMap<>();
+			for (String fieldName : valuesJson.keySet()) {
+				values.put(fieldName, valuesJson.getString(fieldName));
+			}
+
+			List<String> changedFields = _inventoryService.patchEntry(themeDisplay.getCompanyId(),
+					themeDisplay.getUserId(), entryId, values, themeDisplay.getLanguageId(),
+					patchJson.getLong(DatasetValuesMapper.VERSION_FIELD, -1));
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("entryId", entryId);
+			successResponse.put("changedFields", _jsonFactory.createJSONArray(changedFields));
+			successResponse.put(DatasetValuesMapper.VERSION_FIELD, GetterUtil.getLong(
+					_objectEntryLocalService.getObjectEntry(entryId).getValues().get(
+							InventoryConstants.EDIT_VERSION_FIELD)));
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (ConcurrentInventoryUpdateException e) {
+			_log.warn(e.getMessage());
+			resourceResponse.setStatus(HttpServletResponse.SC_CONFLICT);
+			ResponseUtil.writeErrorResponse(resourceResponse,
+					"This entry was changed by another user. Reload the inventory to see the latest values.", _jsonFactory);
+		} catch (Exception e) {
+			_log.error("Error patching entry ID: " + entryId, e);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to save the change", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Queues autosaved field edits of a draft inventory owned by the user. The deltas parameter
+	 * maps entry IDs to changed field values and the edit version the client loaded, for example
+	 * {"123": {"datasetDescription": "...", "version": 4}}. The edits are coalesced and written on
+	 * the next flush, so the response does not wait for any write.
+	 *
+	 * @param resourceRequest the resource request containing the inventoryId and deltas parameters
+	 * @param resourceResponse the resource response for writing the number of queued entries as JSON
+	 */
+	public void autosave(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		long inventoryId = ParamUtil.getLong(resourceRequest, "inventoryId");
+
+		try {
+			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(inventoryId);
+			if (inventoryEntry == null || inventoryEntry.getUserId() != themeDisplay.getUserId() ||
+					inventoryEntry.getStatus() != WorkflowConstants.STATUS_DRAFT) {
+
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Only your draft inventories are autosaved", _jsonFactory);
+				return;
+			}
+
+			JSONObject deltasJson = _jsonFactory.createJSONObject(ParamUtil.getString(resourceRequest, "deltas"));
+
+			Map<Long, Map<String, String>> deltas = new HashMap<>();
+			for (String entryId : deltasJson.keySet()) {
+				JSONObject valuesJson = deltasJson.getJSONObject(entryId);
+				if (valuesJson == null || GetterUtil.getLong(entryId) <= 0) {
+					continue;
+				}
+
+				Map<String, String> values = new HashMap<>();
+				for (String fieldName : valuesJson.keySet()) {
+					values.put(fieldName, valuesJson.getString(fieldName));
+				}
+				deltas.put(GetterUtil.getLong(entryId), values);
+			}
+
+			_inventoryAutosaveService.queue(themeDisplay.getCompanyId(), themeDisplay.getUserId(), inventoryId,
+					themeDisplay.getLanguageId(), deltas);
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("queuedEntries", deltas.size());
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (Exception e) {
+			_log.error("Error queuing autosave for inventory ID: " + inventoryId, e);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to autosave the draft", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Serves one page of ranked dataset and attribute matches across the inventories the user can see.
+	 *
+	 * @param resourceRequest the resource request containing keywords, start and delta parameters
+	 * @param resourceResponse the resource response for writing JSON output
+	 */
+	public void searchInventories(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		final String keywords = ParamUtil.getString(resourceRequest, "keywords").trim();
+		final int start = Math.max(0, ParamUtil.getInteger(resourceRequest, "start"));
+		final int delta = Math.min(
+				ParamUtil.getInteger(resourceRequest, "delta", InventoryConstants.DEFAULT_SEARCH_PAGE_SIZE),
+				InventoryConstants.MAX_SEARCH_PAGE_SIZE);
+
+		if (Validator.isBlank(keywords) || delta <= 0) {
+			ResponseUtil.writeErrorResponse(resourceResponse, "Invalid search request", _jsonFactory);
+			return;
+		}
+
+		try {
+			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+			final JSONObject searchResults = _inventorySearchService.search(
+					themeDisplay.getCompanyId(), themeDisplay.getUserId(), keywords, start, delta);
+
+			final JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+			successResponse.put("results", searchResults);
+
+			ResponseUtil.writeJsonResponse(resourceResponse, successResponse);
+		} catch (Exception e) {
+			_log.error("Error searching inventories for: " + keywords, e);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Failed to search inventories", _jsonFactory);
+		}
+	}
+
+	/**
+	 * Streams an inventory as an XLSX file in the sample template layout. Only inventories
+	 * the user can see on the landing page may be exported.
+	 *
+	 * @param resourceRequest the resource request containing the inventoryId parameter
+	 * @param resourceResponse the resource response the workbook is written to
+	 */
+	public void exportInventory(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		final long inventoryId = ParamUtil.getLong(resourceRequest, "inventoryId");
+
+		if (inventoryId <= 0) {
+			ResponseUtil.writeErrorResponse(resourceResponse, "Invalid inventory", _jsonFactory);
+			return;
+		}
+
+		try {
+			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+			final ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(inventoryId);
+
+			if (inventoryEntry == null || inventoryEntry.getCompanyId() != themeDisplay.getCompanyId() ||
+					!InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(
+							_inventoryHelper.getObjectDefinitionName(inventoryEntry)) ||
+					!_inventorySearchService.isVisibleInventory(themeDisplay.getUserId(), inventoryEntry)) {
+
+				resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+				ResponseUtil.writeErrorResponse(resourceResponse, "Not allowed to export this inventory", _jsonFactory);
+				return;
+			}
+
+			final String inventoryName = _inventoryHelper.getInventoryName(inventoryEntry);
+
+			resourceResponse.setContentType(InventoryConstants.XLSX_CONTENT_TYPE);
+			resourceResponse.setProperty(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" +
+					(Validator.isNotNull(inventoryName) ? inventoryName : "inventory-" + inventoryId) + ".xlsx\"");
+
+			_inventoryExportService.exportInventory(themeDisplay.getCompanyId(), inventoryId,
+					FileUtil.getSampleFileEntry(resourceRequest), resourceResponse.getPortletOutputStream());
+		} catch (Exception e) {
+			_log.error("Error exporting inventory ID: " + inventoryId, e);
+
+			if (!resourceResponse.isCommitted()) {
+				resourceResponse.reset();
+				ResponseUtil.writeErrorResponse(resourceResponse, "Failed to export inventory", _jsonFactory);
+			}
+		}
+	}
+
+	/**
+	 * Streams every inventory, dataset and attribute of the company as NDJSON or CSV for analytics.
+	 * Restricted to company administrators.
+	 *
+	 * @param resourceRequest the resource request containing the format and optional modifiedSince parameters
+	 * @param resourceResponse the resource response the records are written to
+	 */
+	public void exportAnalytics(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+			throws IOException {
+
+		final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
+
+		if (!themeDisplay.getPermissionChecker().isCompanyAdmin()) {
+			resourceResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+			ResponseUtil.writeErrorResponse(resourceResponse, "Not allowed to export inventories", _jsonFactory);
+			return;
+		}
+
+		final String format = ParamUtil.getString(
+				resourceRequest, "format", InventoryAnalyticsExportService.NDJSON_FORMAT);
+		final String modifiedSinceParam = ParamUtil.getString(resourceRequest, "modifiedSince");
+
+		if (!InventoryAnalyticsExportService.NDJSON_FORMAT.equals(format) &&
+				!InventoryAnalyticsExportService.CSV_FORMAT.equals(format)) {
+
+			ResponseUtil.writeErrorResponse(resourceResponse, "Unsupported export format: " + format, _jsonFactory);
+			return;
+		}
+
+		final Date modifiedSince;
+		try {
+			modifiedSince = parseModifiedSince(modifiedSinceParam);
+		} catch (DateTimeParseException e) {
+			ResponseUtil.writeErrorResponse(resourceResponse,
+					"modifiedSince must be an ISO-8601 instant or epoch milliseconds", _jsonFactory);
+			return;
+		}
+
+		try {
+			final boolean csv = InventoryAnalyticsExportService.CSV_FORMAT.equals(format);
+
+			resourceResponse.setContentType(
+					csv ? InventoryConstants.CSV_CONTENT_TYPE : InventoryConstants.NDJSON_CONTENT_TYPE);
+			resourceResponse.setCharacterEncoding(InventoryConstants.DEFAULT_ENCODING);
+			resourceResponse.setProperty(HttpHeaders.CONTENT_DISPOSITION,
+					"attachment; filename=\"inventories." + format + "\"");
+
+			_inventoryAnalyticsExportService.export(
+					themeDisplay.getCompanyId(), format, modifiedSince, resourceResponse.getWriter());
+		} catch (Exception e) {
+			_log.error("Error exporting inventories for analytics", e);
+
+			if (!resourceResponse.isCommitted()) {
+				resourceResponse.reset();
+				ResponseUtil.writeErrorResponse(resourceResponse, "Failed to export inventories", _jsonFactory);
+			}
+		}
+	}
+
+	/**
+	 * Parses a modifiedSince parameter given as an ISO-8601 instant or as epoch milliseconds.
+	 *
+	 * @return the parsed date, or null if the parameter is blank
+	 */
+	private Date parseModifiedSince(String modifiedSince) {
+		if (Validator.isBlank(modifiedSince)) {
+			return null;
+		}
+		if (Validator.isNumber(modifiedSince)) {
+			return new Date(Long.parseLong(modifiedSince));
+		}
+		return Date.from(Instant.parse(modifiedSince));
+	}
+
 	public void getInventoryData(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
 			throws IOException {
 
@@ -293,6 +1085,18 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 			final long inventoryId = Long.parseLong(inventoryIdParam);
 			final ThemeDisplay themeDisplay = (ThemeDisplay) resourceRequest.getAttribute(WebKeys.THEME_DISPLAY);
 
+			// Answer repeat opens with 304 when nothing in the inventory tree has changed
+			final String versionTag = _inventoryReviewService.getInventoryVersionTag(
+					inventoryId, themeDisplay.getCompanyId());
+
+			resourceResponse.setProperty(HttpHeaders.ETAG, versionTag);
+			resourceResponse.setProperty(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+			if (versionTag.equals(resourceRequest.getProperty(HttpHeaders.IF_NONE_MATCH))) {
+				resourceResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+
 			final JSONObject inventoryData = _inventoryReviewService.getCompleteInventoryData(
 					inventoryId, themeDisplay.getCompanyId());
 
@@ -314,15 +1118,48 @@ public class DxInventoryOnboardingPortlet extends MVCPortlet {
 	@Reference
 	JSONFactory _jsonFactory;
 
+	@Reference
+	DatasetDuplicateService _datasetDuplicateService;
+
 	@Reference
 	ExcelParsingService _excelParsingService;
 
+	@Reference
+	FormExtractionUtil _formExtractionUtil;
+
 	@Reference
 	InventoryService _inventoryService;
 
 	@Reference
 	InventoryReviewService _inventoryReviewService;
 
+	@Reference
+	InventoryAnalyticsExportService _inventoryAnalyticsExportService;
+
+	@Reference
+	InventoryAutosaveService _inventoryAutosaveService;
+
+	@Reference
+	InventoryExportService _inventoryExportService;
+
+	@Reference
+	InventoryHelper _inventoryHelper;
+
+	@Reference
+	InventoryLockService _inventoryLockService;
+
+	@Reference
+	InventorySearchService _inventorySearchService;
+
+	@Reference
+	ObjectEntryLocalService _objectEntryLocalService;
+
+	@Reference
+	SubmissionIdempotencyCache _submissionIdempotencyCache;
+
+	@Reference
+	UploadAdmissionController _uploadAdmissionController;
+
 
 
 }
\ No newline at end of file
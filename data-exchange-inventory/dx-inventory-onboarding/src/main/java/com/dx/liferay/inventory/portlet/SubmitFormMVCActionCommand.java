@@ -1,26 +1,33 @@
 package com.dx.liferay.inventory.portlet;
 
+import com.dx.liferay.inventory.cache.SubmissionIdempotencyCache;
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.model.InventorySubmission;
 import com.dx.liferay.inventory.service.InventoryService;
 import com.dx.liferay.inventory.util.FormExtractionUtil;
+import com.dx.liferay.inventory.util.ResponseUtil;
 import com.liferay.object.model.ObjectDefinition;
 import com.liferay.object.model.ObjectEntry;
 import com.liferay.object.model.ObjectField;
 import com.liferay.object.service.ObjectDefinitionLocalService;
 import com.liferay.object.service.ObjectDefinitionLocalServiceUtil;
 import com.liferay.object.service.ObjectFieldLocalServiceUtil;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.portlet.bridges.mvc.MVCActionCommand;
 import com.liferay.portal.kernel.security.auth.AuthTokenUtil;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
-import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.util.WebKeys;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import javax.portlet.ActionRequest;
 import javax.portlet.ActionResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,7 +35,12 @@ import java.util.stream.Collectors;
 /**
  * MVC Action Command that handles form submission for adding inventory datasets.
  * Processes form data to extract multiple datasets with their attributes and metadata,
- * then delegates to the inventory service for persistence.
+ * then delegates to the inventory service for persistence. A submission repeated with the
+ * same idempotency key, by a double-click or a retried request, is not written again.
+ *
+ * The form is posted with fetch, so the outcome is answered as JSON with a success flag and
+ * the inventory ID, or an error message with HTTP 400 for an empty submission and 500 for a
+ * failed save, and the form only navigates away once the save succeeded.
  */
 @Component(
         immediate = true,
@@ -53,47 +65,104 @@ public class SubmitFormMVCActionCommand implements MVCActionCommand {
      * and delegating to the inventory service for persistence.
      *
      * @param actionRequest the action request containing form parameters and user context
-     * @param actionResponse the action response for potential redirects or response data
-     * @return true to indicate successful processing regardless of outcome
+     * @param actionResponse the action response the JSON outcome is written to
+     * @return true if the inventory was saved or the submission was a repeat
      */
     @Override
     public boolean processAction(ActionRequest actionRequest, ActionResponse actionResponse) {
-        try{
+        ThemeDisplay themeDisplay = (ThemeDisplay) actionRequest.getAttribute(WebKeys.THEME_DISPLAY);
+        String idempotencyKey = null;
+        String claimToken = null;
+
+        try {
             _log.info("Processing action command");
-            ThemeDisplay themeDisplay = (ThemeDisplay) actionRequest.getAttribute(WebKeys.THEME_DISPLAY);
-
-            String actionType = ParamUtil.getString(actionRequest, "actionType", "submit");
-            boolean isDraft = "draft".equals(actionType);
-
-            _log.info("Processing action with type: " + actionType + " (isDraft: " + isDraft + ")");
-            List<Map<String, Object>> datasets = _formExtractionUtil.extractDatasetsFromRequest(actionRequest,themeDisplay.getLanguageId());
-
-            if (!datasets.isEmpty()) {
-
-                ObjectEntry inventoryEntry = _inventoryService.addInventory(
-                        themeDisplay.getCompanyId(),
-                        themeDisplay.getUserId(),
-                        themeDisplay.getLanguageId(),
-                        isDraft,actionRequest);
-
-                // Process all datasets
-                _inventoryService.addMultipleDatasets(
-                        themeDisplay.getCompanyId(),
-                        themeDisplay.getUserId(),
-                        datasets,
-                        inventoryEntry.getObjectEntryId()
-                );
-                _log.info("Successfully processed " + datasets.size() + " datasets");
-            } else {
+
+            InventorySubmission submission = _formExtractionUtil.extractSubmission(actionRequest, themeDisplay.getLanguageId());
+            boolean isDraft = submission.isDraft();
+
+            if (_submissionIdempotencyCache.isValidKey(submission.getIdempotencyKey())) {
+                claimToken = _submissionIdempotencyCache.claim(themeDisplay.getCompanyId(), themeDisplay.getUserId(),
+                        submission.getIdempotencyKey());
+
+                if (claimToken == null) {
+                    Long existingInventoryId = _submissionIdempotencyCache.getInventoryId(
+                            themeDisplay.getCompanyId(), themeDisplay.getUserId(), submission.getIdempotencyKey());
+
+                    _log.info("Ignoring repeated submission " + submission.getIdempotencyKey() +
+                            (existingInventoryId != null ? " of inventory ID: " + existingInventoryId : " still in progress"));
+
+                    JSONObject repeatedResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+                    repeatedResponse.put("repeated", true);
+                    if (existingInventoryId != null) {
+                        repeatedResponse.put("inventoryId", existingInventoryId);
+                    }
+
+                    writeResponse(actionRequest, actionResponse, HttpServletResponse.SC_OK, repeatedResponse);
+                    return true;
+                }
+
+                idempotencyKey = submission.getIdempotencyKey();
+            }
+
+            _log.info("Processing action with type: " + submission.getActionType() + " (isDraft: " + isDraft + ")");
+            List<Dataset> datasets = submission.getDatasets();
+
+            if (datasets.isEmpty()) {
                 _log.warn("No datasets found in request");
+                writeResponse(actionRequest, actionResponse, HttpServletResponse.SC_BAD_REQUEST,
+                        ResponseUtil.createErrorJson("Add at least one dataset before saving", _jsonFactory));
+                return false;
+            }
+
+            ObjectEntry inventoryEntry = _inventoryService.addInventory(
+                    themeDisplay.getCompanyId(),
+                    themeDisplay.getUserId(),
+                    themeDisplay.getLanguageId(),
+                    isDraft,actionRequest);
+
+            // Process all datasets
+            _inventoryService.addMultipleDatasets(
+                    themeDisplay.getCompanyId(),
+                    themeDisplay.getUserId(),
+                    datasets,
+                    inventoryEntry.getObjectEntryId()
+            );
+            _log.info("Successfully processed " + datasets.size() + " datasets");
+
+            if (idempotencyKey != null) {
+                _submissionIdempotencyCache.complete(themeDisplay.getCompanyId(), themeDisplay.getUserId(),
+                        idempotencyKey, claimToken, inventoryEntry.getObjectEntryId());
+                idempotencyKey = null;
             }
 
-        }catch (Exception e) {
-            _log.error(e);
+            JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+            successResponse.put("inventoryId", inventoryEntry.getObjectEntryId());
+
+            writeResponse(actionRequest, actionResponse, HttpServletResponse.SC_OK, successResponse);
+        } catch (Exception e) {
+            _log.error("Error processing add dataset action", e);
+            writeResponse(actionRequest, actionResponse, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    ResponseUtil.createErrorJson("Failed to save the inventory", _jsonFactory));
+            return false;
+        } finally {
+            // A failed or empty submission gives up its key, so a retry is written
+            if (idempotencyKey != null) {
+                _submissionIdempotencyCache.release(themeDisplay.getCompanyId(), themeDisplay.getUserId(),
+                        idempotencyKey, claimToken);
+            }
         }
         return true;
     }
 
+    private void writeResponse(ActionRequest actionRequest, ActionResponse actionResponse, int status,
+                               JSONObject json) {
+        try {
+            ResponseUtil.writeJsonResponse(actionRequest, actionResponse, json, status);
+        } catch (IOException e) {
+            _log.error("Failed to write add dataset response", e);
+        }
+    }
+
 
     @Reference
     private FormExtractionUtil _formExtractionUtil;
@@ -101,4 +170,10 @@ public class SubmitFormMVCActionCommand implements MVCActionCommand {
     @Reference
     private InventoryService _inventoryService;
 
+    @Reference
+    private JSONFactory _jsonFactory;
+
+    @Reference
+    private SubmissionIdempotencyCache _submissionIdempotencyCache;
+
 }
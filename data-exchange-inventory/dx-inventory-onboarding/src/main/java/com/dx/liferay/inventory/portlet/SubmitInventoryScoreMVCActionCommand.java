@@ -1,26 +1,25 @@
 package com.dx.liferay.inventory.portlet;
 
 import com.dx.liferay.inventory.constants.InventoryConstants;
-import com.liferay.object.model.ObjectEntry;
-import com.liferay.object.service.ObjectEntryLocalService;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.model.ComplianceRatingUpdate;
+import com.dx.liferay.inventory.service.InventoryComplianceService;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.portlet.bridges.mvc.MVCActionCommand;
-import com.liferay.portal.kernel.service.ServiceContext;
-import com.liferay.portal.kernel.service.ServiceContextFactory;
+import com.liferay.portal.kernel.servlet.SessionErrors;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
 import com.liferay.portal.kernel.util.ParamUtil;
+import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.util.WebKeys;
-import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
 import javax.portlet.ActionRequest;
 import javax.portlet.ActionResponse;
-import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component(
         immediate = true,
@@ -45,6 +44,7 @@ public class SubmitInventoryScoreMVCActionCommand implements MVCActionCommand {
 
         ThemeDisplay themeDisplay = (ThemeDisplay) actionRequest.getAttribute(WebKeys.THEME_DISPLAY);
         long inventoryId = ParamUtil.getLong(actionRequest, "inventoryId");
+        long[] inventoryIds = ParamUtil.getLongValues(actionRequest, "inventoryIds");
         String requestState = ParamUtil.getString(actionRequest, "overallRequestState");
         String feedback = ParamUtil.getString(actionRequest, "overallFeedback");
 
@@ -58,36 +58,40 @@ public class SubmitInventoryScoreMVCActionCommand implements MVCActionCommand {
         _log.info("Ratings - Inventory: " + inventoryRating + ", Prioritization: " + prioritizationRating +
                 ", Classification: " + classificationRating + ", Release Plan: " + releasePlanRating);
 
-        // Get the existing inventory object entry
-        ObjectEntry inventoryEntry = null;
-        try {
-            inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
-            // Prepare the values map with existing values
-            Map<String, Serializable> values = new HashMap<>(inventoryEntry.getValues());
+        // A single review screen may score several inventories at once
+        if (inventoryIds.length == 0) {
+            inventoryIds = new long[] {inventoryId};
+        }
 
-            // Update compliance ratings (only if provided)
-            if (inventoryRating >= 0) {
-                values.put("inventoryComplianceRating", inventoryRating);
-            }
-            if (prioritizationRating >= 0) {
-                values.put("prioritizationComplianceRating", prioritizationRating);
-            }
-            if (classificationRating >= 0) {
-                values.put("classificationComplianceRating", classificationRating);
-            }
-            if (releasePlanRating >= 0) {
-                values.put("releasePlanComplianceRating", releasePlanRating);
+        List<ComplianceRatingUpdate> complianceRatingUpdates = new ArrayList<>();
+        for (long id : inventoryIds) {
+            long expectedVersion = ParamUtil.getLong(actionRequest, "inventoryVersion_" + id,
+                    ParamUtil.getLong(actionRequest, "inventoryVersion", -1));
+
+            ComplianceRatingUpdate complianceRatingUpdate = new ComplianceRatingUpdate(id, expectedVersion);
+            complianceRatingUpdate.putRating(InventoryConstants.INVENTORY_COMPLIANCE_RATING_FIELD, inventoryRating);
+            complianceRatingUpdate.putRating(InventoryConstants.PRIORITIZATION_COMPLIANCE_RATING_FIELD, prioritizationRating);
+            complianceRatingUpdate.putRating(InventoryConstants.CLASSIFICATION_COMPLIANCE_RATING_FIELD, classificationRating);
+            complianceRatingUpdate.putRating(InventoryConstants.RELEASE_PLAN_COMPLIANCE_RATING_FIELD, releasePlanRating);
+            if (Validator.isNotNull(requestState)) {
+                complianceRatingUpdate.setRequestState(requestState);
             }
+            complianceRatingUpdate.setFeedback(feedback);
 
-            ServiceContext serviceContext = new ServiceContext();
-            serviceContext.setUserId(themeDisplay.getUserId());
+            complianceRatingUpdates.add(complianceRatingUpdate);
+        }
 
-            // Update the object entry
-             _objectEntryLocalService.updateObjectEntry(themeDisplay.getUserId(), inventoryEntry.getObjectEntryId(),
-                    values,
-                    serviceContext);
+        try {
+            // Only the review fields are written, all inventories in one transaction
+            _inventoryComplianceService.updateComplianceRatings(themeDisplay.getUserId(), complianceRatingUpdates);
+        } catch (ConcurrentInventoryUpdateException e) {
+            _log.warn(e.getMessage());
+            SessionErrors.add(actionRequest, ConcurrentInventoryUpdateException.class);
+            return false;
         } catch (PortalException e) {
-            _log.error("ObjectEntry not found: " + inventoryId, e);
+            _log.error("Failed to update compliance ratings for inventory: " + inventoryId, e);
+            SessionErrors.add(actionRequest, e.getClass());
+            return false;
         }
 
         _log.info("Submitting inventory score onboarding form for " + inventoryId);
@@ -95,5 +99,5 @@ public class SubmitInventoryScoreMVCActionCommand implements MVCActionCommand {
     }
 
     @Reference
-    ObjectEntryLocalService _objectEntryLocalService;
+    InventoryComplianceService _inventoryComplianceService;
 }
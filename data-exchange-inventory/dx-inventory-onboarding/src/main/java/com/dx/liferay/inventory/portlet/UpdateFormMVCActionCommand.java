@@ -1,21 +1,37 @@
 package com.dx.liferay.inventory.portlet;
 
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.model.InventoryChangeSummary;
+import com.dx.liferay.inventory.model.InventorySubmission;
+import com.dx.liferay.inventory.service.InventoryAutosaveService;
+import com.dx.liferay.inventory.service.InventoryLockService;
 import com.dx.liferay.inventory.service.InventoryService;
 import com.dx.liferay.inventory.util.FormExtractionUtil;
+import com.dx.liferay.inventory.util.ResponseUtil;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.portlet.bridges.mvc.MVCActionCommand;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
-import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.WebKeys;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import javax.portlet.ActionRequest;
 import javax.portlet.ActionResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * MVC Action Command that saves the review form of an existing inventory. The form is posted
+ * with fetch, so the outcome is answered as JSON with a success flag and an error message: a
+ * conflicting edit gets HTTP 409, an invalid request 400 and a failed save 500, and the form
+ * only navigates away once the save succeeded.
+ */
 @Component(
         immediate = true,
         property = {
@@ -36,41 +52,88 @@ public class UpdateFormMVCActionCommand implements MVCActionCommand {
 
     @Override
     public boolean processAction(ActionRequest actionRequest, ActionResponse actionResponse) {
+        long inventoryId = 0;
+
         try {
             ThemeDisplay themeDisplay = (ThemeDisplay) actionRequest.getAttribute(WebKeys.THEME_DISPLAY);
-            long inventoryId = ParamUtil.getLong(actionRequest, "inventoryId");
-
-            String actionType = ParamUtil.getString(actionRequest, "actionType", "submit");
-            boolean isDraft = "draft".equals(actionType);
+            InventorySubmission submission = _formExtractionUtil.extractSubmission(actionRequest, themeDisplay.getLanguageId());
+            inventoryId = submission.getInventoryId();
+            boolean isDraft = submission.isDraft();
 
-            _log.info("Processing action with type: " + actionType + " (isDraft: " + isDraft + ")");
+            _log.info("Processing action with type: " + submission.getActionType() + " (isDraft: " + isDraft + ")");
 
             if (inventoryId <= 0) {
                 _log.error("Invalid inventory ID: " + inventoryId);
+                writeErrorResponse(actionRequest, actionResponse, HttpServletResponse.SC_BAD_REQUEST,
+                        "Invalid inventory ID");
                 return false;
             }
 
-            List<Map<String, Object>> updatedDatasets = _formExtractionUtil.extractDatasetsFromRequest(actionRequest, themeDisplay.getLanguageId());
+            List<Dataset> updatedDatasets = submission.getDatasets();
             if (!updatedDatasets.isEmpty()) {
-                // Update the inventory datasets with status
-                _inventoryService.updateMultipleDatasets(themeDisplay.getCompanyId(), themeDisplay.getUserId(), inventoryId, updatedDatasets, themeDisplay.getLanguageId(), isDraft);
-                _inventoryService.updateInventoryStatus(inventoryId, isDraft, actionRequest);
-                _log.info("Successfully updated inventory " + inventoryId + " with " + updatedDatasets.size() + " datasets");
+                InventoryChangeSummary changeSummary;
+
+                try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId)) {
+                    // The posted form supersedes any autosaved edits still waiting to be written
+                    _inventoryAutosaveService.discard(inventoryId);
+
+                    // Update the inventory datasets with status
+                    changeSummary = _inventoryService.updateMultipleDatasets(themeDisplay.getCompanyId(), themeDisplay.getUserId(), inventoryId, updatedDatasets, themeDisplay.getLanguageId(), isDraft);
+                    _inventoryService.updateInventoryStatus(inventoryId, isDraft, actionRequest);
+                }
+
+                _log.info("Successfully updated inventory " + inventoryId + " with " + updatedDatasets.size() + " datasets - " +
+                        changeSummary.getTouchedEntries() + " entries written, " + changeSummary.getSkippedEntries() + " unchanged");
             } else {
                 _log.warn("No datasets found in update request for inventory: " + inventoryId);
             }
 
+            JSONObject successResponse = ResponseUtil.createSuccessResponse(_jsonFactory);
+            successResponse.put("inventoryId", inventoryId);
+
+            writeResponse(actionRequest, actionResponse, HttpServletResponse.SC_OK, successResponse);
+        } catch (ConcurrentInventoryUpdateException e) {
+            _log.warn(e.getMessage());
+            writeErrorResponse(actionRequest, actionResponse, HttpServletResponse.SC_CONFLICT,
+                    "The inventory was changed by another user. Reload it to see the latest values.");
+            return false;
         } catch (Exception e) {
-            _log.error("Error processing update dataset action", e);
+            _log.error("Error processing update dataset action for inventory: " + inventoryId, e);
+            writeErrorResponse(actionRequest, actionResponse, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Failed to save the inventory");
+            return false;
         }
         return true;
     }
 
+    private void writeErrorResponse(ActionRequest actionRequest, ActionResponse actionResponse, int status,
+                                    String errorMessage) {
+
+        writeResponse(actionRequest, actionResponse, status, ResponseUtil.createErrorJson(errorMessage, _jsonFactory));
+    }
+
+    private void writeResponse(ActionRequest actionRequest, ActionResponse actionResponse, int status,
+                               JSONObject json) {
+        try {
+            ResponseUtil.writeJsonResponse(actionRequest, actionResponse, json, status);
+        } catch (IOException e) {
+            _log.error("Failed to write update dataset response", e);
+        }
+    }
 
     @Reference
     FormExtractionUtil _formExtractionUtil;
 
+    @Reference
+    InventoryAutosaveService _inventoryAutosaveService;
+
+    @Reference
+    InventoryLockService _inventoryLockService;
+
     @Reference
     InventoryService _inventoryService;
 
+    @Reference
+    JSONFactory _jsonFactory;
+
 }
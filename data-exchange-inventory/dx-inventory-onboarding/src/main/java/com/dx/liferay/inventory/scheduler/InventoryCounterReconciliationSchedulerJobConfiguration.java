@@ -0,0 +1,36 @@
+package com.dx.liferay.inventory.scheduler;
+
+import com.dx.liferay.inventory.service.InventoryCounterService;
+import com.liferay.petra.function.UnsafeRunnable;
+import com.liferay.portal.kernel.scheduler.SchedulerJobConfiguration;
+import com.liferay.portal.kernel.scheduler.TimeUnit;
+import com.liferay.portal.kernel.scheduler.TriggerConfiguration;
+import com.liferay.portal.kernel.service.CompanyLocalService;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Scheduled job that rebuilds the dataset and attribute counters of every company once a day,
+ * correcting any drift left by failed or concurrent incremental updates.
+ */
+@Component(service = SchedulerJobConfiguration.class)
+public class InventoryCounterReconciliationSchedulerJobConfiguration implements SchedulerJobConfiguration {
+
+    @Override
+    public UnsafeRunnable<Exception> getJobExecutorUnsafeRunnable() {
+        return () -> _companyLocalService.forEachCompanyId(
+                companyId -> _inventoryCounterService.reconcileCounters(companyId));
+    }
+
+    @Override
+    public TriggerConfiguration getTriggerConfiguration() {
+        return TriggerConfiguration.createTriggerConfiguration(1, TimeUnit.DAY);
+    }
+
+    @Reference
+    CompanyLocalService _companyLocalService;
+
+    @Reference
+    InventoryCounterService _inventoryCounterService;
+
+}
@@ -0,0 +1,186 @@
+package com.dx.liferay.inventory.search;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.Validator;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Hash index from normalised dataset name to the datasets carrying that name, per company.
+ *
+ * Each company's index is built on first use from a projection of C_InventoryOnboarding
+ * and kept current by DatasetNameIndexModelListener, so a lookup costs one hash probe per
+ * name. Like {@link InventorySearchIndex}, an index is rebuilt once it is older than
+ * {@link #MAX_INDEX_AGE_MILLIS} to pick up writes made on other cluster nodes.
+ */
+@Component(service = DatasetNameIndex.class)
+public class DatasetNameIndex {
+
+    private static final Log _log = LogFactoryUtil.getLog(DatasetNameIndex.class);
+
+    private static final long MAX_INDEX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final List<String> DATASET_FIELDS = List.of(
+            "datasetName", InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+
+    private final Map<Long, CompanyIndex> _companyIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Normalises a dataset name for comparison: Unicode compatibility forms are folded,
+     * case is ignored and runs of whitespace count as a single space.
+     *
+     * @param datasetName the dataset name
+     * @return the normalised name, empty if the name is blank
+     */
+    public static String normalize(String datasetName) {
+        if (Validator.isBlank(datasetName)) {
+            return "";
+        }
+
+        String normalized = Normalizer.normalize(datasetName, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the existing datasets with the given normalised name.
+     *
+     * @param companyId the company ID
+     * @param normalizedName the normalised dataset name
+     * @return map of dataset IDs to their inventory IDs, empty if there are none
+     * @throws PortalException if the index cannot be built
+     */
+    public Map<Long, Long> getDatasets(long companyId, String normalizedName) throws PortalException {
+        return getCompanyIndex(companyId).get(normalizedName);
+    }
+
+    /**
+     * Adds or refreshes a dataset in its company's index. Companies whose index has not
+     * been built yet are skipped, as the dataset will be read when it is built.
+     *
+     * @param objectEntry the dataset entry that was created or updated
+     */
+    public void indexDataset(ObjectEntry objectEntry) {
+        CompanyIndex companyIndex = _companyIndexes.get(objectEntry.getCompanyId());
+        if (companyIndex == null || !isDataset(objectEntry)) {
+            return;
+        }
+
+        try {
+            Map<String, Serializable> dataset = _inventoryProjectionService.getProjection(
+                    objectEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    objectEntry.getObjectEntryId(), DATASET_FIELDS);
+
+            companyIndex.put(objectEntry.getObjectEntryId(), dataset);
+        } catch (PortalException e) {
+            _log.error("Failed to index dataset name for entry: " + objectEntry.getObjectEntryId(), e);
+        }
+    }
+
+    /**
+     * Removes a dataset from its company's index.
+     *
+     * @param objectEntry the dataset entry being removed
+     */
+    public void removeDataset(ObjectEntry objectEntry) {
+        CompanyIndex companyIndex = _companyIndexes.get(objectEntry.getCompanyId());
+        if (companyIndex != null && isDataset(objectEntry)) {
+            companyIndex.remove(objectEntry.getObjectEntryId());
+        }
+    }
+
+    private boolean isDataset(ObjectEntry objectEntry) {
+        return InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(_inventoryHelper.getObjectDefinitionName(objectEntry));
+    }
+
+    private CompanyIndex getCompanyIndex(long companyId) throws PortalException {
+        CompanyIndex companyIndex = _companyIndexes.get(companyId);
+
+        if (companyIndex == null ||
+                System.currentTimeMillis() - companyIndex.buildTime > MAX_INDEX_AGE_MILLIS) {
+
+            companyIndex = new CompanyIndex(System.currentTimeMillis());
+
+            Map<Long, Map<String, Serializable>> datasets = _inventoryProjectionService.getEntrySummaries(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, DATASET_FIELDS);
+
+            for (Map.Entry<Long, Map<String, Serializable>> dataset : datasets.entrySet()) {
+                companyIndex.put(dataset.getKey(), dataset.getValue());
+            }
+
+            _companyIndexes.put(companyId, companyIndex);
+
+            _log.info("Built dataset name index for company " + companyId + " with " + datasets.size() +
+                    " datasets");
+        }
+
+        return companyIndex;
+    }
+
+    /**
+     * The name buckets of one company. The reverse map lets a renamed or removed dataset
+     * be taken out of its previous bucket without scanning.
+     */
+    private static final class CompanyIndex {
+        private final long buildTime;
+        private final Map<String, Map<Long, Long>> datasetsByName = new HashMap<>();
+        private final Map<Long, String> namesByDataset = new HashMap<>();
+
+        private CompanyIndex(long buildTime) {
+            this.buildTime = buildTime;
+        }
+
+        private synchronized Map<Long, Long> get(String normalizedName) {
+            Map<Long, Long> datasets = datasetsByName.get(normalizedName);
+            return datasets != null ? new HashMap<>(datasets) : Map.of();
+        }
+
+        private synchronized void put(long datasetId, Map<String, Serializable> dataset) {
+            remove(datasetId);
+
+            String normalizedName = normalize(GetterUtil.getString(dataset.get("datasetName")));
+            if (normalizedName.isEmpty()) {
+                return;
+            }
+
+            long inventoryId = GetterUtil.getLong(dataset.get(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID));
+
+            datasetsByName.computeIfAbsent(normalizedName, name -> new HashMap<>()).put(datasetId, inventoryId);
+            namesByDataset.put(datasetId, normalizedName);
+        }
+
+        private synchronized void remove(long datasetId) {
+            String normalizedName = namesByDataset.remove(datasetId);
+            if (normalizedName == null) {
+                return;
+            }
+
+            Map<Long, Long> datasets = datasetsByName.get(normalizedName);
+            datasets.remove(datasetId);
+            if (datasets.isEmpty()) {
+                datasetsByName.remove(normalizedName);
+            }
+        }
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+}
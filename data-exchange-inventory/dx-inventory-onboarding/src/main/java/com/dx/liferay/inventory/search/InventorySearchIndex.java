@@ -0,0 +1,521 @@
+package com.dx.liferay.inventory.search;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.InventorySearchHit;
+import com.dx.liferay.inventory.model.InventorySearchResults;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over dataset names and descriptions and attribute names and
+ * descriptions, used to find which inventories contain a dataset or attribute.
+ *
+ * Each company's index is built on its first search from pages of column projections, then
+ * kept current by InventorySearchIndexModelListener. Listeners only run on the node that
+ * made the write, so an index is also rebuilt once it is older than
+ * {@link #MAX_INDEX_AGE_MILLIS} to pick up writes made on other cluster nodes. Only one
+ * build of a company's index runs at a time: other searches wait for it, or keep using the
+ * stale index if there is one, and listener changes made during the build are queued and
+ * applied to the new index once it replaces the old one.
+ *
+ * Hits must contain every query term; the last term also matches as a prefix so partial
+ * input finds results. Hits are ranked by TF-IDF with name matches weighted above
+ * description matches.
+ */
+@Component(service = InventorySearchIndex.class)
+public class InventorySearchIndex {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventorySearchIndex.class);
+
+    private static final long MAX_INDEX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final int BUILD_PAGE_SIZE = 500;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final List<String> DATASET_FIELDS = List.of(
+            "datasetName", "datasetDescription", InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+    private static final List<String> ATTRIBUTE_FIELDS = List.of(
+            "attribute", "attributeDescription", InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID);
+
+    private final Map<Long, CompanyIndex> _companyIndexes = new ConcurrentHashMap<>();
+
+    private final Map<Long, IndexBuild> _indexBuilds = new ConcurrentHashMap<>();
+
+    /**
+     * Searches datasets and attributes of a company.
+     *
+     * @param companyId the company ID
+     * @param keywords the search text
+     * @param start the index of the first hit to return
+     * @param delta the maximum number of hits to return
+     * @param inventoryFilter accepts the IDs of inventories whose entries may be returned
+     * @return the requested page of hits, best match first
+     * @throws PortalException if the index cannot be built
+     */
+    public InventorySearchResults search(long companyId, String keywords, int start, int delta,
+                                         LongPredicate inventoryFilter) throws PortalException {
+
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(keywords)));
+        if (terms.isEmpty()) {
+            return new InventorySearchResults(0, List.of());
+        }
+
+        return getCompanyIndex(companyId).search(terms, start, delta, inventoryFilter);
+    }
+
+    /**
+     * Adds or refreshes a dataset or attribute in its company's index. Companies whose index
+     * has not been built yet are skipped, as the entry will be read when it is built.
+     *
+     * @param objectEntry the dataset or attribute entry that was created or updated
+     */
+    public void indexEntry(ObjectEntry objectEntry) {
+        long companyId = objectEntry.getCompanyId();
+
+        CompanyIndex companyIndex = _companyIndexes.get(companyId);
+        if (companyIndex == null && !_indexBuilds.containsKey(companyId)) {
+            return;
+        }
+
+        try {
+            String objectDefinitionName = _inventoryHelper.getObjectDefinitionName(objectEntry);
+
+            if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinitionName)) {
+                Map<String, Serializable> dataset = _inventoryProjectionService.getProjection(
+                        objectEntry.getCompanyId(), objectDefinitionName, objectEntry.getObjectEntryId(),
+                        DATASET_FIELDS);
+
+                SearchDocument document = createDatasetDocument(objectEntry.getObjectEntryId(), dataset);
+                applyChange(companyId, index -> index.add(document));
+            } else if (InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME.equals(objectDefinitionName)) {
+                Map<String, Serializable> attribute = _inventoryProjectionService.getProjection(
+                        objectEntry.getCompanyId(), objectDefinitionName, objectEntry.getObjectEntryId(),
+                        ATTRIBUTE_FIELDS);
+
+                long datasetId = GetterUtil.getLong(
+                        attribute.get(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID));
+                long inventoryId = companyIndex != null ? companyIndex.getInventoryId(datasetId) : 0;
+
+                if (inventoryId <= 0) {
+                    inventoryId = _inventoryProjectionService.getRelatedEntryId(
+                            objectEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                            InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, datasetId);
+                }
+
+                SearchDocument document = createAttributeDocument(
+                        objectEntry.getObjectEntryId(), attribute, inventoryId);
+                applyChange(companyId, index -> index.add(document));
+            }
+        } catch (PortalException e) {
+            _log.error("Failed to index entry: " + objectEntry.getObjectEntryId(), e);
+        }
+    }
+
+    /**
+     * Removes a dataset or attribute from its company's index. Removing a dataset also
+     * removes its attributes.
+     *
+     * @param objectEntry the dataset or attribute entry being removed
+     */
+    public void removeEntry(ObjectEntry objectEntry) {
+        long objectEntryId = objectEntry.getObjectEntryId();
+
+        applyChange(objectEntry.getCompanyId(), index -> index.remove(objectEntryId));
+    }
+
+    /**
+     * Applies a listener change to the company's current index and, while the index is being
+     * rebuilt, queues it for the new index. The queue is only taken from the build together
+     * with the swap of the indexes, so a change is either queued or made after the swap.
+     */
+    private void applyChange(long companyId, Consumer<CompanyIndex> change) {
+        _indexBuilds.computeIfPresent(companyId, (id, indexBuild) -> {
+            indexBuild.pendingChanges.add(change);
+            return indexBuild;
+        });
+
+        CompanyIndex companyIndex = _companyIndexes.get(companyId);
+        if (companyIndex != null) {
+            change.accept(companyIndex);
+        }
+    }
+
+    private CompanyIndex getCompanyIndex(long companyId) throws PortalException {
+        CompanyIndex companyIndex = _companyIndexes.get(companyId);
+
+        if (companyIndex != null &&
+                System.currentTimeMillis() - companyIndex.getBuildTime() <= MAX_INDEX_AGE_MILLIS) {
+
+            return companyIndex;
+        }
+
+        IndexBuild indexBuild = new IndexBuild(companyId);
+        IndexBuild runningIndexBuild = _indexBuilds.putIfAbsent(companyId, indexBuild);
+
+        if (runningIndexBuild == null) {
+            try {
+                indexBuild.task.run();
+            } finally {
+                // Drops the build if it failed, so the next search tries again
+                _indexBuilds.remove(companyId, indexBuild);
+            }
+            return getBuiltIndex(indexBuild);
+        }
+
+        // Another search is rebuilding the index; a stale index is better than waiting for it
+        if (companyIndex != null) {
+            return companyIndex;
+        }
+
+        return getBuiltIndex(runningIndexBuild);
+    }
+
+    private CompanyIndex getBuiltIndex(IndexBuild indexBuild) throws PortalException {
+        try {
+            return indexBuild.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PortalException("Interrupted waiting for the inventory search index", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PortalException) {
+                throw (PortalException) e.getCause();
+            }
+            throw new PortalException("Failed to build the inventory search index", e.getCause());
+        }
+    }
+
+    /**
+     * Builds the index of a company from keyset pages of column projections, without
+     * hydrating any entries or holding a whole table's rows at once, then swaps it in and
+     * applies the listener changes queued while it was built.
+     */
+    private CompanyIndex buildCompanyIndex(long companyId) throws PortalException {
+        long startTime = System.currentTimeMillis();
+        CompanyIndex companyIndex = new CompanyIndex(startTime);
+
+        Map<Long, Map<String, Serializable>> datasets;
+        long afterDatasetId = 0;
+
+        do {
+            datasets = _inventoryProjectionService.getEntryPage(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, DATASET_FIELDS, afterDatasetId, null,
+                    BUILD_PAGE_SIZE);
+
+            for (Map.Entry<Long, Map<String, Serializable>> dataset : datasets.entrySet()) {
+                companyIndex.add(createDatasetDocument(dataset.getKey(), dataset.getValue()));
+                afterDatasetId = dataset.getKey();
+            }
+        } while (datasets.size() == BUILD_PAGE_SIZE);
+
+        Map<Long, Map<String, Serializable>> attributes;
+        long afterAttributeId = 0;
+
+        do {
+            attributes = _inventoryProjectionService.getEntryPage(
+                    companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME, ATTRIBUTE_FIELDS,
+                    afterAttributeId, null, BUILD_PAGE_SIZE);
+
+            for (Map.Entry<Long, Map<String, Serializable>> attribute : attributes.entrySet()) {
+                long datasetId = GetterUtil.getLong(
+                        attribute.getValue().get(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID));
+
+                companyIndex.add(createAttributeDocument(
+                        attribute.getKey(), attribute.getValue(), companyIndex.getInventoryId(datasetId)));
+                afterAttributeId = attribute.getKey();
+            }
+        } while (attributes.size() == BUILD_PAGE_SIZE);
+
+        List<Consumer<CompanyIndex>> pendingChanges = new ArrayList<>();
+
+        _indexBuilds.computeIfPresent(companyId, (id, indexBuild) -> {
+            _companyIndexes.put(companyId, companyIndex);
+            pendingChanges.addAll(indexBuild.pendingChanges);
+            indexBuild.pendingChanges.clear();
+            return indexBuild;
+        });
+
+        for (Consumer<CompanyIndex> pendingChange : pendingChanges) {
+            pendingChange.accept(companyIndex);
+        }
+
+        _log.info("Built inventory search index for company " + companyId + " with " + companyIndex.size() +
+                " entries in " + (System.currentTimeMillis() - startTime) + " ms, applying " +
+                pendingChanges.size() + " changes made during the build");
+
+        return companyIndex;
+    }
+
+    private SearchDocument createDatasetDocument(long datasetId, Map<String, Serializable> dataset) {
+        return new SearchDocument(
+                datasetId, InventorySearchHit.DATASET_TYPE,
+                GetterUtil.getLong(dataset.get(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID)), datasetId,
+                GetterUtil.getString(dataset.get("datasetName")),
+                GetterUtil.getString(dataset.get("datasetDescription")));
+    }
+
+    private SearchDocument createAttributeDocument(long attributeId, Map<String, Serializable> attribute,
+                                                   long inventoryId) {
+        return new SearchDocument(
+                attributeId, InventorySearchHit.ATTRIBUTE_TYPE, inventoryId,
+                GetterUtil.getLong(attribute.get(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID)),
+                GetterUtil.getString(attribute.get("attribute")),
+                GetterUtil.getString(attribute.get("attributeDescription")));
+    }
+
+    /**
+     * Splits text into lower case letter and digit runs, for both Latin and Arabic script.
+     */
+    private static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        for (String term : TERM_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * A running build of a company's index and the listener changes made while it runs,
+     * which are only read and written inside compute calls of the build map.
+     */
+    private final class IndexBuild {
+        private final FutureTask<CompanyIndex> task;
+        private final List<Consumer<CompanyIndex>> pendingChanges = new ArrayList<>();
+
+        private IndexBuild(long companyId) {
+            task = new FutureTask<>(() -> buildCompanyIndex(companyId));
+        }
+    }
+
+    /**
+     * An indexed dataset or attribute with its weighted term frequencies.
+     */
+    private static final class SearchDocument {
+        private final long entryId;
+        private final String type;
+        private final long inventoryId;
+        private final long datasetId;
+        private final String title;
+        private final String description;
+        private final Map<String, Double> termWeights = new HashMap<>();
+
+        private SearchDocument(long entryId, String type, long inventoryId, long datasetId, String title,
+                               String description) {
+            this.entryId = entryId;
+            this.type = type;
+            this.inventoryId = inventoryId;
+            this.datasetId = datasetId;
+            this.title = title;
+            this.description = description;
+
+            for (String term : tokenize(title)) {
+                termWeights.merge(term, TITLE_WEIGHT, Double::sum);
+            }
+            for (String term : tokenize(description)) {
+                termWeights.merge(term, DESCRIPTION_WEIGHT, Double::sum);
+            }
+        }
+    }
+
+    /**
+     * The documents and postings of one company, with the attribute IDs of each dataset so a
+     * removed dataset's attributes are found without scanning every document. Guarded by a
+     * read-write lock so searches run concurrently while listener updates are applied one at
+     * a time.
+     */
+    private static final class CompanyIndex {
+        private final long buildTime;
+        private final Map<Long, SearchDocument> documents = new HashMap<>();
+        private final Map<Long, Set<Long>> attributeIdsByDataset = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private CompanyIndex(long buildTime) {
+            this.buildTime = buildTime;
+        }
+
+        private long getBuildTime() { return buildTime; }
+
+        private int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private long getInventoryId(long datasetId) {
+            lock.readLock().lock();
+            try {
+                SearchDocument dataset = documents.get(datasetId);
+                return dataset != null ? dataset.inventoryId : 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void add(SearchDocument document) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(document.entryId);
+
+                documents.put(document.entryId, document);
+                if (InventorySearchHit.ATTRIBUTE_TYPE.equals(document.type)) {
+                    attributeIdsByDataset.computeIfAbsent(document.datasetId, datasetId -> new HashSet<>())
+                            .add(document.entryId);
+                }
+                for (Map.Entry<String, Double> termWeight : document.termWeights.entrySet()) {
+                    postings.computeIfAbsent(termWeight.getKey(), term -> new HashMap<>())
+                            .put(document.entryId, termWeight.getValue());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(long entryId) {
+            lock.writeLock().lock();
+            try {
+                SearchDocument document = removeDocument(entryId);
+
+                if (document != null && InventorySearchHit.DATASET_TYPE.equals(document.type)) {
+                    Set<Long> attributeIds = attributeIdsByDataset.remove(entryId);
+                    if (attributeIds != null) {
+                        for (Long attributeId : attributeIds) {
+                            removeDocument(attributeId);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private SearchDocument removeDocument(long entryId) {
+            SearchDocument document = documents.remove(entryId);
+            if (document == null) {
+                return null;
+            }
+
+            if (InventorySearchHit.ATTRIBUTE_TYPE.equals(document.type)) {
+                Set<Long> attributeIds = attributeIdsByDataset.get(document.datasetId);
+                if (attributeIds != null) {
+                    attributeIds.remove(entryId);
+                    if (attributeIds.isEmpty()) {
+                        attributeIdsByDataset.remove(document.datasetId);
+                    }
+                }
+            }
+
+            for (String term : document.termWeights.keySet()) {
+                Map<Long, Double> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(entryId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            return document;
+        }
+
+        private InventorySearchResults search(List<String> terms, int start, int delta,
+                                              LongPredicate inventoryFilter) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                int documentCount = Math.max(1, documents.size());
+
+                for (int i = 0; i < terms.size(); i++) {
+                    boolean prefixMatch = i == terms.size() - 1;
+                    Map<Long, Double> termScores = scoreTerm(terms.get(i), prefixMatch, documentCount);
+
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        // Keep only entries matching every term
+                        scores.keySet().retainAll(termScores.keySet());
+                        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                            score.setValue(score.getValue() + termScores.get(score.getKey()));
+                        }
+                    }
+
+                    if (scores.isEmpty()) {
+                        return new InventorySearchResults(0, List.of());
+                    }
+                }
+
+                scores.keySet().removeIf(entryId -> !inventoryFilter.test(documents.get(entryId).inventoryId));
+
+                List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+                ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()));
+
+                List<InventorySearchHit> hits = new ArrayList<>();
+                for (int i = start; i < Math.min(ranked.size(), start + delta); i++) {
+                    SearchDocument document = documents.get(ranked.get(i).getKey());
+                    hits.add(new InventorySearchHit(document.entryId, document.type, document.inventoryId,
+                            document.datasetId, document.title, document.description, ranked.get(i).getValue()));
+                }
+
+                return new InventorySearchResults(ranked.size(), hits);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Scores the entries containing a term, or any term starting with it for prefix matches.
+         * An entry matching several expansions of a prefix keeps its best score.
+         */
+        private Map<Long, Double> scoreTerm(String term, boolean prefixMatch, int documentCount) {
+            Map<String, Map<Long, Double>> matchingPostings = prefixMatch ?
+                    postings.subMap(term, true, term + Character.MAX_VALUE, false) :
+                    postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+
+            Map<Long, Double> termScores = new HashMap<>();
+            for (Map<Long, Double> termPostings : matchingPostings.values()) {
+                double idf = Math.log(1 + (double) documentCount / termPostings.size());
+
+                for (Map.Entry<Long, Double> posting : termPostings.entrySet()) {
+                    termScores.merge(posting.getKey(), posting.getValue() * idf, Math::max);
+                }
+            }
+            return termScores;
+        }
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+}
@@ -0,0 +1,117 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.search.DatasetNameIndex;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flags duplicate dataset names in an uploaded file, both within the upload and against
+ * datasets already saved in any inventory of the company.
+ *
+ * Names are compared in their {@link DatasetNameIndex#normalize(String) normalised} form.
+ * Each uploaded name costs one hash lookup for the upload and one probe of
+ * {@link DatasetNameIndex}, so detection is linear in the number of uploaded datasets.
+ */
+@Component(service = DatasetDuplicateService.class)
+public class DatasetDuplicateService {
+
+    /**
+     * Finds duplicate dataset names.
+     *
+     * @param companyId the company ID
+     * @param datasetNames the uploaded dataset names, in row order
+     * @param inventoryId the inventory being updated, whose own datasets are not reported, or 0 for a new inventory
+     * @return JSON object with withinUpload (name and the 0-based positions sharing it) and
+     *         existing (name, position, inventoryId, inventoryName and datasetId) arrays
+     * @throws PortalException if the index or inventory names cannot be read
+     */
+    public JSONObject findDuplicates(long companyId, List<String> datasetNames, long inventoryId)
+            throws PortalException {
+
+        Map<String, JSONArray> positionsByName = new LinkedHashMap<>();
+        Map<String, String> namesByNormalizedName = new HashMap<>();
+        Map<Long, String> inventoryNames = new HashMap<>();
+        JSONArray existingArray = _jsonFactory.createJSONArray();
+
+        for (int position = 0; position < datasetNames.size(); position++) {
+            String datasetName = datasetNames.get(position);
+            String normalizedName = DatasetNameIndex.normalize(datasetName);
+
+            if (normalizedName.isEmpty()) {
+                continue;
+            }
+
+            JSONArray positions = positionsByName.computeIfAbsent(normalizedName,
+                    name -> _jsonFactory.createJSONArray());
+            positions.put(position);
+            namesByNormalizedName.putIfAbsent(normalizedName, datasetName.trim());
+
+            for (Map.Entry<Long, Long> dataset : _datasetNameIndex.getDatasets(companyId, normalizedName).entrySet()) {
+                long datasetInventoryId = dataset.getValue();
+
+                if (datasetInventoryId == inventoryId) {
+                    continue;
+                }
+
+                JSONObject existingJson = _jsonFactory.createJSONObject();
+                existingJson.put("datasetName", datasetName.trim());
+                existingJson.put("position", position);
+                existingJson.put("inventoryId", datasetInventoryId);
+                existingJson.put("inventoryName", inventoryNames.computeIfAbsent(datasetInventoryId,
+                        id -> getInventoryName(companyId, id)));
+                existingJson.put("datasetId", dataset.getKey());
+                existingArray.put(existingJson);
+            }
+        }
+
+        JSONArray withinUploadArray = _jsonFactory.createJSONArray();
+        for (Map.Entry<String, JSONArray> entry : positionsByName.entrySet()) {
+            if (entry.getValue().length() > 1) {
+                JSONObject duplicateJson = _jsonFactory.createJSONObject();
+                duplicateJson.put("datasetName", namesByNormalizedName.get(entry.getKey()));
+                duplicateJson.put("positions", entry.getValue());
+                withinUploadArray.put(duplicateJson);
+            }
+        }
+
+        JSONObject duplicatesJson = _jsonFactory.createJSONObject();
+        duplicatesJson.put("withinUpload", withinUploadArray);
+        duplicatesJson.put("existing", existingArray);
+
+        return duplicatesJson;
+    }
+
+    private String getInventoryName(long companyId, long inventoryId) {
+        try {
+            return _inventoryHelper.getInventoryName(_inventoryProjectionService.getProjection(
+                    companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME, inventoryId,
+                    List.of("inventoryName")));
+        } catch (PortalException e) {
+            return "";
+        }
+    }
+
+    @Reference
+    DatasetNameIndex _datasetNameIndex;
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    JSONFactory _jsonFactory;
+
+}
@@ -2,12 +2,16 @@ package com.dx.liferay.inventory.service;
 
 import com.dx.liferay.inventory.constants.InventoryConstants;
 import com.dx.liferay.inventory.exception.FileProcessingException;
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.util.DatasetValuesMapper;
 import com.dx.liferay.inventory.util.FileStructure;
 import com.dx.liferay.inventory.util.FileValidationUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.Validator;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -28,6 +32,9 @@ public class ExcelParsingService {
 
     private static final Log _log = LogFactoryUtil.getLog(ExcelParsingService.class);
 
+    private static final Set<String> NON_DATASET_FIELDS = Set.of(
+            InventoryConstants.TEMPLATE_ROW_NUMBER_COLUMN, "attribute", "attributeDescription");
+
     /**
      * Parses an Excel file and extracts datasets using the provided sample file structure as a template.
      * Creates column mappings, identifies special fields, and processes rows to extract structured datasets.
@@ -57,6 +64,60 @@ public class ExcelParsingService {
         }
     }
 
+    /**
+     * Converts parsed workbook datasets into the {@link Dataset} records produced by form
+     * extraction, so they can be written through {@link InventoryService}. Template columns
+     * are mapped to object fields by position, as the form population does.
+     *
+     * @param parsedDatasets the datasets returned by {@link #parseExcelFile(File, FileEntry)}
+     * @param structure the sample file structure, with special fields identified
+     * @param userLocale the user's locale for translatable fields
+     * @return the datasets, each with its attributes
+     */
+    @SuppressWarnings("unchecked")
+    public List<Dataset> toDatasetValues(List<Map<String, Object>> parsedDatasets, FileStructure structure,
+                                         String userLocale) {
+
+        List<String> columnNames = structure.getColumnNames();
+        int columnCount = Math.min(columnNames.size(), InventoryConstants.TEMPLATE_COLUMN_FIELDS.size());
+
+        // Field name to column header, resolved once for the whole workbook
+        Map<String, String> columnsByField = new HashMap<>();
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            String fieldName = InventoryConstants.TEMPLATE_COLUMN_FIELDS.get(columnIndex);
+            if (!NON_DATASET_FIELDS.contains(fieldName)) {
+                columnsByField.put(fieldName, columnNames.get(columnIndex));
+            }
+        }
+
+        List<Dataset> datasets = new ArrayList<>(parsedDatasets.size());
+
+        for (Map<String, Object> parsedDataset : parsedDatasets) {
+            List<Map<String, String>> parsedAttributes =
+                    (List<Map<String, String>>) parsedDataset.getOrDefault("attributes", List.of());
+            List<Attribute> attributes = new ArrayList<>(parsedAttributes.size());
+
+            for (Map<String, String> parsedAttribute : parsedAttributes) {
+                Attribute attribute = DatasetValuesMapper.toAttribute(0, attributes.size(),
+                        parsedAttribute.get(structure.getAttributesField()),
+                        parsedAttribute.get(structure.getAttributeDescriptionField()));
+
+                if (!attribute.attributeName().isEmpty()) {
+                    attributes.add(attribute);
+                }
+            }
+
+            datasets.add(DatasetValuesMapper.toDataset(0, 0, userLocale,
+                    fieldName -> {
+                        String columnName = columnsByField.get(fieldName);
+                        return columnName != null ? GetterUtil.getString(parsedDataset.get(columnName)) : null;
+                    },
+                    attributes, true));
+        }
+
+        return datasets;
+    }
+
     /**
      * Generates a mapping between column names from the sample structure and their corresponding
      * column indices in the Excel sheet by comparing normalized header values.
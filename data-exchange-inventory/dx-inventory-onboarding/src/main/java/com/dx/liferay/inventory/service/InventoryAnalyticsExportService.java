@@ -0,0 +1,205 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.CSVUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams every inventory, dataset and attribute of a company as NDJSON or CSV for
+ * analytics pulls.
+ *
+ * Entries are read in keyset-paginated pages through column projections and written to
+ * the response as each page arrives, so neither the database nor the portal holds the
+ * whole export at once. A modifiedSince date limits the export to entries changed since a
+ * previous pull.
+ *
+ * Every record carries its recordType, id, parentId and audit columns. In CSV all record
+ * types share one header, and fields that do not apply to a record type are left empty.
+ */
+@Component(service = InventoryAnalyticsExportService.class)
+public class InventoryAnalyticsExportService {
+
+    public static final String CSV_FORMAT = "csv";
+    public static final String NDJSON_FORMAT = "ndjson";
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryAnalyticsExportService.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String RECORD_TYPE = "recordType";
+    private static final String ID = "id";
+    private static final String PARENT_ID = "parentId";
+
+    private static final List<String> INVENTORY_FIELDS = List.of(
+            "inventoryName", InventoryConstants.DATASET_COUNT_FIELD,
+            InventoryConstants.COMPLETE_DATASET_COUNT_FIELD, InventoryConstants.COMPLIANCE_SCORE_FIELD,
+            InventoryConstants.INVENTORY_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.PRIORITIZATION_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.CLASSIFICATION_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.RELEASE_PLAN_COMPLIANCE_RATING_FIELD);
+
+    private static final List<String> DATASET_FIELDS = List.of(
+            "datasetName", "datasetDescription", "datasetClassification", "userDemand", "economicImpact",
+            "betterServices", "betterGovernance", "definedOwner", "existingMetadata", "alreadyPublished",
+            "openFormat", "releaseYear", "releaseMonth", InventoryConstants.ATTRIBUTE_COUNT_FIELD,
+            InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+
+    private static final List<String> ATTRIBUTE_FIELDS = List.of(
+            "attribute", "attributeDescription", InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID);
+
+    private static final List<String> CSV_COLUMNS;
+
+    static {
+        Set<String> csvColumns = new LinkedHashSet<>(List.of(
+                RECORD_TYPE, ID, PARENT_ID, InventoryProjectionService.USER_ID, InventoryProjectionService.STATUS,
+                InventoryProjectionService.CREATE_DATE, InventoryProjectionService.MODIFIED_DATE));
+        csvColumns.addAll(INVENTORY_FIELDS);
+        csvColumns.addAll(DATASET_FIELDS);
+        csvColumns.addAll(ATTRIBUTE_FIELDS);
+        csvColumns.remove(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+        csvColumns.remove(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID);
+        CSV_COLUMNS = List.copyOf(csvColumns);
+    }
+
+    /**
+     * Writes all inventories, datasets and attributes of a company to a writer.
+     *
+     * @param companyId the company ID
+     * @param format {@link #NDJSON_FORMAT} or {@link #CSV_FORMAT}
+     * @param modifiedSince only export entries modified at or after this date, or null for all entries
+     * @param writer the response writer
+     * @return the number of records written
+     * @throws PortalException if the entries cannot be read or written
+     */
+    public int export(long companyId, String format, Date modifiedSince, Writer writer) throws PortalException {
+        boolean csv = CSV_FORMAT.equals(format);
+
+        try {
+            if (csv) {
+                writeCsvLine(writer, new ArrayList<>(CSV_COLUMNS));
+            }
+
+            int recordCount = exportRecords(companyId, "inventory", InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME,
+                    INVENTORY_FIELDS, null, modifiedSince, csv, writer);
+            recordCount += exportRecords(companyId, "dataset", InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    DATASET_FIELDS, InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, modifiedSince, csv,
+                    writer);
+            recordCount += exportRecords(companyId, "attribute", InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                    ATTRIBUTE_FIELDS, InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, modifiedSince, csv,
+                    writer);
+
+            writer.flush();
+
+            _log.info("Exported " + recordCount + " inventory records for company " + companyId +
+                    (modifiedSince != null ? " modified since " + modifiedSince.toInstant() : ""));
+
+            return recordCount;
+        } catch (IOException e) {
+            throw new PortalException("Failed to write inventory export", e);
+        }
+    }
+
+    /**
+     * Writes every entry of one object definition, one keyset page at a time.
+     */
+    private int exportRecords(long companyId, String recordType, String objectDefinitionName,
+                              List<String> fieldNames, String parentFieldName, Date modifiedSince, boolean csv,
+                              Writer writer) throws IOException, PortalException {
+
+        int recordCount = 0;
+        long lastObjectEntryId = 0;
+
+        while (true) {
+            Map<Long, Map<String, Serializable>> page = _inventoryProjectionService.getEntryPage(
+                    companyId, objectDefinitionName, fieldNames, lastObjectEntryId, modifiedSince, PAGE_SIZE);
+
+            for (Map.Entry<Long, Map<String, Serializable>> entry : page.entrySet()) {
+                Map<String, Serializable> values = entry.getValue();
+
+                values.put(RECORD_TYPE, recordType);
+                values.put(ID, entry.getKey());
+                values.put(PARENT_ID, parentFieldName != null ? values.remove(parentFieldName) : null);
+
+                if (csv) {
+                    writeCsvRecord(writer, values);
+                } else {
+                    writeJsonRecord(writer, values);
+                }
+
+                lastObjectEntryId = entry.getKey();
+                recordCount++;
+            }
+
+            // Push each page to the client instead of buffering the whole export
+            writer.flush();
+
+            if (page.size() < PAGE_SIZE) {
+                return recordCount;
+            }
+        }
+    }
+
+    private void writeJsonRecord(Writer writer, Map<String, Serializable> values) throws IOException {
+        JSONObject recordJson = _jsonFactory.createJSONObject();
+
+        for (Map.Entry<String, Serializable> value : values.entrySet()) {
+            recordJson.put(value.getKey(), formatValue(value.getValue()));
+        }
+
+        writer.write(recordJson.toString());
+        writer.write('\n');
+    }
+
+    private void writeCsvRecord(Writer writer, Map<String, Serializable> values) throws IOException {
+        List<Object> cells = new ArrayList<>(CSV_COLUMNS.size());
+
+        for (String column : CSV_COLUMNS) {
+            cells.add(formatValue(values.get(column)));
+        }
+
+        writeCsvLine(writer, cells);
+    }
+
+    private void writeCsvLine(Writer writer, List<?> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(CSVUtil.encode(cells.get(i) != null ? cells.get(i) : ""));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes dates as ISO-8601 instants so pulls can be replayed as modifiedSince values.
+     */
+    private Object formatValue(Serializable value) {
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().toString();
+        }
+        return value;
+    }
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    JSONFactory _jsonFactory;
+
+}
@@ -0,0 +1,189 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.util.DatasetValuesMapper;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind autosave of draft inventories.
+ *
+ * Field edits arrive as small deltas keyed by dataset or attribute entry ID. They are
+ * coalesced in memory per inventory, so only the latest value of each field is kept, and
+ * written on a timer through the autosave patch, which skips values that match the stored
+ * entries. Each delta carries the edit version the client loaded; deltas of entries edited
+ * since are dropped instead of overwriting the newer values. A burst of keystrokes therefore costs one map update per request and at
+ * most one write per changed field per flush. Pending deltas are held on the node that
+ * received them, so the flush timer runs on every node rather than as a clustered job.
+ *
+ * Each inventory is flushed while holding its {@link InventoryLockService} lock, and its
+ * deltas are only taken from the queue once the lock is held. Saving the whole form
+ * discards the deltas under the same lock it writes with, so a flush either finishes
+ * before the save or finds nothing left to write, and never overwrites the saved values.
+ */
+@Component(service = InventoryAutosaveService.class)
+public class InventoryAutosaveService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryAutosaveService.class);
+
+    private final Map<Long, PendingAutosave> _pendingAutosaves = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService _flushExecutor;
+
+    /**
+     * Queues field deltas of a draft inventory. Later values of a field replace earlier ones.
+     *
+     * @param companyId the company ID of the inventory
+     * @param userId ID of the user editing the draft
+     * @param inventoryId the C_InventoryDetails entry the edited entries belong to
+     * @param userLocale the user's locale for translatable fields
+     * @param deltas the changed field values keyed by dataset or attribute entry ID, each with
+     *        the edit version the client loaded under {@link DatasetValuesMapper#VERSION_FIELD}
+     */
+    public void queue(long companyId, long userId, long inventoryId, String userLocale,
+                      Map<Long, Map<String, String>> deltas) {
+
+        _pendingAutosaves.compute(inventoryId, (id, pendingAutosave) -> {
+            if (pendingAutosave == null) {
+                pendingAutosave = new PendingAutosave(companyId, userId, userLocale);
+            }
+
+            for (Map.Entry<Long, Map<String, String>> delta : deltas.entrySet()) {
+                pendingAutosave.entryValues.computeIfAbsent(delta.getKey(), entryId -> new HashMap<>())
+                        .putAll(delta.getValue());
+            }
+
+            return pendingAutosave;
+        });
+    }
+
+    /**
+     * Drops the pending deltas of an inventory, used when the whole form is saved or
+     * submitted so an older delta cannot overwrite the saved values on the next flush.
+     * Callers should already hold the inventory's lock for the save itself, so no flush can
+     * run between the discard and the save.
+     *
+     * @param inventoryId the C_InventoryDetails entry ID
+     * @throws ConcurrentInventoryUpdateException if the inventory cannot be locked
+     */
+    public void discard(long inventoryId) throws ConcurrentInventoryUpdateException {
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId)) {
+            _pendingAutosaves.remove(inventoryId);
+        }
+    }
+
+    /**
+     * Writes the pending deltas of every inventory. Entries that were deleted or moved to
+     * another inventory since their delta was queued are skipped. An inventory that stays
+     * locked by another writer keeps its deltas for the next flush.
+     */
+    public void flush() {
+        for (Long inventoryId : _pendingAutosaves.keySet()) {
+            try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId)) {
+                PendingAutosave pendingAutosave = _pendingAutosaves.remove(inventoryId);
+                if (pendingAutosave != null) {
+                    flush(inventoryId, pendingAutosave);
+                }
+            } catch (ConcurrentInventoryUpdateException e) {
+                _log.warn("Postponed autosave of inventory ID: " + inventoryId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void flush(long inventoryId, PendingAutosave pendingAutosave) {
+        int patchedEntries = 0;
+
+        for (Map.Entry<Long, Map<String, String>> entryValues : pendingAutosave.entryValues.entrySet()) {
+            long entryId = entryValues.getKey();
+
+            try {
+                ObjectEntry objectEntry = _objectEntryLocalService.fetchObjectEntry(entryId);
+                if (objectEntry == null || _inventoryHelper.getOwningInventoryId(objectEntry) != inventoryId) {
+                    continue;
+                }
+
+                Map<String, String> values = new HashMap<>(entryValues.getValue());
+                long expectedVersion = GetterUtil.getLong(values.remove(DatasetValuesMapper.VERSION_FIELD), -1);
+
+                if (!_inventoryService.autosaveEntry(pendingAutosave.companyId, pendingAutosave.userId, entryId,
+                        values, pendingAutosave.userLocale, expectedVersion).isEmpty()) {
+                    patchedEntries++;
+                }
+            } catch (ConcurrentInventoryUpdateException e) {
+                _log.warn("Dropped stale autosave of entry ID: " + entryId + ": " + e.getMessage());
+            } catch (Exception e) {
+                _log.error("Error autosaving entry ID: " + entryId + " of inventory ID: " + inventoryId, e);
+            }
+        }
+
+        if (_log.isDebugEnabled()) {
+            _log.debug("Autosaved " + patchedEntries + " entries of inventory ID: " + inventoryId);
+        }
+    }
+
+    @Activate
+    protected void activate() {
+        _flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "InventoryAutosaveFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        _flushExecutor.scheduleWithFixedDelay(this::flush, InventoryConstants.AUTOSAVE_FLUSH_INTERVAL_SECONDS,
+                InventoryConstants.AUTOSAVE_FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        _flushExecutor.shutdown();
+
+        // Keep the users' last edits when the module stops
+        flush();
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryLockService _inventoryLockService;
+
+    @Reference
+    InventoryService _inventoryService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+    /**
+     * The coalesced deltas of one inventory and the user context to write them with.
+     */
+    private static final class PendingAutosave {
+        private final long companyId;
+        private final long userId;
+        private final String userLocale;
+        private final Map<Long, Map<String, String>> entryValues = new HashMap<>();
+
+        private PendingAutosave(long companyId, long userId, String userLocale) {
+            this.companyId = companyId;
+            this.userId = userId;
+            this.userLocale = userLocale;
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.cache.InventoryReviewCache;
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.util.InventoryBulkDeleteThreadLocal;
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.service.ObjectDefinitionLocalService;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.search.IndexStatusManagerThreadLocal;
+import com.liferay.portal.kernel.search.IndexWriterHelper;
+import com.liferay.portal.kernel.search.SearchException;
+import com.liferay.portal.kernel.transaction.Propagation;
+import com.liferay.portal.kernel.transaction.TransactionConfig;
+import com.liferay.portal.kernel.transaction.TransactionInvokerUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deletes datasets and attributes in bulk.
+ *
+ * The attributes of a whole set of datasets are found with one query over the relationship
+ * column instead of loading each dataset's attribute entries. Entries are then deleted in
+ * batches, each batch in a single transaction with per-entry reindexing suppressed, and the
+ * search documents of a batch are removed with one index request.
+ *
+ * Entries still go through ObjectEntryLocalService.deleteObjectEntry, so the extension
+ * tables, assets, permissions and model listeners are cleaned up as for a single delete.
+ * Counter listeners are expected to be suppressed by the caller, which adjusts the counters
+ * once for the whole operation. Listeners that would resolve the owning inventory of every
+ * removed entry are suppressed through {@link InventoryBulkDeleteThreadLocal}; the owning
+ * inventories are instead resolved with one projection per slice of IDs before the delete,
+ * and the cached review document of each is dropped once after commit.
+ */
+@Component(service = InventoryBulkDeleteService.class)
+public class InventoryBulkDeleteService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryBulkDeleteService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final TransactionConfig TRANSACTION_CONFIG = TransactionConfig.Factory.create(
+            Propagation.REQUIRED, new Class<?>[] {Exception.class});
+
+    private static final String UID_SEPARATOR = "_PORTLET_";
+
+    /**
+     * Deletes a set of datasets together with all of their attributes.
+     *
+     * @param companyId the company ID
+     * @param datasetIds the C_InventoryOnboarding entry IDs to delete
+     * @return the number of datasets deleted
+     * @throws PortalException if the attributes cannot be found or a batch fails to delete
+     */
+    public int deleteDatasets(long companyId, Collection<Long> datasetIds) throws PortalException {
+        if (datasetIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(datasetIds);
+        Set<Long> inventoryIds = getRelatedEntryIds(companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, ids);
+        int attributeCount = 0;
+
+        // Keep each IN clause bounded for databases that limit the parameter count
+        for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+            List<Long> attributeIds = _inventoryProjectionService.getChildIds(
+                    companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID,
+                    ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())));
+
+            attributeCount += deleteEntries(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                    attributeIds);
+        }
+
+        int datasetCount = deleteEntries(companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, ids);
+
+        invalidateReviewCache(companyId, inventoryIds);
+
+        _log.info("Bulk deleted " + datasetCount + " datasets and " + attributeCount + " attributes");
+
+        return datasetCount;
+    }
+
+    /**
+     * Deletes a set of attributes.
+     *
+     * @param companyId the company ID
+     * @param attributeIds the C_DatasetInventoryAttributeDetails entry IDs to delete
+     * @return the number of attributes deleted
+     * @throws PortalException if a batch fails to delete
+     */
+    public int deleteAttributes(long companyId, Collection<Long> attributeIds) throws PortalException {
+        if (attributeIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(attributeIds);
+        Set<Long> datasetIds = getRelatedEntryIds(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, ids);
+        Set<Long> inventoryIds = getRelatedEntryIds(companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, datasetIds);
+
+        int deletedCount = deleteEntries(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME, ids);
+
+        invalidateReviewCache(companyId, inventoryIds);
+
+        return deletedCount;
+    }
+
+    private int deleteEntries(long companyId, String objectDefinitionName, List<Long> objectEntryIds)
+            throws PortalException {
+
+        if (objectEntryIds.isEmpty()) {
+            return 0;
+        }
+
+        ObjectDefinition objectDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, objectDefinitionName);
+
+        if (objectDefinition == null) {
+            throw new PortalException("Object definition not found: " + objectDefinitionName);
+        }
+
+        int deletedCount = 0;
+
+        for (int start = 0; start < objectEntryIds.size(); start += BATCH_SIZE) {
+            List<Long> batch = objectEntryIds.subList(start, Math.min(start + BATCH_SIZE, objectEntryIds.size()));
+
+            deleteBatch(batch);
+            removeDocuments(companyId, objectDefinition, batch);
+
+            deletedCount += batch.size();
+        }
+
+        return deletedCount;
+    }
+
+    /**
+     * Deletes one batch of entries in a single transaction, without reindexing each entry or
+     * resolving the owning inventory of each entry in the model listeners.
+     */
+    private void deleteBatch(List<Long> objectEntryIds) throws PortalException {
+        try {
+            TransactionInvokerUtil.invoke(TRANSACTION_CONFIG, () -> {
+                try (SafeCloseable safeCloseable =
+                             IndexStatusManagerThreadLocal.setIndexReadOnlyWithSafeCloseable(true);
+                     SafeCloseable bulkDeleteSafeCloseable =
+                             InventoryBulkDeleteThreadLocal.setBulkDeleteWithSafeCloseable(true)) {
+
+                    for (Long objectEntryId : objectEntryIds) {
+                        _objectEntryLocalService.deleteObjectEntry(objectEntryId);
+                    }
+                }
+                return null;
+            });
+        } catch (PortalException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PortalException("Failed to delete entries " + objectEntryIds, t);
+        }
+    }
+
+    /**
+     * Removes the search documents of a deleted batch in one request. A failure leaves stale
+     * documents until the next reindex, so it is logged rather than failing the delete.
+     */
+    private void removeDocuments(long companyId, ObjectDefinition objectDefinition, List<Long> objectEntryIds) {
+        List<String> uids = new ArrayList<>(objectEntryIds.size());
+        for (Long objectEntryId : objectEntryIds) {
+            uids.add(objectDefinition.getClassName() + UID_SEPARATOR + objectEntryId);
+        }
+
+        try {
+            _indexWriterHelper.deleteDocuments(companyId, uids, false);
+        } catch (SearchException e) {
+            _log.error("Failed to remove search documents for " + uids.size() + " deleted entries of " +
+                    objectDefinition.getName(), e);
+        }
+    }
+
+    /**
+     * Reads the distinct, non-zero targets of a relationship field for a set of entries.
+     */
+    private Set<Long> getRelatedEntryIds(long companyId, String objectDefinitionName, String relationshipFieldName,
+                                         Collection<Long> objectEntryIds) throws PortalException {
+
+        Set<Long> relatedEntryIds = new HashSet<>();
+        if (objectEntryIds.isEmpty()) {
+            return relatedEntryIds;
+        }
+
+        Map<Long, Map<String, Serializable>> projections = _inventoryProjectionService.getProjections(
+                companyId, objectDefinitionName, objectEntryIds, List.of(relationshipFieldName));
+
+        for (Map<String, Serializable> projection : projections.values()) {
+            long relatedEntryId = GetterUtil.getLong(projection.get(relationshipFieldName));
+            if (relatedEntryId > 0) {
+                relatedEntryIds.add(relatedEntryId);
+            }
+        }
+        return relatedEntryIds;
+    }
+
+    /**
+     * Drops the cached review document of each affected inventory once the delete commits.
+     */
+    private void invalidateReviewCache(long companyId, Set<Long> inventoryIds) {
+        for (Long inventoryId : inventoryIds) {
+            _inventoryReviewCache.removeAfterCommit(companyId, inventoryId);
+        }
+    }
+
+    @Reference
+    IndexWriterHelper _indexWriterHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    InventoryReviewCache _inventoryReviewCache;
+
+    @Reference
+    ObjectDefinitionLocalService _objectDefinitionLocalService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+}
@@ -0,0 +1,183 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.model.ComplianceRatingUpdate;
+import com.dx.liferay.inventory.util.InventoryServiceContextFactory;
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.object.service.ObjectDefinitionLocalService;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.search.IndexStatusManagerThreadLocal;
+import com.liferay.portal.kernel.search.Indexer;
+import com.liferay.portal.kernel.search.IndexerRegistryUtil;
+import com.liferay.portal.kernel.transaction.Propagation;
+import com.liferay.portal.kernel.transaction.TransactionConfig;
+import com.liferay.portal.kernel.transaction.TransactionInvokerUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes compliance reviews onto inventory entries.
+ *
+ * Only the ratings, request state and feedback of the review are sent to updateObjectEntry,
+ * so the other fields and their i18n maps are not rewritten. The compliance score is
+ * recalculated from the new ratings and written in the same update. Each update is checked
+ * against the edit version the reviewer loaded by the same statement that advances it, and
+ * a batch of updates either commits together or not at all. Entries are reindexed once,
+ * after the batch has committed, instead of inside the transaction.
+ */
+@Component(service = InventoryComplianceService.class)
+public class InventoryComplianceService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryComplianceService.class);
+
+    private static final TransactionConfig _transactionConfig = TransactionConfig.Factory.create(
+            Propagation.REQUIRED, new Class<?>[] {Exception.class});
+
+    /**
+     * Updates the compliance review of a single inventory.
+     *
+     * @param userId the reviewing user ID
+     * @param complianceRatingUpdate the review and expected version of the inventory
+     * @throws ConcurrentInventoryUpdateException if the inventory changed since it was loaded
+     * @throws PortalException if the update fails
+     */
+    public void updateComplianceRatings(long userId, ComplianceRatingUpdate complianceRatingUpdate)
+            throws PortalException {
+
+        updateComplianceRatings(userId, List.of(complianceRatingUpdate));
+    }
+
+    /**
+     * Updates the compliance reviews of several inventories in a single transaction.
+     * If any inventory fails its version check, none of the reviews are written.
+     *
+     * @param userId the reviewing user ID
+     * @param complianceRatingUpdates the reviews and expected versions of each inventory
+     * @throws ConcurrentInventoryUpdateException if any inventory changed since it was loaded
+     * @throws PortalException if the update fails
+     */
+    public void updateComplianceRatings(long userId, List<ComplianceRatingUpdate> complianceRatingUpdates)
+            throws PortalException {
+
+        List<ObjectEntry> updatedEntries = new ArrayList<>();
+
+        try (SafeCloseable safeCloseable = IndexStatusManagerThreadLocal.setIndexReadOnlyWithSafeCloseable(true)) {
+            TransactionInvokerUtil.invoke(_transactionConfig, () -> {
+                for (ComplianceRatingUpdate complianceRatingUpdate : complianceRatingUpdates) {
+                    ObjectEntry updatedEntry = applyComplianceRatings(userId, complianceRatingUpdate);
+                    if (updatedEntry != null) {
+                        updatedEntries.add(updatedEntry);
+                    }
+                }
+                return null;
+            });
+        } catch (PortalException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PortalException("Failed to update compliance ratings", t);
+        }
+
+        for (ObjectEntry updatedEntry : updatedEntries) {
+            reindex(updatedEntry);
+        }
+
+        _log.info("Updated compliance ratings for " + complianceRatingUpdates.size() + " inventories");
+    }
+
+    private ObjectEntry applyComplianceRatings(long userId, ComplianceRatingUpdate complianceRatingUpdate)
+            throws PortalException {
+
+        long inventoryId = complianceRatingUpdate.getInventoryId();
+        ObjectEntry inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
+
+        Map<String, Serializable> values = new HashMap<>();
+        for (Map.Entry<String, Integer> rating : complianceRatingUpdate.getRatings().entrySet()) {
+            values.put(rating.getKey(), validateRating(rating.getKey(), rating.getValue()));
+        }
+
+        if (complianceRatingUpdate.getRequestState() != null) {
+            values.put(InventoryConstants.REVIEW_REQUEST_STATE_FIELD, complianceRatingUpdate.getRequestState());
+        }
+        if (complianceRatingUpdate.getFeedback() != null) {
+            values.put(InventoryConstants.REVIEW_FEEDBACK_FIELD, complianceRatingUpdate.getFeedback());
+        }
+
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        ObjectDefinition inventoryDefinition = _objectDefinitionLocalService.getObjectDefinition(
+                inventoryEntry.getObjectDefinitionId());
+
+        // The row stays locked until commit, so a concurrent review expecting the same version fails here
+        if (complianceRatingUpdate.isVersionChecked()) {
+            if (!_inventoryFieldWriter.compareAndIncrementField(inventoryDefinition, inventoryId,
+                    InventoryConstants.EDIT_VERSION_FIELD, complianceRatingUpdate.getExpectedVersion())) {
+
+                throw new ConcurrentInventoryUpdateException(
+                        "Inventory " + inventoryId + " was modified by another user (expected version " +
+                                complianceRatingUpdate.getExpectedVersion() + ")");
+            }
+        } else {
+            _inventoryFieldWriter.incrementField(inventoryDefinition, inventoryId,
+                    InventoryConstants.EDIT_VERSION_FIELD, 1);
+        }
+
+        values.put(InventoryConstants.COMPLIANCE_SCORE_FIELD, _inventoryScoringService.calculateComplianceScore(
+                inventoryEntry.getCompanyId(), inventoryId, values));
+
+        _objectEntryLocalService.updateObjectEntry(userId, inventoryId, values,
+                InventoryServiceContextFactory.create(inventoryEntry.getCompanyId(), userId));
+
+        return inventoryEntry;
+    }
+
+    /**
+     * Reindexes an inventory after its review has committed. A failure leaves the previous
+     * ratings in the search document until the next reindex, so it is logged rather than
+     * failing the committed review.
+     */
+    private void reindex(ObjectEntry inventoryEntry) {
+        try {
+            ObjectDefinition inventoryDefinition = _objectDefinitionLocalService.getObjectDefinition(
+                    inventoryEntry.getObjectDefinitionId());
+
+            Indexer<ObjectEntry> indexer = IndexerRegistryUtil.nullSafeGetIndexer(inventoryDefinition.getClassName());
+            indexer.reindex(inventoryDefinition.getClassName(), inventoryEntry.getObjectEntryId());
+        } catch (PortalException e) {
+            _log.error("Failed to reindex inventory: " + inventoryEntry.getObjectEntryId(), e);
+        }
+    }
+
+    private int validateRating(String fieldName, int rating) throws PortalException {
+        if (rating < InventoryConstants.MIN_COMPLIANCE_RATING || rating > InventoryConstants.MAX_COMPLIANCE_RATING) {
+            throw new PortalException("Invalid rating " + rating + " for " + fieldName);
+        }
+        return rating;
+    }
+
+    @Reference
+    InventoryFieldWriter _inventoryFieldWriter;
+
+    @Reference
+    InventoryScoringService _inventoryScoringService;
+
+    @Reference
+    ObjectDefinitionLocalService _objectDefinitionLocalService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+}
@@ -0,0 +1,239 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.cache.InventoryReviewCache;
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.object.model.ObjectField;
+import com.liferay.object.service.ObjectDefinitionLocalService;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.sql.dsl.Column;
+import com.liferay.petra.sql.dsl.DSLFunctionFactoryUtil;
+import com.liferay.petra.sql.dsl.DSLQueryFactoryUtil;
+import com.liferay.petra.sql.dsl.Table;
+import com.liferay.petra.sql.dsl.query.DSLQuery;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the denormalised child counters stored on inventory entries.
+ *
+ * The datasetCount field of C_InventoryDetails and the attributeCount field of
+ * C_InventoryOnboarding are adjusted incrementally on every write so list and review
+ * screens can show them without touching the child tables. A bulk reconciliation
+ * rebuilds both counters from grouped counts of the relationship columns.
+ *
+ * Counters are written through {@link InventoryFieldWriter} as single UPDATE statements:
+ * concurrent adjustments are added up by the database, and the parent entry is not
+ * rewritten, so its version, modified date and search document are left alone.
+ */
+@Component(service = InventoryCounterService.class)
+public class InventoryCounterService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryCounterService.class);
+
+    /**
+     * Adds a delta to the dataset counter of an inventory.
+     *
+     * @param inventoryId the C_InventoryDetails entry ID
+     * @param delta the number of datasets added (positive) or removed (negative)
+     */
+    public void adjustDatasetCount(long inventoryId, int delta) {
+        adjustCounter(inventoryId, InventoryConstants.DATASET_COUNT_FIELD, delta);
+    }
+
+    /**
+     * Adds a delta to the attribute counter of a dataset.
+     *
+     * @param datasetId the C_InventoryOnboarding entry ID
+     * @param delta the number of attributes added (positive) or removed (negative)
+     */
+    public void adjustAttributeCount(long datasetId, int delta) {
+        adjustCounter(datasetId, InventoryConstants.ATTRIBUTE_COUNT_FIELD, delta);
+    }
+
+    /**
+     * Rebuilds the dataset and attribute counters of every inventory in a company.
+     * Actual child counts are computed with one grouped query per child table and only
+     * entries whose stored counter differs are written.
+     *
+     * @param companyId the company ID
+     * @throws PortalException if the object definitions cannot be queried
+     */
+    public void reconcileCounters(long companyId) throws PortalException {
+        ObjectDefinition inventoryDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME);
+        ObjectDefinition datasetDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME);
+        ObjectDefinition attributeDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME);
+
+        if (inventoryDefinition == null || datasetDefinition == null || attributeDefinition == null) {
+            _log.warn("Inventory object definitions not found for company: " + companyId);
+            return;
+        }
+
+        Map<Long, Integer> datasetCounts = countChildren(
+                datasetDefinition, InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+        Map<Long, Integer> attributeCounts = countChildren(
+                attributeDefinition, InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID);
+
+        int updatedCount = reconcileCounter(inventoryDefinition, InventoryConstants.DATASET_COUNT_FIELD, datasetCounts) +
+                reconcileCounter(datasetDefinition, InventoryConstants.ATTRIBUTE_COUNT_FIELD, attributeCounts);
+
+        _log.info("Reconciled inventory counters for company " + companyId + " - Updated entries: " + updatedCount);
+    }
+
+    /**
+     * Counts child entries per parent with a single grouped query over the relationship column.
+     *
+     * @param childDefinition the object definition of the child entries
+     * @param relationshipFieldName the relationship field pointing to the parent
+     * @return map of parent entry IDs to their number of children
+     */
+    private Map<Long, Integer> countChildren(ObjectDefinition childDefinition, String relationshipFieldName)
+            throws PortalException {
+
+        ObjectField relationshipField = _objectFieldLocalService.getObjectField(
+                childDefinition.getObjectDefinitionId(), relationshipFieldName);
+
+        Table<?> childTable = _objectFieldLocalService.getTable(
+                childDefinition.getObjectDefinitionId(), relationshipField.getName());
+
+        Column<?, Long> parentIdColumn = childTable.getColumn(relationshipField.getDBColumnName(), Long.class);
+        Column<?, Long> childIdColumn = childTable.getColumn(childDefinition.getPKObjectFieldDBColumnName(), Long.class);
+
+        DSLQuery countQuery = DSLQueryFactoryUtil
+                .select(parentIdColumn, DSLFunctionFactoryUtil.count(childIdColumn))
+                .from(childTable)
+                .where(parentIdColumn.isNotNull())
+                .groupBy(parentIdColumn);
+
+        List<Object[]> rows = _objectEntryLocalService.dslQuery(countQuery);
+
+        Map<Long, Integer> childCounts = new HashMap<>();
+        for (Object[] row : rows) {
+            childCounts.put(GetterUtil.getLong(row[0]), GetterUtil.getInteger(row[1]));
+        }
+        return childCounts;
+    }
+
+    /**
+     * Compares the stored counter of every entry of a definition with the actual count
+     * and writes the entries that drifted.
+     *
+     * @param objectDefinition the object definition holding the counter field
+     * @param counterFieldName the counter field name
+     * @param actualCounts map of entry IDs to their actual number of children
+     * @return the number of entries that were updated
+     */
+    private int reconcileCounter(ObjectDefinition objectDefinition, String counterFieldName,
+                                 Map<Long, Integer> actualCounts) throws PortalException {
+
+        ObjectField counterField = _objectFieldLocalService.getObjectField(
+                objectDefinition.getObjectDefinitionId(), counterFieldName);
+
+        Table<?> table = _objectFieldLocalService.getTable(
+                objectDefinition.getObjectDefinitionId(), counterField.getName());
+
+        Column<?, Long> idColumn = table.getColumn(objectDefinition.getPKObjectFieldDBColumnName(), Long.class);
+        Column<?, Integer> counterColumn = table.getColumn(counterField.getDBColumnName(), Integer.class);
+
+        List<Object[]> rows = _objectEntryLocalService.dslQuery(
+                DSLQueryFactoryUtil.select(idColumn, counterColumn).from(table));
+
+        int updatedCount = 0;
+        for (Object[] row : rows) {
+            long objectEntryId = GetterUtil.getLong(row[0]);
+            int storedCount = GetterUtil.getInteger(row[1]);
+            int actualCount = actualCounts.getOrDefault(objectEntryId, 0);
+
+            if (storedCount != actualCount) {
+                setCounter(objectDefinition, objectEntryId, counterFieldName, actualCount);
+                updatedCount++;
+            }
+        }
+        return updatedCount;
+    }
+
+    private void adjustCounter(long objectEntryId, String counterFieldName, int delta) {
+        if (objectEntryId <= 0 || delta == 0) {
+            return;
+        }
+
+        ObjectEntry objectEntry = _objectEntryLocalService.fetchObjectEntry(objectEntryId);
+        if (objectEntry == null) {
+            return;
+        }
+
+        try {
+            ObjectDefinition objectDefinition = _objectDefinitionLocalService.getObjectDefinition(
+                    objectEntry.getObjectDefinitionId());
+
+            // Applied by the database, so concurrent adjustments of one counter do not overwrite each other
+            _inventoryFieldWriter.incrementField(objectDefinition, objectEntryId, counterFieldName, delta);
+
+            invalidateReviewCache(objectEntry.getCompanyId(), objectDefinition, objectEntryId);
+        } catch (PortalException e) {
+            _log.error("Failed to adjust " + counterFieldName + " for entry: " + objectEntryId, e);
+        }
+    }
+
+    private void setCounter(ObjectDefinition objectDefinition, long objectEntryId, String counterFieldName,
+                            int count) {
+
+        try {
+            _inventoryFieldWriter.setFields(objectDefinition, objectEntryId, Map.of(counterFieldName, count));
+
+            invalidateReviewCache(objectDefinition.getCompanyId(), objectDefinition, objectEntryId);
+        } catch (PortalException e) {
+            _log.error("Failed to update " + counterFieldName + " for entry: " + objectEntryId, e);
+        }
+    }
+
+    /**
+     * Removes the cached review document showing a counter. Counter writes do not update the
+     * entry, so the review cache listener does not see them.
+     */
+    private void invalidateReviewCache(long companyId, ObjectDefinition objectDefinition, long objectEntryId)
+            throws PortalException {
+
+        long inventoryId = objectEntryId;
+
+        if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinition.getName())) {
+            inventoryId = _inventoryProjectionService.getRelatedEntryId(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, objectEntryId);
+        }
+
+        _inventoryReviewCache.removeAfterCommit(companyId, inventoryId);
+    }
+
+    @Reference
+    InventoryFieldWriter _inventoryFieldWriter;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    InventoryReviewCache _inventoryReviewCache;
+
+    @Reference
+    ObjectDefinitionLocalService _objectDefinitionLocalService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+    @Reference
+    ObjectFieldLocalService _objectFieldLocalService;
+
+}
@@ -0,0 +1,247 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.util.FileValidationUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports an inventory back into the column layout of the sample template, so the file
+ * can be edited and uploaded again.
+ *
+ * Rows are written with SXSSFWorkbook, which keeps only a window of rows in memory and
+ * flushes older rows to a compressed temporary file. Datasets and attributes are read
+ * page by page through column projections, so memory stays bounded for any inventory
+ * size. Each dataset spans one row per attribute, with its dataset-level cells merged
+ * across those rows as the import expects.
+ */
+@Component(service = InventoryExportService.class)
+public class InventoryExportService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryExportService.class);
+
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int DATASET_PAGE_SIZE = 100;
+    private static final int ATTRIBUTE_PAGE_SIZE = 500;
+
+    private static final List<String> ATTRIBUTE_COLUMN_FIELDS = List.of("attribute", "attributeDescription");
+
+    private static final List<String> DATASET_FIELDS;
+
+    static {
+        List<String> datasetFields = new ArrayList<>(InventoryConstants.TEMPLATE_COLUMN_FIELDS);
+        datasetFields.remove(InventoryConstants.TEMPLATE_ROW_NUMBER_COLUMN);
+        datasetFields.removeAll(ATTRIBUTE_COLUMN_FIELDS);
+        DATASET_FIELDS = List.copyOf(datasetFields);
+    }
+
+    /**
+     * Writes an inventory as an XLSX file in the sample template layout.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @param sampleFileEntry the configured sample template, used for the header rows
+     * @param outputStream the stream to write the workbook to
+     * @throws PortalException if the inventory or template cannot be read, or writing fails
+     */
+    public void exportInventory(long companyId, long inventoryId, FileEntry sampleFileEntry,
+                                OutputStream outputStream) throws PortalException {
+
+        if (sampleFileEntry == null) {
+            throw new PortalException("Sample file not configured");
+        }
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        try {
+            SXSSFSheet sheet = workbook.createSheet();
+            int columnCount = copyTemplateHeader(sampleFileEntry, workbook, sheet);
+
+            int rowCount = writeDatasets(companyId, inventoryId, sheet, columnCount);
+
+            workbook.write(outputStream);
+
+            _log.info("Exported inventory " + inventoryId + " with " + rowCount + " rows");
+        } catch (IOException e) {
+            throw new PortalException("Failed to export inventory " + inventoryId, e);
+        } finally {
+            // Delete the temporary files backing the flushed rows
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Copies the header rows and their merged regions from the sample template.
+     *
+     * @return the number of template columns that are exported
+     */
+    private int copyTemplateHeader(FileEntry sampleFileEntry, Workbook workbook, Sheet sheet)
+            throws IOException, PortalException {
+
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+
+        try (InputStream inputStream = sampleFileEntry.getContentStream();
+             Workbook templateWorkbook = new XSSFWorkbook(inputStream)) {
+
+            Sheet templateSheet = templateWorkbook.getSheetAt(0);
+            int columnCount = 0;
+
+            for (int rowIndex = 0; rowIndex < InventoryConstants.DEFAULT_HEADER_ROW_COUNT; rowIndex++) {
+                Row templateRow = templateSheet.getRow(rowIndex);
+                Row headerRow = sheet.createRow(rowIndex);
+
+                if (templateRow == null) {
+                    continue;
+                }
+
+                for (int columnIndex = 0; columnIndex < templateRow.getLastCellNum(); columnIndex++) {
+                    Cell headerCell = headerRow.createCell(columnIndex);
+                    headerCell.setCellValue(FileValidationUtil.getCellValue(templateRow.getCell(columnIndex)));
+                    headerCell.setCellStyle(headerStyle);
+                }
+
+                if (rowIndex == InventoryConstants.DEFAULT_HEADER_ROW_INDEX) {
+                    columnCount = Math.min(templateRow.getLastCellNum(), InventoryConstants.TEMPLATE_COLUMN_FIELDS.size());
+                }
+            }
+
+            for (CellRangeAddress mergedRegion : templateSheet.getMergedRegions()) {
+                if (mergedRegion.getLastRow() < InventoryConstants.DEFAULT_HEADER_ROW_COUNT) {
+                    sheet.addMergedRegion(mergedRegion);
+                }
+            }
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                sheet.setColumnWidth(columnIndex, templateSheet.getColumnWidth(columnIndex));
+            }
+
+            return columnCount;
+        }
+    }
+
+    /**
+     * Writes the datasets of an inventory page by page, one row per attribute.
+     *
+     * @return the number of data rows written
+     */
+    private int writeDatasets(long companyId, long inventoryId, Sheet sheet, int columnCount)
+            throws PortalException {
+
+        int rowIndex = InventoryConstants.DEFAULT_HEADER_ROW_COUNT;
+        int datasetNumber = 0;
+        int start = 0;
+
+        while (true) {
+            Map<Long, Map<String, Serializable>> datasets = _inventoryProjectionService.getChildProjections(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, inventoryId, DATASET_FIELDS,
+                    start, start + DATASET_PAGE_SIZE);
+
+            for (Map.Entry<Long, Map<String, Serializable>> dataset : datasets.entrySet()) {
+                rowIndex = writeDataset(companyId, dataset.getKey(), dataset.getValue(), ++datasetNumber,
+                        sheet, rowIndex, columnCount);
+            }
+
+            if (datasets.size() < DATASET_PAGE_SIZE) {
+                return rowIndex - InventoryConstants.DEFAULT_HEADER_ROW_COUNT;
+            }
+            start += DATASET_PAGE_SIZE;
+        }
+    }
+
+    /**
+     * Writes one dataset and its attributes starting at the given row.
+     *
+     * @return the index of the row after the dataset
+     */
+    private int writeDataset(long companyId, long datasetId, Map<String, Serializable> dataset, int datasetNumber,
+                             Sheet sheet, int firstRowIndex, int columnCount) throws PortalException {
+
+        int rowIndex = firstRowIndex;
+        int start = 0;
+
+        while (true) {
+            Map<Long, Map<String, Serializable>> attributes = _inventoryProjectionService.getChildProjections(
+                    companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId, ATTRIBUTE_COLUMN_FIELDS,
+                    start, start + ATTRIBUTE_PAGE_SIZE);
+
+            for (Map<String, Serializable> attribute : attributes.values()) {
+                writeRow(sheet.createRow(rowIndex), rowIndex == firstRowIndex, dataset, datasetNumber,
+                        attribute, columnCount);
+                rowIndex++;
+            }
+
+            if (attributes.size() < ATTRIBUTE_PAGE_SIZE) {
+                break;
+            }
+            start += ATTRIBUTE_PAGE_SIZE;
+        }
+
+        // Datasets without attributes still take one row
+        if (rowIndex == firstRowIndex) {
+            writeRow(sheet.createRow(rowIndex), true, dataset, datasetNumber, Map.of(), columnCount);
+            rowIndex++;
+        }
+
+        // Regions never overlap here, so skip the per-region overlap scan
+        if (rowIndex - firstRowIndex > 1) {
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (!ATTRIBUTE_COLUMN_FIELDS.contains(InventoryConstants.TEMPLATE_COLUMN_FIELDS.get(columnIndex))) {
+                    sheet.addMergedRegionUnsafe(
+                            new CellRangeAddress(firstRowIndex, rowIndex - 1, columnIndex, columnIndex));
+                }
+            }
+        }
+
+        return rowIndex;
+    }
+
+    /**
+     * Writes one data row. Dataset-level values are only written on the first row of a
+     * dataset; the cells below it are covered by the merged region.
+     */
+    private void writeRow(Row row, boolean firstDatasetRow, Map<String, Serializable> dataset, int datasetNumber,
+                          Map<String, Serializable> attribute, int columnCount) {
+
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            String fieldName = InventoryConstants.TEMPLATE_COLUMN_FIELDS.get(columnIndex);
+
+            if (ATTRIBUTE_COLUMN_FIELDS.contains(fieldName)) {
+                row.createCell(columnIndex).setCellValue(GetterUtil.getString(attribute.get(fieldName)));
+            } else if (!firstDatasetRow) {
+                row.createCell(columnIndex);
+            } else if (InventoryConstants.TEMPLATE_ROW_NUMBER_COLUMN.equals(fieldName)) {
+                row.createCell(columnIndex).setCellValue(datasetNumber);
+            } else {
+                row.createCell(columnIndex).setCellValue(GetterUtil.getString(dataset.get(fieldName)));
+            }
+        }
+    }
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+}
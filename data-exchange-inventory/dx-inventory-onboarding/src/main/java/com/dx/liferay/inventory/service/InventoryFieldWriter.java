@@ -0,0 +1,153 @@
+package com.dx.liferay.inventory.service;
+
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.model.ObjectField;
+import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.sql.dsl.Table;
+import com.liferay.portal.kernel.dao.jdbc.CurrentConnectionUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.transaction.Propagation;
+import com.liferay.portal.kernel.transaction.TransactionConfig;
+import com.liferay.portal.kernel.transaction.TransactionInvokerUtil;
+import com.liferay.portal.kernel.util.InfrastructureUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes system-maintained numeric fields, such as counters, scores and edit versions,
+ * straight to the table that stores them.
+ *
+ * Each write is a single UPDATE statement run in the caller's transaction, so concurrent
+ * increments of one field are applied by the database instead of being read and written
+ * back by Java. The object entry itself is not updated: its MVCC version and modified
+ * date stay as they are, no model listeners run and the entry is not reindexed. Only
+ * fields that are not indexed and not edited by users may be written this way.
+ */
+@Component(service = InventoryFieldWriter.class)
+public class InventoryFieldWriter {
+
+    private static final TransactionConfig TRANSACTION_CONFIG = TransactionConfig.Factory.create(
+            Propagation.REQUIRED, new Class<?>[] {Exception.class});
+
+    /**
+     * Adds a delta to an integer field of an entry. The stored value never drops below zero
+     * and an empty value counts as zero.
+     *
+     * @param objectDefinition the object definition of the entry
+     * @param objectEntryId the object entry ID
+     * @param fieldName the integer field name
+     * @param delta the amount to add, which may be negative
+     * @return true if the entry exists and was updated
+     * @throws PortalException if the field cannot be resolved or the update fails
+     */
+    public boolean incrementField(ObjectDefinition objectDefinition, long objectEntryId, String fieldName,
+                                  long delta) throws PortalException {
+
+        Table<?> table = _objectFieldLocalService.getTable(objectDefinition.getObjectDefinitionId(), fieldName);
+        String column = getDBColumnName(objectDefinition, fieldName);
+
+        String sql = "update " + table.getTableName() + " set " + column + " = case when coalesce(" + column +
+                ", 0) + ? < 0 then 0 else coalesce(" + column + ", 0) + ? end where " +
+                objectDefinition.getPKObjectFieldDBColumnName() + " = ?";
+
+        return executeUpdate(sql, List.of(delta, delta, objectEntryId)) > 0;
+    }
+
+    /**
+     * Adds one to an integer field of an entry if it still holds the expected value. The
+     * comparison and the increment are one statement, and the updated row stays locked
+     * until the caller's transaction ends, so a concurrent writer expecting the same value
+     * fails instead of overwriting this write. An empty value counts as zero.
+     *
+     * @param objectDefinition the object definition of the entry
+     * @param objectEntryId the object entry ID
+     * @param fieldName the integer field name
+     * @param expectedValue the value the field must hold
+     * @return true if the field held the expected value and was incremented
+     * @throws PortalException if the field cannot be resolved or the update fails
+     */
+    public boolean compareAndIncrementField(ObjectDefinition objectDefinition, long objectEntryId, String fieldName,
+                                            long expectedValue) throws PortalException {
+
+        Table<?> table = _objectFieldLocalService.getTable(objectDefinition.getObjectDefinitionId(), fieldName);
+        String column = getDBColumnName(objectDefinition, fieldName);
+
+        String sql = "update " + table.getTableName() + " set " + column + " = coalesce(" + column +
+                ", 0) + 1 where " + objectDefinition.getPKObjectFieldDBColumnName() + " = ? and coalesce(" +
+                column + ", 0) = ?";
+
+        return executeUpdate(sql, List.of(objectEntryId, expectedValue)) > 0;
+    }
+
+    /**
+     * Sets numeric fields of an entry, running one UPDATE per table that stores them.
+     *
+     * @param objectDefinition the object definition of the entry
+     * @param objectEntryId the object entry ID
+     * @param values the new values keyed by field name
+     * @throws PortalException if a field cannot be resolved or the update fails
+     */
+    public void setFields(ObjectDefinition objectDefinition, long objectEntryId, Map<String, ? extends Number> values)
+            throws PortalException {
+
+        Map<String, List<String>> columnsByTable = new LinkedHashMap<>();
+        Map<String, List<Object>> parametersByTable = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ? extends Number> value : values.entrySet()) {
+            String tableName = _objectFieldLocalService.getTable(
+                    objectDefinition.getObjectDefinitionId(), value.getKey()).getTableName();
+
+            columnsByTable.computeIfAbsent(tableName, name -> new ArrayList<>())
+                    .add(getDBColumnName(objectDefinition, value.getKey()) + " = ?");
+            parametersByTable.computeIfAbsent(tableName, name -> new ArrayList<>()).add(value.getValue());
+        }
+
+        for (Map.Entry<String, List<String>> tableColumns : columnsByTable.entrySet()) {
+            List<Object> parameters = parametersByTable.get(tableColumns.getKey());
+            parameters.add(objectEntryId);
+
+            executeUpdate("update " + tableColumns.getKey() + " set " + String.join(", ", tableColumns.getValue()) +
+                    " where " + objectDefinition.getPKObjectFieldDBColumnName() + " = ?", parameters);
+        }
+    }
+
+    private String getDBColumnName(ObjectDefinition objectDefinition, String fieldName) throws PortalException {
+        ObjectField objectField = _objectFieldLocalService.getObjectField(
+                objectDefinition.getObjectDefinitionId(), fieldName);
+
+        return objectField.getDBColumnName();
+    }
+
+    /**
+     * Runs a statement on the connection of the current transaction, starting one if needed.
+     */
+    private int executeUpdate(String sql, List<?> parameters) throws PortalException {
+        try {
+            return TransactionInvokerUtil.invoke(TRANSACTION_CONFIG, () -> {
+                Connection connection = CurrentConnectionUtil.getConnection(InfrastructureUtil.getDataSource());
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        preparedStatement.setObject(i + 1, parameters.get(i));
+                    }
+                    return preparedStatement.executeUpdate();
+                }
+            });
+        } catch (PortalException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PortalException("Failed to execute " + sql, t);
+        }
+    }
+
+    @Reference
+    ObjectFieldLocalService _objectFieldLocalService;
+
+}
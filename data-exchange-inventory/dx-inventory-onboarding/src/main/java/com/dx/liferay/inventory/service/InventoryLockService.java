@@ -0,0 +1,165 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.kernel.lock.Lock;
+import com.liferay.portal.kernel.lock.LockManager;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises writes to the same inventory across threads and cluster nodes.
+ *
+ * Set-based updates compute the datasets to delete from their own snapshot of the
+ * inventory, so two overlapping updates of one inventory can delete each other's new rows.
+ * A caller first takes a local lock of the inventory, which queues writers on the same
+ * node without touching the database, and then the portal's lock for the inventory, which
+ * excludes writers on other nodes. Local locks are created per inventory while they have
+ * holders or waiters and dropped afterwards, so a writer waiting on the cluster lock only
+ * holds up other writers of the same inventory. Cluster locks older than
+ * {@link InventoryConstants#INVENTORY_LOCK_EXPIRATION_MS} are treated as left behind by a
+ * stopped node and taken over.
+ */
+@Component(service = InventoryLockService.class)
+public class InventoryLockService {
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryLockService.class);
+
+    private static final String LOCK_CLASS_NAME = InventoryLockService.class.getName();
+
+    private static final long CLUSTER_LOCK_RETRY_MS = 100;
+
+    private static final ThreadLocal<Set<Long>> _heldInventoryIds = ThreadLocal.withInitial(HashSet::new);
+
+    private final Map<Long, LocalLock> _localLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Locks an inventory for a write. Nested calls for an inventory the thread already
+     * holds return immediately.
+     *
+     * @param inventoryId the C_InventoryDetails entry ID
+     * @return closes the lock, for use in a try-with-resources block
+     * @throws ConcurrentInventoryUpdateException if the inventory stays locked by another
+     *         writer for longer than {@link InventoryConstants#INVENTORY_LOCK_TIMEOUT_MS}
+     */
+    public SafeCloseable lock(long inventoryId) throws ConcurrentInventoryUpdateException {
+        Set<Long> heldInventoryIds = _heldInventoryIds.get();
+        if (heldInventoryIds.contains(inventoryId)) {
+            return () -> {
+            };
+        }
+
+        long deadline = System.currentTimeMillis() + InventoryConstants.INVENTORY_LOCK_TIMEOUT_MS;
+        LocalLock localLock = acquireLocalLock(inventoryId);
+
+        String key = String.valueOf(inventoryId);
+        String owner = PortalUUIDUtil.generate();
+
+        try {
+            acquireClusterLock(inventoryId, key, owner, deadline);
+        } catch (ConcurrentInventoryUpdateException | RuntimeException e) {
+            releaseLocalLock(inventoryId, localLock);
+            throw e;
+        }
+
+        heldInventoryIds.add(inventoryId);
+
+        return () -> {
+            try {
+                _lockManager.unlock(LOCK_CLASS_NAME, key, owner);
+            } catch (Exception e) {
+                _log.error("Error releasing lock of inventory ID: " + inventoryId, e);
+            } finally {
+                heldInventoryIds.remove(inventoryId);
+                releaseLocalLock(inventoryId, localLock);
+            }
+        };
+    }
+
+    private LocalLock acquireLocalLock(long inventoryId) throws ConcurrentInventoryUpdateException {
+        LocalLock localLock = _localLocks.compute(inventoryId, (id, existingLock) -> {
+            LocalLock lock = existingLock != null ? existingLock : new LocalLock();
+            lock.users++;
+            return lock;
+        });
+
+        try {
+            if (localLock.lock.tryLock(InventoryConstants.INVENTORY_LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return localLock;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            removeLocalLockUser(inventoryId);
+            throw new ConcurrentInventoryUpdateException("Interrupted waiting for inventory " + inventoryId, e);
+        }
+
+        removeLocalLockUser(inventoryId);
+        throw new ConcurrentInventoryUpdateException("Inventory " + inventoryId + " is being updated");
+    }
+
+    private void releaseLocalLock(long inventoryId, LocalLock localLock) {
+        localLock.lock.unlock();
+        removeLocalLockUser(inventoryId);
+    }
+
+    private void removeLocalLockUser(long inventoryId) {
+        _localLocks.computeIfPresent(inventoryId, (id, localLock) -> --localLock.users == 0 ? null : localLock);
+    }
+
+    private void acquireClusterLock(long inventoryId, String key, String owner, long deadline)
+            throws ConcurrentInventoryUpdateException {
+
+        while (true) {
+            Lock lock = _lockManager.lock(LOCK_CLASS_NAME, key, owner);
+
+            if (owner.equals(lock.getOwner())) {
+                return;
+            }
+
+            if (System.currentTimeMillis() - lock.getCreateDate().getTime() >
+                    InventoryConstants.INVENTORY_LOCK_EXPIRATION_MS) {
+
+                _log.warn("Taking over expired lock of inventory ID: " + inventoryId);
+
+                if (owner.equals(_lockManager.lock(LOCK_CLASS_NAME, key, lock.getOwner(), owner).getOwner())) {
+                    return;
+                }
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new ConcurrentInventoryUpdateException("Inventory " + inventoryId + " is being updated");
+            }
+
+            try {
+                Thread.sleep(CLUSTER_LOCK_RETRY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConcurrentInventoryUpdateException("Interrupted waiting for inventory " + inventoryId, e);
+            }
+        }
+    }
+
+    @Reference
+    LockManager _lockManager;
+
+    /**
+     * The local lock of one inventory and the number of threads holding or waiting for it,
+     * which is only changed inside the map's compute calls.
+     */
+    private static final class LocalLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+}
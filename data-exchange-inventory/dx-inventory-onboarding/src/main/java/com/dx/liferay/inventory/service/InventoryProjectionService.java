@@ -0,0 +1,441 @@
+package com.dx.liferay.inventory.service;
+
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.model.ObjectEntryTable;
+import com.liferay.object.model.ObjectField;
+import com.liferay.object.service.ObjectDefinitionLocalService;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.sql.dsl.Column;
+import com.liferay.petra.sql.dsl.DSLQueryFactoryUtil;
+import com.liferay.petra.sql.dsl.Table;
+import com.liferay.petra.sql.dsl.expression.Expression;
+import com.liferay.petra.sql.dsl.expression.Predicate;
+import com.liferay.petra.sql.dsl.query.DSLQuery;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.Validator;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Read path that selects only the object field columns a view needs, instead of
+ * hydrating whole entries through ObjectEntry.getValues().
+ *
+ * Fields are grouped by the table that stores them and each table is queried once per
+ * slice of at most {@link #MAX_IN_LIST_SIZE} entry IDs, which keeps every IN list within the
+ * bind parameter and IN list limits of Oracle and SQL Server however many entries are
+ * projected. Localized fields are read from the localization table and resolved to a single
+ * value using the same locale preference as the review screen (en_US, then ar_SA, then
+ * any other language). Projections are returned keyed by object entry ID, in ID order.
+ */
+@Component(service = InventoryProjectionService.class)
+public class InventoryProjectionService {
+
+    public static final String CREATE_DATE = "createDate";
+    public static final String MODIFIED_DATE = "modifiedDate";
+    public static final String STATUS = "status";
+    public static final String USER_ID = "userId";
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryProjectionService.class);
+
+    private static final int MAX_IN_LIST_SIZE = 500;
+
+    private static final String LANGUAGE_ID_COLUMN = "languageId";
+    private static final List<String> PREFERRED_LANGUAGE_IDS = List.of("en_US", "ar_SA");
+
+    /**
+     * Projects the given fields of a single object entry.
+     *
+     * @param companyId the company ID
+     * @param objectDefinitionName the object definition name
+     * @param objectEntryId the object entry ID
+     * @param fieldNames the object field names to select
+     * @return map of field names to values, empty if the entry does not exist
+     * @throws PortalException if the object definition or fields cannot be resolved
+     */
+    public Map<String, Serializable> getProjection(long companyId, String objectDefinitionName, long objectEntryId,
+                                                   Collection<String> fieldNames) throws PortalException {
+
+        ObjectDefinition objectDefinition = getObjectDefinition(companyId, objectDefinitionName);
+
+        return project(objectDefinition, List.of(objectEntryId), fieldNames)
+                .getOrDefault(objectEntryId, new HashMap<>());
+    }
+
+    /**
+     * Projects the given fields of a range of child entries linked to a parent entry.
+     *
+     * @param companyId the company ID
+     * @param childDefinitionName the object definition name of the children
+     * @param relationshipFieldName the relationship field on the children pointing to the parent
+     * @param parentId the parent object entry ID
+     * @param fieldNames the object field names to select
+     * @param start the lower bound of the range, or QueryUtil.ALL_POS
+     * @param end the upper bound of the range, or QueryUtil.ALL_POS
+     * @return projections keyed by child entry ID, ordered by ID
+     * @throws PortalException if the object definition or fields cannot be resolved
+     */
+    public Map<Long, Map<String, Serializable>> getChildProjections(long companyId, String childDefinitionName,
+                                                                    String relationshipFieldName, long parentId,
+                                                                    Collection<String> fieldNames, int start, int end)
+            throws PortalException {
+
+        ObjectDefinition childDefinition = getObjectDefinition(companyId, childDefinitionName);
+
+        ObjectField relationshipField = _objectFieldLocalService.getObjectField(
+                childDefinition.getObjectDefinitionId(), relationshipFieldName);
+
+        Table<?> relationshipTable = _objectFieldLocalService.getTable(
+                childDefinition.getObjectDefinitionId(), relationshipField.getName());
+
+        Column<?, Long> childIdColumn = relationshipTable.getColumn(
+                childDefinition.getPKObjectFieldDBColumnName(), Long.class);
+        Column<?, Long> parentIdColumn = relationshipTable.getColumn(
+                relationshipField.getDBColumnName(), Long.class);
+
+        DSLQuery childIdsQuery = DSLQueryFactoryUtil
+                .select(childIdColumn)
+                .from(relationshipTable)
+                .where(parentIdColumn.eq(parentId))
+                .orderBy(childIdColumn.ascending())
+                .limit(start, end);
+
+        List<Long> childIds = _objectEntryLocalService.dslQuery(childIdsQuery);
+
+        return project(childDefinition, childIds, fieldNames);
+    }
+
+    /**
+     * Returns the IDs of all child entries linked to any of the given parent entries, with
+     * one query over the relationship column per slice of parent IDs.
+     *
+     * @param companyId the company ID
+     * @param childDefinitionName the object definition name of the children
+     * @param relationshipFieldName the relationship field on the children pointing to the parent
+     * @param parentIds the parent object entry IDs
+     * @return the child entry IDs, ordered by ID
+     * @throws PortalException if the object definition or relationship field cannot be resolved
+     */
+    public List<Long> getChildIds(long companyId, String childDefinitionName, String relationshipFieldName,
+                                  Collection<Long> parentIds) throws PortalException {
+
+        if (parentIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ObjectDefinition childDefinition = getObjectDefinition(companyId, childDefinitionName);
+
+        ObjectField relationshipField = _objectFieldLocalService.getObjectField(
+                childDefinition.getObjectDefinitionId(), relationshipFieldName);
+
+        Table<?> relationshipTable = _objectFieldLocalService.getTable(
+                childDefinition.getObjectDefinitionId(), relationshipField.getName());
+
+        Column<?, Long> childIdColumn = relationshipTable.getColumn(
+                childDefinition.getPKObjectFieldDBColumnName(), Long.class);
+        Column<?, Long> parentIdColumn = relationshipTable.getColumn(
+                relationshipField.getDBColumnName(), Long.class);
+
+        List<Long> childIds = new ArrayList<>();
+
+        for (Long[] parentIdsSlice : slice(new ArrayList<>(parentIds))) {
+            DSLQuery childIdsQuery = DSLQueryFactoryUtil
+                    .select(childIdColumn)
+                    .from(relationshipTable)
+                    .where(parentIdColumn.in(parentIdsSlice));
+
+            childIds.addAll(_objectEntryLocalService.dslQuery(childIdsQuery));
+        }
+
+        Collections.sort(childIds);
+        return childIds;
+    }
+
+    /**
+     * Projects the given fields of a set of object entries of one object definition, so
+     * writers can compare or version-check stored values without loading the entries.
+     *
+     * @param companyId the company ID
+     * @param objectDefinitionName the object definition name
+     * @param objectEntryIds the object entry IDs
+     * @param fieldNames the object field names to select
+     * @return projections keyed by entry ID; entries that no longer exist have empty projections
+     * @throws PortalException if the object definition or fields cannot be resolved
+     */
+    public Map<Long, Map<String, Serializable>> getProjections(long companyId, String objectDefinitionName,
+                                                               Collection<Long> objectEntryIds,
+                                                               Collection<String> fieldNames)
+            throws PortalException {
+
+        ObjectDefinition objectDefinition = getObjectDefinition(companyId, objectDefinitionName);
+
+        return project(objectDefinition, new ArrayList<>(objectEntryIds), fieldNames);
+    }
+
+    /**
+     * Projects the given fields of every entry of an object definition together with the
+     * userId, status and createDate audit columns, for list screens.
+     *
+     * @param companyId the company ID
+     * @param objectDefinitionName the object definition name
+     * @param fieldNames the object field names to select
+     * @return projections keyed by entry ID, ordered by ID
+     * @throws PortalException if the object definition or fields cannot be resolved
+     */
+    public Map<Long, Map<String, Serializable>> getEntrySummaries(long companyId, String objectDefinitionName,
+                                                                  Collection<String> fieldNames)
+            throws PortalException {
+
+        ObjectDefinition objectDefinition = getObjectDefinition(companyId, objectDefinitionName);
+
+        DSLQuery auditQuery = DSLQueryFactoryUtil
+                .select(ObjectEntryTable.INSTANCE.objectEntryId, ObjectEntryTable.INSTANCE.userId,
+                        ObjectEntryTable.INSTANCE.status, ObjectEntryTable.INSTANCE.createDate)
+                .from(ObjectEntryTable.INSTANCE)
+                .where(ObjectEntryTable.INSTANCE.objectDefinitionId.eq(objectDefinition.getObjectDefinitionId()))
+                .orderBy(ObjectEntryTable.INSTANCE.objectEntryId.ascending());
+
+        List<Object[]> auditRows = _objectEntryLocalService.dslQuery(auditQuery);
+
+        List<Long> objectEntryIds = new ArrayList<>(auditRows.size());
+        for (Object[] auditRow : auditRows) {
+            objectEntryIds.add(GetterUtil.getLong(auditRow[0]));
+        }
+
+        Map<Long, Map<String, Serializable>> summaries = project(objectDefinition, objectEntryIds, fieldNames);
+
+        for (Object[] auditRow : auditRows) {
+            Map<String, Serializable> summary = summaries.get(GetterUtil.getLong(auditRow[0]));
+            summary.put(USER_ID, GetterUtil.getLong(auditRow[1]));
+            summary.put(STATUS, GetterUtil.getInteger(auditRow[2]));
+            summary.put(CREATE_DATE, (Date) auditRow[3]);
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Projects the given fields of the next page of entries of an object definition, using
+     * keyset pagination on the entry ID so each page is an index range scan regardless of
+     * how deep the caller has paged. The userId, status, createDate and modifiedDate audit
+     * columns are included.
+     *
+     * @param companyId the company ID
+     * @param objectDefinitionName the object definition name
+     * @param fieldNames the object field names to select
+     * @param afterObjectEntryId the last entry ID of the previous page, or 0 for the first page
+     * @param modifiedSince only return entries modified at or after this date, or null for all entries
+     * @param pageSize the maximum number of entries to return
+     * @return projections keyed by entry ID, ordered by ID
+     * @throws PortalException if the object definition or fields cannot be resolved
+     */
+    public Map<Long, Map<String, Serializable>> getEntryPage(long companyId, String objectDefinitionName,
+                                                             Collection<String> fieldNames, long afterObjectEntryId,
+                                                             Date modifiedSince, int pageSize)
+            throws PortalException {
+
+        ObjectDefinition objectDefinition = getObjectDefinition(companyId, objectDefinitionName);
+
+        Predicate pagePredicate = ObjectEntryTable.INSTANCE.objectDefinitionId
+                .eq(objectDefinition.getObjectDefinitionId())
+                .and(ObjectEntryTable.INSTANCE.objectEntryId.gt(afterObjectEntryId));
+
+        if (modifiedSince != null) {
+            pagePredicate = pagePredicate.and(ObjectEntryTable.INSTANCE.modifiedDate.gte(modifiedSince));
+        }
+
+        DSLQuery auditQuery = DSLQueryFactoryUtil
+                .select(ObjectEntryTable.INSTANCE.objectEntryId, ObjectEntryTable.INSTANCE.userId,
+                        ObjectEntryTable.INSTANCE.status, ObjectEntryTable.INSTANCE.createDate,
+                        ObjectEntryTable.INSTANCE.modifiedDate)
+                .from(ObjectEntryTable.INSTANCE)
+                .where(pagePredicate)
+                .orderBy(ObjectEntryTable.INSTANCE.objectEntryId.ascending())
+                .limit(0, pageSize);
+
+        List<Object[]> auditRows = _objectEntryLocalService.dslQuery(auditQuery);
+
+        List<Long> objectEntryIds = new ArrayList<>(auditRows.size());
+        for (Object[] auditRow : auditRows) {
+            objectEntryIds.add(GetterUtil.getLong(auditRow[0]));
+        }
+
+        Map<Long, Map<String, Serializable>> entries = project(objectDefinition, objectEntryIds, fieldNames);
+
+        for (Object[] auditRow : auditRows) {
+            Map<String, Serializable> entry = entries.get(GetterUtil.getLong(auditRow[0]));
+            entry.put(USER_ID, GetterUtil.getLong(auditRow[1]));
+            entry.put(STATUS, GetterUtil.getInteger(auditRow[2]));
+            entry.put(CREATE_DATE, (Date) auditRow[3]);
+            entry.put(MODIFIED_DATE, (Date) auditRow[4]);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Reads the ID of the entry a relationship field points to.
+     *
+     * @param companyId the company ID
+     * @param objectDefinitionName the object definition name of the entry holding the relationship
+     * @param relationshipFieldName the relationship field name
+     * @param objectEntryId the object entry ID
+     * @return the related entry ID, or 0 if none
+     * @throws PortalException if the object definition or field cannot be resolved
+     */
+    public long getRelatedEntryId(long companyId, String objectDefinitionName, String relationshipFieldName,
+                                  long objectEntryId) throws PortalException {
+
+        return GetterUtil.getLong(getProjection(
+                companyId, objectDefinitionName, objectEntryId, List.of(relationshipFieldName))
+                .get(relationshipFieldName));
+    }
+
+    private ObjectDefinition getObjectDefinition(long companyId, String objectDefinitionName)
+            throws PortalException {
+
+        ObjectDefinition objectDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, objectDefinitionName);
+
+        if (objectDefinition == null) {
+            throw new PortalException("Object definition not found: " + objectDefinitionName);
+        }
+        return objectDefinition;
+    }
+
+    /**
+     * Selects the given fields for a set of entries, running one query per storage table and
+     * slice of entry IDs.
+     */
+    private Map<Long, Map<String, Serializable>> project(ObjectDefinition objectDefinition, List<Long> objectEntryIds,
+                                                         Collection<String> fieldNames) throws PortalException {
+
+        Map<Long, Map<String, Serializable>> projections = new LinkedHashMap<>();
+        if (objectEntryIds.isEmpty()) {
+            return projections;
+        }
+
+        for (Long objectEntryId : objectEntryIds) {
+            projections.put(objectEntryId, new HashMap<>());
+        }
+
+        // Group fields by the table that stores them (main, extension or localization table)
+        Map<String, Table<?>> tables = new LinkedHashMap<>();
+        Map<String, List<ObjectField>> fieldsByTable = new HashMap<>();
+
+        for (String fieldName : fieldNames) {
+            ObjectField objectField = _objectFieldLocalService.getObjectField(
+                    objectDefinition.getObjectDefinitionId(), fieldName);
+            Table<?> table = _objectFieldLocalService.getTable(objectDefinition.getObjectDefinitionId(), fieldName);
+
+            tables.putIfAbsent(table.getTableName(), table);
+            fieldsByTable.computeIfAbsent(table.getTableName(), tableName -> new ArrayList<>()).add(objectField);
+        }
+
+        List<Long[]> objectEntryIdsSlices = slice(objectEntryIds);
+
+        for (Map.Entry<String, Table<?>> tableEntry : tables.entrySet()) {
+            for (Long[] objectEntryIdsSlice : objectEntryIdsSlices) {
+                projectTable(objectDefinition, tableEntry.getValue(), fieldsByTable.get(tableEntry.getKey()),
+                        objectEntryIdsSlice, projections);
+            }
+        }
+
+        return projections;
+    }
+
+    /**
+     * Splits IDs into arrays of at most {@link #MAX_IN_LIST_SIZE} IDs, one per IN list.
+     */
+    private List<Long[]> slice(List<Long> ids) {
+        List<Long[]> slices = new ArrayList<>();
+
+        for (int start = 0; start < ids.size(); start += MAX_IN_LIST_SIZE) {
+            slices.add(ids.subList(start, Math.min(ids.size(), start + MAX_IN_LIST_SIZE)).toArray(new Long[0]));
+        }
+        return slices;
+    }
+
+    /**
+     * Selects the given columns of one table and merges them into the projections. Rows of a
+     * localization table are resolved to the most preferred language that has a value.
+     */
+    private void projectTable(ObjectDefinition objectDefinition, Table<?> table, List<ObjectField> objectFields,
+                              Long[] objectEntryIds, Map<Long, Map<String, Serializable>> projections) {
+
+        boolean localized = objectFields.get(0).isLocalized();
+
+        Column<?, Long> idColumn = table.getColumn(objectDefinition.getPKObjectFieldDBColumnName(), Long.class);
+
+        List<Expression<?>> expressions = new ArrayList<>();
+        expressions.add(idColumn);
+        if (localized) {
+            expressions.add(table.getColumn(LANGUAGE_ID_COLUMN));
+        }
+        for (ObjectField objectField : objectFields) {
+            expressions.add(table.getColumn(objectField.getDBColumnName()));
+        }
+
+        DSLQuery projectionQuery = DSLQueryFactoryUtil
+                .select(expressions.toArray(new Expression<?>[0]))
+                .from(table)
+                .where(idColumn.in(objectEntryIds));
+
+        List<Object[]> rows = _objectEntryLocalService.dslQuery(projectionQuery);
+
+        int valueOffset = localized ? 2 : 1;
+        Map<String, Integer> resolvedRanks = new HashMap<>();
+
+        for (Object[] row : rows) {
+            long objectEntryId = GetterUtil.getLong(row[0]);
+            Map<String, Serializable> projection = projections.get(objectEntryId);
+            if (projection == null) {
+                continue;
+            }
+
+            int languageRank = localized ? getLanguageRank((String) row[1]) : 0;
+
+            for (int i = 0; i < objectFields.size(); i++) {
+                Object value = row[i + valueOffset];
+                if (value == null || (localized && Validator.isBlank(value.toString()))) {
+                    continue;
+                }
+
+                String fieldName = objectFields.get(i).getName();
+                String rankKey = objectEntryId + "_" + fieldName;
+                Integer resolvedRank = resolvedRanks.get(rankKey);
+
+                if (resolvedRank == null || languageRank < resolvedRank) {
+                    projection.put(fieldName, (Serializable) value);
+                    resolvedRanks.put(rankKey, languageRank);
+                }
+            }
+        }
+
+        if (_log.isDebugEnabled()) {
+            _log.debug("Projected " + objectFields.size() + " fields from " + table.getTableName() +
+                    " for " + objectEntryIds.length + " entries");
+        }
+    }
+
+    private int getLanguageRank(String languageId) {
+        int index = PREFERRED_LANGUAGE_IDS.indexOf(languageId);
+        return index >= 0 ? index : PREFERRED_LANGUAGE_IDS.size();
+    }
+
+    @Reference
+    ObjectDefinitionLocalService _objectDefinitionLocalService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+    @Reference
+    ObjectFieldLocalService _objectFieldLocalService;
+
+}
@@ -1,17 +1,24 @@
 package com.dx.liferay.inventory.service;
 
+import com.dx.liferay.inventory.cache.InventoryReviewCache;
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.util.DatasetValuesMapper;
 import com.dx.liferay.inventory.util.InventoryHelper;
 import com.liferay.object.model.ObjectDefinition;
 import com.liferay.object.model.ObjectEntry;
+import com.liferay.object.model.ObjectEntryTable;
 import com.liferay.object.model.ObjectField;
 import com.liferay.object.service.ObjectDefinitionLocalService;
 import com.liferay.object.service.ObjectEntryLocalService;
 import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.sql.dsl.Column;
+import com.liferay.petra.sql.dsl.DSLFunctionFactoryUtil;
 import com.liferay.petra.sql.dsl.DSLQueryFactoryUtil;
 import com.liferay.petra.sql.dsl.Table;
-import com.liferay.petra.sql.dsl.expression.Expression;
 import com.liferay.petra.sql.dsl.query.DSLQuery;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.json.JSONArray;
 import com.liferay.portal.kernel.json.JSONFactory;
@@ -22,12 +29,12 @@ import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.security.auth.AuthTokenUtil;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
+import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.Http;
 import com.liferay.portal.kernel.util.PortalUtil;
 import com.liferay.portal.kernel.util.WebKeys;
 import org.osgi.service.component.annotations.*;
 
-import javax.portlet.ActionRequest;
 import javax.portlet.PortletRequest;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
@@ -37,13 +44,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Component(service = InventoryReviewService.class)
 public class InventoryReviewService {
@@ -63,10 +68,29 @@ public class InventoryReviewService {
     @Reference
     InventoryHelper _inventoryHelper;
 
+    @Reference
+    InventoryReviewCache _inventoryReviewCache;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
     private static final Log _log = LogFactoryUtil.getLog(InventoryReviewService.class);
 
+    private static final List<String> DATASET_HEADER_FIELDS = List.of(
+            "datasetName", "datasetDescription", "datasetClassification",
+            "userDemand", "economicImpact", "betterServices", "betterGovernance",
+            "definedOwner", "existingMetadata", "alreadyPublished", "openFormat",
+            "releaseYear", "releaseMonth", InventoryConstants.ATTRIBUTE_COUNT_FIELD,
+            InventoryConstants.EDIT_VERSION_FIELD);
+
+    private static final List<String> ATTRIBUTE_FIELDS = List.of(
+            "attribute", "attributeDescription", InventoryConstants.EDIT_VERSION_FIELD);
+
     /**
      * Retrieves complete inventory data including datasets and attributes.
+     * Serves the document from the review cache when present and assembles and
+     * caches it otherwise. A document is not cached if the inventory was invalidated
+     * while it was being assembled.
      *
      * @param inventoryId the inventory ID to fetch
      * @param companyId the company ID
@@ -75,14 +99,128 @@ public class InventoryReviewService {
      */
     public JSONObject getCompleteInventoryData(long inventoryId, long companyId) throws PortalException {
 
+        final String cachedInventoryData = _inventoryReviewCache.get(companyId, inventoryId);
+        if (cachedInventoryData != null) {
+            return _jsonFactory.createJSONObject(cachedInventoryData);
+        }
+
+        final long generation = _inventoryReviewCache.getGeneration(companyId, inventoryId);
+        final JSONObject inventoryData = buildCompleteInventoryData(inventoryId, companyId);
+
+        if (!_inventoryReviewCache.put(companyId, inventoryId, inventoryData.toString(), generation) &&
+                _log.isDebugEnabled()) {
+
+            _log.debug("Not caching review document of inventory " + inventoryId + " invalidated during assembly");
+        }
+
+        return inventoryData;
+    }
+
+    /**
+     * Computes a weak ETag for the review document of an inventory without assembling it.
+     *
+     * The tag combines the latest modified date across the inventory, its datasets and their
+     * attributes with the number of datasets and attributes, so edits, additions and removals
+     * all produce a new tag. Datasets and attributes are covered by one aggregate query each.
+     *
+     * @param inventoryId the inventory ID
+     * @param companyId the company ID
+     * @return the weak ETag value, including quotes
+     * @throws PortalException if the inventory does not exist or cannot be queried
+     */
+    public String getInventoryVersionTag(long inventoryId, long companyId) throws PortalException {
+
+        final ObjectEntry inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
+
+        final ObjectDefinition datasetDefinition = _objectDefinitionLocalService
+                .fetchObjectDefinition(companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME);
+        final ObjectDefinition attributeDefinition = _objectDefinitionLocalService
+                .fetchObjectDefinition(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME);
+
+        final ObjectField datasetRelationshipField = _objectFieldLocalService.getObjectField(
+                datasetDefinition.getObjectDefinitionId(), InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+        final ObjectField attributeRelationshipField = _objectFieldLocalService.getObjectField(
+                attributeDefinition.getObjectDefinitionId(), InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID);
+
+        final Table<?> datasetTable = _objectFieldLocalService.getTable(
+                datasetDefinition.getObjectDefinitionId(), datasetRelationshipField.getName());
+        final Table<?> attributeTable = _objectFieldLocalService.getTable(
+                attributeDefinition.getObjectDefinitionId(), attributeRelationshipField.getName());
+
+        final Column<?, Long> datasetIdColumn = datasetTable.getColumn(
+                datasetDefinition.getPKObjectFieldDBColumnName(), Long.class);
+        final Column<?, Long> datasetInventoryIdColumn = datasetTable.getColumn(
+                datasetRelationshipField.getDBColumnName(), Long.class);
+        final Column<?, Long> attributeIdColumn = attributeTable.getColumn(
+                attributeDefinition.getPKObjectFieldDBColumnName(), Long.class);
+        final Column<?, Long> attributeDatasetIdColumn = attributeTable.getColumn(
+                attributeRelationshipField.getDBColumnName(), Long.class);
+
+        final DSLQuery datasetVersionQuery = DSLQueryFactoryUtil
+                .select(DSLFunctionFactoryUtil.max(ObjectEntryTable.INSTANCE.modifiedDate),
+                        DSLFunctionFactoryUtil.count(ObjectEntryTable.INSTANCE.objectEntryId))
+                .from(ObjectEntryTable.INSTANCE)
+                .innerJoinON(datasetTable, datasetIdColumn.eq(ObjectEntryTable.INSTANCE.objectEntryId))
+                .where(datasetInventoryIdColumn.eq(inventoryId));
+
+        final DSLQuery attributeVersionQuery = DSLQueryFactoryUtil
+                .select(DSLFunctionFactoryUtil.max(ObjectEntryTable.INSTANCE.modifiedDate),
+                        DSLFunctionFactoryUtil.count(ObjectEntryTable.INSTANCE.objectEntryId))
+                .from(ObjectEntryTable.INSTANCE)
+                .innerJoinON(attributeTable, attributeIdColumn.eq(ObjectEntryTable.INSTANCE.objectEntryId))
+                .where(attributeDatasetIdColumn.in(
+                        DSLQueryFactoryUtil.select(datasetIdColumn)
+                                .from(datasetTable)
+                                .where(datasetInventoryIdColumn.eq(inventoryId))));
+
+        final Object[] datasetVersion = getAggregateRow(datasetVersionQuery);
+        final Object[] attributeVersion = getAggregateRow(attributeVersionQuery);
+
+        long latestModified = inventoryEntry.getModifiedDate().getTime();
+        latestModified = Math.max(latestModified, getTime(datasetVersion[0]));
+        latestModified = Math.max(latestModified, getTime(attributeVersion[0]));
+
+        return "W/\"" + inventoryId + "-" + latestModified + "-" +
+                GetterUtil.getLong(datasetVersion[1]) + "-" + GetterUtil.getLong(attributeVersion[1]) + "\"";
+    }
+
+    private Object[] getAggregateRow(DSLQuery aggregateQuery) {
+        final List<Object[]> rows = _objectEntryLocalService.dslQuery(aggregateQuery);
+
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return new Object[] {null, 0L};
+        }
+        return rows.get(0);
+    }
+
+    private long getTime(Object value) {
+        return value instanceof Date ? ((Date) value).getTime() : 0L;
+    }
+
+    /**
+     * Assembles the complete inventory document from the inventory, dataset and attribute entries.
+     *
+     * @param inventoryId the inventory ID to fetch
+     * @param companyId the company ID
+     * @return complete inventory data as JSON
+     * @throws PortalException if any error occurs during data retrieval
+     */
+    private JSONObject buildCompleteInventoryData(long inventoryId, long companyId) throws PortalException {
+
         final ObjectEntry inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
 
         final JSONObject inventoryData = _jsonFactory.createJSONObject();
         inventoryData.put("inventoryId", inventoryId);
         inventoryData.put("inventoryName", _inventoryHelper.getInventoryName(inventoryEntry));
+        inventoryData.put(DatasetValuesMapper.VERSION_FIELD,
+                GetterUtil.getLong(inventoryEntry.getValues().get(InventoryConstants.EDIT_VERSION_FIELD)));
 
-        final List<ObjectEntry> datasets = _inventoryHelper.getInventoryDatasetsList(inventoryEntry);
-        final JSONArray datasetsArray = buildDatasetsArray(datasets, companyId);
+        // Only the header columns are selected; entries are never hydrated
+        final Map<Long, Map<String, Serializable>> datasets = _inventoryProjectionService.getChildProjections(
+                companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, inventoryId,
+                DATASET_HEADER_FIELDS, QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+        final JSONArray datasetsArray = buildDatasetsArray(datasets);
 
         inventoryData.put("datasets", datasetsArray);
         inventoryData.put("datasetCount", datasets.size());
@@ -108,12 +246,11 @@ public class InventoryReviewService {
      * Builds JSONArray of datasets with their attributes.
      *
      * @param datasets list of dataset entries
-     * @param companyId the company ID
      * @return JSONArray containing dataset data
      */
-    private JSONArray buildDatasetsArray(List<ObjectEntry> datasets, long companyId) {
-        return datasets.stream()
-                .map(dataset -> buildDatasetJson(dataset, companyId))
+    private JSONArray buildDatasetsArray(Map<Long, Map<String, Serializable>> datasets) {
+        return datasets.entrySet().stream()
+                .map(dataset -> buildDatasetJson(dataset.getKey(), dataset.getValue()))
                 .collect(Collector.of(
                         () -> _jsonFactory.createJSONArray(),
                         JSONArray::put,
@@ -128,28 +265,48 @@ public class InventoryReviewService {
     }
 
     /**
-     * Builds complete dataset JSON including basic info and attributes.
+     * Builds the dataset header JSON. Attributes are not included; the stored attribute
+     * count is returned instead and the attributes themselves are paged in through
+     * {@link #getDatasetAttributesPage(long, long, int, int)} when the dataset is opened.
      *
-     * @param dataset the dataset entry
-     * @param companyId the company ID
+     * @param datasetId the dataset ID
+     * @param values the projected dataset header fields, with the edit version returned for
+     *        the update version check
      * @return JSON object containing dataset data
      */
-    private JSONObject buildDatasetJson(ObjectEntry dataset, long companyId) {
+    private JSONObject buildDatasetJson(long datasetId, Map<String, Serializable> values) {
         final JSONObject datasetJson = _jsonFactory.createJSONObject();
 
         try {
-            final Map<String, Serializable> values = dataset.getValues();
+            final Dataset dataset = DatasetValuesMapper.toDataset(datasetId, values);
 
             // Basic dataset information
-            datasetJson.put("datasetId", dataset.getObjectEntryId());
-            populateBasicDatasetFields(datasetJson, values);
-            populatePrioritizationFields(datasetJson, values);
-            populateQualityFields(datasetJson, values);
-            populateReleasePlanFields(datasetJson, values);
-
-            // Dataset attributes
-            final JSONArray attributes = getDatasetAttributes(dataset.getObjectEntryId(), companyId);
-            datasetJson.put("attributes", attributes);
+            datasetJson.put("datasetId", datasetId);
+            datasetJson.put(DatasetValuesMapper.VERSION_FIELD,
+                    GetterUtil.getLong(values.get(InventoryConstants.EDIT_VERSION_FIELD)));
+            datasetJson.put("datasetName", dataset.datasetName());
+            datasetJson.put("datasetDescription", dataset.datasetDescription());
+            datasetJson.put("datasetClassification", dataset.datasetClassification());
+
+            // Prioritization fields, unrated benefits as empty values
+            datasetJson.put("userDemand", getRating(dataset.userDemand()));
+            datasetJson.put("economicImpact", getRating(dataset.economicImpact()));
+            datasetJson.put("betterServices", getRating(dataset.betterServices()));
+            datasetJson.put("betterGovernance", getRating(dataset.betterGovernance()));
+
+            // Quality and readiness fields
+            datasetJson.put("definedOwner", dataset.definedOwner());
+            datasetJson.put("existingMetadata", dataset.existingMetadata());
+            datasetJson.put("alreadyPublished", dataset.alreadyPublished());
+            datasetJson.put("openFormat", dataset.openFormat());
+
+            // Release plan fields
+            datasetJson.put("releaseYear", dataset.releaseYear());
+            datasetJson.put("releaseMonth", dataset.releaseMonth());
+
+            // Attribute count only; attributes are loaded on demand
+            datasetJson.put("attributeCount",
+                    GetterUtil.getInteger(values.get(InventoryConstants.ATTRIBUTE_COUNT_FIELD)));
 
         } catch (Exception e) {
             datasetJson.put("error", "Failed to load dataset data");
@@ -158,149 +315,66 @@ public class InventoryReviewService {
         return datasetJson;
     }
 
-    /**
-     * Populates basic dataset fields (name, description, classification).
-     */
-    private void populateBasicDatasetFields(JSONObject datasetJson, Map<String, Serializable> values) {
-        datasetJson.put("datasetName", extractTranslatableField(values, "datasetName"));
-        datasetJson.put("datasetDescription", extractTranslatableField(values, "datasetDescription"));
-        datasetJson.put("datasetClassification", extractSimpleField(values, "datasetClassification"));
-    }
-
-    /**
-     * Populates prioritization fields (demand, impact, services, governance).
-     */
-    private void populatePrioritizationFields(JSONObject datasetJson, Map<String, Serializable> values) {
-        Stream.of("userDemand", "economicImpact", "betterServices", "betterGovernance")
-                .forEach(field -> datasetJson.put(field, extractSimpleField(values, field)));
+    private String getRating(int rating) {
+        return rating > 0 ? String.valueOf(rating) : "";
     }
 
     /**
-     * Populates quality and readiness fields.
-     */
-    private void populateQualityFields(JSONObject datasetJson, Map<String, Serializable> values) {
-        Stream.of("definedOwner", "existingMetadata", "alreadyPublished", "openFormat")
-                .forEach(field -> datasetJson.put(field, extractSimpleField(values, field)));
-    }
-
-    /**
-     * Populates release plan fields.
-     */
-    private void populateReleasePlanFields(JSONObject datasetJson, Map<String, Serializable> values) {
-        datasetJson.put("releaseYear", extractTranslatableField(values, "releaseYear"));
-        datasetJson.put("releaseMonth", extractTranslatableField(values, "releaseMonth"));
-    }
-
-    /**
-     * Retrieves attributes for a specific dataset using optimized query.
+     * Retrieves one page of attributes for a dataset, ordered by attribute ID.
      *
      * @param datasetId the dataset ID
      * @param companyId the company ID
-     * @return JSONArray of attributes
-     */
-    private JSONArray getDatasetAttributes(long datasetId, long companyId) {
-        try {
-            final List<ObjectEntry> attributes = queryDatasetAttributes(datasetId, companyId);
-
-            return attributes.stream()
-                    .map(this::buildAttributeJson)
-                    .collect(Collector.of(
-                            () -> _jsonFactory.createJSONArray(),
-                            JSONArray::put,
-                            (arr1, arr2) -> {
-                                for (int i = 0; i < arr2.length(); i++) {
-                                    arr1.put(arr2.get(i));
-                                }
-                                return arr1;
-                            }
-                    ));
-
-        } catch (Exception e) {
-            _log.error("Error retrieving attributes for dataset ID:");
-            return _jsonFactory.createJSONArray();
-        }
-    }
-
-    /**
-     * Queries dataset attributes using DSL.
+     * @param start the index of the first attribute to return
+     * @param delta the maximum number of attributes to return
+     * @return JSON object holding the attributes page and whether more attributes follow
+     * @throws PortalException if the attributes cannot be queried
      */
-    public List<ObjectEntry> queryDatasetAttributes(long datasetId,long companyId)
+    public JSONObject getDatasetAttributesPage(long datasetId, long companyId, int start, int delta)
             throws PortalException {
 
-        final ObjectDefinition attributeDefinition = _objectDefinitionLocalService
-                .fetchObjectDefinition(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME);
-
-        final ObjectField relationshipField = _objectFieldLocalService.getObjectField(
-                attributeDefinition.getObjectDefinitionId(),
-                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID
-        );
+        final Map<Long, Map<String, Serializable>> attributes = _inventoryProjectionService.getChildProjections(
+                companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId,
+                ATTRIBUTE_FIELDS, start, start + delta);
 
-        final Table<?> relationshipTable = _objectFieldLocalService.getTable(
-                attributeDefinition.getObjectDefinitionId(),
-                relationshipField.getName()
-        );
-
-        final Expression<Long> datasetIdExpression = relationshipTable.getColumn(
-                relationshipField.getDBColumnName(), Long.class
-        );
-
-        final DSLQuery attributesQuery = DSLQueryFactoryUtil
-                .select(relationshipTable.getColumn("c_datasetInventoryAttributeDetailsId_", Long.class))
-                .from(relationshipTable)
-                .where(datasetIdExpression.eq(datasetId));
+        final JSONArray attributesArray = attributes.entrySet().stream()
+                .map(attribute -> buildAttributeJson(attribute.getKey(), attribute.getValue()))
+                .collect(Collector.of(
+                        () -> _jsonFactory.createJSONArray(),
+                        JSONArray::put,
+                        (arr1, arr2) -> {
+                            for (int i = 0; i < arr2.length(); i++) {
+                                arr1.put(arr2.get(i));
+                            }
+                            return arr1;
+                        }
+                ));
 
-        final List<Long> attributeIds = _objectEntryLocalService.dslQuery(attributesQuery);
+        final JSONObject attributesPage = _jsonFactory.createJSONObject();
+        attributesPage.put("datasetId", datasetId);
+        attributesPage.put("start", start);
+        attributesPage.put("attributes", attributesArray);
+        attributesPage.put("hasMore", attributes.size() == delta);
 
-        return attributeIds.stream()
-                .map(this::getObjectEntrySecure)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        return attributesPage;
     }
 
     /**
      * Builds attribute JSON object.
      */
-    private JSONObject buildAttributeJson(ObjectEntry attribute) {
+    private JSONObject buildAttributeJson(long attributeId, Map<String, Serializable> values) {
         final JSONObject attributeJson = _jsonFactory.createJSONObject();
-        final Map<String, Serializable> values = attribute.getValues();
+        final Attribute attribute = DatasetValuesMapper.toAttribute(attributeId, values);
 
-        attributeJson.put("attributeId", attribute.getObjectEntryId());
-        attributeJson.put("attributeName", extractTranslatableField(values, "attribute"));
-        attributeJson.put("attributeDescription", extractTranslatableField(values, "attributeDescription"));
+        attributeJson.put("attributeId", attributeId);
+        attributeJson.put(DatasetValuesMapper.VERSION_FIELD,
+                GetterUtil.getLong(values.get(InventoryConstants.EDIT_VERSION_FIELD)));
+        attributeJson.put("attributeName", attribute.attributeName());
+        attributeJson.put("attributeDescription", attribute.attributeDescription());
 
         return attributeJson;
     }
 
-    /**
-     * Extracts translatable field value with null safety.
-     */
-    private String extractTranslatableField(Map<String, Serializable> values, String fieldName) {
-        return Optional.ofNullable(values.get(fieldName + "_i18n"))
-                .filter(Map.class::isInstance)
-                .map(Map.class::cast)
-                .map(i18nMap -> Stream.of("en_US", "ar_SA")
-                        .map(locale -> (String) i18nMap.get(locale))
-                        .filter(Objects::nonNull)
-                        .filter(value -> !value.trim().isEmpty())
-                        .findFirst()
-                        .orElse(""))
-                .orElseGet(() -> Optional.ofNullable(values.get(fieldName))
-                        .map(Object::toString)
-                        .filter(value -> !value.trim().isEmpty())
-                        .orElse(""));
-    }
-
-    /**
-     * Extracts simple field value with null safety.
-     */
-    private String extractSimpleField(Map<String, Serializable> values, String fieldName) {
-        return Optional.ofNullable(values.get(fieldName))
-                .map(Object::toString)
-                .filter(value -> !value.trim().isEmpty())
-                .orElse("");
-    }
-
 
 
 //    public String createDraftViaGraphQL(String inventoryName, int statusCode, ActionRequest actionRequest) throws Exception {
@@ -332,8 +406,8 @@ public class InventoryReviewService {
 //        return executeGraphQLMutation(payload, csrfToken, actionRequest);
 //    }
 
-    public String executeInventoryGraphQLMutation(String mutationType, Long inventoryId, String inventoryName, int statusCode, ActionRequest actionRequest) throws Exception {
-        String csrfToken = AuthTokenUtil.getToken(PortalUtil.getHttpServletRequest(actionRequest));
+    public String executeInventoryGraphQLMutation(String mutationType, Long inventoryId, String inventoryName, int statusCode, PortletRequest portletRequest) throws Exception {
+        String csrfToken = AuthTokenUtil.getToken(PortalUtil.getHttpServletRequest(portletRequest));
 
         String query;
         if ("create".equals(mutationType)) {
@@ -379,7 +453,7 @@ public class InventoryReviewService {
         payload.put("query", query);
         _log.info("GraphQL " + mutationType + " query: " + payload);
 
-        return executeGraphQLMutation(payload, csrfToken, actionRequest);
+        return executeGraphQLMutation(payload, csrfToken, portletRequest);
     }
 
     private String executeGraphQLMutation(JSONObject requestBody, String csrfToken, PortletRequest portletRequest) throws IOException, URISyntaxException {
@@ -396,7 +470,7 @@ public class InventoryReviewService {
         cookieHeader.append("GUEST_LANGUAGE_ID=").append(guestLanguageId != null ? guestLanguageId : "en_US").append("; ");
         cookieHeader.append("COMPANY_ID=").append(companyId).append(";");
 
-        String graphqlEndpoint = getGraphQLEndpoint((ActionRequest) portletRequest);
+        String graphqlEndpoint = getGraphQLEndpoint(portletRequest);
         URI url = new URI(graphqlEndpoint);
         HttpURLConnection connection = (HttpURLConnection) url.toURL().openConnection();
         connection.setRequestMethod("POST");
@@ -425,8 +499,8 @@ public class InventoryReviewService {
         return response.toString();
     }
 
-    private String getGraphQLEndpoint(ActionRequest actionRequest) {
-        ThemeDisplay themeDisplay = (ThemeDisplay) actionRequest.getAttribute(WebKeys.THEME_DISPLAY);
+    private String getGraphQLEndpoint(PortletRequest portletRequest) {
+        ThemeDisplay themeDisplay = (ThemeDisplay) portletRequest.getAttribute(WebKeys.THEME_DISPLAY);
         String portalURL = themeDisplay.getPortalURL();
         return portalURL + "/o/graphql";
     }
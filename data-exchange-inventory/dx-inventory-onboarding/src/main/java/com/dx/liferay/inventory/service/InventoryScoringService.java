@@ -0,0 +1,280 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.object.constants.ObjectFieldConstants;
+import com.liferay.object.model.ObjectDefinition;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.object.model.ObjectField;
+import com.liferay.object.service.ObjectDefinitionLocalService;
+import com.liferay.object.service.ObjectEntryLocalService;
+import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.sql.dsl.Column;
+import com.liferay.petra.sql.dsl.DSLFunctionFactoryUtil;
+import com.liferay.petra.sql.dsl.DSLQueryFactoryUtil;
+import com.liferay.petra.sql.dsl.Table;
+import com.liferay.petra.sql.dsl.expression.Predicate;
+import com.liferay.petra.sql.dsl.query.DSLQuery;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the weighted compliance score of an inventory.
+ *
+ * The score (0-100) combines the four section ratings (0-2 each) written by reviewers with
+ * the share of complete datasets. Both inputs are stored on the inventory entry: ratings are
+ * written by the compliance review and completeDatasetCount is recounted with a single
+ * aggregate query whenever datasets change, so computing a score never loads the datasets
+ * themselves. The recounted value and the score are written through
+ * {@link InventoryFieldWriter}, without rewriting the inventory entry.
+ *
+ * A dataset is complete when every non-localized dataset field is filled in and it has at
+ * least one attribute.
+ */
+@Component(service = InventoryScoringService.class)
+public class InventoryScoringService {
+
+    public static final List<String> RATING_FIELDS = List.of(
+            InventoryConstants.INVENTORY_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.PRIORITIZATION_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.CLASSIFICATION_COMPLIANCE_RATING_FIELD,
+            InventoryConstants.RELEASE_PLAN_COMPLIANCE_RATING_FIELD);
+
+    private static final Log _log = LogFactoryUtil.getLog(InventoryScoringService.class);
+
+    private static final List<String> COMPLETENESS_FIELDS = List.of(
+            "datasetClassification", "userDemand", "economicImpact", "betterServices", "betterGovernance",
+            "definedOwner", "existingMetadata", "alreadyPublished", "openFormat");
+
+    private static final double RATINGS_WEIGHT = 0.7;
+    private static final double COMPLETENESS_WEIGHT = 0.3;
+
+    private static final List<String> SCORE_INPUT_FIELDS;
+
+    static {
+        List<String> scoreInputFields = new ArrayList<>(RATING_FIELDS);
+        scoreInputFields.add(InventoryConstants.DATASET_COUNT_FIELD);
+        scoreInputFields.add(InventoryConstants.COMPLETE_DATASET_COUNT_FIELD);
+        scoreInputFields.add(InventoryConstants.COMPLIANCE_SCORE_FIELD);
+        SCORE_INPUT_FIELDS = List.copyOf(scoreInputFields);
+    }
+
+    /**
+     * Checks whether any section of an inventory has been rated.
+     *
+     * @param inventoryValues the inventory values or projection holding the rating fields
+     * @return true if at least one rating is present
+     */
+    public boolean isScored(Map<String, Serializable> inventoryValues) {
+        return RATING_FIELDS.stream().anyMatch(field -> inventoryValues.get(field) != null);
+    }
+
+    /**
+     * Calculates the compliance score from stored ratings and dataset counts.
+     * Sections that have not been rated count as zero.
+     *
+     * @param inventoryValues the inventory values holding the ratings and dataset counts
+     * @return the compliance score between 0 and 100
+     */
+    public int calculateComplianceScore(Map<String, Serializable> inventoryValues) {
+        int ratingTotal = 0;
+        for (String ratingField : RATING_FIELDS) {
+            ratingTotal += GetterUtil.getInteger(inventoryValues.get(ratingField));
+        }
+
+        double ratingShare = (double) ratingTotal /
+                (RATING_FIELDS.size() * InventoryConstants.MAX_COMPLIANCE_RATING);
+
+        int datasetCount = GetterUtil.getInteger(inventoryValues.get(InventoryConstants.DATASET_COUNT_FIELD));
+        int completeDatasetCount = GetterUtil.getInteger(
+                inventoryValues.get(InventoryConstants.COMPLETE_DATASET_COUNT_FIELD));
+
+        double completenessShare = datasetCount > 0 ?
+                Math.min(1.0, (double) completeDatasetCount / datasetCount) : 0;
+
+        return (int) Math.round(100 * (RATINGS_WEIGHT * ratingShare + COMPLETENESS_WEIGHT * completenessShare));
+    }
+
+    /**
+     * Calculates the compliance score an inventory will have once pending values are written,
+     * using the stored values for every input that is not being changed.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @param pendingValues the inventory values about to be written
+     * @return the compliance score between 0 and 100
+     * @throws PortalException if the inventory cannot be read
+     */
+    public int calculateComplianceScore(long companyId, long inventoryId, Map<String, Serializable> pendingValues)
+            throws PortalException {
+
+        Map<String, Serializable> inventoryValues = new HashMap<>(_inventoryProjectionService.getProjection(
+                companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME, inventoryId, SCORE_INPUT_FIELDS));
+        inventoryValues.putAll(pendingValues);
+
+        return calculateComplianceScore(inventoryValues);
+    }
+
+    /**
+     * Returns the stored compliance score of an inventory.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @return the compliance score, or null if the inventory has not been rated yet
+     * @throws PortalException if the inventory cannot be read
+     */
+    public Integer getComplianceScore(long companyId, long inventoryId) throws PortalException {
+        Map<String, Serializable> inventoryValues = _inventoryProjectionService.getProjection(
+                companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME, inventoryId, SCORE_INPUT_FIELDS);
+
+        if (!isScored(inventoryValues)) {
+            return null;
+        }
+        return GetterUtil.getInteger(inventoryValues.get(InventoryConstants.COMPLIANCE_SCORE_FIELD));
+    }
+
+    /**
+     * Recounts the complete datasets of an inventory and updates its stored score.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     */
+    public void refreshInventoryScore(long companyId, long inventoryId) {
+        refreshInventoryScore(companyId, inventoryId, 0);
+    }
+
+    /**
+     * Recounts the complete datasets of an inventory, ignoring a dataset that is about to be
+     * removed, and updates its stored score. Nothing is written when neither value changed.
+     *
+     * @param companyId the company ID
+     * @param inventoryId the inventory ID
+     * @param excludedDatasetId a dataset to leave out of the count, or 0
+     */
+    public void refreshInventoryScore(long companyId, long inventoryId, long excludedDatasetId) {
+        if (inventoryId <= 0) {
+            return;
+        }
+
+        try {
+            ObjectEntry inventoryEntry = _objectEntryLocalService.fetchObjectEntry(inventoryId);
+            if (inventoryEntry == null) {
+                return;
+            }
+
+            Map<String, Serializable> inventoryValues = new HashMap<>(_inventoryProjectionService.getProjection(
+                    companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME, inventoryId, SCORE_INPUT_FIELDS));
+
+            int storedCompleteCount = GetterUtil.getInteger(
+                    inventoryValues.get(InventoryConstants.COMPLETE_DATASET_COUNT_FIELD));
+            int storedScore = GetterUtil.getInteger(inventoryValues.get(InventoryConstants.COMPLIANCE_SCORE_FIELD));
+
+            int completeCount = countCompleteDatasets(companyId, inventoryId, excludedDatasetId);
+            inventoryValues.put(InventoryConstants.COMPLETE_DATASET_COUNT_FIELD, completeCount);
+
+            int complianceScore = calculateComplianceScore(inventoryValues);
+
+            if (completeCount == storedCompleteCount && complianceScore == storedScore) {
+                return;
+            }
+
+            // Derived values only, so the inventory entry itself is not rewritten or reindexed
+            _inventoryFieldWriter.setFields(
+                    _objectDefinitionLocalService.getObjectDefinition(inventoryEntry.getObjectDefinitionId()),
+                    inventoryId, Map.of(InventoryConstants.COMPLETE_DATASET_COUNT_FIELD, completeCount,
+                            InventoryConstants.COMPLIANCE_SCORE_FIELD, complianceScore));
+        } catch (PortalException e) {
+            _log.error("Failed to refresh compliance score for inventory: " + inventoryId, e);
+        }
+    }
+
+    /**
+     * Counts the complete datasets of an inventory with a single aggregate query.
+     */
+    private int countCompleteDatasets(long companyId, long inventoryId, long excludedDatasetId)
+            throws PortalException {
+
+        ObjectDefinition datasetDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME);
+
+        ObjectField relationshipField = _objectFieldLocalService.getObjectField(
+                datasetDefinition.getObjectDefinitionId(), InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID);
+        ObjectField attributeCountField = _objectFieldLocalService.getObjectField(
+                datasetDefinition.getObjectDefinitionId(), InventoryConstants.ATTRIBUTE_COUNT_FIELD);
+
+        Table<?> datasetTable = _objectFieldLocalService.getTable(
+                datasetDefinition.getObjectDefinitionId(), relationshipField.getName());
+
+        Column<?, Long> datasetIdColumn = datasetTable.getColumn(
+                datasetDefinition.getPKObjectFieldDBColumnName(), Long.class);
+
+        Predicate completePredicate = datasetTable.getColumn(relationshipField.getDBColumnName(), Long.class)
+                .eq(inventoryId)
+                .and(datasetTable.getColumn(attributeCountField.getDBColumnName(), Integer.class).gt(0));
+
+        if (excludedDatasetId > 0) {
+            completePredicate = completePredicate.and(datasetIdColumn.neq(excludedDatasetId));
+        }
+
+        for (String fieldName : COMPLETENESS_FIELDS) {
+            ObjectField objectField = _objectFieldLocalService.getObjectField(
+                    datasetDefinition.getObjectDefinitionId(), fieldName);
+
+            completePredicate = completePredicate.and(getFilledInPredicate(datasetTable, objectField));
+        }
+
+        DSLQuery completeCountQuery = DSLQueryFactoryUtil
+                .select(DSLFunctionFactoryUtil.count(datasetIdColumn))
+                .from(datasetTable)
+                .where(completePredicate);
+
+        List<Long> counts = _objectEntryLocalService.dslQuery(completeCountQuery);
+
+        return counts.isEmpty() ? 0 : GetterUtil.getInteger(counts.get(0));
+    }
+
+    /**
+     * Matches rows where a field is filled in. Text fields must not be empty; numeric fields,
+     * such as the benefit ratings, must be greater than zero, which stands for not rated.
+     * Comparing a numeric column with an empty string fails on some databases, and Oracle
+     * stores empty strings as null, so the predicate follows the column type.
+     */
+    private Predicate getFilledInPredicate(Table<?> table, ObjectField objectField) {
+        String dbType = objectField.getDBType();
+
+        if (ObjectFieldConstants.DB_TYPE_INTEGER.equals(dbType) || ObjectFieldConstants.DB_TYPE_LONG.equals(dbType)) {
+            Column<?, Long> fieldColumn = table.getColumn(objectField.getDBColumnName(), Long.class);
+
+            return fieldColumn.isNotNull().and(fieldColumn.gt(0L));
+        }
+
+        Column<?, String> fieldColumn = table.getColumn(objectField.getDBColumnName(), String.class);
+
+        return fieldColumn.isNotNull().and(fieldColumn.neq(""));
+    }
+
+    @Reference
+    InventoryFieldWriter _inventoryFieldWriter;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    ObjectDefinitionLocalService _objectDefinitionLocalService;
+
+    @Reference
+    ObjectEntryLocalService _objectEntryLocalService;
+
+    @Reference
+    ObjectFieldLocalService _objectFieldLocalService;
+
+}
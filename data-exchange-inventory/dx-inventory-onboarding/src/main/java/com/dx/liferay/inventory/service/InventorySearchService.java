@@ -0,0 +1,179 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.InventorySearchHit;
+import com.dx.liferay.inventory.model.InventorySearchResults;
+import com.dx.liferay.inventory.search.InventorySearchIndex;
+import com.dx.liferay.inventory.util.InventoryHelper;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches datasets and attributes across the inventories a user can see on the landing
+ * page, using {@link InventorySearchIndex}.
+ *
+ * Visibility follows the landing page rules: users see their own inventories, and Data
+ * Stewards also see non-draft inventories created by Data Leaders.
+ *
+ * The inventories a user can see are computed once and kept for
+ * {@link #MAX_VISIBLE_INVENTORIES_AGE_MILLIS}, so searching while typing does not reload
+ * every inventory and look up its creator's roles on each keystroke. The company's cached
+ * sets are dropped when one of its inventories is written on this node.
+ */
+@Component(service = InventorySearchService.class)
+public class InventorySearchService {
+
+    private static final long MAX_VISIBLE_INVENTORIES_AGE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<Long, Map<Long, VisibleInventories>> _visibleInventories = new ConcurrentHashMap<>();
+
+    /**
+     * Returns one page of ranked search hits.
+     *
+     * @param companyId the company ID
+     * @param userId the searching user ID
+     * @param keywords the search text
+     * @param start the index of the first hit to return
+     * @param delta the maximum number of hits to return
+     * @return JSON object with keywords, start, total and hits
+     * @throws PortalException if the index or inventories cannot be read
+     */
+    public JSONObject search(long companyId, long userId, String keywords, int start, int delta)
+            throws PortalException {
+
+        Map<Long, String> inventoryNames = getVisibleInventories(companyId, userId).inventoryNames;
+
+        InventorySearchResults searchResults = _inventorySearchIndex.search(
+                companyId, keywords, start, delta, inventoryNames::containsKey);
+
+        JSONArray hitsArray = _jsonFactory.createJSONArray();
+        for (InventorySearchHit hit : searchResults.getHits()) {
+            JSONObject hitJson = _jsonFactory.createJSONObject();
+            hitJson.put("entryId", hit.getEntryId());
+            hitJson.put("type", hit.getType());
+            hitJson.put("inventoryId", hit.getInventoryId());
+            hitJson.put("inventoryName", inventoryNames.get(hit.getInventoryId()));
+            hitJson.put("datasetId", hit.getDatasetId());
+            hitJson.put("title", hit.getTitle());
+            hitJson.put("description", hit.getDescription());
+            hitJson.put("score", hit.getScore());
+            hitsArray.put(hitJson);
+        }
+
+        JSONObject resultsJson = _jsonFactory.createJSONObject();
+        resultsJson.put("keywords", keywords);
+        resultsJson.put("start", start);
+        resultsJson.put("total", searchResults.getTotal());
+        resultsJson.put("hits", hitsArray);
+
+        return resultsJson;
+    }
+
+    /**
+     * Checks whether a user can see an inventory on the landing page. The inventory's
+     * current status and creator are read, so the answer never depends on a cached set.
+     *
+     * @param userId the user ID
+     * @param inventoryEntry the C_InventoryDetails entry
+     * @return true if the user created the inventory, or is a Data Steward and the inventory
+     *         is a non-draft inventory created by a Data Leader
+     */
+    public boolean isVisibleInventory(long userId, ObjectEntry inventoryEntry) {
+        if (inventoryEntry.getUserId() == userId) {
+            return true;
+        }
+
+        return inventoryEntry.getStatus() != WorkflowConstants.STATUS_DRAFT &&
+                _inventoryHelper.hasRole(userId, "Data Steward") &&
+                "Data Leader".equals(_inventoryHelper.getUserRole(inventoryEntry.getUserId()));
+    }
+
+    /**
+     * Drops the cached visible inventories of every user of a company, so the next search
+     * sees a created, renamed, submitted or deleted inventory.
+     *
+     * @param companyId the company ID
+     */
+    public void invalidateVisibleInventories(long companyId) {
+        _visibleInventories.remove(companyId);
+    }
+
+    private VisibleInventories getVisibleInventories(long companyId, long userId) throws PortalException {
+        Map<Long, VisibleInventories> companyVisibleInventories = _visibleInventories.computeIfAbsent(
+                companyId, key -> new ConcurrentHashMap<>());
+
+        VisibleInventories visibleInventories = companyVisibleInventories.get(userId);
+
+        if (visibleInventories == null ||
+                System.currentTimeMillis() - visibleInventories.loadTime > MAX_VISIBLE_INVENTORIES_AGE_MILLIS) {
+
+            visibleInventories = loadVisibleInventories(companyId, userId);
+            companyVisibleInventories.put(userId, visibleInventories);
+        }
+
+        return visibleInventories;
+    }
+
+    private VisibleInventories loadVisibleInventories(long companyId, long userId) throws PortalException {
+        long loadTime = System.currentTimeMillis();
+
+        Map<Long, Map<String, Serializable>> inventories = _inventoryProjectionService.getEntrySummaries(
+                companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME, List.of("inventoryName"));
+
+        boolean isDataSteward = _inventoryHelper.hasRole(userId, "Data Steward");
+        Map<Long, String> creatorRoles = new HashMap<>();
+        Map<Long, String> inventoryNames = new HashMap<>();
+
+        for (Map.Entry<Long, Map<String, Serializable>> inventory : inventories.entrySet()) {
+            long creatorUserId = GetterUtil.getLong(inventory.getValue().get(InventoryProjectionService.USER_ID));
+            int status = GetterUtil.getInteger(inventory.getValue().get(InventoryProjectionService.STATUS));
+
+            if (creatorUserId == userId || (isDataSteward && status != WorkflowConstants.STATUS_DRAFT &&
+                    "Data Leader".equals(creatorRoles.computeIfAbsent(creatorUserId, _inventoryHelper::getUserRole)))) {
+
+                inventoryNames.put(inventory.getKey(), _inventoryHelper.getInventoryName(inventory.getValue()));
+            }
+        }
+        return new VisibleInventories(loadTime, inventoryNames);
+    }
+
+    /**
+     * The names of the inventories a user can see, keyed by inventory ID.
+     */
+    private static final class VisibleInventories {
+        private final long loadTime;
+        private final Map<Long, String> inventoryNames;
+
+        private VisibleInventories(long loadTime, Map<Long, String> inventoryNames) {
+            this.loadTime = loadTime;
+            this.inventoryNames = inventoryNames;
+        }
+    }
+
+    @Reference
+    InventoryHelper _inventoryHelper;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
+    @Reference
+    InventorySearchIndex _inventorySearchIndex;
+
+    @Reference
+    JSONFactory _jsonFactory;
+
+}
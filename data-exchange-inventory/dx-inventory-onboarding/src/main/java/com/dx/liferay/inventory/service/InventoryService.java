@@ -1,12 +1,17 @@
 package com.dx.liferay.inventory.service;
 
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.model.InventoryChangeSummary;
 import com.liferay.object.model.ObjectEntry;
 import com.liferay.portal.kernel.exception.PortalException;
 
-import javax.portlet.ActionRequest;
+import javax.portlet.PortletRequest;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service interface for managing inventory datasets and their associated attributes.
@@ -30,12 +35,12 @@ public interface InventoryService {
      * Creates attribute records that are linked to the parent dataset.
      *
      * @param companyId the company ID where the attributes will be created
-     * @param entryValuesList list of maps containing attribute names, descriptions, and metadata
+     * @param attributes the attributes to create
      * @param datasetInventoryEntryId the ID of the inventory dataset entry
      * @param userLocale the user's locale for internationalization and formatting
      * @throws PortalException if there's an error creating the attribute entries
      */
-    void addDatasetInventoryAttributesEntry(long companyId, long userId, List<Map<String, Serializable>> entryValuesList, long datasetInventoryEntryId, String userLocale) throws PortalException;
+    void addDatasetInventoryAttributesEntry(long companyId, long userId, List<Attribute> attributes, long datasetInventoryEntryId, String userLocale) throws PortalException;
 
     /**
      * Processes and creates multiple datasets in a single operation.
@@ -43,38 +48,142 @@ public interface InventoryService {
      *
      * @param companyId the company ID where the datasets will be created
      * @param userId ID of user adding inventory request
-     * @param datasets list of dataset maps, each containing dataset information and associated attributes
+     * @param datasets the datasets to create, each with its attributes
      * @param parentInventoryId is parent id for specific inventory
      * @throws PortalException if there's an error during the bulk dataset creation process
      */
-    void addMultipleDatasets(long companyId, long userId, List<Map<String, Object>> datasets, long parentInventoryId) throws PortalException;
+    void addMultipleDatasets(long companyId, long userId, List<Dataset> datasets, long parentInventoryId) throws PortalException;
 
 
     List<Map<String, Object>> getInventoryEntries(long companyId) throws PortalException;
 
 
-     ObjectEntry addInventory(long companyId, long userId, String userLocale, boolean isDraft, ActionRequest actionRequest) throws Exception;
+     ObjectEntry addInventory(long companyId, long userId, String userLocale, boolean isDraft, PortletRequest portletRequest) throws Exception;
 
     /**
      * Updates multiple datasets for an existing inventory, handling create, update, and delete operations.
-     * Compares submitted datasets with existing ones to determine what changes need to be made.
+     * Compares submitted datasets with existing ones to determine what changes need to be made,
+     * and skips datasets and attributes whose submitted values match the stored values.
+     * Unless the inventory is a draft, the submitted versions are checked before anything is
+     * written and the update is rejected if another user changed an entry in the meantime.
      *
      * @param companyId the company ID where the datasets exist
      * @param inventoryId the ID of the inventory being updated
-     * @param submittedDatasets list of dataset maps from the form submission
+     * @param submittedDatasets the datasets from the form submission
      * @param userLocale the user's locale for internationalization
+     * @return counts of the entries written and of the unchanged entries that were skipped
+     * @throws ConcurrentInventoryUpdateException if a submitted dataset or attribute changed since it was loaded
      * @throws PortalException if any error occurs during the update process
      */
-    void updateMultipleDatasets(long companyId, long userId, long inventoryId, List<Map<String, Object>> submittedDatasets, String userLocale, boolean isDraft)
+    InventoryChangeSummary updateMultipleDatasets(long companyId, long userId, long inventoryId, List<Dataset> submittedDatasets, String userLocale, boolean isDraft)
             throws PortalException;
 
+    /**
+     * Writes one chunk of a chunked submission. Submitted datasets with a stored ID are updated
+     * when their values changed, other datasets are created under the inventory. Only the
+     * stored datasets referenced by the chunk are read, so each chunk costs the same however
+     * large the inventory is. The chunk is written in one transaction, so a chunk that fails
+     * leaves nothing behind and can be sent again. The compliance score is refreshed on
+     * completion, not per chunk.
+     *
+     * @param companyId the company ID where the datasets exist
+     * @param userId ID of the user submitting the inventory
+     * @param inventoryId the C_InventoryDetails entry the datasets belong to
+     * @param datasets the datasets of the chunk
+     * @param userLocale the user's locale for internationalization
+     * @param processedDatasetIds the stored dataset IDs written so far, extended with the chunk's datasets once it commits
+     * @return counts of the entries the chunk wrote and of the unchanged entries it skipped
+     * @throws ConcurrentInventoryUpdateException if a dataset or attribute of the chunk changed since it was loaded
+     * @throws PortalException if a dataset of the chunk cannot be written
+     */
+    InventoryChangeSummary addDatasetChunk(long companyId, long userId, long inventoryId, List<Dataset> datasets,
+                                           String userLocale, Set<Long> processedDatasetIds) throws PortalException;
+
+    /**
+     * Completes a chunked submission: optionally deletes the stored datasets no chunk referred
+     * to, as a single-request update does, and refreshes the compliance score once.
+     *
+     * @param companyId the company ID where the datasets exist
+     * @param inventoryId the C_InventoryDetails entry the chunks were written to
+     * @param processedDatasetIds the stored dataset IDs the chunks wrote
+     * @param removeUnprocessedDatasets true to delete the stored datasets that were not submitted
+     * @return counts of the datasets and attributes deleted on completion
+     * @throws PortalException if the stored datasets cannot be read or deleted
+     */
+    InventoryChangeSummary completeChunkedSubmission(long companyId, long inventoryId, Set<Long> processedDatasetIds,
+                                                     boolean removeUnprocessedDatasets) throws PortalException;
+
+    /**
+     * Merges uploaded datasets into an existing inventory. Datasets are matched to the stored
+     * datasets by normalised name and attributes by normalised attribute name, and only the
+     * inserts, updates and deletes needed to reach the uploaded state are written.
+     *
+     * @param companyId the company ID where the datasets exist
+     * @param userId ID of the user merging the upload
+     * @param inventoryId the ID of the inventory being merged into
+     * @param datasets the uploaded datasets
+     * @param userLocale the user's locale for internationalization
+     * @param removeMissingDatasets true to delete stored datasets that are not in the upload
+     * @return counts of the inserted, updated, unchanged and deleted datasets and attributes
+     * @throws PortalException if the stored datasets cannot be read or the merge fails
+     */
+    InventoryChangeSummary mergeDatasets(long companyId, long userId, long inventoryId, List<Dataset> datasets,
+                                        String userLocale, boolean removeMissingDatasets) throws PortalException;
+
+    /**
+     * Applies a field-level patch to a single dataset or attribute entry. Only the patched
+     * fields are compared and written, so the work is proportional to the edit. A field sent
+     * with an empty value is cleared; fields left out of the patch keep their stored values.
+     *
+     * @param companyId the company ID of the entry
+     * @param userId ID of the user applying the patch
+     * @param entryId the C_InventoryOnboarding or C_DatasetInventoryAttributeDetails entry ID
+     * @param values the new field values keyed by object field name
+     * @param userLocale the user's locale for translatable fields
+     * @param expectedVersion the edit version of the entry the client loaded, or -1 to skip the check
+     * @return the names of the fields that changed, empty if the patch matched the stored values
+     * @throws ConcurrentInventoryUpdateException if the entry changed since the client loaded it
+     * @throws PortalException if the entry is not a dataset or attribute, or a field cannot be patched
+     */
+    List<String> patchEntry(long companyId, long userId, long entryId, Map<String, String> values, String userLocale,
+                            long expectedVersion)
+            throws PortalException;
+
+    /**
+     * Applies an autosaved field-level patch to a single dataset or attribute entry. Works like
+     * {@link #patchEntry(long, long, long, Map, String, long)} but leaves the entry's edit
+     * version as it is, so the form the autosave came from can still be submitted.
+     *
+     * @param companyId the company ID of the entry
+     * @param userId ID of the user the edits were made by
+     * @param entryId the C_InventoryOnboarding or C_DatasetInventoryAttributeDetails entry ID
+     * @param values the new field values keyed by object field name
+     * @param userLocale the user's locale for translatable fields
+     * @param expectedVersion the edit version of the entry the client loaded, or -1 to skip the check
+     * @return the names of the fields that changed, empty if the patch matched the stored values
+     * @throws ConcurrentInventoryUpdateException if the entry was edited since the client loaded it
+     * @throws PortalException if the entry is not a dataset or attribute, or a field cannot be patched
+     */
+    List<String> autosaveEntry(long companyId, long userId, long entryId, Map<String, String> values,
+                               String userLocale, long expectedVersion)
+            throws PortalException;
 
     /**
      * Updates the inventory status based on the action type (draft vs submit)
      * @param inventoryId the inventory entry ID to update
      * @param isDraft true if saving as draft, false if submitting
-     * @param actionRequest the action request for GraphQL context
+     * @param portletRequest the action or resource request for GraphQL context
      * @throws Exception if update fails
      */
-    void updateInventoryStatus(long inventoryId, boolean isDraft, ActionRequest actionRequest) throws Exception;
+    void updateInventoryStatus(long inventoryId, boolean isDraft, PortletRequest portletRequest) throws Exception;
+
+    /**
+     * Returns the weighted compliance score of an inventory. The score is maintained on the
+     * inventory entry as ratings and datasets are written, so no datasets are read here.
+     * @param companyId the company ID
+     * @param inventoryId the inventory entry ID
+     * @return the score between 0 and 100, or null if the inventory has not been rated yet
+     * @throws PortalException if the inventory cannot be read
+     */
+    Integer getComplianceScore(long companyId, long inventoryId) throws PortalException;
 }
@@ -0,0 +1,104 @@
+package com.dx.liferay.inventory.service;
+
+import com.dx.liferay.inventory.configuration.UploadAdmissionConfiguration;
+import com.liferay.petra.lang.SafeCloseable;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for the resource requests that parse uploaded workbooks into memory.
+ *
+ * Each upload takes permits equal to its request size in megabytes, at least one and at
+ * most the whole limit, from a fair semaphore sized by {@link UploadAdmissionConfiguration}.
+ * Uploads that find too few permits wait in a bounded queue for up to the configured
+ * timeout; an upload arriving at a full queue is rejected straight away, so a burst costs
+ * the node a short busy response instead of another workbook on the heap. The limit is
+ * per node.
+ */
+@Component(
+        configurationPid = "com.dx.liferay.inventory.configuration.UploadAdmissionConfiguration",
+        service = UploadAdmissionController.class
+)
+public class UploadAdmissionController {
+
+    private static final Log _log = LogFactoryUtil.getLog(UploadAdmissionController.class);
+
+    private static final long BYTES_PER_PERMIT = 1024 * 1024;
+
+    private volatile UploadAdmissionConfiguration _configuration;
+    private volatile Semaphore _permits;
+    private final AtomicInteger _queuedUploads = new AtomicInteger();
+
+    /**
+     * Admits an upload, waiting in the queue if the node is at its limit.
+     *
+     * @param contentLength the upload request size in bytes, or a negative value if unknown
+     * @return releases the upload's permits, for use in a try-with-resources block, or null
+     *         if the upload was not admitted and the client should retry later
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public SafeCloseable admit(long contentLength) throws InterruptedException {
+        Semaphore permits = _permits;
+        int weight = getWeight(contentLength);
+
+        // A timed acquire honours the fair ordering, so a small upload cannot overtake queued ones
+        if (permits.tryAcquire(weight, 0, TimeUnit.SECONDS)) {
+            return () -> permits.release(weight);
+        }
+
+        if (_queuedUploads.incrementAndGet() > _configuration.maxQueuedUploads()) {
+            _queuedUploads.decrementAndGet();
+            _log.warn("Upload queue full, rejecting upload of " + contentLength + " bytes");
+            return null;
+        }
+
+        try {
+            if (permits.tryAcquire(weight, _configuration.queueTimeoutSeconds(), TimeUnit.SECONDS)) {
+                return () -> permits.release(weight);
+            }
+        } finally {
+            _queuedUploads.decrementAndGet();
+        }
+
+        _log.warn("Timed out waiting to parse upload of " + contentLength + " bytes");
+        return null;
+    }
+
+    /**
+     * Returns the number of seconds a rejected client should wait before retrying.
+     *
+     * @return the retry delay in seconds
+     */
+    public int getRetryAfterSeconds() {
+        return _configuration.retryAfterSeconds();
+    }
+
+    private int getWeight(long contentLength) {
+        int maxWeight = Math.max(_configuration.maxConcurrentUploadMegabytes(), 1);
+        long weight = (Math.max(contentLength, 0) + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT;
+
+        return (int) Math.min(Math.max(weight, 1), maxWeight);
+    }
+
+    @Activate
+    @Modified
+    protected void activate(Map<String, Object> properties) {
+        _configuration = ConfigurableUtil.createConfigurable(UploadAdmissionConfiguration.class, properties);
+
+        // Uploads admitted under the previous limit release to the semaphore they acquired from
+        _permits = new Semaphore(Math.max(_configuration.maxConcurrentUploadMegabytes(), 1), true);
+
+        _log.info("Upload admission limit set to " + _configuration.maxConcurrentUploadMegabytes() +
+                " MB with a queue of " + _configuration.maxQueuedUploads());
+    }
+
+}
@@ -1,13 +1,28 @@
 package com.dx.liferay.inventory.service.impl;
 
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.exception.ConcurrentInventoryUpdateException;
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.model.Dataset;
+import com.dx.liferay.inventory.model.InventoryChangeSummary;
+import com.dx.liferay.inventory.search.DatasetNameIndex;
+import com.dx.liferay.inventory.service.InventoryBulkDeleteService;
+import com.dx.liferay.inventory.service.InventoryCounterService;
+import com.dx.liferay.inventory.service.InventoryFieldWriter;
+import com.dx.liferay.inventory.service.InventoryLockService;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
 import com.dx.liferay.inventory.service.InventoryReviewService;
+import com.dx.liferay.inventory.service.InventoryScoringService;
 import com.dx.liferay.inventory.service.InventoryService;
+import com.dx.liferay.inventory.util.DatasetValuesMapper;
+import com.dx.liferay.inventory.util.InventoryCounterThreadLocal;
 import com.dx.liferay.inventory.util.InventoryHelper;
+import com.dx.liferay.inventory.util.InventoryServiceContextFactory;
 import com.liferay.object.model.*;
 import com.liferay.object.service.ObjectDefinitionLocalService;
 import com.liferay.object.service.ObjectEntryLocalService;
 import com.liferay.object.service.ObjectFieldLocalService;
+import com.liferay.petra.lang.SafeCloseable;
 import com.liferay.petra.sql.dsl.DSLQueryFactoryUtil;
 import com.liferay.petra.sql.dsl.Table;
 import com.liferay.petra.sql.dsl.expression.Expression;
@@ -19,20 +34,22 @@ import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONObject;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
-import com.liferay.portal.kernel.service.ServiceContext;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
+import com.liferay.portal.kernel.transaction.Propagation;
+import com.liferay.portal.kernel.transaction.TransactionConfig;
+import com.liferay.portal.kernel.transaction.TransactionInvokerUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.WebKeys;
-import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import com.liferay.search.experiences.rest.dto.v1_0.In;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
-import javax.portlet.ActionRequest;
+import javax.portlet.PortletRequest;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -47,25 +64,40 @@ public class InventoryServiceImpl implements InventoryService {
 
     private static final Log _log = LogFactoryUtil.getLog(InventoryServiceImpl.class);
 
-    ServiceContext serviceContext = new ServiceContext();
+    private static final List<String> MERGE_DATASET_FIELDS = List.of(
+            "datasetName", "datasetDescription", "datasetClassification", "userDemand", "economicImpact",
+            "betterServices", "betterGovernance", "definedOwner", "existingMetadata", "alreadyPublished",
+            "openFormat", "releaseYear", "releaseMonth");
+
+    private static final List<String> MERGE_ATTRIBUTE_FIELDS = List.of("attribute", "attributeDescription");
+
+    private static final List<String> STORED_DATASET_FIELDS = Stream.concat(
+            MERGE_DATASET_FIELDS.stream(), Stream.of(InventoryConstants.EDIT_VERSION_FIELD)).toList();
+
+    private static final List<String> STORED_ATTRIBUTE_FIELDS = Stream.concat(
+            MERGE_ATTRIBUTE_FIELDS.stream(), Stream.of(InventoryConstants.EDIT_VERSION_FIELD)).toList();
+
+    private static final TransactionConfig _transactionConfig = TransactionConfig.Factory.create(
+            Propagation.REQUIRED, new Class<?>[] {Exception.class});
 
     @Override
-    public ObjectEntry addInventory(long companyId, long userId, String userLocale, boolean isDraft, ActionRequest actionRequest) throws Exception {
+    public ObjectEntry addInventory(long companyId, long userId, String userLocale, boolean isDraft, PortletRequest portletRequest) throws Exception {
         ObjectDefinition inventoryObjectDefinition =
                 _objectDefinitionLocalService.fetchObjectDefinition(companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME);
 
         String inventoryName = generateNextInventoryName(companyId);
 
         Map<String, Serializable> values = new HashMap<>();
-        addTranslatableFieldToMap(values, "inventoryName", inventoryName, userLocale);
+        DatasetValuesMapper.addTranslatableField(values, "inventoryName", inventoryName, userLocale);
 
         ObjectEntry objectEntry;
 
         if (!isDraft) {
              objectEntry = _objectEntryLocalService.addObjectEntry(
-                    userId, 0, inventoryObjectDefinition.getObjectDefinitionId(), values, new ServiceContext());
+                    userId, 0, inventoryObjectDefinition.getObjectDefinitionId(), values,
+                    InventoryServiceContextFactory.create(companyId, userId));
         }else{
-            String responseJson =  _inventoryReviewService.executeInventoryGraphQLMutation(InventoryConstants.CREATE_MUTATION_TYPE, null, inventoryName, InventoryConstants.DRAFT_STATUS_CODE, actionRequest);
+            String responseJson =  _inventoryReviewService.executeInventoryGraphQLMutation(InventoryConstants.CREATE_MUTATION_TYPE, null, inventoryName, InventoryConstants.DRAFT_STATUS_CODE, portletRequest);
             long draftId = extractIdFromGraphQLResponse(responseJson);
             objectEntry = _objectEntryLocalService.getObjectEntry(draftId);
         }
@@ -102,12 +134,12 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
-    public void updateInventoryStatus(long inventoryId, boolean isDraft, ActionRequest actionRequest) throws Exception {
+    public void updateInventoryStatus(long inventoryId, boolean isDraft, PortletRequest portletRequest) throws Exception {
         if (!isDraft) {
             ObjectEntry inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
             String inventoryName = _inventoryHelper.getInventoryName(inventoryEntry);
           _inventoryReviewService.executeInventoryGraphQLMutation(
-                    InventoryConstants.UPDATE_MUTATION_TYPE, inventoryId, inventoryName, InventoryConstants.PENDING_STATUS_CODE, actionRequest);
+                    InventoryConstants.UPDATE_MUTATION_TYPE, inventoryId, inventoryName, InventoryConstants.PENDING_STATUS_CODE, portletRequest);
         }
     }
 
@@ -140,50 +172,49 @@ public class InventoryServiceImpl implements InventoryService {
                 0,
                 inventoryDatasetObjectDefinition.getObjectDefinitionId(),
                 inventoryValues,
-                serviceContext
+                InventoryServiceContextFactory.create(companyId, userId)
         );
     }
 
     /**
      * Creates multiple attribute entries associated with a specific dataset inventory entry.
-     * Each attribute includes translatable fields for name and description.
+     * Each attribute includes translatable fields for name and description. The attribute counter
+     * of the dataset is adjusted once for the whole list.
      *
      * @param companyId the company ID where the attributes will be created
-     * @param entryValuesList list of maps containing attribute names, descriptions, and metadata
+     * @param attributes the attributes to create
      * @param datasetInventoryEntryId the ID of the inventory dataset entry to link attributes to
      * @param userLocale the user's locale for proper internationalization of translatable fields
      */
     @Override
-    public void addDatasetInventoryAttributesEntry(long companyId, long userId, List<Map<String, Serializable>> entryValuesList, long datasetInventoryEntryId, String userLocale) throws PortalException {
+    public void addDatasetInventoryAttributesEntry(long companyId, long userId, List<Attribute> attributes, long datasetInventoryEntryId, String userLocale) throws PortalException {
 
         ObjectDefinition datasetInventoryAttributeObjectDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
                 companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME);
 
 
-        // Create attribute entries
-        for (Map<String, Serializable> attributeValues : entryValuesList) {
-            // Create a new map for the actual object entry
-            Map<String, Serializable> objectValues = new HashMap<>();
+        int createdCount = 0;
 
-            String attributeName = (String) attributeValues.get("attributeName");
-            String attributeDescription = (String) attributeValues.get("attributeDescription");
+        try (SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            // Create attribute entries
+            for (Attribute attribute : attributes) {
+                // Translatable attribute fields linked to the parent dataset entry
+                Map<String, Serializable> objectValues = DatasetValuesMapper.toObjectValues(
+                        attribute, userLocale, datasetInventoryEntryId);
 
-            // Use helper method for translatable attribute fields
-            addTranslatableFieldToMap(objectValues, "attribute", attributeName, userLocale);
-            addTranslatableFieldToMap(objectValues, "attributeDescription", attributeDescription, userLocale);
+                ObjectEntry attributeEntry = _objectEntryLocalService.addObjectEntry(
+                         userId,
+                        0,
+                        datasetInventoryAttributeObjectDefinition.getObjectDefinitionId(),
+                        objectValues,
+                        InventoryServiceContextFactory.create(companyId, userId)
+                );
 
-            // Add reference to parent inventory entry
-            objectValues.put(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetInventoryEntryId);
-
-            ObjectEntry attributeEntry = _objectEntryLocalService.addObjectEntry(
-                     userId,
-                    0,
-                    datasetInventoryAttributeObjectDefinition.getObjectDefinitionId(),
-                    objectValues,
-                    serviceContext
-            );
-
-            _log.info("Attribute entry created with ID: " + attributeEntry.getObjectEntryId() + " for attribute: " + attributeName);
+                _log.info("Attribute entry created with ID: " + attributeEntry.getObjectEntryId() + " for attribute: " + attribute.attributeName());
+                createdCount++;
+            }
+        } finally {
+            _inventoryCounterService.adjustAttributeCount(datasetInventoryEntryId, createdCount);
         }
     }
 
@@ -192,381 +223,733 @@ public class InventoryServiceImpl implements InventoryService {
      * dataset creation and their associated attributes.
      *
      * @param companyId the company ID where the datasets will be created
-     * @param datasets list of dataset maps, each containing dataset information, attributes, and locale data
+     * @param datasets the datasets to create, each with its attributes and locale
      */
     @Override
-    @SuppressWarnings("unchecked")
-    public void addMultipleDatasets(long companyId, long userId, List<Map<String, Object>> datasets, long parentInventoryId) throws PortalException {
+    public void addMultipleDatasets(long companyId, long userId, List<Dataset> datasets, long parentInventoryId) throws PortalException {
         if (datasets == null || datasets.isEmpty()) {
             _log.warn("No datasets to process");
             return;
         }
-        for (Map<String, Object> datasetData : datasets) {
-            try {
-                // Create the main dataset entry
-                Map<String, Serializable> inventoryValues = buildInventoryValues(datasetData, parentInventoryId);
+        int createdCount = 0;
 
-                ObjectEntry datasetEntry = addDataSetObjectEntry(companyId, userId, inventoryValues);
+        try (SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            for (Dataset dataset : datasets) {
+                try {
+                    // Create the main dataset entry
+                    Map<String, Serializable> inventoryValues = DatasetValuesMapper.toObjectValues(dataset, parentInventoryId);
+
+                    ObjectEntry datasetEntry = addDataSetObjectEntry(companyId, userId, inventoryValues);
+                    createdCount++;
+
+                    // Add attributes for this dataset
+                    if (!dataset.attributes().isEmpty()) {
+                        addDatasetInventoryAttributesEntry(companyId, userId, dataset.attributes(),
+                                datasetEntry.getObjectEntryId(), dataset.userLocale());
+                    } else {
+                        _log.info("No attributes found for dataset: " + dataset.datasetName());
+                    }
+                } catch (Exception e) {
+                    _log.error("Error processing dataset: " + dataset.datasetName() + " - " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            // Apply a single counter update and score refresh for the whole batch
+            _inventoryCounterService.adjustDatasetCount(parentInventoryId, createdCount);
+            _inventoryScoringService.refreshInventoryScore(companyId, parentInventoryId);
+        }
+    }
 
-                // Add attributes for this dataset
-                List<Map<String, Serializable>> attributes = (List<Map<String, Serializable>>) datasetData.get("attributes");
-                if (attributes != null && !attributes.isEmpty()) {
-                    String userLocale = (String) datasetData.get("userLocale");
+    @Override
+    public InventoryChangeSummary updateMultipleDatasets(long companyId, long userId, long inventoryId,
+                                                         List<Dataset> submittedDatasets,
+                                                         String userLocale, boolean isDraft)
+            throws PortalException {
 
-                    addDatasetInventoryAttributesEntry(companyId, userId, attributes, datasetEntry.getObjectEntryId(), userLocale);
-                } else {
-                    _log.info("No attributes found for dataset: " + datasetData.get("datasetName"));
+        InventoryChangeSummary changeSummary = new InventoryChangeSummary();
+
+        if (submittedDatasets == null || submittedDatasets.isEmpty()) {
+            _log.warn("No datasets provided for update - inventory: " + inventoryId);
+            return changeSummary;
+        }
+
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId);
+             SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            checkVersions(companyId, inventoryId, submittedDatasets);
+
+            // Stored datasets are read as column projections of the compared fields, keyed by ID
+            Map<Long, Map<String, Serializable>> existingDatasetsMap = _inventoryProjectionService.getChildProjections(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, inventoryId, STORED_DATASET_FIELDS,
+                    QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+
+            // Track which existing datasets are being updated (so we know which ones to delete)
+            Set<Long> processedDatasetIds = new HashSet<>();
+
+            // Process each submitted dataset
+            for (Dataset submittedDataset : submittedDatasets) {
+                try {
+                    processSubmittedDataset(companyId, userId, inventoryId, submittedDataset,
+                            existingDatasetsMap, processedDatasetIds, userLocale, changeSummary);
+                } catch (ConcurrentInventoryUpdateException e) {
+                    throw e;
+                } catch (Exception e) {
+                    _log.error("Error processing submitted dataset: " + submittedDataset.datasetName(), e);
+                    throw new PortalException("Failed to process dataset: " + submittedDataset.datasetName(), e);
                 }
-            } catch (Exception e) {
-                _log.error("Error processing dataset: " + datasetData.get("datasetName") + " - " + e.getMessage(), e);
             }
+
+            // Delete datasets that were not in the submitted list
+            deleteUnprocessedDatasets(existingDatasetsMap.keySet(), processedDatasetIds, companyId, changeSummary);
+
+            _log.info("Successfully updated inventory " + inventoryId + " - Touched: " +
+                    changeSummary.getTouchedEntries() + ", Skipped unchanged: " + changeSummary.getSkippedEntries() +
+                    " (datasets inserted " + changeSummary.getInsertedDatasets() + ", updated " +
+                    changeSummary.getUpdatedDatasets() + ", deleted " + changeSummary.getDeletedDatasets() + ")");
+
+            return changeSummary;
+
+        } catch (ConcurrentInventoryUpdateException e) {
+            throw e;
+        } catch (Exception e) {
+            _log.error("Failed to update inventory datasets for inventory: " + inventoryId, e);
+            throw new PortalException("Failed to update inventory datasets", e);
+        } finally {
+            _inventoryCounterService.adjustDatasetCount(inventoryId,
+                    changeSummary.getInsertedDatasets() - changeSummary.getDeletedDatasets());
+            _inventoryScoringService.refreshInventoryScore(companyId, inventoryId);
         }
     }
 
-    /**
-     * Builds a map of inventory values from raw dataset data, handling both translatable
-     * and non-translatable fields with proper data validation, cleaning, and type conversion.
-    *
-     * @param datasetData map containing raw dataset information from form submission or file parsing
-     * @return map of properly formatted and validated inventory values ready for object entry creation
-     */
-    private Map<String, Serializable> buildInventoryValues(Map<String, Object> datasetData, Long parentInventoryId) throws PortalException {
-        Map<String, Serializable> inventoryValues = new HashMap<>();
+    @Override
+    public InventoryChangeSummary addDatasetChunk(long companyId, long userId, long inventoryId, List<Dataset> datasets,
+                                                  String userLocale, Set<Long> processedDatasetIds)
+            throws PortalException {
+
+        InventoryChangeSummary changeSummary = new InventoryChangeSummary();
+        Set<Long> chunkDatasetIds = new HashSet<>();
+
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId);
+             SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+
+            // The whole chunk, including its counter update, is written or rolled back together
+            TransactionInvokerUtil.invoke(_transactionConfig, () -> {
+                checkVersions(companyId, inventoryId, datasets);
+
+                // Only the stored datasets this chunk refers to are read, and only if they belong to the inventory
+                Set<Long> existingDatasetIds = datasets.stream()
+                        .filter(Dataset::isExisting)
+                        .map(Dataset::actualDatasetId)
+                        .collect(Collectors.toSet());
 
-        String userLocale = (String) datasetData.get("userLocale");
+                Map<Long, Map<String, Serializable>> existingDatasetsMap = _inventoryProjectionService.getProjections(
+                        companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, existingDatasetIds,
+                        Stream.concat(STORED_DATASET_FIELDS.stream(),
+                                Stream.of(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID)).toList());
 
-        // Handle TRANSLATABLE fields
-        addTranslatableFieldToMap(inventoryValues, "datasetName", (String) datasetData.get("datasetName"), userLocale);
-        addTranslatableFieldToMap(inventoryValues, "datasetDescription", (String) datasetData.get("datasetDescription"), userLocale);
+                existingDatasetsMap.values().removeIf(existingDataset -> GetterUtil.getLong(
+                        existingDataset.get(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID)) != inventoryId);
 
-        // Handle NON-TRANSLATABLE fields
-        String datasetClassification = (String) datasetData.get("datasetClassification");
-        if (datasetClassification != null && !datasetClassification.trim().isEmpty() && !datasetClassification.equals("Choose Option")) {
-            inventoryValues.put("datasetClassification", datasetClassification.trim());
+                for (Dataset dataset : datasets) {
+                    processSubmittedDataset(companyId, userId, inventoryId, dataset, existingDatasetsMap,
+                            chunkDatasetIds, userLocale, changeSummary);
+                }
+
+                _inventoryCounterService.adjustDatasetCount(inventoryId, changeSummary.getInsertedDatasets());
+                return null;
+            });
+        } catch (PortalException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PortalException("Failed to write chunk of inventory " + inventoryId, t);
         }
 
-        // Data Prioritization Details - Benefits
-        addIntegerValueIfValid(inventoryValues, datasetData, "userDemand");
-        addIntegerValueIfValid(inventoryValues, datasetData, "economicImpact");
-        addIntegerValueIfValid(inventoryValues, datasetData, "betterServices");
-        addIntegerValueIfValid(inventoryValues, datasetData, "betterGovernance");
+        // Only datasets of a committed chunk count as submitted
+        processedDatasetIds.addAll(chunkDatasetIds);
+
+        return changeSummary;
+    }
+
+    @Override
+    public InventoryChangeSummary completeChunkedSubmission(long companyId, long inventoryId,
+                                                            Set<Long> processedDatasetIds,
+                                                            boolean removeUnprocessedDatasets)
+            throws PortalException {
 
-        // Data Prioritization Details - Quality & Readiness
-        addStringValueIfNotEmpty(inventoryValues, datasetData, "definedOwner");
-        addStringValueIfNotEmpty(inventoryValues, datasetData, "existingMetadata");
-        addStringValueIfNotEmpty(inventoryValues, datasetData, "alreadyPublished");
-        addStringValueIfNotEmpty(inventoryValues, datasetData, "openFormat");
+        InventoryChangeSummary changeSummary = new InventoryChangeSummary();
 
-        // Dataset Release Plan - TRANSLATABLE fields
-        addTranslatableFieldToMap(inventoryValues, "releaseYear", (String) datasetData.get("releaseYear"), userLocale);
-        addTranslatableFieldToMap(inventoryValues, "releaseMonth", (String) datasetData.get("releaseMonth"), userLocale);
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId);
+             SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            if (removeUnprocessedDatasets) {
+                List<Long> storedDatasetIds = _inventoryProjectionService.getChildIds(
+                        companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                        InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, List.of(inventoryId));
 
-        if(parentInventoryId != null) {
-            inventoryValues.put(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, parentInventoryId);
+                deleteUnprocessedDatasets(new HashSet<>(storedDatasetIds), processedDatasetIds, companyId, changeSummary);
+            }
+
+            return changeSummary;
+        } finally {
+            _inventoryCounterService.adjustDatasetCount(inventoryId, -changeSummary.getDeletedDatasets());
+            _inventoryScoringService.refreshInventoryScore(companyId, inventoryId);
         }
-        return inventoryValues;
     }
 
     /**
-     * Helper method to add translatable fields to a target map with proper internationalization support.
-     * Creates both the base field value and the _i18n map containing locale-specific translations.
-     * Used for fields that need to support multiple languages and localization.
-     *
-     * @param targetMap the map to add the translatable field to (inventory values or attribute values)
-     * @param fieldName the name of the field to add (without _i18n suffix)
-     * @param value the field value in the user's locale
-     * @param userLocale the user's locale code for internationalization mapping
+     * Rejects a submission early if any stored dataset or attribute it carries a version for
+     * was edited after the client loaded it, so a stale form is refused before anything is
+     * written. The edit versions are read with one projection per object definition. Drafts
+     * are checked too, as autosave does not advance the edit version. Each write checks its
+     * entry's version again as it advances it, so edits committed after this check are still
+     * detected.
      */
-    private void addTranslatableFieldToMap(Map<String, Serializable> targetMap, String fieldName, String value, String userLocale) {
-        if (value != null && !value.trim().isEmpty()) {
-            String trimmedValue = value.trim();
+    private void checkVersions(long companyId, long inventoryId, List<Dataset> datasets) throws PortalException {
+        Map<Long, Long> expectedDatasetVersions = new HashMap<>();
+        Map<Long, Long> expectedAttributeVersions = new HashMap<>();
 
-            // Set the default field value
-            targetMap.put(fieldName, trimmedValue);
+        for (Dataset dataset : datasets) {
+            if (dataset.isVersionChecked()) {
+                expectedDatasetVersions.put(dataset.actualDatasetId(), dataset.version());
+            }
+            for (Attribute attribute : dataset.attributes()) {
+                if (attribute.isVersionChecked()) {
+                    expectedAttributeVersions.put(attribute.actualAttributeId(), attribute.version());
+                }
+            }
+        }
 
-            // Set the _i18n field with locale map
-            Map<String, String> i18nMap = new HashMap<>();
-            i18nMap.put(userLocale, trimmedValue);
-            targetMap.put(fieldName + "_i18n", (Serializable) i18nMap);
+        List<Long> conflictingEntryIds = new ArrayList<>();
+        conflictingEntryIds.addAll(getConflictingEntryIds(companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, expectedDatasetVersions));
+        conflictingEntryIds.addAll(getConflictingEntryIds(companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, expectedAttributeVersions));
 
-        } else {
-            _log.info(fieldName + ": (empty or null)");
+        if (!conflictingEntryIds.isEmpty()) {
+            Collections.sort(conflictingEntryIds);
+
+            throw new ConcurrentInventoryUpdateException("Entries " + conflictingEntryIds + " of inventory " +
+                    inventoryId + " were modified by another user");
         }
     }
 
-
-    @Override
-    public void updateMultipleDatasets(long companyId, long userId, long inventoryId,
-                                       List<Map<String, Object>> submittedDatasets, String userLocale, boolean isDraft)
+    /**
+     * Returns the entries whose stored edit version differs from the expected one. Entries that
+     * no longer exist, which have no relationship value, are left to the caller.
+     */
+    private List<Long> getConflictingEntryIds(long companyId, String objectDefinitionName,
+                                              String relationshipFieldName, Map<Long, Long> expectedVersions)
             throws PortalException {
 
-        if (submittedDatasets == null || submittedDatasets.isEmpty()) {
-            _log.warn("No datasets provided for update - inventory: " + inventoryId);
-            return;
+        if (expectedVersions.isEmpty()) {
+            return List.of();
         }
 
-        try {
-            // Get existing datasets
-            ObjectEntry inventoryEntry = _objectEntryLocalService.getObjectEntry(inventoryId);
-            List<ObjectEntry> existingDatasets = _inventoryHelper.getInventoryDatasetsList(inventoryEntry);
+        Map<Long, Map<String, Serializable>> storedEntries = _inventoryProjectionService.getProjections(
+                companyId, objectDefinitionName, expectedVersions.keySet(),
+                List.of(InventoryConstants.EDIT_VERSION_FIELD, relationshipFieldName));
 
-            // Create a map of existing datasets by ID for quick lookup
-            Map<Long, ObjectEntry> existingDatasetsMap = existingDatasets.stream()
-                    .collect(Collectors.toMap(ObjectEntry::getObjectEntryId, Function.identity()));
+        List<Long> conflictingEntryIds = new ArrayList<>();
+        for (Map.Entry<Long, Long> expectedVersion : expectedVersions.entrySet()) {
+            Map<String, Serializable> storedEntry = storedEntries.get(expectedVersion.getKey());
 
-            // Track which existing datasets are being updated (so we know which ones to delete)
-            Set<Long> processedDatasetIds = new HashSet<>();
+            if (storedEntry != null && storedEntry.get(relationshipFieldName) != null &&
+                    GetterUtil.getLong(storedEntry.get(InventoryConstants.EDIT_VERSION_FIELD)) !=
+                            expectedVersion.getValue()) {
 
-            // Process each submitted dataset
-            for (Map<String, Object> submittedDataset : submittedDatasets) {
-                try {
-                    processSubmittedDataset(companyId, userId, inventoryId, submittedDataset,
-                            existingDatasetsMap, processedDatasetIds, userLocale);
-                } catch (Exception e) {
-                    _log.error("Error processing submitted dataset: " + submittedDataset.get("datasetName"), e);
-                    throw new PortalException("Failed to process dataset: " + submittedDataset.get("datasetName"), e);
-                }
+                conflictingEntryIds.add(expectedVersion.getKey());
             }
+        }
+        return conflictingEntryIds;
+    }
 
-            // Delete datasets that were not in the submitted list
-            deleteUnprocessedDatasets(existingDatasetsMap.keySet(), processedDatasetIds,companyId);
+    /**
+     * Writes changed values of a dataset or attribute and advances its edit version in one
+     * transaction. With an expected version, the statement that advances the version also
+     * checks it and keeps the row locked until the values are written, so a writer that
+     * loaded an older version fails instead of overwriting this write. Without one, the
+     * version is advanced unconditionally so other clients still see the change.
+     *
+     * @throws ConcurrentInventoryUpdateException if the entry no longer has the expected version
+     */
+    private void updateVersionedEntry(long companyId, long userId, String objectDefinitionName, long objectEntryId,
+                                      Map<String, Serializable> values, long expectedVersion)
+            throws PortalException {
 
-            _log.info("Successfully updated inventory " + inventoryId + " - Processed: " +
-                    processedDatasetIds.size() + ", Deleted: " +
-                    (existingDatasetsMap.size() - processedDatasetIds.size()));
+        ObjectDefinition objectDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                companyId, objectDefinitionName);
 
-        } catch (Exception e) {
-            _log.error("Failed to update inventory datasets for inventory: " + inventoryId, e);
-            throw new PortalException("Failed to update inventory datasets", e);
+        try {
+            TransactionInvokerUtil.invoke(_transactionConfig, () -> {
+                if (expectedVersion < 0) {
+                    _inventoryFieldWriter.incrementField(objectDefinition, objectEntryId,
+                            InventoryConstants.EDIT_VERSION_FIELD, 1);
+                } else if (!_inventoryFieldWriter.compareAndIncrementField(objectDefinition, objectEntryId,
+                        InventoryConstants.EDIT_VERSION_FIELD, expectedVersion)) {
+
+                    throw new ConcurrentInventoryUpdateException("Entry " + objectEntryId +
+                            " was modified by another user (expected version " + expectedVersion + ")");
+                }
+
+                _objectEntryLocalService.updateObjectEntry(userId, objectEntryId, values,
+                        InventoryServiceContextFactory.create(companyId, userId));
+                return null;
+            });
+        } catch (PortalException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PortalException("Failed to update entry " + objectEntryId, t);
         }
     }
 
+    /**
+     * Updates or creates a single submitted dataset and records the outcome in the change summary.
+     */
     private void processSubmittedDataset(long companyId, long userId, long inventoryId,
-                                         Map<String, Object> submittedDataset,
-                                         Map<Long, ObjectEntry> existingDatasetsMap,
-                                         Set<Long> processedDatasetIds, String userLocale)
+                                         Dataset submittedDataset,
+                                         Map<Long, Map<String, Serializable>> existingDatasetsMap,
+                                         Set<Long> processedDatasetIds, String userLocale,
+                                         InventoryChangeSummary changeSummary)
             throws PortalException {
 
-        Long actualDatasetId = (Long) submittedDataset.get("actualDatasetId");
-        Boolean isExisting = (Boolean) submittedDataset.get("isExisting");
+        long actualDatasetId = submittedDataset.actualDatasetId();
 
-        if (isExisting != null && actualDatasetId != null && actualDatasetId > 0) {
+        if (submittedDataset.isExisting()) {
             // UPDATE existing dataset
-            ObjectEntry existingDataset = existingDatasetsMap.get(actualDatasetId);
+            Map<String, Serializable> existingDataset = existingDatasetsMap.get(actualDatasetId);
             if (existingDataset != null) {
-                updateExistingDataset(companyId, userId, existingDataset, submittedDataset, userLocale);
+                updateExistingDataset(companyId, userId, actualDatasetId, existingDataset, submittedDataset,
+                        userLocale, changeSummary);
                 processedDatasetIds.add(actualDatasetId);
-                _log.info("Updated dataset ID: "+ actualDatasetId);
             } else {
-                _log.warn("Dataset with ID {} not found in existing datasets, creating new one" + actualDatasetId);
+                _log.warn("Dataset " + actualDatasetId + " not found in existing datasets, creating new one");
                 createNewDataset(companyId, userId, inventoryId, submittedDataset, userLocale);
+                changeSummary.addInsertedDataset();
+                changeSummary.addInsertedAttributes(submittedDataset.attributes().size());
             }
         } else {
             // CREATE new dataset
             createNewDataset(companyId, userId, inventoryId, submittedDataset, userLocale);
-            _log.info("Created new dataset:  "+ submittedDataset.get("datasetName"));
+            changeSummary.addInsertedDataset();
+            changeSummary.addInsertedAttributes(submittedDataset.attributes().size());
+            _log.info("Created new dataset:  "+ submittedDataset.datasetName());
         }
     }
 
-    private void deleteUnprocessedDatasets(Set<Long> existingDatasetIds, Set<Long> processedDatasetIds, long companyId) {
-        existingDatasetIds.stream()
-                .filter(id -> !processedDatasetIds.contains(id))
-                .forEach(datasetId -> {
-                    try {
-                        deleteAttributesWithDataset(datasetId,companyId);
-                        _log.info("Deleted unprocessed dataset ID: "+ datasetId);
-                    } catch (Exception e) {
-                        _log.info("Error deleting dataset ID: " + datasetId, e);
-                    }
-                });
+    /**
+     * Deletes the existing datasets that were not part of the submission, with their attributes.
+     */
+    private void deleteUnprocessedDatasets(Set<Long> existingDatasetIds, Set<Long> processedDatasetIds, long companyId,
+                                           InventoryChangeSummary changeSummary) throws PortalException {
+
+        Set<Long> unprocessedDatasetIds = new HashSet<>(existingDatasetIds);
+        unprocessedDatasetIds.removeAll(processedDatasetIds);
+
+        changeSummary.addDeletedDatasets(_inventoryBulkDeleteService.deleteDatasets(companyId, unprocessedDatasetIds));
     }
 
-    private void updateExistingDataset(long companyId, long userId, ObjectEntry existingDataset,
-                                       Map<String, Object> submittedData, String userLocale)
+    private void updateExistingDataset(long companyId, long userId, long datasetId,
+                                       Map<String, Serializable> existingDataset,
+                                       Dataset submittedData, String userLocale,
+                                       InventoryChangeSummary changeSummary)
             throws PortalException {
 
-        long datasetId = existingDataset.getObjectEntryId();
+        // Only write the main dataset fields when a submitted value differs from the stored one
+        Map<String, Serializable> changedValues = DatasetValuesMapper.getChangedValues(
+                existingDataset, DatasetValuesMapper.toObjectValues(submittedData, null));
 
-        // Update main dataset fields
-        Map<String, Serializable> updatedValues = buildInventoryValues(submittedData, null);
-        _objectEntryLocalService.updateObjectEntry(
-                userId,
-                datasetId,
-                updatedValues,
-                new ServiceContext()
-        );
+        if (changedValues.isEmpty()) {
+            changeSummary.addUnchangedDataset();
+        } else {
+            updateVersionedEntry(companyId, userId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, datasetId,
+                    changedValues, submittedData.isVersionChecked() ? submittedData.version() : -1);
+            changeSummary.addUpdatedDataset();
+            _log.info("Updated dataset ID: " + datasetId + " fields: " + changedValues.keySet());
+        }
+
+        // Attributes that were never loaded on the review screen were not submitted and stay as they are
+        if (!submittedData.attributesLoaded()) {
+            return;
+        }
 
         // Update attributes using ID-based approach
-        updateDatasetAttributes(companyId, userId, datasetId, submittedData, userLocale);
+        updateDatasetAttributes(companyId, userId, datasetId, submittedData, userLocale, changeSummary);
     }
 
 
     private void createNewDataset(long companyId, long userId, long inventoryId,
-                                  Map<String, Object> submittedData, String userLocale)
+                                  Dataset submittedData, String userLocale)
             throws PortalException {
 
         // Create main dataset
-        Map<String, Serializable> values = buildInventoryValues(submittedData, inventoryId);
+        Map<String, Serializable> values = DatasetValuesMapper.toObjectValues(submittedData, inventoryId);
         ObjectEntry newDataset = addDataSetObjectEntry(companyId, userId, values);
 
         // Create attributes
-        @SuppressWarnings("unchecked")
-        List<Map<String, Serializable>> attributes =
-                (List<Map<String, Serializable>>) submittedData.get("attributes");
-
-        if (attributes != null && !attributes.isEmpty()) {
-            addDatasetInventoryAttributesEntry(companyId, userId,attributes,
+        if (!submittedData.attributes().isEmpty()) {
+            addDatasetInventoryAttributesEntry(companyId, userId, submittedData.attributes(),
                     newDataset.getObjectEntryId(), userLocale);
         }
     }
 
-    private void deleteAttributesWithDataset(long datasetId, long companyId) throws PortalException {
-        try {
-
-            List<ObjectEntry> attributes = _inventoryReviewService.queryDatasetAttributes(datasetId,companyId);
-
-            List<Long> attributeIds = attributes.stream()
-                    .map(ObjectEntry::getObjectEntryId)
-                    .toList();
-
-            // Delete each attribute
-            for (Long attributeId : attributeIds) {
-                try {
-                    _objectEntryLocalService.deleteObjectEntry(attributeId);
-                    _log.info("Deleted attribute: " + attributeId);
-                } catch (Exception e) {
-                    _log.error("Error deleting attribute: " + attributeId, e);
-                }
-            }
-            //delete dataset
-            _objectEntryLocalService.deleteObjectEntry(datasetId);
-
-        } catch (Exception e) {
-            _log.error("Error deleting attributes for dataset: " + datasetId, e);
-        }
-    }
-
     private void updateDatasetAttributes(long companyId, long userId, long datasetId,
-                                         Map<String, Object> submittedData, String userLocale)
+                                         Dataset submittedData, String userLocale,
+                                         InventoryChangeSummary changeSummary)
             throws PortalException {
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Serializable>> submittedAttributes =
-                (List<Map<String, Serializable>>) submittedData.get("attributes");
-
-        if (submittedAttributes == null) {
-            submittedAttributes = new ArrayList<>();
-        }
-
-        // Get existing attributes for this dataset
-        List<ObjectEntry> existingAttributes = _inventoryReviewService.queryDatasetAttributes(datasetId,companyId);
+        List<Attribute> submittedAttributes = submittedData.attributes();
 
-        // Create map of existing attributes by ID
-        Map<Long, ObjectEntry> existingAttributesMap = existingAttributes.stream()
-                .collect(Collectors.toMap(ObjectEntry::getObjectEntryId, Function.identity()));
+        // Existing attributes of this dataset, as column projections keyed by ID
+        Map<Long, Map<String, Serializable>> existingAttributesMap = _inventoryProjectionService.getChildProjections(
+                companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId, STORED_ATTRIBUTE_FIELDS,
+                QueryUtil.ALL_POS, QueryUtil.ALL_POS);
 
         // Track processed attribute IDs
         Set<Long> processedAttributeIds = new HashSet<>();
 
-        // Process each submitted attribute
-        for (Map<String, Serializable> submittedAttribute : submittedAttributes) {
-            try {
-                processSubmittedAttribute(companyId, userId, datasetId, submittedAttribute,
-                        existingAttributesMap, processedAttributeIds, userLocale);
-            } catch (Exception e) {
-                _log.error("Error processing attribute: " + submittedAttribute.get("attributeName"), e);
-                // Continue with other attributes instead of failing completely
+        int attributeCountDelta = 0;
+
+        try (SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            // Process each submitted attribute
+            for (Attribute submittedAttribute : submittedAttributes) {
+                try {
+                    if (processSubmittedAttribute(companyId, userId, datasetId, submittedAttribute,
+                            existingAttributesMap, processedAttributeIds, userLocale, changeSummary)) {
+                        attributeCountDelta++;
+                        changeSummary.addInsertedAttributes(1);
+                    }
+                } catch (ConcurrentInventoryUpdateException e) {
+                    throw e;
+                } catch (Exception e) {
+                    _log.error("Error processing attribute: " + submittedAttribute.attributeName(), e);
+                    // Continue with other attributes instead of failing completely
+                }
             }
-        }
 
-        // Delete attributes that were not in the submitted list
-        deleteUnprocessedAttributes(existingAttributesMap.keySet(), processedAttributeIds);
+            // Delete attributes that were not in the submitted list
+            int deletedCount = deleteUnprocessedAttributes(companyId, existingAttributesMap.keySet(), processedAttributeIds);
+            attributeCountDelta -= deletedCount;
+            changeSummary.addDeletedAttributes(deletedCount);
+        } finally {
+            _inventoryCounterService.adjustAttributeCount(datasetId, attributeCountDelta);
+        }
     }
 
-    private void processSubmittedAttribute(long companyId, long userId, long datasetId,
-                                           Map<String, Serializable> submittedAttribute,
-                                           Map<Long, ObjectEntry> existingAttributesMap,
-                                           Set<Long> processedAttributeIds, String userLocale)
+    /**
+     * Updates or creates a single submitted attribute.
+     *
+     * @return true if a new attribute entry was created
+     */
+    private boolean processSubmittedAttribute(long companyId, long userId, long datasetId,
+                                           Attribute submittedAttribute,
+                                           Map<Long, Map<String, Serializable>> existingAttributesMap,
+                                           Set<Long> processedAttributeIds, String userLocale,
+                                           InventoryChangeSummary changeSummary)
             throws PortalException {
 
-        Long actualAttributeId = (Long) submittedAttribute.get("actualAttributeId");
-        Boolean isExisting = (Boolean) submittedAttribute.get("isExisting");
+        long actualAttributeId = submittedAttribute.actualAttributeId();
 
-        if (isExisting != null  && actualAttributeId != null && actualAttributeId > 0) {
+        if (submittedAttribute.isExisting()) {
             // UPDATE existing attribute
-            ObjectEntry existingAttribute = existingAttributesMap.get(actualAttributeId);
+            Map<String, Serializable> existingAttribute = existingAttributesMap.get(actualAttributeId);
             if (existingAttribute != null) {
-                updateExistingAttribute(existingAttribute, userId, submittedAttribute, userLocale);
+                updateExistingAttribute(companyId, userId, actualAttributeId, existingAttribute, submittedAttribute,
+                        userLocale, changeSummary);
                 processedAttributeIds.add(actualAttributeId);
             } else {
-                _log.warn("Attribute with ID  not found, creating new one" + actualAttributeId);
+                _log.warn("Attribute " + actualAttributeId + " not found, creating new one");
                 createNewAttribute(companyId, userId, datasetId, submittedAttribute, userLocale);
+                return true;
             }
         } else {
             // CREATE new attribute
             createNewAttribute(companyId, userId, datasetId, submittedAttribute, userLocale);
+            return true;
         }
+        return false;
     }
 
-    private void deleteUnprocessedAttributes(Set<Long> existingAttributeIds, Set<Long> processedAttributeIds) {
-        existingAttributeIds.stream()
-                .filter(id -> !processedAttributeIds.contains(id))
-                .forEach(attributeId -> {
-                    try {
-                        _objectEntryLocalService.deleteObjectEntry(attributeId);
-                        _log.info("Deleted unprocessed attribute ID: "+ attributeId);
-                    } catch (Exception e) {
-                        _log.error("Error deleting attribute ID: " + attributeId, e);
-                    }
-                });
-    }
+    /**
+     * Deletes the existing attributes that were not part of the submission.
+     *
+     * @return the number of attributes deleted
+     */
+    private int deleteUnprocessedAttributes(long companyId, Set<Long> existingAttributeIds,
+                                            Set<Long> processedAttributeIds) throws PortalException {
 
+        Set<Long> unprocessedAttributeIds = new HashSet<>(existingAttributeIds);
+        unprocessedAttributeIds.removeAll(processedAttributeIds);
 
-    private void updateExistingAttribute(ObjectEntry existingAttribute, long userId,
-                                         Map<String, Serializable> submittedAttribute, String userLocale)
-            throws PortalException {
+        return _inventoryBulkDeleteService.deleteAttributes(companyId, unprocessedAttributeIds);
+    }
 
-        Map<String, Serializable> attributeValues = new HashMap<>();
 
-        String attributeName = (String) submittedAttribute.get("attributeName");
-        String attributeDescription = (String) submittedAttribute.get("attributeDescription");
+    private void updateExistingAttribute(long companyId, long userId, long attributeId,
+                                         Map<String, Serializable> existingAttribute,
+                                         Attribute submittedAttribute, String userLocale,
+                                         InventoryChangeSummary changeSummary)
+            throws PortalException {
 
-        addTranslatableFieldToMap(attributeValues, "attribute", attributeName, userLocale);
-        addTranslatableFieldToMap(attributeValues, "attributeDescription", attributeDescription, userLocale);
+        Map<String, Serializable> changedValues = DatasetValuesMapper.getChangedValues(
+                existingAttribute, DatasetValuesMapper.toObjectValues(submittedAttribute, userLocale, null));
+        if (changedValues.isEmpty()) {
+            changeSummary.addUnchangedAttribute();
+            return;
+        }
 
-        _objectEntryLocalService.updateObjectEntry(
-                userId,
-                existingAttribute.getObjectEntryId(),
-                attributeValues,
-                new ServiceContext()
-        );
+        updateVersionedEntry(companyId, userId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME, attributeId,
+                changedValues, submittedAttribute.isVersionChecked() ? submittedAttribute.version() : -1);
+        changeSummary.addUpdatedAttribute();
     }
 
     private void createNewAttribute(long companyId, long userId, long datasetId,
-                                    Map<String, Serializable> attributeData, String userLocale)
+                                    Attribute attributeData, String userLocale)
             throws PortalException {
 
         ObjectDefinition attributeDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
                 companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME);
 
-        Map<String, Serializable> attributeValues = new HashMap<>();
-
-        String attributeName = (String) attributeData.get("attributeName");
-        String attributeDescription = (String) attributeData.get("attributeDescription");
-
-        addTranslatableFieldToMap(attributeValues, "attribute", attributeName, userLocale);
-        addTranslatableFieldToMap(attributeValues, "attributeDescription", attributeDescription, userLocale);
-        attributeValues.put(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId);
+        Map<String, Serializable> attributeValues = DatasetValuesMapper.toObjectValues(attributeData, userLocale, datasetId);
 
         _objectEntryLocalService.addObjectEntry(userId, 0,
                 attributeDefinition.getObjectDefinitionId(),
                 attributeValues,
-                new ServiceContext()
+                InventoryServiceContextFactory.create(companyId, userId)
         );
     }
 
 
 
+    @Override
+    public InventoryChangeSummary mergeDatasets(long companyId, long userId, long inventoryId,
+                                               List<Dataset> datasets, String userLocale,
+                                               boolean removeMissingDatasets) throws PortalException {
+
+        InventoryChangeSummary changeSummary = new InventoryChangeSummary();
+
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId);
+             SafeCloseable safeCloseable = InventoryCounterThreadLocal.setManagedByServiceWithSafeCloseable(true)) {
+            // Stored datasets are read as column projections and keyed by normalised name
+            Map<Long, Map<String, Serializable>> storedDatasets = _inventoryProjectionService.getChildProjections(
+                    companyId, InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                    InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, inventoryId, MERGE_DATASET_FIELDS,
+                    QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+
+            Map<String, Long> storedDatasetIds = new HashMap<>();
+            for (Map.Entry<Long, Map<String, Serializable>> storedDataset : storedDatasets.entrySet()) {
+                storedDatasetIds.putIfAbsent(
+                        DatasetNameIndex.normalize(GetterUtil.getString(storedDataset.getValue().get("datasetName"))),
+                        storedDataset.getKey());
+            }
+
+            Set<Long> mergedDatasetIds = new HashSet<>();
+
+            for (Dataset dataset : datasets) {
+                String normalizedName = DatasetNameIndex.normalize(dataset.datasetName());
+                if (normalizedName.isEmpty()) {
+                    continue;
+                }
+
+                Long datasetId = storedDatasetIds.get(normalizedName);
+
+                if (datasetId == null || !mergedDatasetIds.add(datasetId)) {
+                    createNewDataset(companyId, userId, inventoryId, dataset, userLocale);
+                    changeSummary.addInsertedDataset();
+                    changeSummary.addInsertedAttributes(dataset.attributes().size());
+                    continue;
+                }
+
+                Map<String, Serializable> changedValues = DatasetValuesMapper.getChangedValues(
+                        storedDatasets.get(datasetId), DatasetValuesMapper.toObjectValues(dataset, null));
+
+                if (changedValues.isEmpty()) {
+                    changeSummary.addUnchangedDataset();
+                } else {
+                    updateVersionedEntry(companyId, userId, InventoryConstants.DX_INVENTORY_OBJECT_NAME, datasetId,
+                            changedValues, -1);
+                    changeSummary.addUpdatedDataset();
+                }
+
+                mergeDatasetAttributes(companyId, userId, datasetId, dataset.attributes(), userLocale, changeSummary);
+            }
+
+            if (removeMissingDatasets) {
+                deleteUnprocessedDatasets(storedDatasets.keySet(), mergedDatasetIds, companyId, changeSummary);
+            }
+
+            _log.info("Merged upload into inventory " + inventoryId + " - Inserted: " +
+                    changeSummary.getInsertedDatasets() + ", Updated: " + changeSummary.getUpdatedDatasets() +
+                    ", Unchanged: " + changeSummary.getUnchangedDatasets() + ", Deleted: " +
+                    changeSummary.getDeletedDatasets());
+
+            return changeSummary;
+        } finally {
+            // Apply a single counter update and score refresh for the whole merge
+            _inventoryCounterService.adjustDatasetCount(inventoryId,
+                    changeSummary.getInsertedDatasets() - changeSummary.getDeletedDatasets());
+            _inventoryScoringService.refreshInventoryScore(companyId, inventoryId);
+        }
+    }
+
+    @Override
+    public List<String> patchEntry(long companyId, long userId, long entryId, Map<String, String> values,
+                                   String userLocale, long expectedVersion) throws PortalException {
+
+        return patchEntry(companyId, userId, entryId, values, userLocale, expectedVersion, true);
+    }
+
+    @Override
+    public List<String> autosaveEntry(long companyId, long userId, long entryId, Map<String, String> values,
+                                      String userLocale, long expectedVersion) throws PortalException {
+
+        return patchEntry(companyId, userId, entryId, values, userLocale, expectedVersion, false);
+    }
+
+    /**
+     * Applies a field-level patch under the lock of the owning inventory. The entry's edit
+     * version is checked first, even when nothing changes, so a client never adopts a version
+     * whose other fields it has not seen. User patches advance the version as they write;
+     * autosaves leave it as it is, so the owner's open form is not rejected on submit, and
+     * rely on the inventory lock, which every writer of datasets and attributes holds, to
+     * keep the check and the write together.
+     */
+    private List<String> patchEntry(long companyId, long userId, long entryId, Map<String, String> values,
+                                    String userLocale, long expectedVersion, boolean advanceVersion)
+            throws PortalException {
+
+        ObjectEntry objectEntry = _objectEntryLocalService.getObjectEntry(entryId);
+        if (objectEntry.getCompanyId() != companyId) {
+            throw new PortalException("Entry " + entryId + " does not belong to company " + companyId);
+        }
+
+        long inventoryId = _inventoryHelper.getOwningInventoryId(objectEntry);
+        if (inventoryId <= 0) {
+            throw new PortalException("Entry " + entryId + " does not belong to an inventory");
+        }
+
+        try (SafeCloseable inventoryLock = _inventoryLockService.lock(inventoryId)) {
+            // Read the entry again under the lock so the version check sees the latest write
+            objectEntry = _objectEntryLocalService.getObjectEntry(entryId);
+
+            long storedVersion = GetterUtil.getLong(
+                    objectEntry.getValues().get(InventoryConstants.EDIT_VERSION_FIELD));
+
+            if (expectedVersion >= 0 && storedVersion != expectedVersion) {
+                throw new ConcurrentInventoryUpdateException("Entry " + entryId + " was modified by another user " +
+                        "(expected version " + expectedVersion + ", found " + storedVersion + ")");
+            }
+
+            String objectDefinitionName = _inventoryHelper.getObjectDefinitionName(objectEntry);
+            Map<String, Serializable> patchValues;
+
+            if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinitionName)) {
+                validatePatchFields(values.keySet(), MERGE_DATASET_FIELDS);
+
+                patchValues = DatasetValuesMapper.toObjectValues(
+                        DatasetValuesMapper.toDataset(entryId, 0, userLocale, values::get, List.of(), false), null);
+            } else if (InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME.equals(objectDefinitionName)) {
+                validatePatchFields(values.keySet(), MERGE_ATTRIBUTE_FIELDS);
+
+                patchValues = DatasetValuesMapper.toObjectValues(
+                        DatasetValuesMapper.toAttribute(entryId, 0, values.get("attribute"), values.get("attributeDescription")),
+                        userLocale, null);
+            } else {
+                throw new PortalException("Entry " + entryId + " is not a dataset or attribute");
+            }
+
+            // Fields missing from the patch are left out of the update; fields sent empty are cleared
+            DatasetValuesMapper.addClearedFields(patchValues, values.keySet(), userLocale);
+
+            Map<String, Serializable> changedValues = DatasetValuesMapper.getChangedValues(
+                    objectEntry.getValues(), patchValues);
+            if (changedValues.isEmpty()) {
+                return List.of();
+            }
+
+            // Counters, score and indexes are maintained by the model listeners for single updates
+            if (advanceVersion) {
+                updateVersionedEntry(companyId, userId, objectDefinitionName, entryId, changedValues,
+                        expectedVersion >= 0 ? expectedVersion : storedVersion);
+            } else {
+                _objectEntryLocalService.updateObjectEntry(userId, entryId, changedValues,
+                        InventoryServiceContextFactory.create(companyId, userId));
+            }
+
+            List<String> changedFields = changedValues.keySet().stream()
+                    .filter(fieldName -> !fieldName.endsWith("_i18n"))
+                    .sorted()
+                    .toList();
+
+            _log.info("Patched entry " + entryId + " fields: " + changedFields);
+            return changedFields;
+        }
+    }
+
+    private void validatePatchFields(Set<String> fieldNames, List<String> patchableFields) throws PortalException {
+        for (String fieldName : fieldNames) {
+            if (!patchableFields.contains(fieldName)) {
+                throw new PortalException("Field cannot be patched: " + fieldName);
+            }
+        }
+    }
+
+    /**
+     * Brings the attributes of a stored dataset in line with the uploaded attributes. Attributes
+     * are matched by normalised name; unmatched stored attributes are deleted, as the upload
+     * replaces the attribute list of a dataset.
+     */
+    private void mergeDatasetAttributes(long companyId, long userId, long datasetId,
+                                        List<Attribute> attributes, String userLocale,
+                                        InventoryChangeSummary changeSummary) throws PortalException {
+
+        Map<Long, Map<String, Serializable>> storedAttributes = _inventoryProjectionService.getChildProjections(
+                companyId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId, MERGE_ATTRIBUTE_FIELDS,
+                QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+
+        // Queue per name so repeated attribute names pair up with their stored counterparts in order
+        Map<String, Deque<Long>> storedAttributeIds = new HashMap<>();
+        for (Map.Entry<Long, Map<String, Serializable>> storedAttribute : storedAttributes.entrySet()) {
+            storedAttributeIds.computeIfAbsent(
+                    DatasetNameIndex.normalize(GetterUtil.getString(storedAttribute.getValue().get("attribute"))),
+                    name -> new ArrayDeque<>()).add(storedAttribute.getKey());
+        }
+
+        List<Attribute> newAttributes = new ArrayList<>();
+        Set<Long> mergedAttributeIds = new HashSet<>();
+
+        for (Attribute attribute : attributes) {
+            Deque<Long> attributeIds = storedAttributeIds.get(DatasetNameIndex.normalize(attribute.attributeName()));
+
+            if (attributeIds == null || attributeIds.isEmpty()) {
+                newAttributes.add(attribute);
+                continue;
+            }
+
+            long attributeId = attributeIds.poll();
+            mergedAttributeIds.add(attributeId);
+
+            Map<String, Serializable> changedValues = DatasetValuesMapper.getChangedValues(
+                    storedAttributes.get(attributeId), DatasetValuesMapper.toObjectValues(attribute, userLocale, null));
+            if (changedValues.isEmpty()) {
+                changeSummary.addUnchangedAttribute();
+            } else {
+                updateVersionedEntry(companyId, userId, InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME,
+                        attributeId, changedValues, -1);
+                changeSummary.addUpdatedAttribute();
+            }
+        }
+
+        if (!newAttributes.isEmpty()) {
+            addDatasetInventoryAttributesEntry(companyId, userId, newAttributes, datasetId, userLocale);
+            changeSummary.addInsertedAttributes(newAttributes.size());
+        }
+
+        int deletedCount = deleteUnprocessedAttributes(companyId, storedAttributes.keySet(), mergedAttributeIds);
+        changeSummary.addDeletedAttributes(deletedCount);
+        _inventoryCounterService.adjustAttributeCount(datasetId, -deletedCount);
+    }
+
     @Override
     public List<Map<String, Object>> getInventoryEntries(long companyId) throws PortalException {
         List<Map<String, Object>> inventoryList = new ArrayList<>();
@@ -581,28 +964,39 @@ public class InventoryServiceImpl implements InventoryService {
                 return inventoryList;
             }
 
-            // Fetch all object entries
-            List<ObjectEntry> objectEntries = _objectEntryLocalService.getObjectEntries(0, inventoryObjectDefinition.getObjectDefinitionId(),
-                    QueryUtil.ALL_POS,
-                    QueryUtil.ALL_POS);
+            // Project only the columns the list screen shows
+            Map<Long, Map<String, Serializable>> inventorySummaries = _inventoryProjectionService.getEntrySummaries(
+                    companyId, InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME,
+                    List.of("inventoryName", InventoryConstants.DATASET_COUNT_FIELD,
+                            InventoryConstants.COMPLIANCE_SCORE_FIELD,
+                            InventoryConstants.INVENTORY_COMPLIANCE_RATING_FIELD,
+                            InventoryConstants.PRIORITIZATION_COMPLIANCE_RATING_FIELD,
+                            InventoryConstants.CLASSIFICATION_COMPLIANCE_RATING_FIELD,
+                            InventoryConstants.RELEASE_PLAN_COMPLIANCE_RATING_FIELD));
 
             SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM yyyy");
 
-            // Convert each ObjectEntry to simple map
-            for (ObjectEntry objectEntry : objectEntries) {
+            // Convert each projection to simple map
+            for (Map.Entry<Long, Map<String, Serializable>> summaryEntry : inventorySummaries.entrySet()) {
                 Map<String, Object> inventoryData = new HashMap<>();
+                Map<String, Serializable> summary = summaryEntry.getValue();
 
-              String inventoryName = _inventoryHelper.getInventoryName(objectEntry);
-              int datasetCount = _inventoryHelper.getInventoryDatasetCount(objectEntry);
-              String status = _inventoryHelper.getInventoryStatus(objectEntry);
-              String creatorRole = _inventoryHelper.getUserRole(objectEntry.getUserId());
+                long userId = GetterUtil.getLong(summary.get(InventoryProjectionService.USER_ID));
+                String inventoryName = _inventoryHelper.getInventoryName(summary);
+                int datasetCount = GetterUtil.getInteger(summary.get(InventoryConstants.DATASET_COUNT_FIELD));
+                String status = _inventoryHelper.getInventoryStatus(
+                        GetterUtil.getInteger(summary.get(InventoryProjectionService.STATUS)));
+                String creatorRole = _inventoryHelper.getUserRole(userId);
 
-                inventoryData.put("id", objectEntry.getObjectEntryId());
+                inventoryData.put("id", summaryEntry.getKey());
                 inventoryData.put("name", inventoryName);
                 inventoryData.put("datasetCount", datasetCount);
-                inventoryData.put("submittedDate", "Submitted: " + dateFormat.format(objectEntry.getCreateDate()));
+                inventoryData.put("complianceScore", _inventoryScoringService.isScored(summary) ?
+                        GetterUtil.getInteger(summary.get(InventoryConstants.COMPLIANCE_SCORE_FIELD)) : null);
+                inventoryData.put("submittedDate", "Submitted: " + dateFormat.format(
+                        (Date) summary.get(InventoryProjectionService.CREATE_DATE)));
                 inventoryData.put("status", status);
-                inventoryData.put("userId", objectEntry.getUserId());
+                inventoryData.put("userId", userId);
                 inventoryData.put("creatorRole", creatorRole);
 
                 inventoryList.add(inventoryData);
@@ -616,36 +1010,35 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryList;
     }
 
-    /**
-     * Helper method to safely add string values to the inventory map only if they are not empty
-     * or default placeholder values. Performs trimming and validation to ensure clean data storage.
-     *
-     * @param inventoryValues the inventory values map to add the field to
-     * @param datasetData the source dataset data map containing the raw value
-     * @param key the field key to extract from datasetData and add to inventoryValues
-     */
-    private void addStringValueIfNotEmpty(Map<String, Serializable> inventoryValues, Map<String, Object> datasetData, String key) {
-        String value = (String) datasetData.get(key);
-        if (value != null && !value.trim().isEmpty() && !value.equals("Choose Option")) {
-            inventoryValues.put(key, value.trim());
-        } else {
-            _log.info(key + ": (empty or null)");
-        }
+    @Override
+    public Integer getComplianceScore(long companyId, long inventoryId) throws PortalException {
+        return _inventoryScoringService.getComplianceScore(companyId, inventoryId);
     }
 
-    private void addIntegerValueIfValid(Map<String, Serializable> inventoryValues, Map<String, Object> datasetData, String key) {
-        Integer value = (Integer) datasetData.get(key);
-        if (value != null && value > 0) {
-            inventoryValues.put(key, value);
-        }
-    }
+    @Reference
+    InventoryBulkDeleteService _inventoryBulkDeleteService;
+
+    @Reference
+    InventoryCounterService _inventoryCounterService;
+
+    @Reference
+    InventoryFieldWriter _inventoryFieldWriter;
 
     @Reference
     InventoryHelper _inventoryHelper;
 
+    @Reference
+    InventoryLockService _inventoryLockService;
+
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
     @Reference
     InventoryReviewService _inventoryReviewService;
 
+    @Reference
+    InventoryScoringService _inventoryScoringService;
+
     @Reference
     ObjectDefinitionLocalService _objectDefinitionLocalService;
 
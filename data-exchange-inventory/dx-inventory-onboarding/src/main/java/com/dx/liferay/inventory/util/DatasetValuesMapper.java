@@ -0,0 +1,338 @@
+package com.dx.liferay.inventory.util;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.model.Dataset;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maps {@link Dataset} and {@link Attribute} records to and from object entry values.
+ *
+ * Records are built from any source of field values keyed by object field name, so the
+ * review form, uploaded workbooks, field patches and stored entries share one conversion.
+ * Translatable fields are written with an _i18n map in the user's locale and read in the
+ * same locale order as the review screen.
+ */
+public final class DatasetValuesMapper {
+
+    /**
+     * Name of the form and JSON field holding the edit version of a dataset or attribute.
+     */
+    public static final String VERSION_FIELD = "version";
+
+    private static final String CHOOSE_OPTION = "Choose Option";
+
+    private static final List<String> READ_LOCALES = List.of("en_US", "ar_SA");
+
+    private static final List<String> RATING_FIELDS = List.of(
+            "userDemand", "economicImpact", "betterServices", "betterGovernance");
+
+    private static final List<String> TRANSLATABLE_FIELDS = List.of(
+            "datasetName", "datasetDescription", "releaseYear", "releaseMonth", "attribute", "attributeDescription");
+
+    private DatasetValuesMapper() {
+    }
+
+    /**
+     * Builds a dataset from field values keyed by object field name. Missing text fields
+     * become empty and missing or non-numeric benefit ratings become 0. The version field,
+     * when present, holds the edit version the client loaded.
+     *
+     * @param actualDatasetId the stored dataset entry ID, or 0 for a new dataset
+     * @param formDatasetId the dataset's position on the review form, or 0
+     * @param userLocale the locale the values were entered in
+     * @param fieldValues returns the value of a field, or null if it is not set
+     * @param attributes the dataset's attributes
+     * @param attributesLoaded false if the attributes were not loaded and must be left untouched
+     * @return the dataset
+     */
+    public static Dataset toDataset(long actualDatasetId, int formDatasetId, String userLocale,
+                                    Function<String, String> fieldValues, List<Attribute> attributes,
+                                    boolean attributesLoaded) {
+
+        return new Dataset(
+                actualDatasetId, formDatasetId, userLocale,
+                getString(fieldValues, "datasetName"),
+                getString(fieldValues, "datasetDescription"),
+                getString(fieldValues, "datasetClassification"),
+                getInteger(fieldValues, "userDemand"),
+                getInteger(fieldValues, "economicImpact"),
+                getInteger(fieldValues, "betterServices"),
+                getInteger(fieldValues, "betterGovernance"),
+                getString(fieldValues, "definedOwner"),
+                getString(fieldValues, "existingMetadata"),
+                getString(fieldValues, "alreadyPublished"),
+                getString(fieldValues, "openFormat"),
+                getString(fieldValues, "releaseYear"),
+                getString(fieldValues, "releaseMonth"),
+                attributes, attributesLoaded,
+                GetterUtil.getLong(fieldValues.apply(VERSION_FIELD), -1));
+    }
+
+    /**
+     * Builds a dataset from stored object entry values or a projection of them. Attributes
+     * are not read.
+     *
+     * @param datasetId the dataset entry ID
+     * @param values the stored values, with _i18n maps for translatable fields
+     * @return the dataset, with an empty attribute list
+     */
+    public static Dataset toDataset(long datasetId, Map<String, Serializable> values) {
+        return toDataset(datasetId, 0, null, fieldName -> getStoredValue(values, fieldName), List.of(), false);
+    }
+
+    /**
+     * Builds an attribute without a version check, trimming its name and description.
+     *
+     * @param actualAttributeId the stored attribute entry ID, or 0 for a new attribute
+     * @param formIndex the attribute's position within its dataset on the review form
+     * @param attributeName the attribute name, may be null
+     * @param attributeDescription the attribute description, may be null
+     * @return the attribute
+     */
+    public static Attribute toAttribute(long actualAttributeId, int formIndex, String attributeName,
+                                        String attributeDescription) {
+
+        return toAttribute(actualAttributeId, formIndex, attributeName, attributeDescription, -1);
+    }
+
+    /**
+     * Builds an attribute, trimming its name and description.
+     *
+     * @param actualAttributeId the stored attribute entry ID, or 0 for a new attribute
+     * @param formIndex the attribute's position within its dataset on the review form
+     * @param attributeName the attribute name, may be null
+     * @param attributeDescription the attribute description, may be null
+     * @param version the edit version the client loaded, or -1 to skip the version check
+     * @return the attribute
+     */
+    public static Attribute toAttribute(long actualAttributeId, int formIndex, String attributeName,
+                                        String attributeDescription, long version) {
+
+        return new Attribute(actualAttributeId, formIndex, GetterUtil.getString(attributeName).trim(),
+                GetterUtil.getString(attributeDescription).trim(), version);
+    }
+
+    /**
+     * Builds an attribute from stored object entry values or a projection of them.
+     *
+     * @param attributeId the attribute entry ID
+     * @param values the stored values, with _i18n maps for translatable fields
+     * @return the attribute
+     */
+    public static Attribute toAttribute(long attributeId, Map<String, Serializable> values) {
+        return toAttribute(attributeId, 0, getStoredValue(values, "attribute"),
+                getStoredValue(values, "attributeDescription"));
+    }
+
+    /**
+     * Builds the C_InventoryOnboarding values of a dataset. Empty fields, unselected options
+     * and unrated benefits are left out, so the result can also be used as a partial update.
+     *
+     * @param dataset the dataset
+     * @param parentInventoryId the inventory to link the dataset to, or null to leave the link out
+     * @return the object entry values
+     */
+    public static Map<String, Serializable> toObjectValues(Dataset dataset, Long parentInventoryId) {
+        Map<String, Serializable> values = new HashMap<>();
+        String userLocale = dataset.userLocale();
+
+        addTranslatableField(values, "datasetName", dataset.datasetName(), userLocale);
+        addTranslatableField(values, "datasetDescription", dataset.datasetDescription(), userLocale);
+        addOption(values, "datasetClassification", dataset.datasetClassification());
+
+        addRating(values, "userDemand", dataset.userDemand());
+        addRating(values, "economicImpact", dataset.economicImpact());
+        addRating(values, "betterServices", dataset.betterServices());
+        addRating(values, "betterGovernance", dataset.betterGovernance());
+
+        addOption(values, "definedOwner", dataset.definedOwner());
+        addOption(values, "existingMetadata", dataset.existingMetadata());
+        addOption(values, "alreadyPublished", dataset.alreadyPublished());
+        addOption(values, "openFormat", dataset.openFormat());
+
+        addTranslatableField(values, "releaseYear", dataset.releaseYear(), userLocale);
+        addTranslatableField(values, "releaseMonth", dataset.releaseMonth(), userLocale);
+
+        if (parentInventoryId != null) {
+            values.put(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, parentInventoryId);
+        }
+
+        return values;
+    }
+
+    /**
+     * Builds the C_DatasetInventoryAttributeDetails values of an attribute. Empty fields are
+     * left out, so the result can also be used as a partial update.
+     *
+     * @param attribute the attribute
+     * @param userLocale the locale the attribute was entered in
+     * @param datasetId the dataset to link the attribute to, or null to leave the link out
+     * @return the object entry values
+     */
+    public static Map<String, Serializable> toObjectValues(Attribute attribute, String userLocale, Long datasetId) {
+        Map<String, Serializable> values = new HashMap<>();
+
+        addTranslatableField(values, "attribute", attribute.attributeName(), userLocale);
+        addTranslatableField(values, "attributeDescription", attribute.attributeDescription(), userLocale);
+
+        if (datasetId != null) {
+            values.put(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId);
+        }
+
+        return values;
+    }
+
+    /**
+     * Adds a translatable field: the base value and an _i18n map holding the value in the
+     * user's locale. Blank values are not added.
+     *
+     * @param values the object entry values to add to
+     * @param fieldName the field name, without the _i18n suffix
+     * @param value the value in the user's locale
+     * @param userLocale the user's locale
+     */
+    public static void addTranslatableField(Map<String, Serializable> values, String fieldName, String value,
+                                            String userLocale) {
+
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+
+        String trimmedValue = value.trim();
+        values.put(fieldName, trimmedValue);
+
+        HashMap<String, String> i18nMap = new HashMap<>();
+        i18nMap.put(userLocale, trimmedValue);
+        values.put(fieldName + "_i18n", i18nMap);
+    }
+
+    /**
+     * Adds an explicit clear for each of the given fields that the values leave out. Building
+     * values drops empty fields, unselected options and unrated benefits, so a patch naming a
+     * field with an empty value would otherwise leave the stored value in place. Translatable
+     * fields are cleared with an empty value and an empty translation in the user's locale,
+     * benefit ratings with 0 and options with an empty value.
+     *
+     * @param values the object entry values built from a patch
+     * @param fieldNames the fields present in the patch
+     * @param userLocale the locale the patch was entered in
+     */
+    public static void addClearedFields(Map<String, Serializable> values, Collection<String> fieldNames,
+                                        String userLocale) {
+
+        for (String fieldName : fieldNames) {
+            if (values.containsKey(fieldName)) {
+                continue;
+            }
+
+            if (TRANSLATABLE_FIELDS.contains(fieldName)) {
+                values.put(fieldName, "");
+
+                HashMap<String, String> i18nMap = new HashMap<>();
+                i18nMap.put(userLocale, "");
+                values.put(fieldName + "_i18n", i18nMap);
+            } else if (RATING_FIELDS.contains(fieldName)) {
+                values.put(fieldName, 0);
+            } else {
+                values.put(fieldName, "");
+            }
+        }
+    }
+
+    /**
+     * Returns the new values that differ from the stored values, together with the _i18n maps
+     * of the translatable fields that changed. A translatable field also counts as changed when
+     * the stored translation for a submitted locale differs, even if the base value matches.
+     *
+     * @param storedValues the stored object entry values, with _i18n maps for translatable fields
+     * @param newValues the values built from a submission or patch
+     * @return the changed values, empty if nothing changed
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Serializable> getChangedValues(Map<String, Serializable> storedValues,
+                                                             Map<String, Serializable> newValues) {
+
+        Map<String, Serializable> changedValues = new HashMap<>();
+
+        for (Map.Entry<String, Serializable> newValue : newValues.entrySet()) {
+            String fieldName = newValue.getKey();
+            if (fieldName.endsWith("_i18n")) {
+                continue;
+            }
+
+            Serializable newI18nValue = newValues.get(fieldName + "_i18n");
+            Serializable storedI18nValue = storedValues.get(fieldName + "_i18n");
+
+            boolean changed = !GetterUtil.getString(newValue.getValue()).equals(
+                    GetterUtil.getString(storedValues.get(fieldName)));
+
+            if (!changed && newI18nValue instanceof Map && storedI18nValue instanceof Map) {
+                Map<String, ?> storedTranslations = (Map<String, ?>) storedI18nValue;
+
+                for (Map.Entry<String, ?> translation : ((Map<String, ?>) newI18nValue).entrySet()) {
+                    if (!GetterUtil.getString(translation.getValue()).equals(
+                            GetterUtil.getString(storedTranslations.get(translation.getKey())))) {
+
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+
+            if (changed) {
+                changedValues.put(fieldName, newValue.getValue());
+                if (newI18nValue != null) {
+                    changedValues.put(fieldName + "_i18n", newI18nValue);
+                }
+            }
+        }
+        return changedValues;
+    }
+
+    private static void addOption(Map<String, Serializable> values, String fieldName, String value) {
+        if (!value.isEmpty() && !value.equals(CHOOSE_OPTION)) {
+            values.put(fieldName, value);
+        }
+    }
+
+    private static void addRating(Map<String, Serializable> values, String fieldName, int value) {
+        if (value > 0) {
+            values.put(fieldName, value);
+        }
+    }
+
+    private static String getString(Function<String, String> fieldValues, String fieldName) {
+        return GetterUtil.getString(fieldValues.apply(fieldName)).trim();
+    }
+
+    private static int getInteger(Function<String, String> fieldValues, String fieldName) {
+        return GetterUtil.getInteger(fieldValues.apply(fieldName));
+    }
+
+    /**
+     * Returns a stored field value, preferring the first non-blank translation in
+     * {@link #READ_LOCALES} and falling back to the base value.
+     */
+    private static String getStoredValue(Map<String, Serializable> values, String fieldName) {
+        if (values.get(fieldName + "_i18n") instanceof Map<?, ?> i18nMap) {
+            for (String locale : READ_LOCALES) {
+                String value = GetterUtil.getString(i18nMap.get(locale));
+                if (!value.trim().isEmpty()) {
+                    return value;
+                }
+            }
+        }
+
+        Serializable value = values.get(fieldName);
+        return value != null ? value.toString() : "";
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.dx.liferay.inventory.util;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import javax.portlet.PortletRequest;
+import java.util.*;
+
+/**
+ * Index of the review form's request parameters by dataset and attribute.
+ *
+ * The form posts dataset fields as {@code field_<datasetId>} and attribute fields as
+ * {@code field_<datasetId>_<attributeIndex>}. The parameter map is walked once and each
+ * value is filed under its dataset and attribute, so extracting the form costs one pass
+ * over the parameters instead of one scan per dataset. Parameters of any other shape are
+ * ignored. Datasets and attributes are kept in ascending ID and index order.
+ */
+public class FormParameterIndex {
+
+    private static final Log _log = LogFactoryUtil.getLog(FormParameterIndex.class);
+
+    private final Map<Integer, DatasetParameters> datasets = new TreeMap<>();
+
+    /**
+     * Builds the index from the request's parameter map.
+     *
+     * @param portletRequest the request containing the form parameters
+     */
+    public FormParameterIndex(PortletRequest portletRequest) {
+        for (Map.Entry<String, String[]> parameter : portletRequest.getParameterMap().entrySet()) {
+            String[] values = parameter.getValue();
+            if (values != null && values.length > 0) {
+                add(parameter.getKey(), values[0]);
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed datasets.
+     *
+     * @return map of form dataset IDs to their parameters, in ascending ID order
+     */
+    public Map<Integer, DatasetParameters> getDatasets() {
+        return datasets;
+    }
+
+    private void add(String paramName, String value) {
+        int firstSeparator = paramName.indexOf('_');
+        if (firstSeparator <= 0) {
+            return;
+        }
+
+        String fieldName = paramName.substring(0, firstSeparator);
+        int secondSeparator = paramName.indexOf('_', firstSeparator + 1);
+
+        try {
+            if (secondSeparator < 0) {
+                int datasetId = Integer.parseInt(paramName.substring(firstSeparator + 1));
+                getDataset(datasetId).put(fieldName, value);
+            } else {
+                int datasetId = Integer.parseInt(paramName.substring(firstSeparator + 1, secondSeparator));
+                int attributeIndex = Integer.parseInt(paramName.substring(secondSeparator + 1));
+                getDataset(datasetId).putAttribute(attributeIndex, fieldName, value);
+            }
+        } catch (NumberFormatException e) {
+            if (fieldName.equals("datasetName") || fieldName.equals("attributeName")) {
+                _log.warn("Invalid form parameter name: " + paramName);
+            }
+        }
+    }
+
+    private DatasetParameters getDataset(int datasetId) {
+        return datasets.computeIfAbsent(datasetId, id -> new DatasetParameters());
+    }
+
+    /**
+     * The parameters of one dataset of the form.
+     */
+    public static final class DatasetParameters {
+        private final Map<String, String> fields = new HashMap<>();
+        private final Map<Integer, Map<String, String>> attributes = new TreeMap<>();
+
+        /**
+         * Returns a dataset field's value.
+         *
+         * @param fieldName the field name, without the dataset ID suffix
+         * @return the value, or null if the field was not posted
+         */
+        public String get(String fieldName) {
+            return fields.get(fieldName);
+        }
+
+        /**
+         * Returns the attribute fields posted for the dataset.
+         *
+         * @return map of attribute indices to their field values, in ascending index order
+         */
+        public Map<Integer, Map<String, String>> getAttributes() {
+            return attributes;
+        }
+
+        void put(String fieldName, String value) {
+            fields.put(fieldName, value);
+        }
+
+        void putAttribute(int attributeIndex, String fieldName, String value) {
+            attributes.computeIfAbsent(attributeIndex, index -> new HashMap<>()).put(fieldName, value);
+        }
+    }
+
+}
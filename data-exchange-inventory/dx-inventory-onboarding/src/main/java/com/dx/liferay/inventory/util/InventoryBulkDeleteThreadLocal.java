@@ -0,0 +1,41 @@
+package com.dx.liferay.inventory.util;
+
+import com.liferay.petra.lang.CentralizedThreadLocal;
+import com.liferay.petra.lang.SafeCloseable;
+
+/**
+ * Thread local flag marking deletes run by InventoryBulkDeleteService. Model listeners that
+ * resolve the owning inventory of each removed entry skip that work while the flag is set,
+ * as the bulk delete resolves the affected inventories once per operation and invalidates
+ * their cached data itself.
+ */
+public class InventoryBulkDeleteThreadLocal {
+
+    /**
+     * Checks whether the current thread is running a bulk delete.
+     *
+     * @return true if per-entry removal work should be skipped by model listeners
+     */
+    public static boolean isBulkDelete() {
+        return _bulkDelete.get();
+    }
+
+    /**
+     * Sets the flag for the current thread and restores the previous value when closed.
+     *
+     * @param bulkDelete true if the caller is running a bulk delete
+     * @return closeable that restores the previous value
+     */
+    public static SafeCloseable setBulkDeleteWithSafeCloseable(boolean bulkDelete) {
+        return _bulkDelete.setWithSafeCloseable(bulkDelete);
+    }
+
+    private static final CentralizedThreadLocal<Boolean> _bulkDelete =
+            new CentralizedThreadLocal<>(
+                    InventoryBulkDeleteThreadLocal.class + "._bulkDelete", () -> Boolean.FALSE);
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private InventoryBulkDeleteThreadLocal() {}
+}
@@ -0,0 +1,41 @@
+package com.dx.liferay.inventory.util;
+
+import com.liferay.petra.lang.CentralizedThreadLocal;
+import com.liferay.petra.lang.SafeCloseable;
+
+/**
+ * Thread local flag marking writes whose dataset and attribute counters, and the compliance
+ * score derived from them, are maintained by the calling service. Model listeners skip their
+ * per-entry updates while the flag is set so the service can apply a single adjustment for
+ * the whole batch.
+ */
+public class InventoryCounterThreadLocal {
+
+    /**
+     * Checks whether counters for the current thread's writes are maintained by the caller.
+     *
+     * @return true if model listeners should not adjust counters
+     */
+    public static boolean isManagedByService() {
+        return _managedByService.get();
+    }
+
+    /**
+     * Sets the flag for the current thread and restores the previous value when closed.
+     *
+     * @param managedByService true if the caller maintains the counters itself
+     * @return closeable that restores the previous value
+     */
+    public static SafeCloseable setManagedByServiceWithSafeCloseable(boolean managedByService) {
+        return _managedByService.setWithSafeCloseable(managedByService);
+    }
+
+    private static final CentralizedThreadLocal<Boolean> _managedByService =
+            new CentralizedThreadLocal<>(
+                    InventoryCounterThreadLocal.class + "._managedByService", () -> Boolean.FALSE);
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private InventoryCounterThreadLocal() {}
+}
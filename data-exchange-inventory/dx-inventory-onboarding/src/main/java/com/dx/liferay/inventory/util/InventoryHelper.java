@@ -1,6 +1,7 @@
 package com.dx.liferay.inventory.util;
 
 import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
 import com.dx.liferay.inventory.service.InventoryService;
 import com.liferay.object.model.ObjectDefinition;
 import com.liferay.object.model.ObjectEntry;
@@ -17,6 +18,7 @@ import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.model.Role;
 import com.liferay.portal.kernel.service.RoleLocalServiceUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.LocaleUtil;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import org.osgi.service.component.annotations.Component;
@@ -36,36 +38,58 @@ public class InventoryHelper {
     private static final Log _log = LogFactoryUtil.getLog(InventoryHelper.class);
 
 
+    /**
+     * Returns the inventory name in English, falling back to Arabic. Only the inventoryName
+     * column is read, the entry values are not hydrated.
+     */
     public  String getInventoryName(ObjectEntry objectEntry) {
-        Map<String, Serializable> values = objectEntry.getValues();
+        try {
+            Map<String, Serializable> projection = _inventoryProjectionService.getProjection(
+                    objectEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME,
+                    objectEntry.getObjectEntryId(), List.of("inventoryName"));
 
-        Serializable i18nValue = values.get("inventoryName_i18n");
-        if (i18nValue instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, String> i18nMap = (Map<String, String>) i18nValue;
+            return getInventoryName(projection);
+        } catch (Exception e) {
+            _log.error("Failed to read inventory name for ID: " + objectEntry.getObjectEntryId(), e);
+            return null;
+        }
+    }
 
-            String englishName = i18nMap.get("en_US");
-            if (englishName != null && !englishName.trim().isEmpty()) {
-                return englishName.trim();
-            }
+    /**
+     * Returns the trimmed inventory name from a projection holding the inventoryName field.
+     */
+    public String getInventoryName(Map<String, Serializable> inventoryProjection) {
+        Serializable inventoryName = inventoryProjection.get("inventoryName");
 
-            String arabicName = i18nMap.get("ar_SA");
-            if (arabicName != null && !arabicName.trim().isEmpty()) {
-                return arabicName.trim();
-            }
+        if (inventoryName != null && !inventoryName.toString().trim().isEmpty()) {
+            return inventoryName.toString().trim();
         }
 
         return null;
     }
 
+    /**
+     * Returns the dataset count maintained on the inventory entry itself,
+     * avoiding a query over the child datasets.
+     */
     public int getInventoryDatasetCount(ObjectEntry parentInventoryEntry) {
-        List<ObjectEntry> datasets = getInventoryDatasetsList(parentInventoryEntry);
-        return datasets.size();
+        try {
+            return GetterUtil.getInteger(_inventoryProjectionService.getProjection(
+                    parentInventoryEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME,
+                    parentInventoryEntry.getObjectEntryId(), List.of(InventoryConstants.DATASET_COUNT_FIELD))
+                    .get(InventoryConstants.DATASET_COUNT_FIELD));
+        } catch (Exception e) {
+            _log.error("Failed to read dataset count for ID: " + parentInventoryEntry.getObjectEntryId(), e);
+            return 0;
+        }
     }
 
 
     public  String getInventoryStatus(ObjectEntry objectEntry) {
-        int status = objectEntry.getStatus();
+        return getInventoryStatus(objectEntry.getStatus());
+    }
+
+    public String getInventoryStatus(int status) {
         String statusLabel = WorkflowConstants.getStatusLabel(status);
         return LanguageUtil.get(LocaleUtil.getDefault(), statusLabel);
 
@@ -118,6 +142,87 @@ public class InventoryHelper {
     }
 
 
+    /**
+     * Returns the name of the object definition an entry belongs to.
+     *
+     * @param objectEntry the object entry
+     * @return the object definition name, or null if the definition cannot be found
+     */
+    public String getObjectDefinitionName(ObjectEntry objectEntry) {
+        ObjectDefinition objectDefinition = _objectDefinitionLocalService.fetchObjectDefinition(
+                objectEntry.getObjectDefinitionId());
+
+        return objectDefinition != null ? objectDefinition.getName() : null;
+    }
+
+    /**
+     * Checks whether an entry belongs to the inventory, dataset or attribute object definitions.
+     *
+     * @param objectEntry the object entry
+     * @return true if the entry is part of an inventory
+     */
+    public boolean isInventoryObjectEntry(ObjectEntry objectEntry) {
+        String objectDefinitionName = getObjectDefinitionName(objectEntry);
+
+        return InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(objectDefinitionName) ||
+                InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinitionName) ||
+                InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME.equals(objectDefinitionName);
+    }
+
+    /**
+     * Resolves the C_InventoryDetails entry that owns an inventory, dataset or attribute entry
+     * by following the dataset and attribute relationship fields.
+     *
+     * @param objectEntry the inventory, dataset or attribute entry
+     * @return the owning inventory ID, or 0 if it cannot be resolved
+     */
+    public long getOwningInventoryId(ObjectEntry objectEntry) {
+        String objectDefinitionName = getObjectDefinitionName(objectEntry);
+
+        if (InventoryConstants.DX_INVENTORY_PARENT_OBJECT_NAME.equals(objectDefinitionName)) {
+            return objectEntry.getObjectEntryId();
+        }
+
+        try {
+            if (InventoryConstants.DX_INVENTORY_OBJECT_NAME.equals(objectDefinitionName)) {
+                return _inventoryProjectionService.getRelatedEntryId(
+                        objectEntry.getCompanyId(), objectDefinitionName,
+                        InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, objectEntry.getObjectEntryId());
+            }
+
+            if (InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME.equals(objectDefinitionName)) {
+                long datasetId = _inventoryProjectionService.getRelatedEntryId(
+                        objectEntry.getCompanyId(), objectDefinitionName,
+                        InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, objectEntry.getObjectEntryId());
+
+                return _inventoryProjectionService.getRelatedEntryId(
+                        objectEntry.getCompanyId(), InventoryConstants.DX_INVENTORY_OBJECT_NAME,
+                        InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, datasetId);
+            }
+        } catch (Exception e) {
+            _log.error("Failed to resolve owning inventory for entry: " + objectEntry.getObjectEntryId(), e);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Checks whether a user has a regular role with the given name.
+     *
+     * @param userId the user ID
+     * @param roleName the role name, for example "Data Steward"
+     * @return true if the user has the role
+     */
+    public boolean hasRole(long userId, String roleName) {
+        try {
+            return RoleLocalServiceUtil.getUserRoles(userId).stream()
+                    .anyMatch(role -> roleName.equals(role.getName()));
+        } catch (Exception e) {
+            _log.warn("Could not read roles for user " + userId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
     public String getUserRole(long userId) {
         try {
             List<Role> roles = RoleLocalServiceUtil.getUserRoles(userId);
@@ -139,6 +244,9 @@ public class InventoryHelper {
     @Reference
     ObjectDefinitionLocalService _objectDefinitionLocalService;
 
+    @Reference
+    InventoryProjectionService _inventoryProjectionService;
+
     @Reference
     ObjectEntryLocalService _objectEntryLocalService;
 
@@ -0,0 +1,41 @@
+package com.dx.liferay.inventory.util;
+
+import com.dx.liferay.inventory.model.ServiceContextOptions;
+import com.liferay.portal.kernel.service.ServiceContext;
+
+/**
+ * Builds a new ServiceContext for every object entry write.
+ *
+ * A ServiceContext is mutable and Liferay's services write to it while they run, so a
+ * context shared between requests leaks one write's settings into the next and is not safe
+ * once datasets are written from several threads. Each call here returns a context owned by
+ * the caller, scoped to the writing user and company and set up from explicit options.
+ */
+public class InventoryServiceContextFactory {
+
+    /**
+     * Creates a context with the default options.
+     *
+     * @param companyId the company ID of the written entries
+     * @param userId ID of the user performing the write
+     * @return a new ServiceContext owned by the caller
+     */
+    public static ServiceContext create(long companyId, long userId) {
+        ServiceContextOptions options = ServiceContextOptions.DEFAULT;
+        ServiceContext serviceContext = new ServiceContext();
+
+        serviceContext.setCompanyId(companyId);
+        serviceContext.setUserId(userId);
+        serviceContext.setIndexingEnabled(options.indexingEnabled());
+        serviceContext.setAddGroupPermissions(options.addGroupPermissions());
+        serviceContext.setAddGuestPermissions(options.addGuestPermissions());
+        serviceContext.setWorkflowAction(options.workflowAction());
+
+        return serviceContext;
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private InventoryServiceContextFactory() {}
+}
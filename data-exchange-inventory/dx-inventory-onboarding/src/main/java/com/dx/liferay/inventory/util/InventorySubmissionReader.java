@@ -0,0 +1,136 @@
+package com.dx.liferay.inventory.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stream-parses a review form posted as one JSON body:
+ *
+ * <pre>
+ * {"actionType": "submit", "inventoryId": 123, "idempotencyKey": "...", "datasets": [
+ *     {"datasetName": "...", "userDemand": 3, "actualDatasetId": 456, "version": 2, "attributes": [
+ *         {"attributeName": "...", "attributeDescription": "...", "actualAttributeId": 789, "version": 1}]}]}
+ * </pre>
+ *
+ * Dataset and attribute fields use the form's field names, so each dataset is read token
+ * by token into the same {@link FormParameterIndex.DatasetParameters} the parameter path
+ * produces, without building a JSON tree or a request parameter map. Datasets are numbered
+ * from 1 and attributes from 0 in the order they are posted; unknown fields are skipped.
+ */
+class InventorySubmissionReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private String actionType = "submit";
+    private long inventoryId;
+    private String idempotencyKey = "";
+    private final Map<Integer, FormParameterIndex.DatasetParameters> datasets = new TreeMap<>();
+
+    /**
+     * Reads a JSON submission.
+     *
+     * @param inputStream the request body
+     * @throws IOException if the body cannot be read or is not a submission object
+     */
+    InventorySubmissionReader(InputStream inputStream) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                switch (fieldName) {
+                    case "actionType":
+                        actionType = parser.getValueAsString(actionType);
+                        break;
+                    case "inventoryId":
+                        inventoryId = parser.getValueAsLong();
+                        break;
+                    case "idempotencyKey":
+                        idempotencyKey = parser.getValueAsString(idempotencyKey);
+                        break;
+                    case "datasets":
+                        expect(parser, token, JsonToken.START_ARRAY);
+                        readDatasets(parser);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    String getActionType() {
+        return actionType;
+    }
+
+    long getInventoryId() {
+        return inventoryId;
+    }
+
+    String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    Map<Integer, FormParameterIndex.DatasetParameters> getDatasets() {
+        return datasets;
+    }
+
+    private void readDatasets(JsonParser parser) throws IOException {
+        int datasetId = 0;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            FormParameterIndex.DatasetParameters dataset = new FormParameterIndex.DatasetParameters();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if (fieldName.equals("attributes") && token == JsonToken.START_ARRAY) {
+                    readAttributes(parser, dataset);
+                } else if (token.isScalarValue()) {
+                    dataset.put(fieldName, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            datasets.put(++datasetId, dataset);
+        }
+    }
+
+    private void readAttributes(JsonParser parser, FormParameterIndex.DatasetParameters dataset)
+            throws IOException {
+
+        int attributeIndex = 0;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+
+                if (parser.nextToken().isScalarValue()) {
+                    dataset.putAttribute(attributeIndex, fieldName, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            attributeIndex++;
+        }
+    }
+
+    private void expect(JsonParser parser, JsonToken token, JsonToken expectedToken) throws JsonParseException {
+        if (token != expectedToken) {
+            throw new JsonParseException(parser, "Expected " + expectedToken + " but found " + token);
+        }
+    }
+
+}
@@ -4,7 +4,11 @@ import com.dx.liferay.inventory.constants.InventoryConstants;
 import com.liferay.portal.kernel.json.JSONArray;
 import com.liferay.portal.kernel.json.JSONFactory;
 import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.portlet.JSONPortletResponseUtil;
+import com.liferay.portal.kernel.util.PortalUtil;
 
+import javax.portlet.ActionRequest;
+import javax.portlet.ActionResponse;
 import javax.portlet.ResourceResponse;
 import java.io.IOException;
 import java.util.List;
@@ -30,6 +34,22 @@ public class ResponseUtil {
         response.getWriter().write(json.toString());
     }
 
+    /**
+     * Writes JSON response with an HTTP status from an action phase, for forms posted with
+     * fetch. The portlet does not render or redirect once the response is written.
+     *
+     * @param actionRequest the action request
+     * @param actionResponse the action response to write to
+     * @param json the JSON object to write
+     * @param status the HTTP status code
+     * @throws IOException if writing fails
+     */
+    public static void writeJsonResponse(ActionRequest actionRequest, ActionResponse actionResponse,
+                                         JSONObject json, int status) throws IOException {
+        PortalUtil.getHttpServletResponse(actionResponse).setStatus(status);
+        JSONPortletResponseUtil.writeJSON(actionRequest, actionResponse, json);
+    }
+
     /**
      * Writes error response as JSON.
      *
@@ -40,10 +60,21 @@ public class ResponseUtil {
      */
     public static void writeErrorResponse(ResourceResponse resourceResponse, String errorMessage,
                                           JSONFactory jsonFactory) throws IOException {
+        writeJsonResponse(resourceResponse, createErrorJson(errorMessage, jsonFactory));
+    }
+
+    /**
+     * Creates the error JSON object written by the error responses, with a single error message.
+     *
+     * @param errorMessage the error message
+     * @param jsonFactory the JSON factory
+     * @return JSON object with success false and the error
+     */
+    public static JSONObject createErrorJson(String errorMessage, JSONFactory jsonFactory) {
         JSONObject errorJson = jsonFactory.createJSONObject();
         errorJson.put("success", false);
         errorJson.put("error", errorMessage);
-        writeJsonResponse(resourceResponse, errorJson);
+        return errorJson;
     }
 
     /**
@@ -18,6 +18,7 @@
         <div class="card-body">
             <form id="reviewForm" action="${updateInventoryScoreURL}" method="post">
                 <input type="hidden" name="<portlet:namespace />inventoryId" value="<%= inventoryId %>" />
+                <input type="hidden" name="<portlet:namespace />inventoryVersion" value="<%= inventoryEntry != null ? GetterUtil.getLong(inventoryEntry.getValues().get(InventoryConstants.EDIT_VERSION_FIELD)) : -1 %>" />
 
                 <!-- Tab Navigation -->
                 <div class="review-navigation mb-4">
@@ -561,7 +562,9 @@
                 // Create new hidden input with correct name format
                 const hiddenInput = document.createElement('input');
                 hiddenInput.type = 'hidden';
-                hiddenInput.name = '<portlet:namespace />' + section + 'Rating';
+                // Server expects camel case parameter names (release-plan -> releasePlanRating)
+                const paramName = section.replace(/-([a-z])/g, (match, letter) => letter.toUpperCase());
+                hiddenInput.name = '<portlet:namespace />' + paramName + 'Rating';
                 hiddenInput.value = rating || '';
 
                 console.log(`Created hidden input: name="${hiddenInput.name}" value="${hiddenInput.value}"`);
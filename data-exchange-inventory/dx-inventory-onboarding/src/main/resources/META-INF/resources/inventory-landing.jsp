@@ -11,6 +11,10 @@
     <portlet:param name="mvcPath" value="/view.jsp" />
 </portlet:renderURL>
 
+<portlet:resourceURL id="searchInventories" var="searchInventoriesURL" />
+
+<portlet:resourceURL id="exportInventory" var="exportInventoryURL" />
+
 <%
     // Get current user
     User currentUser = PortalUtil.getUser(request);
@@ -104,6 +108,7 @@
                     <div class="search-container">
                         <input type="text" class="search-input" placeholder="Search" id="searchInput">
                         <i class="fa fa-search search-icon"></i>
+                        <div class="search-results-dropdown" id="searchResults"></div>
                     </div>
                 </div>
 
@@ -144,8 +149,14 @@
                                     </span>
                                 </td>
                                 <td>
-                                    <!-- Display compliance score here when implemented -->
+                                    <%
+                                        Integer complianceScore = (Integer) inventory.get("complianceScore");
+                                        if (complianceScore != null) {
+                                    %>
+                                    <span class="compliance-score badge-info"><%= complianceScore %>%</span>
+                                    <% } else { %>
                                     <span class="text-muted">Not Scored Yet</span>
+                                    <% } %>
                                 </td>
                                 <td>
                                     <a href="#" class="action-link">Validate <i class="fa fa-external-link-alt"></i></a>
@@ -172,6 +183,9 @@
                                                 <i class="fa fa-eye"></i> Review Submission
                                             </a>
                                             <% } %>
+                                            <a href="#" class="action-menu-item" onclick="exportInventory(<%= inventory.get("id") %>)">
+                                                <i class="fa fa-file-excel"></i> Export to Excel
+                                            </a>
                                         </div>
                                     </div>
                                 </td>
@@ -194,13 +208,36 @@
 
 <script>
     const initiateFormURL = '<%= initiateFormURL.toString() %>';
+    const searchInventoriesURL = '${searchInventoriesURL}';
+    const exportInventoryURL = '${exportInventoryURL}';
+    let searchTimer = null;
+    let searchRequest = null;
+
     $(document).ready(function() {
 
+        // Search datasets and attributes across inventories as the user types
+        $('#searchInput').on('input', function() {
+            const keywords = $(this).val().trim();
+            clearTimeout(searchTimer);
+
+            if (keywords.length < 2) {
+                $('#searchResults').removeClass('show').empty();
+                return;
+            }
+
+            searchTimer = setTimeout(function() {
+                searchInventories(keywords);
+            }, 300);
+        });
+
         // Close action menus when clicking outside
         $(document).on('click', function(e) {
             if (!$(e.target).closest('.action-menu-container').length) {
                 $('.action-menu-dropdown').removeClass('show');
             }
+            if (!$(e.target).closest('.search-container').length) {
+                $('#searchResults').removeClass('show');
+            }
         });
 
         // Prevent menu from closing when clicking inside it
@@ -222,10 +259,60 @@
         $menu.toggleClass('show');
     }
 
+    function searchInventories(keywords) {
+        if (searchRequest) {
+            searchRequest.abort();
+        }
+
+        const params = {};
+        params['<portlet:namespace />keywords'] = keywords;
+        params['<portlet:namespace />start'] = 0;
+        params['<portlet:namespace />delta'] = 20;
+
+        searchRequest = $.ajax({
+            url: searchInventoriesURL,
+            type: 'GET',
+            dataType: 'json',
+            data: params
+        }).done(function(response) {
+            if (response.success) {
+                renderSearchResults(response.results);
+            }
+        }).always(function() {
+            searchRequest = null;
+        });
+    }
+
+    function renderSearchResults(results) {
+        const $results = $('#searchResults').empty();
+
+        if (!results.hits.length) {
+            $results.append($('<div class="search-result-empty">').text('No matching datasets or attributes'));
+        }
+
+        results.hits.forEach(function(hit) {
+            const $item = $('<a href="#" class="search-result-item">')
+                .append($('<div class="search-result-title">').text(hit.title))
+                .append($('<div class="search-result-meta">').text(
+                    (hit.type === 'attribute' ? 'Attribute' : 'Dataset') + ' in ' + (hit.inventoryName || '-')))
+                .on('click', function(e) {
+                    e.preventDefault();
+                    reviewSubmission(hit.inventoryId);
+                });
+            $results.append($item);
+        });
+
+        $results.addClass('show');
+    }
+
     function reviewSubmission(inventoryId) {
         window.location.href = initiateFormURL + '&inventoryId=' + inventoryId;
     }
 
+    function exportInventory(inventoryId) {
+        window.location.href = exportInventoryURL + '&<portlet:namespace />inventoryId=' + inventoryId;
+    }
+
     function requestInventoryUpdate(inventoryId) {
         window.location.href = initiateFormURL + '&inventoryId=' + inventoryId;
     }
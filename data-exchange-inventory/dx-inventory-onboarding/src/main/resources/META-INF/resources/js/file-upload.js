@@ -308,6 +308,12 @@ $(document).ready(function() {
         formData.append('file', uploadedFile);
         formData.append('namespace', window.portletNamespace);
 
+        // Lets the server skip the inventory's own datasets when flagging duplicates
+        const inventoryIdInput = document.querySelector(`input[name="${window.portletNamespace}inventoryId"]`);
+        if (inventoryIdInput && inventoryIdInput.value) {
+            formData.append('inventoryId', inventoryIdInput.value);
+        }
+
         $.ajax({
             url: window.portletURLs.processFile,
             type: 'POST',
@@ -363,6 +369,10 @@ $(document).ready(function() {
                     console.warn('No field metadata received in response');
                 }
 
+                if (result.duplicates) {
+                    showServerDuplicates(result.duplicates);
+                }
+
                 if (window.DatasetManager && result.datasets.length > 0) {
                         const mode = document.getElementById('userMode').value;
                         const isUpdateMode = mode === 'update';
@@ -405,8 +415,8 @@ $(document).ready(function() {
             // Show duplicate confirmation dialog
             showDuplicateConfirmationDialog(duplicates, excelDatasets, existingDatasets, fieldMetadata);
         } else {
-            // No duplicates, proceed with merging
-            mergeDatasets(existingDatasets, excelDatasets, fieldMetadata);
+            // No duplicates, add the Excel datasets next to the existing ones
+            mergeFileOnServer(false);
         }
     }
 
@@ -463,26 +473,67 @@ $(document).ready(function() {
 
     function findDuplicateDatasets(existingDatasets, excelDatasets) {
 
+        // Index the form datasets by name so each Excel dataset costs one lookup
+        const existingByName = new Map();
+        existingDatasets.forEach(existingDataset => {
+            const existingName = (existingDataset.datasetName || '').trim().toLowerCase();
+            if (existingName) {
+                if (!existingByName.has(existingName)) {
+                    existingByName.set(existingName, []);
+                }
+                existingByName.get(existingName).push(existingDataset);
+            }
+        });
+
         const duplicates = [];
         excelDatasets.forEach(excelDataset => {
             const excelName = (excelDataset['Dataset Name'] || '').trim().toLowerCase();
 
-            existingDatasets.forEach(existingDataset => {
-                const existingName = (existingDataset.datasetName || '').trim().toLowerCase();
-                if (excelName && existingName && excelName === existingName) {
-
-                    duplicates.push({
-                        name: excelDataset['Dataset Name'],
-                        existing: existingDataset,
-                        excel: excelDataset
-                    });
-                }
+            (existingByName.get(excelName) || []).forEach(existingDataset => {
+                duplicates.push({
+                    name: excelDataset['Dataset Name'],
+                    existing: existingDataset,
+                    excel: excelDataset
+                });
             });
         });
 
         return duplicates;
     }
 
+    /**
+     * Warns about duplicate dataset names flagged by the server, within the uploaded file
+     * and against datasets already saved in other inventories.
+     */
+    function showServerDuplicates(duplicates) {
+        const withinUpload = duplicates.withinUpload || [];
+        const existing = duplicates.existing || [];
+
+        if (withinUpload.length === 0 && existing.length === 0) {
+            return;
+        }
+
+        let summary = '';
+        if (withinUpload.length > 0) {
+            summary += window.validationMessages.duplicateInFile + '\n';
+            withinUpload.forEach(duplicate => {
+                summary += `• ${duplicate.datasetName} (${duplicate.positions.length})\n`;
+            });
+        }
+        if (existing.length > 0) {
+            summary += window.validationMessages.duplicateInInventories + '\n';
+            existing.forEach(duplicate => {
+                summary += `• ${duplicate.datasetName} → ${duplicate.inventoryName || duplicate.inventoryId}\n`;
+            });
+        }
+
+        if (window.showToast) {
+            window.showToast(summary, 'warning', window.validationMessages.duplicateDatasets);
+        } else {
+            alert(summary);
+        }
+    }
+
 
     function showDuplicateConfirmationDialog(duplicates, excelDatasets, existingDatasets, fieldMetadata) {
         const duplicateNames = duplicates.map(d => d.name).join(', ');
@@ -543,8 +594,8 @@ $(document).ready(function() {
         // Handle proceed button
         $('#proceedWithMerge').on('click', function() {
             $('#duplicateConfirmModal').modal('hide');
-            window.DatasetManager.clearAllDatasets();
-            mergeDatasets([], excelDatasets, fieldMetadata);
+            // The Excel file replaces the inventory's datasets
+            mergeFileOnServer(true);
         });
 
         // Clean up modal when hidden
@@ -558,83 +609,68 @@ $(document).ready(function() {
         });
     }
 
-    function mergeDatasets(existingDatasets, excelDatasets, fieldMetadata) {
-        // Store field metadata
-        if (window.DatasetManager) {
-            window.DatasetManager.setFieldMetadata(fieldMetadata);
-        }
+    /**
+     * Merges the uploaded file into the stored inventory on the server, which writes only the
+     * inserted, updated and deleted datasets and attributes. The page is reloaded afterwards
+     * so the review form shows the merged inventory.
+     */
+    function mergeFileOnServer(removeMissingDatasets) {
+        const inventoryIdInput = document.querySelector(`input[name="${window.portletNamespace}inventoryId"]`);
 
-        // Process Excel datasets one by one
-        excelDatasets.forEach((excelDataset, index) => {
-            const excelName = (excelDataset.datasetName || '').trim().toLowerCase();
-            let targetDatasetId = null;
+        showLoadingState(window.validationMessages.processingFile);
+
+        const formData = new FormData();
+        formData.append('file', uploadedFile);
+        formData.append('inventoryId', inventoryIdInput ? inventoryIdInput.value : '');
+        formData.append('removeMissingDatasets', removeMissingDatasets);
 
-            // Find if this dataset name already exists
-            $('.dataset-item').each(function() {
-                const datasetId = $(this).data('dataset');
-                const existingName = ($(`#datasetName_${datasetId}`).val() || '').trim().toLowerCase();
+        $.ajax({
+            url: window.portletURLs.mergeFile,
+            type: 'POST',
+            data: formData,
+            processData: false,
+            contentType: false,
+            timeout: 60000,
+            success: function(response) {
+                hideLoadingState();
 
-                if (existingName === excelName && excelName) {
-                    targetDatasetId = datasetId;
-                    return false; // Break loop
+                const result = typeof response === 'string' ? JSON.parse(response) : response;
+                if (!result.success) {
+                    showErrorMessage(result.error || window.validationMessages.errorProcessingFile);
+                    return;
                 }
-            });
-
-            if (targetDatasetId) {
-                // Update existing dataset
-                setTimeout(() => {
-                    if (window.DatasetManager) {
-                        window.DatasetManager.populateDatasetFields(targetDatasetId, excelDataset);
-                    }
-                }, 300 + (100 * index));
-            } else {
-                // Add new dataset
-                setTimeout(() => {
-                    const newDatasetId = window.DatasetManager.addNewDataset();
-                    setTimeout(() => {
-                        window.DatasetManager.populateDatasetFields(newDatasetId, excelDataset);
-                        setTimeout(() => {
-                            const datasetName = excelDataset['Dataset Name'] || `Dataset ${newDatasetId}`;
-                            window.ReviewMode.updateSidebarDatasetName(newDatasetId, datasetName);
-                        }, 200)
-                    }, 200);
-                }, 300 + (100 * index));
-            }
-        });
 
-        // Close modal and show success
-        $('#excelTemplateModal').modal('hide');
+                $('#excelTemplateModal').modal('hide');
+                showMergedDatasetSummary(result.summary);
 
-        const duplicatesCount = excelDatasets.filter(excel => {
-            const excelName = (excel.datasetName || '').trim().toLowerCase();
-            return existingDatasets.some(existing =>
-                (existing.datasetName || '').trim().toLowerCase() === excelName && excelName
-            );
-        }).length;
+                setTimeout(() => {
+                    window.location.reload();
+                }, 2000);
+            },
+            error: function(xhr, status, error) {
+                console.error('Merge error:', error);
+                hideLoadingState();
 
-        const newCount = excelDatasets.length - duplicatesCount;
+                let errorMessage = error;
+                if (status === 'timeout') {
+                    errorMessage = window.validationMessages.processingTimeout;
+                } else if (xhr.responseJSON && xhr.responseJSON.error) {
+                    errorMessage = xhr.responseJSON.error;
+                }
 
-        setTimeout(() => {
-            showMergedDatasetSummary(duplicatesCount, newCount);
-        }, 1000);
+                showErrorMessage(window.validationMessages.errorProcessingFile + ': ' + errorMessage);
+            }
+        });
     }
 
-    function showMergedDatasetSummary(updatedCount, newCount) {
-        const totalDatasets = $('.dataset-item').length;
-
+    function showMergedDatasetSummary(mergeSummary) {
         let summary = `Dataset Merge Complete:\n\n`;
-        summary += `• Total datasets: ${totalDatasets}\n`;
-        summary += `• New from Excel: ${newCount}\n`;
-        summary += `• Updated from Excel: ${updatedCount}\n\n`;
-        summary += `Current datasets:\n`;
-
-        // Get current dataset names from the form
-        $('.dataset-item').each(function() {
-            const datasetId = $(this).data('dataset');
-            const name = $(`#datasetName_${datasetId}`).val() || `Dataset ${datasetId}`;
-            const attrCount = $(`#attributesContainer_${datasetId} .single-attribute-field`).length || 0;
-            summary += `• ${name} (${attrCount} attributes)\n`;
-        });
+        summary += `• New from Excel: ${mergeSummary.insertedDatasets}\n`;
+        summary += `• Updated from Excel: ${mergeSummary.updatedDatasets}\n`;
+        summary += `• Unchanged: ${mergeSummary.unchangedDatasets}\n`;
+        summary += `• Removed: ${mergeSummary.deletedDatasets}\n\n`;
+        summary += `Attributes: ${mergeSummary.insertedAttributes} added, ` +
+            `${mergeSummary.updatedAttributes} updated, ${mergeSummary.deletedAttributes} removed\n`;
 
         if (window.showToast) {
             window.showToast(summary, 'info', 'Merge Summary');
@@ -5,6 +5,8 @@ $(document).ready(function() {
     let datasetFormTemplate;
     let fieldMetadata = null;
     const mode = document.getElementById('userMode').value;
+    const SUBMISSION_CHUNK_SIZE = 25;
+    const CHUNK_RETRY_COUNT = 2;
 
 
     // Initialize template function
@@ -49,6 +51,12 @@ $(document).ready(function() {
         $('#actionType').val('submit');
     });
 
+    // Post the whole form as one JSON body instead of one request parameter per field
+    $('#datasetForm').on('submit', function(e) {
+        e.preventDefault();
+        submitFormAsJson(this);
+    });
+
     $(document).on('click', '.remove-attribute', function() {
         const datasetId = $(this).closest('.dataset-form').data('dataset');
         $(this).closest('.single-attribute-field').remove();
@@ -350,6 +358,132 @@ $(document).ready(function() {
         }
     }
 
+    /**
+     * Group the form fields into datasets with nested attributes, keyed by the form's
+     * field names, and post them to the form's action URL as JSON
+     */
+    function submitFormAsJson(form) {
+        const namespace = window.portletNamespace;
+        const submission = { actionType: $('#actionType').val(), datasets: [] };
+        const datasets = {};
+
+        $(form).serializeArray().forEach(function(field) {
+            const name = field.name.startsWith(namespace) ? field.name.substring(namespace.length) : field.name;
+
+            if (name === 'inventoryId') {
+                submission.inventoryId = Number(field.value);
+                return;
+            }
+
+            if (name === 'idempotencyKey') {
+                submission.idempotencyKey = field.value;
+                return;
+            }
+
+            const match = name.match(/^([a-zA-Z]+)_(\d+)(?:_(\d+))?$/);
+            if (!match) {
+                return;
+            }
+
+            const dataset = datasets[match[2]] = datasets[match[2]] || { fields: {}, attributes: {} };
+            if (match[3] === undefined) {
+                dataset.fields[match[1]] = field.value;
+            } else {
+                const attribute = dataset.attributes[match[3]] = dataset.attributes[match[3]] || {};
+                attribute[match[1]] = field.value;
+            }
+        });
+
+        const byNumber = (a, b) => Number(a) - Number(b);
+        Object.keys(datasets).sort(byNumber).forEach(function(datasetId) {
+            const dataset = datasets[datasetId];
+            dataset.fields.attributes = Object.keys(dataset.attributes).sort(byNumber)
+                .map(index => dataset.attributes[index]);
+            submission.datasets.push(dataset.fields);
+        });
+
+        $('.submitBtn, .saveAsDraftBtn').prop('disabled', true);
+
+        // Large inventories are sent in chunks so no single request has to carry every dataset
+        const request = submission.datasets.length > SUBMISSION_CHUNK_SIZE ?
+            submitInChunks(submission) :
+            postSubmissionRequest(form.action, JSON.stringify(submission));
+
+        // Only leave the form once the server confirmed the save; conflicts and failures keep the user's edits
+        request
+            .then(function() {
+                window.location.href = window.portletURLs.view;
+            })
+            .catch(function(error) {
+                console.error('Form submission failed:', error);
+                $('.submitBtn, .saveAsDraftBtn').prop('disabled', false);
+                if (window.showToast) {
+                    window.showToast(error.serverMessage || 'Failed to save the inventory', 'error', 'Error');
+                }
+            });
+    }
+
+    function submitInChunks(submission) {
+        const namespace = window.portletNamespace;
+
+        return postSubmissionRequest(window.portletURLs.openSubmission, {
+            [`${namespace}inventoryId`]: submission.inventoryId || 0,
+            [`${namespace}idempotencyKey`]: submission.idempotencyKey || ''
+        }).then(function(opened) {
+            // The same form was already saved, so there is nothing left to send
+            if (opened.repeated) {
+                return opened;
+            }
+
+            const chunkURL = `${window.portletURLs.submitChunk}&${namespace}submissionId=${encodeURIComponent(opened.submissionId)}`;
+            let chain = Promise.resolve();
+
+            for (let start = 0; start < submission.datasets.length; start += SUBMISSION_CHUNK_SIZE) {
+                // The sequence number lets the server recognise a chunk it already wrote when a retry resends it
+                const sequenceURL = `${chunkURL}&${namespace}chunkSequence=${start / SUBMISSION_CHUNK_SIZE}`;
+                const chunk = JSON.stringify({ datasets: submission.datasets.slice(start, start + SUBMISSION_CHUNK_SIZE) });
+                chain = chain.then(() => postChunk(sequenceURL, chunk, CHUNK_RETRY_COUNT));
+            }
+
+            return chain.then(() => postSubmissionRequest(window.portletURLs.commitSubmission, {
+                [`${namespace}submissionId`]: opened.submissionId,
+                [`${namespace}actionType`]: submission.actionType
+            }));
+        });
+    }
+
+    /**
+     * Post a chunk, resending it when the request fails before a response arrives
+     */
+    function postChunk(url, chunk, retries) {
+        return postSubmissionRequest(url, chunk).catch(function(error) {
+            if (retries > 0 && error instanceof TypeError) {
+                return postChunk(url, chunk, retries - 1);
+            }
+            throw error;
+        });
+    }
+
+    function postSubmissionRequest(url, data) {
+        const isJson = typeof data === 'string';
+
+        return fetch(url, {
+            method: 'POST',
+            headers: isJson ? { 'Content-Type': 'application/json' } : {},
+            body: isJson ? data : new URLSearchParams(data),
+            credentials: 'same-origin'
+        })
+            .then(response => response.json().catch(() => ({ success: false })))
+            .then(function(result) {
+                if (!result.success) {
+                    const error = new Error(result.error || 'Submission request failed');
+                    error.serverMessage = result.error;
+                    throw error;
+                }
+                return result;
+            });
+    }
+
     function updateDatasetCount() {
         const totalDatasets = $('.dataset-item').length;
         $('#totalDatasets').val(totalDatasets);
@@ -12,14 +12,161 @@ $(document).ready(function() {
 window.ReviewMode = {
     currentMode: 'review',
     currentInventoryId: null,
+    attributePageSize: 50,
+    autosaveDelay: 3000,
+    // Form dataset index -> { datasetId, attributeCount, state }
+    attributeLoadState: {},
 
     initialize: function(inventoryId,mode = 'review') {
         this.currentMode = mode;
         this.currentInventoryId = inventoryId
         this.setupUI();
+        this.bindAttributeLoading();
+        if (mode === 'update') {
+            this.bindFieldPatching();
+            this.bindAutosave();
+        }
         this.fetchAndPopulateData(inventoryId);
     },
 
+    /**
+     * Load a dataset's attributes the first time its panel is opened
+     */
+    bindAttributeLoading: function() {
+        $(document).on('click', '.dataset-item', (e) => {
+            const formDatasetId = $(e.currentTarget).data('dataset');
+            this.ensureAttributesLoaded(formDatasetId);
+        });
+    },
+
+    /**
+     * In update mode, save an edited field of a stored dataset or attribute on its own,
+     * so fixing one value does not re-post the whole inventory
+     */
+    bindFieldPatching: function() {
+        $(document).on('change', '#formsContainer input, #formsContainer select', (e) => {
+            const field = this.getStoredEntryField(e.currentTarget);
+            if (field) {
+                this.patchEntry(field.entryId, { [field.fieldName]: $(e.currentTarget).val() }, field.versionInput);
+            }
+        });
+    },
+
+    /**
+     * Resolve an input of a stored dataset or attribute to its entry ID and object field name,
+     * or null if the input is not a patchable field of a stored entry
+     */
+    getStoredEntryField: function(input) {
+        const datasetFields = ['datasetName', 'datasetDescription', 'datasetClassification', 'userDemand',
+            'economicImpact', 'betterServices', 'betterGovernance', 'definedOwner', 'existingMetadata',
+            'alreadyPublished', 'openFormat', 'releaseYear', 'releaseMonth'];
+        const namespace = window.portletNamespace;
+
+        const datasetMatch = (input.id || '').match(/^([a-zA-Z]+)_(\d+)$/);
+        if (datasetMatch && datasetFields.includes(datasetMatch[1])) {
+            const datasetId = $(`input[name="${namespace}actualDatasetId_${datasetMatch[2]}"]`).val();
+            const versionInput = $(`input[name="${namespace}version_${datasetMatch[2]}"]`);
+            return datasetId ? { entryId: datasetId, fieldName: datasetMatch[1], versionInput: versionInput } : null;
+        }
+
+        const attributeMatch = (input.name || '').replace(namespace, '')
+            .match(/^(attributeName|attributeDescription)_(\d+)_(\d+)$/);
+        if (attributeMatch) {
+            const attributeId = $(`input[name="${namespace}actualAttributeId_${attributeMatch[2]}_${attributeMatch[3]}"]`).val();
+            const fieldName = attributeMatch[1] === 'attributeName' ? 'attribute' : 'attributeDescription';
+            const versionInput = $(`input[name="${namespace}version_${attributeMatch[2]}_${attributeMatch[3]}"]`);
+            return attributeId ? { entryId: attributeId, fieldName: fieldName, versionInput: versionInput } : null;
+        }
+
+        return null;
+    },
+
+    /**
+     * While editing a draft, collect typed values per entry with the entry's version and send
+     * them to the autosave endpoint every few seconds; the server coalesces them and writes
+     * them in the background
+     */
+    bindAutosave: function() {
+        const pendingDeltas = {};
+        let autosaveTimer = null;
+
+        const sendDeltas = () => {
+            autosaveTimer = null;
+            const deltas = Object.assign({}, pendingDeltas);
+            Object.keys(pendingDeltas).forEach(entryId => delete pendingDeltas[entryId]);
+
+            $.ajax({
+                url: window.portletURLs.autosave,
+                type: 'POST',
+                data: {
+                    [`${window.portletNamespace}inventoryId`]: this.currentInventoryId,
+                    [`${window.portletNamespace}deltas`]: JSON.stringify(deltas)
+                },
+                timeout: 30000,
+                success: (response) => {
+                    const result = typeof response === 'string' ? JSON.parse(response) : response;
+                    if (!result.success) {
+                        // Submitted inventories are not autosaved; stop sending
+                        $(document).off('input.autosave');
+                    }
+                },
+                error: () => {
+                    $(document).off('input.autosave');
+                }
+            });
+        };
+
+        $(document).on('input.autosave', '#formsContainer input, #formsContainer textarea', (e) => {
+            const field = this.getStoredEntryField(e.currentTarget);
+            if (!field) {
+                return;
+            }
+
+            pendingDeltas[field.entryId] = pendingDeltas[field.entryId] || {};
+            pendingDeltas[field.entryId][field.fieldName] = $(e.currentTarget).val();
+            if (field.versionInput && field.versionInput.length) {
+                // An edit made elsewhere since this version was loaded is not overwritten
+                pendingDeltas[field.entryId].version = Number(field.versionInput.val());
+            }
+
+            if (!autosaveTimer) {
+                autosaveTimer = setTimeout(sendDeltas, this.autosaveDelay);
+            }
+        });
+    },
+
+    /**
+     * Send a field-level patch for one dataset or attribute entry. The entry's version input
+     * is sent so a change made by someone else is rejected, and is advanced after each save.
+     */
+    patchEntry: function(entryId, values, versionInput) {
+        const version = versionInput && versionInput.length ? Number(versionInput.val()) : -1;
+
+        return $.ajax({
+            url: window.portletURLs.patchEntry,
+            type: 'POST',
+            data: {
+                [`${window.portletNamespace}patch`]: JSON.stringify({ entryId: Number(entryId), version: version, values: values })
+            },
+            timeout: 30000,
+            success: (response) => {
+                const result = typeof response === 'string' ? JSON.parse(response) : response;
+                if (result.success && versionInput && versionInput.length) {
+                    versionInput.val(result.version);
+                } else if (!result.success && window.showToast) {
+                    window.showToast(result.error || 'Failed to save the change', 'error', 'Error');
+                }
+            },
+            error: (xhr) => {
+                if (window.showToast) {
+                    const message = xhr.status === 409 && xhr.responseJSON ?
+                        xhr.responseJSON.error : 'Failed to save the change';
+                    window.showToast(message, 'error', 'Error');
+                }
+            }
+        });
+    },
+
     setupUI: function() {
         // $('#excelTemplateBtn, #addDatasetManuallyBtn').hide();
         // Update page title
@@ -30,6 +177,8 @@ window.ReviewMode = {
     },
 
     fetchAndPopulateData: function(inventoryId) {
+        const cached = this.getCachedInventory(inventoryId);
+
         $.ajax({
             url: window.portletURLs.fetchData,
             type: 'GET',
@@ -37,8 +186,15 @@ window.ReviewMode = {
                 inventoryId: inventoryId,
                 namespace: window.portletNamespace
             },
+            headers: cached ? { 'If-None-Match': cached.etag } : {},
             timeout: 30000,
-            success: (response) => {
+            success: (response, status, xhr) => {
+                // 304: server confirmed the cached copy is still current
+                if (xhr.status === 304 && cached) {
+                    this.handleDataResponse(cached.body, inventoryId);
+                    return;
+                }
+                this.cacheInventory(inventoryId, xhr.getResponseHeader('ETag'), response);
                 this.handleDataResponse(response, inventoryId);
             },
             error: (xhr, status, error) => {
@@ -47,6 +203,35 @@ window.ReviewMode = {
         });
     },
 
+    /**
+     * Read the cached inventory response and its ETag from session storage
+     */
+    getCachedInventory: function(inventoryId) {
+        try {
+            const cached = sessionStorage.getItem('inventoryData_' + inventoryId);
+            return cached ? JSON.parse(cached) : null;
+        } catch (e) {
+            return null;
+        }
+    },
+
+    /**
+     * Keep the response in session storage so repeat opens can be revalidated with If-None-Match
+     */
+    cacheInventory: function(inventoryId, etag, response) {
+        if (!etag) {
+            return;
+        }
+        try {
+            const body = typeof response === 'string' ? JSON.parse(response) : response;
+            if (body && body.success) {
+                sessionStorage.setItem('inventoryData_' + inventoryId, JSON.stringify({ etag: etag, body: body }));
+            }
+        } catch (e) {
+            console.warn('Unable to cache inventory data:', e);
+        }
+    },
+
     /**
      * Handle successful data response
      */
@@ -147,9 +332,11 @@ window.ReviewMode = {
             openFormat: dataset.openFormat,
             releaseYear: dataset.releaseYear,
             releaseMonth: dataset.releaseMonth,
-            attributes: dataset.attributes || []
+            attributeCount: dataset.attributeCount || 0
         }));
 
+        this.attributeLoadState = {};
+
         // Use existing DatasetManager to create and populate forms
         if (window.DatasetManager) {
             // Clear existing forms first
@@ -181,6 +368,8 @@ window.ReviewMode = {
                 } else {
                     this.enableUpdateMode();
                 }
+                // The first dataset is visible straight away
+                this.ensureAttributesLoaded(1);
             }, 1000 + (200 * formattedDatasets.length));
 
         } else {
@@ -211,7 +400,8 @@ window.ReviewMode = {
 
         if (datasetData.datasetId) {
             const actualIdInput = `<input type="hidden" name="${window.portletNamespace}actualDatasetId_${datasetId}" value="${datasetData.datasetId}" />`;
-            $(`#datasetForm_${datasetId}`).prepend(actualIdInput);
+            const versionInput = `<input type="hidden" name="${window.portletNamespace}version_${datasetId}" value="${datasetData.version}" />`;
+            $(`#datasetForm_${datasetId}`).prepend(actualIdInput, versionInput);
         }
 
         // Populate basic fields
@@ -235,14 +425,91 @@ window.ReviewMode = {
         $(`#releaseYear_${datasetId}`).val(datasetData.releaseYear || '');
         $(`#releaseMonth_${datasetId}`).val(datasetData.releaseMonth || '');
 
-        // Populate attributes
-        if (datasetData.attributes && datasetData.attributes.length > 0) {
-            setTimeout(() => {
-                this.populateAttributesWithIds(datasetId, datasetData.attributes);
-            }, 300);
+        // Attributes are fetched when the dataset is opened; until then the server leaves them untouched
+        if (datasetData.datasetId) {
+            const loaded = datasetData.attributeCount === 0;
+            const attributesLoadedInput = `<input type="hidden" id="attributesLoaded_${datasetId}" name="${window.portletNamespace}attributesLoaded_${datasetId}" value="${loaded}" />`;
+            $(`#datasetForm_${datasetId}`).prepend(attributesLoadedInput);
+
+            this.attributeLoadState[datasetId] = {
+                datasetId: datasetData.datasetId,
+                attributeCount: datasetData.attributeCount,
+                state: loaded ? 'loaded' : 'pending'
+            };
         }
     },
 
+    /**
+     * Fetch all attribute pages for a dataset once and populate its form
+     */
+    ensureAttributesLoaded: function(formDatasetId) {
+        const loadState = this.attributeLoadState[formDatasetId];
+        if (!loadState || loadState.state !== 'pending') {
+            return;
+        }
+        loadState.state = 'loading';
+
+        const container = $(`#attributesContainer_${formDatasetId}`);
+        $(`#attributesLoading_${formDatasetId}`).remove();
+        container.before(`<div class="text-muted small mb-2" id="attributesLoading_${formDatasetId}"><i class="fa fa-spinner fa-spin"></i> Loading attributes...</div>`);
+
+        const attributes = [];
+        const loadPage = (start) => {
+            $.ajax({
+                url: window.portletURLs.fetchDatasetAttributes,
+                type: 'GET',
+                data: {
+                    [`${window.portletNamespace}datasetId`]: loadState.datasetId,
+                    [`${window.portletNamespace}start`]: start,
+                    [`${window.portletNamespace}delta`]: this.attributePageSize
+                },
+                timeout: 30000,
+                success: (response) => {
+                    const result = typeof response === 'string' ? JSON.parse(response) : response;
+                    if (!result.success || !result.page) {
+                        this.handleAttributeLoadError(formDatasetId, loadState);
+                        return;
+                    }
+
+                    attributes.push(...result.page.attributes);
+
+                    if (result.page.hasMore) {
+                        loadPage(start + this.attributePageSize);
+                        return;
+                    }
+
+                    $(`#attributesLoading_${formDatasetId}`).remove();
+                    if (attributes.length > 0) {
+                        this.populateAttributesWithIds(formDatasetId, attributes);
+                    }
+                    if (this.currentMode === 'review') {
+                        $(`#attributesContainer_${formDatasetId} input`)
+                            .prop('readonly', true)
+                            .prop('disabled', true)
+                            .addClass('form-control-plaintext bg-light');
+                        $(`#datasetForm_${formDatasetId} .addAttributeBtn, #datasetForm_${formDatasetId} .remove-attribute`).hide();
+                    }
+                    $(`#attributesLoaded_${formDatasetId}`).val('true');
+                    loadState.state = 'loaded';
+                },
+                error: () => {
+                    this.handleAttributeLoadError(formDatasetId, loadState);
+                }
+            });
+        };
+
+        loadPage(0);
+    },
+
+    handleAttributeLoadError: function(formDatasetId, loadState) {
+        // Allow another attempt the next time the dataset is opened
+        loadState.state = 'pending';
+        $(`#attributesLoading_${formDatasetId}`)
+            .removeClass('text-muted')
+            .addClass('text-danger')
+            .text('Failed to load attributes. Reopen the dataset to retry.');
+    },
+
     /**
      * Populate attributes for a dataset
      */
@@ -261,7 +528,8 @@ window.ReviewMode = {
             // Add hidden input for actual attribute ID
             if (attribute.attributeId) {
                 const actualAttributeIdInput = `<input type="hidden" name="${window.portletNamespace}actualAttributeId_${datasetId}_${attributeIndex}" value="${attribute.attributeId}" />`;
-                $(`#attributesContainer_${datasetId} .single-attribute-field[data-index="${attributeIndex}"]`).prepend(actualAttributeIdInput);
+                const versionInput = `<input type="hidden" name="${window.portletNamespace}version_${datasetId}_${attributeIndex}" value="${attribute.version}" />`;
+                $(`#attributesContainer_${datasetId} .single-attribute-field[data-index="${attributeIndex}"]`).prepend(actualAttributeIdInput, versionInput);
             }
 
             // Populate the attribute fields
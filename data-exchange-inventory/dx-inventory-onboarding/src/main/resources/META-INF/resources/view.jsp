@@ -10,14 +10,25 @@
 <%@ page import="com.liferay.portal.kernel.service.RoleLocalServiceUtil" %>
 <%@ page import="com.liferay.portal.kernel.model.Role" %>
 <%@ page import="java.util.List" %>
+<%@ page import="com.liferay.portal.kernel.uuid.PortalUUIDUtil" %>
+<%@ page import="com.liferay.portal.kernel.util.GetterUtil" %>
+<%@ page import="com.dx.liferay.inventory.constants.InventoryConstants" %>
 
 <%@ include file="/init.jsp" %>
 
 <portlet:actionURL name="/addDataset" var="addDatasetURL" />
+<portlet:renderURL var="viewURL" />
 <portlet:resourceURL id="uploadTemplate" var="uploadTemplateURL" />
 <portlet:resourceURL id="validateFile" var="validateFileURL" />
 <portlet:resourceURL id="processFile" var="processFileURL" />
+<portlet:resourceURL id="mergeFile" var="mergeFileURL" />
 <portlet:resourceURL id="fetchData" var="fetchDataURL" />
+<portlet:resourceURL id="fetchDatasetAttributes" var="fetchDatasetAttributesURL" />
+<portlet:resourceURL id="patchEntry" var="patchEntryURL" />
+<portlet:resourceURL id="autosave" var="autosaveURL" />
+<portlet:resourceURL id="openSubmission" var="openSubmissionURL" />
+<portlet:resourceURL id="submitChunk" var="submitChunkURL" />
+<portlet:resourceURL id="commitSubmission" var="commitSubmissionURL" />
 <portlet:actionURL name="/updateDataset" var="updateDatasetURL" />
 
 
@@ -78,6 +89,7 @@
 		<% if (isUpdateMode) { %>
 		<input type="hidden" name="<portlet:namespace />inventoryId" value="<%= inventoryId %>" />
 		<% } %>
+		<input type="hidden" name="<portlet:namespace />idempotencyKey" value="<%= PortalUUIDUtil.generate() %>" />
 		<div class="row">
 			<div class="col-md-3">
 				<div class="card">
@@ -468,7 +480,15 @@
 		uploadTemplate: '${uploadTemplateURL}',
 		validateFile: '${validateFileURL}',
 		processFile: '${processFileURL}',
-		fetchData: '${fetchDataURL}'
+		mergeFile: '${mergeFileURL}',
+		fetchData: '${fetchDataURL}',
+		fetchDatasetAttributes: '${fetchDatasetAttributesURL}',
+		patchEntry: '${patchEntryURL}',
+		autosave: '${autosaveURL}',
+		openSubmission: '${openSubmissionURL}',
+		submitChunk: '${submitChunkURL}',
+		commitSubmission: '${commitSubmissionURL}',
+		view: '${viewURL}'
 	};
 
 	window.sampleDocumentUrl = '<%= sampleDocumentUrl != null ? sampleDocumentUrl : "" %>';
@@ -511,7 +531,10 @@
 		'fileEmpty': '<%= LanguageUtil.get(resourceBundle, "file.empty") %>',
 		'errorProcessingFile': '<%= LanguageUtil.get(resourceBundle, "error.processing.file") %>',
 		'errorParsingFileData': '<%= LanguageUtil.get(resourceBundle, "error.parsing.file.data") %>',
-		'datasetLoaded': '<%= LanguageUtil.get(resourceBundle, "dataset.loaded") %>'
+		'datasetLoaded': '<%= LanguageUtil.get(resourceBundle, "dataset.loaded") %>',
+		'duplicateDatasets': '<%= LanguageUtil.get(resourceBundle, "duplicate.datasets") %>',
+		'duplicateInFile': '<%= LanguageUtil.get(resourceBundle, "duplicate.in.file") %>',
+		'duplicateInInventories': '<%= LanguageUtil.get(resourceBundle, "duplicate.in.inventories") %>'
 	};
 </script>
 <script>
@@ -0,0 +1,189 @@
+package com.dx.liferay.inventory.cache;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.liferay.portal.kernel.lock.Lock;
+import com.liferay.portal.kernel.lock.LockManager;
+import com.liferay.portal.kernel.uuid.PortalUUID;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class SubmissionIdempotencyCacheTest {
+
+    private static final long COMPANY_ID = 1;
+
+    private static final String IDEMPOTENCY_KEY = "5f0c3a2e-8d4b-4c1e-9a7f-2b6d1e8c4a90";
+
+    private static final long USER_ID = 2;
+
+    @BeforeClass
+    public static void setUpClass() {
+        PortalUUID portalUUID = Mockito.mock(PortalUUID.class);
+
+        Mockito.when(portalUUID.generate()).thenAnswer(invocation -> UUID.randomUUID().toString());
+
+        new PortalUUIDUtil().setPortalUUID(portalUUID);
+    }
+
+    @Before
+    public void setUp() {
+        LockManager lockManager = Mockito.mock(LockManager.class);
+
+        // Lock_ rows keyed by lock key, as the portal keeps one row per class name and key
+        Mockito.when(lockManager.lock(
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString())
+        ).thenAnswer(invocation -> _locks.computeIfAbsent(
+                invocation.getArgument(1), key -> createLock(invocation.getArgument(2), new Date())));
+
+        Mockito.when(lockManager.lock(
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString())
+        ).thenAnswer(invocation -> {
+            String key = invocation.getArgument(1);
+            Lock lock = _locks.get(key);
+
+            if (lock == null || lock.getOwner().equals(invocation.getArgument(2))) {
+                lock = createLock(invocation.getArgument(3), new Date());
+                _locks.put(key, lock);
+            }
+            return lock;
+        });
+
+        Mockito.when(lockManager.fetchLock(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> _locks.get(invocation.<String>getArgument(1)));
+
+        Mockito.doAnswer(invocation -> {
+            Lock lock = _locks.get(invocation.<String>getArgument(1));
+
+            if (lock != null && lock.getOwner().equals(invocation.getArgument(2))) {
+                _locks.remove(invocation.<String>getArgument(1));
+            }
+            return null;
+        }).when(lockManager).unlock(
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+
+        _submissionIdempotencyCache._lockManager = lockManager;
+    }
+
+    @Test
+    public void testClaimFailsWhileSubmissionIsInFlight() {
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+        Assert.assertNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+        Assert.assertNull(_submissionIdempotencyCache.getInventoryId(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testClaimIsScopedToUser() {
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID + 1, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testCompleteRecordsInventory() {
+        String claimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        _submissionIdempotencyCache.complete(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken, 123);
+
+        Assert.assertEquals(
+                Long.valueOf(123), _submissionIdempotencyCache.getInventoryId(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+        Assert.assertNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testCompleteWithTakenOverClaimDoesNotRecordInventory() {
+        String claimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        ageLock(InventoryConstants.IDEMPOTENCY_CLAIM_EXPIRATION_MS + 1000);
+
+        String newClaimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        Assert.assertNotNull(newClaimToken);
+        Assert.assertNotEquals(claimToken, newClaimToken);
+
+        _submissionIdempotencyCache.complete(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken, 123);
+
+        Assert.assertNull(_submissionIdempotencyCache.getInventoryId(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testExpiredClaimIsTakenOver() {
+        _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        ageLock(InventoryConstants.IDEMPOTENCY_CLAIM_EXPIRATION_MS + 1000);
+
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testExpiredCompletedKeyIsForgotten() {
+        String claimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        _submissionIdempotencyCache.complete(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken, 123);
+
+        ageLock(InventoryConstants.IDEMPOTENCY_KEY_TTL_SECONDS * 1000L + 1000);
+
+        Assert.assertNull(_submissionIdempotencyCache.getInventoryId(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testIsValidKey() {
+        Assert.assertTrue(_submissionIdempotencyCache.isValidKey(IDEMPOTENCY_KEY));
+        Assert.assertFalse(_submissionIdempotencyCache.isValidKey(null));
+        Assert.assertFalse(_submissionIdempotencyCache.isValidKey(""));
+        Assert.assertFalse(_submissionIdempotencyCache.isValidKey(
+                "k".repeat(InventoryConstants.MAX_IDEMPOTENCY_KEY_LENGTH + 1)));
+    }
+
+    @Test
+    public void testReleaseAllowsRetry() {
+        String claimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        _submissionIdempotencyCache.release(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken);
+
+        Assert.assertNotNull(_submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void testReleaseWithStaleTokenKeepsCompletedKey() {
+        String claimToken = _submissionIdempotencyCache.claim(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY);
+
+        _submissionIdempotencyCache.complete(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken, 123);
+        _submissionIdempotencyCache.release(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY, claimToken);
+
+        Assert.assertEquals(
+                Long.valueOf(123), _submissionIdempotencyCache.getInventoryId(COMPANY_ID, USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    /**
+     * Moves the create date of the only lock row into the past.
+     */
+    private void ageLock(long ageMillis) {
+        Map.Entry<String, Lock> entry = _locks.entrySet().iterator().next();
+
+        entry.setValue(createLock(
+                entry.getValue().getOwner(), new Date(System.currentTimeMillis() - ageMillis)));
+    }
+
+    private Lock createLock(String owner, Date createDate) {
+        Lock lock = Mockito.mock(Lock.class);
+
+        Mockito.when(lock.getOwner()).thenReturn(owner);
+        Mockito.when(lock.getCreateDate()).thenReturn(createDate);
+
+        return lock;
+    }
+
+    private final Map<String, Lock> _locks = new HashMap<>();
+    private final SubmissionIdempotencyCache _submissionIdempotencyCache = new SubmissionIdempotencyCache();
+
+}
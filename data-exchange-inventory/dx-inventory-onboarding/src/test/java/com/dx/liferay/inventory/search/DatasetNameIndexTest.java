@@ -0,0 +1,37 @@
+package com.dx.liferay.inventory.search;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatasetNameIndexTest {
+
+    @Test
+    public void testNormalizeBlank() {
+        Assert.assertEquals("", DatasetNameIndex.normalize(null));
+        Assert.assertEquals("", DatasetNameIndex.normalize(" \t\n "));
+    }
+
+    @Test
+    public void testNormalizeCollapsesWhitespace() {
+        Assert.assertEquals("population census", DatasetNameIndex.normalize("  Population \t\n Census "));
+    }
+
+    @Test
+    public void testNormalizeFoldsCompatibilityForms() {
+        // Full-width "CENSUS 2024" with an ideographic space
+        String fullWidthName = "\uff23\uff25\uff2e\uff33\uff35\uff33\u3000\uff12\uff10\uff12\uff14";
+
+        Assert.assertEquals("census 2024", DatasetNameIndex.normalize(fullWidthName));
+
+        // Lam-alef ligature presentation form
+        Assert.assertEquals(DatasetNameIndex.normalize("\u0644\u0627"), DatasetNameIndex.normalize("\ufefb"));
+    }
+
+    @Test
+    public void testNormalizeKeepsArabic() {
+        String arabicName = "\u0625\u062d\u0635\u0627\u0621\u0627\u062a \u0627\u0644\u0633\u0643\u0627\u0646";
+
+        Assert.assertEquals(arabicName, DatasetNameIndex.normalize(" " + arabicName.replace(" ", "  ") + " "));
+    }
+
+}
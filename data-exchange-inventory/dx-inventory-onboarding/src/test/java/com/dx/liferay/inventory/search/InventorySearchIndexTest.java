@@ -0,0 +1,178 @@
+package com.dx.liferay.inventory.search;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.InventorySearchHit;
+import com.dx.liferay.inventory.model.InventorySearchResults;
+import com.dx.liferay.inventory.service.InventoryProjectionService;
+import com.liferay.object.model.ObjectEntry;
+import com.liferay.portal.kernel.exception.PortalException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InventorySearchIndexTest {
+
+    private static final long COMPANY_ID = 1;
+
+    @Before
+    public void setUp() throws PortalException {
+        addDataset(11, 101, "Population Census", "Residents counted by district");
+        addDataset(12, 102, "Traffic Accidents", "Accidents on national roads");
+        addDataset(13, 101, "Road Network", "Length of paved roads, traffic density and accident hotspots");
+        addDataset(14, 103, "\u0625\u062d\u0635\u0627\u0621\u0627\u062a \u0627\u0644\u0633\u0643\u0627\u0646",
+                "\u0639\u062f\u062f \u0627\u0644\u0633\u0643\u0627\u0646 " +
+                        "\u062d\u0633\u0628 \u0627\u0644\u0645\u0646\u0637\u0642\u0629");
+
+        addAttribute(21, 11, "census_year", "Year of the count");
+        addAttribute(22, 12, "Severity", "Injury severity of the accident");
+
+        InventoryProjectionService inventoryProjectionService = Mockito.mock(InventoryProjectionService.class);
+
+        Mockito.when(inventoryProjectionService.getEntryPage(
+                ArgumentMatchers.eq(COMPANY_ID), ArgumentMatchers.eq(InventoryConstants.DX_INVENTORY_OBJECT_NAME),
+                ArgumentMatchers.anyCollection(), ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt())
+        ).thenReturn(_datasets);
+
+        Mockito.when(inventoryProjectionService.getEntryPage(
+                ArgumentMatchers.eq(COMPANY_ID),
+                ArgumentMatchers.eq(InventoryConstants.DX_INVENTORY_ATTRIBUTE_OBJECT_NAME),
+                ArgumentMatchers.anyCollection(), ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt())
+        ).thenReturn(_attributes);
+
+        _inventorySearchIndex._inventoryProjectionService = inventoryProjectionService;
+    }
+
+    @Test
+    public void testSearchFiltersInventories() throws PortalException {
+        InventorySearchResults results = _inventorySearchIndex.search(
+                COMPANY_ID, "roads", 0, 10, inventoryId -> inventoryId != 101);
+
+        Assert.assertEquals(List.of(12L), getEntryIds(results));
+    }
+
+    @Test
+    public void testSearchIgnoresCaseAndPunctuation() throws PortalException {
+        InventorySearchResults results = search("  POPULATION, census! ");
+
+        Assert.assertEquals(List.of(11L), getEntryIds(results));
+    }
+
+    @Test
+    public void testSearchMatchesArabic() throws PortalException {
+        InventorySearchResults results = search("\u0627\u0644\u0633\u0643\u0627\u0646");
+
+        Assert.assertEquals(List.of(14L), getEntryIds(results));
+    }
+
+    @Test
+    public void testSearchMatchesAttributes() throws PortalException {
+        InventorySearchResults results = search("census");
+
+        Assert.assertEquals(List.of(11L, 21L), getEntryIds(results));
+
+        InventorySearchHit attributeHit = results.getHits().get(1);
+
+        Assert.assertEquals(InventorySearchHit.ATTRIBUTE_TYPE, attributeHit.getType());
+        Assert.assertEquals(11, attributeHit.getDatasetId());
+        Assert.assertEquals(101, attributeHit.getInventoryId());
+    }
+
+    @Test
+    public void testSearchMatchesOnlyLastTermAsPrefix() throws PortalException {
+        Assert.assertEquals(List.of(11L), getEntryIds(search("census popul")));
+        Assert.assertEquals(0, search("popul census").getTotal());
+    }
+
+    @Test
+    public void testSearchPagesHits() throws PortalException {
+        InventorySearchResults results = _inventorySearchIndex.search(
+                COMPANY_ID, "accident", 1, 1, inventoryId -> true);
+
+        Assert.assertEquals(3, results.getTotal());
+        Assert.assertEquals(1, results.getHits().size());
+    }
+
+    @Test
+    public void testSearchRanksNameAboveDescription() throws PortalException {
+        InventorySearchResults results = search("traffic");
+
+        Assert.assertEquals(List.of(12L, 13L), getEntryIds(results));
+        Assert.assertTrue(results.getHits().get(0).getScore() > results.getHits().get(1).getScore());
+    }
+
+    @Test
+    public void testSearchRequiresEveryTerm() throws PortalException {
+        Assert.assertEquals(List.of(13L), getEntryIds(search("paved traffic")));
+        Assert.assertEquals(0, search("paved census").getTotal());
+    }
+
+    @Test
+    public void testSearchWithoutTermsSkipsIndexBuild() throws PortalException {
+        InventorySearchResults results = search("a - !");
+
+        Assert.assertEquals(0, results.getTotal());
+        Mockito.verifyNoInteractions(_inventorySearchIndex._inventoryProjectionService);
+    }
+
+    @Test
+    public void testRemoveDatasetRemovesAttributes() throws PortalException {
+        Assert.assertEquals(List.of(11L, 21L), getEntryIds(search("census")));
+
+        ObjectEntry objectEntry = Mockito.mock(ObjectEntry.class);
+
+        Mockito.when(objectEntry.getCompanyId()).thenReturn(COMPANY_ID);
+        Mockito.when(objectEntry.getObjectEntryId()).thenReturn(11L);
+
+        _inventorySearchIndex.removeEntry(objectEntry);
+
+        Assert.assertEquals(0, search("census").getTotal());
+    }
+
+    private void addAttribute(long attributeId, long datasetId, String attribute, String attributeDescription) {
+        Map<String, Serializable> values = new LinkedHashMap<>();
+
+        values.put("attribute", attribute);
+        values.put("attributeDescription", attributeDescription);
+        values.put(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID, datasetId);
+
+        _attributes.put(attributeId, values);
+    }
+
+    private void addDataset(long datasetId, long inventoryId, String datasetName, String datasetDescription) {
+        Map<String, Serializable> values = new LinkedHashMap<>();
+
+        values.put("datasetName", datasetName);
+        values.put("datasetDescription", datasetDescription);
+        values.put(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID, inventoryId);
+
+        _datasets.put(datasetId, values);
+    }
+
+    private List<Long> getEntryIds(InventorySearchResults results) {
+        List<Long> entryIds = new ArrayList<>();
+
+        for (InventorySearchHit hit : results.getHits()) {
+            entryIds.add(hit.getEntryId());
+        }
+        return entryIds;
+    }
+
+    private InventorySearchResults search(String keywords) throws PortalException {
+        return _inventorySearchIndex.search(COMPANY_ID, keywords, 0, 10, inventoryId -> true);
+    }
+
+    private final Map<Long, Map<String, Serializable>> _attributes = new LinkedHashMap<>();
+    private final Map<Long, Map<String, Serializable>> _datasets = new LinkedHashMap<>();
+    private final InventorySearchIndex _inventorySearchIndex = new InventorySearchIndex();
+
+}
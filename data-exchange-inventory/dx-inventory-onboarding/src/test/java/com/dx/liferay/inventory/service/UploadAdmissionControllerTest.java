@@ -0,0 +1,145 @@
+package com.dx.liferay.inventory.service;
+
+import com.liferay.petra.lang.SafeCloseable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class UploadAdmissionControllerTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Test
+    public void testAdmitsUploadsWithinLimit() throws InterruptedException {
+        UploadAdmissionController uploadAdmissionController = createController(4, 0, 1);
+
+        SafeCloseable first = uploadAdmissionController.admit(2 * MEGABYTE);
+        SafeCloseable second = uploadAdmissionController.admit(MEGABYTE + 1);
+
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+
+        first.close();
+        second.close();
+
+        SafeCloseable whole = uploadAdmissionController.admit(4 * MEGABYTE);
+
+        Assert.assertNotNull(whole);
+
+        whole.close();
+    }
+
+    @Test
+    public void testAdmitsUploadLargerThanLimitAlone() throws InterruptedException {
+        UploadAdmissionController uploadAdmissionController = createController(2, 0, 1);
+
+        SafeCloseable upload = uploadAdmissionController.admit(100 * MEGABYTE);
+
+        Assert.assertNotNull(upload);
+        Assert.assertNull(uploadAdmissionController.admit(-1));
+
+        upload.close();
+
+        SafeCloseable unknownSize = uploadAdmissionController.admit(-1);
+
+        Assert.assertNotNull(unknownSize);
+
+        unknownSize.close();
+    }
+
+    @Test
+    public void testAdmitsQueuedUploadWhenCapacityIsReleased() throws Exception {
+        UploadAdmissionController uploadAdmissionController = createController(1, 1, 10);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try {
+            SafeCloseable first = uploadAdmissionController.admit(MEGABYTE);
+
+            Future<SafeCloseable> queued = executorService.submit(() -> uploadAdmissionController.admit(MEGABYTE));
+
+            Thread.sleep(200);
+            Assert.assertFalse(queued.isDone());
+
+            first.close();
+
+            SafeCloseable second = queued.get(5, TimeUnit.SECONDS);
+
+            Assert.assertNotNull(second);
+
+            second.close();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueuedUploadIsNotOvertakenBySmallerUpload() throws Exception {
+        UploadAdmissionController uploadAdmissionController = createController(2, 2, 1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            SafeCloseable first = uploadAdmissionController.admit(MEGABYTE);
+
+            // Needs the whole limit, so it queues while the first upload holds half of it
+            Future<SafeCloseable> large = executorService.submit(() -> uploadAdmissionController.admit(2 * MEGABYTE));
+
+            Thread.sleep(200);
+
+            executorService.submit(() -> {
+                Thread.sleep(300);
+                first.close();
+                return null;
+            });
+
+            // A permit is free and more are released while it waits, but the queued upload is first in line
+            Assert.assertNull(uploadAdmissionController.admit(MEGABYTE));
+
+            SafeCloseable second = large.get(5, TimeUnit.SECONDS);
+
+            Assert.assertNotNull(second);
+
+            second.close();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectsUploadWhenQueueIsFull() throws InterruptedException {
+        UploadAdmissionController uploadAdmissionController = createController(1, 0, 10);
+
+        SafeCloseable first = uploadAdmissionController.admit(MEGABYTE);
+
+        long start = System.currentTimeMillis();
+
+        Assert.assertNull(uploadAdmissionController.admit(MEGABYTE));
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+
+        first.close();
+    }
+
+    @Test
+    public void testReturnsConfiguredRetryDelay() {
+        Assert.assertEquals(30, createController(1, 0, 1).getRetryAfterSeconds());
+    }
+
+    private UploadAdmissionController createController(int maxConcurrentUploadMegabytes, int maxQueuedUploads,
+                                                       int queueTimeoutSeconds) {
+
+        UploadAdmissionController uploadAdmissionController = new UploadAdmissionController();
+
+        uploadAdmissionController.activate(Map.of(
+                "maxConcurrentUploadMegabytes", maxConcurrentUploadMegabytes,
+                "maxQueuedUploads", maxQueuedUploads,
+                "queueTimeoutSeconds", queueTimeoutSeconds,
+                "retryAfterSeconds", 30));
+
+        return uploadAdmissionController;
+    }
+
+}
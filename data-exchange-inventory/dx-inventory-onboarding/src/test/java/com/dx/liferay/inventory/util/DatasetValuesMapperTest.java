@@ -0,0 +1,180 @@
+package com.dx.liferay.inventory.util;
+
+import com.dx.liferay.inventory.constants.InventoryConstants;
+import com.dx.liferay.inventory.model.Attribute;
+import com.dx.liferay.inventory.model.Dataset;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DatasetValuesMapperTest {
+
+    @Test
+    public void testAddClearedFieldsClearsFieldsMissingFromValues() {
+        Map<String, Serializable> values = new HashMap<>();
+        values.put("datasetDescription", "Kept");
+
+        DatasetValuesMapper.addClearedFields(
+                values, List.of("datasetName", "datasetDescription", "userDemand", "openFormat"), "en_US");
+
+        Assert.assertEquals("", values.get("datasetName"));
+        Assert.assertEquals(Map.of("en_US", ""), values.get("datasetName_i18n"));
+        Assert.assertEquals("Kept", values.get("datasetDescription"));
+        Assert.assertEquals(0, values.get("userDemand"));
+        Assert.assertEquals("", values.get("openFormat"));
+        Assert.assertFalse(values.containsKey("economicImpact"));
+    }
+
+    @Test
+    public void testAttributeRoundTrip() {
+        Attribute attribute = DatasetValuesMapper.toAttribute(7, 0, "  Length ", " Road length in km ");
+
+        Map<String, Serializable> values = DatasetValuesMapper.toObjectValues(attribute, "en_US", 42L);
+
+        Assert.assertEquals("Length", values.get("attribute"));
+        Assert.assertEquals(Map.of("en_US", "Length"), values.get("attribute_i18n"));
+        Assert.assertEquals(42L, values.get(InventoryConstants.DX_INVENTORY_ATTRIBUTE_RELATIONSHIP_ID));
+        Assert.assertEquals(attribute, DatasetValuesMapper.toAttribute(7, values));
+    }
+
+    @Test
+    public void testDatasetRoundTrip() {
+        Dataset dataset = DatasetValuesMapper.toDataset(5, 1, "en_US", createFields()::get, List.of(), false);
+
+        Map<String, Serializable> values = DatasetValuesMapper.toObjectValues(dataset, 9L);
+
+        Assert.assertEquals(9L, values.get(InventoryConstants.DX_INVENTORY_DATASET_RELATIONSHIP_ID));
+        Assert.assertEquals(Map.of("en_US", "Roads"), values.get("datasetName_i18n"));
+        Assert.assertEquals(3, values.get("userDemand"));
+
+        Dataset storedDataset = DatasetValuesMapper.toDataset(5, values);
+
+        Assert.assertEquals(dataset.datasetName(), storedDataset.datasetName());
+        Assert.assertEquals(dataset.datasetDescription(), storedDataset.datasetDescription());
+        Assert.assertEquals(dataset.datasetClassification(), storedDataset.datasetClassification());
+        Assert.assertEquals(dataset.userDemand(), storedDataset.userDemand());
+        Assert.assertEquals(dataset.economicImpact(), storedDataset.economicImpact());
+        Assert.assertEquals(dataset.betterServices(), storedDataset.betterServices());
+        Assert.assertEquals(dataset.betterGovernance(), storedDataset.betterGovernance());
+        Assert.assertEquals(dataset.definedOwner(), storedDataset.definedOwner());
+        Assert.assertEquals(dataset.existingMetadata(), storedDataset.existingMetadata());
+        Assert.assertEquals(dataset.alreadyPublished(), storedDataset.alreadyPublished());
+        Assert.assertEquals(dataset.openFormat(), storedDataset.openFormat());
+        Assert.assertEquals(dataset.releaseYear(), storedDataset.releaseYear());
+        Assert.assertEquals(dataset.releaseMonth(), storedDataset.releaseMonth());
+    }
+
+    @Test
+    public void testGetChangedValuesComparesTranslations() {
+        Map<String, Serializable> storedValues = new HashMap<>();
+        storedValues.put("datasetName", "Roads");
+        storedValues.put("datasetName_i18n", new HashMap<>(Map.of("en_US", "Roads", "ar_SA", "Old")));
+
+        Map<String, Serializable> newValues = new HashMap<>();
+        DatasetValuesMapper.addTranslatableField(newValues, "datasetName", "Roads", "ar_SA");
+
+        Assert.assertEquals(
+                Map.of("datasetName", "Roads", "datasetName_i18n", Map.of("ar_SA", "Roads")),
+                DatasetValuesMapper.getChangedValues(storedValues, newValues));
+
+        storedValues.put("datasetName_i18n", new HashMap<>(Map.of("en_US", "Roads", "ar_SA", "Roads")));
+
+        Assert.assertTrue(DatasetValuesMapper.getChangedValues(storedValues, newValues).isEmpty());
+    }
+
+    @Test
+    public void testGetChangedValuesReturnsChangedFields() {
+        Map<String, Serializable> storedValues = new HashMap<>();
+        storedValues.put("datasetName", "Roads");
+        storedValues.put("datasetName_i18n", new HashMap<>(Map.of("en_US", "Roads")));
+        storedValues.put("datasetDescription", "Road network");
+        storedValues.put("userDemand", 3L);
+
+        Map<String, Serializable> newValues = new HashMap<>();
+        DatasetValuesMapper.addTranslatableField(newValues, "datasetName", "Streets", "en_US");
+        DatasetValuesMapper.addTranslatableField(newValues, "datasetDescription", "Road network", "en_US");
+        newValues.put("userDemand", 3);
+        newValues.put("openFormat", "Yes");
+
+        Assert.assertEquals(
+                Map.of("datasetName", "Streets", "datasetName_i18n", Map.of("en_US", "Streets"), "openFormat", "Yes"),
+                DatasetValuesMapper.getChangedValues(storedValues, newValues));
+    }
+
+    @Test
+    public void testGetChangedValuesSkipsTranslationsWithoutBaseValue() {
+        Map<String, Serializable> newValues = new HashMap<>();
+        newValues.put("datasetName_i18n", new HashMap<>(Map.of("en_US", "Roads")));
+
+        Assert.assertTrue(DatasetValuesMapper.getChangedValues(new HashMap<>(), newValues).isEmpty());
+    }
+
+    @Test
+    public void testLeavesOutEmptyFieldsUnselectedOptionsAndUnratedBenefits() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("datasetName", "Roads");
+        fields.put("datasetDescription", "   ");
+        fields.put("datasetClassification", "Choose Option");
+        fields.put("userDemand", "0");
+        fields.put("economicImpact", "not a number");
+
+        Map<String, Serializable> values = DatasetValuesMapper.toObjectValues(
+                DatasetValuesMapper.toDataset(0, 0, "en_US", fields::get, List.of(), false), null);
+
+        Assert.assertEquals(Map.of("datasetName", "Roads", "datasetName_i18n", Map.of("en_US", "Roads")), values);
+    }
+
+    @Test
+    public void testReadsVersionField() {
+        Map<String, String> fields = createFields();
+
+        Assert.assertEquals(-1, DatasetValuesMapper.toDataset(5, 1, "en_US", fields::get, List.of(), false).version());
+
+        fields.put(DatasetValuesMapper.VERSION_FIELD, "4");
+
+        Dataset dataset = DatasetValuesMapper.toDataset(5, 1, "en_US", fields::get, List.of(), false);
+
+        Assert.assertEquals(4, dataset.version());
+        Assert.assertTrue(dataset.isVersionChecked());
+    }
+
+    @Test
+    public void testReadsStoredTranslationsInLocaleOrder() {
+        Map<String, Serializable> values = new HashMap<>();
+        values.put("datasetName", "Base");
+        values.put("datasetName_i18n", new HashMap<>(Map.of("ar_SA", "Arabic", "en_US", " ")));
+        values.put("datasetDescription", "Base description");
+        values.put("datasetDescription_i18n", new HashMap<>(Map.of("en_US", "English", "ar_SA", "Arabic")));
+
+        Dataset dataset = DatasetValuesMapper.toDataset(5, values);
+
+        Assert.assertEquals("Arabic", dataset.datasetName());
+        Assert.assertEquals("English", dataset.datasetDescription());
+        Assert.assertEquals("", dataset.releaseYear());
+    }
+
+    private Map<String, String> createFields() {
+        Map<String, String> fields = new HashMap<>();
+
+        fields.put("datasetName", " Roads ");
+        fields.put("datasetDescription", "Road network");
+        fields.put("datasetClassification", "Open");
+        fields.put("userDemand", "3");
+        fields.put("economicImpact", "2");
+        fields.put("betterServices", "1");
+        fields.put("betterGovernance", "4");
+        fields.put("definedOwner", "Yes");
+        fields.put("existingMetadata", "No");
+        fields.put("alreadyPublished", "No");
+        fields.put("openFormat", "Yes");
+        fields.put("releaseYear", "2026");
+        fields.put("releaseMonth", "March");
+
+        return fields;
+    }
+
+}
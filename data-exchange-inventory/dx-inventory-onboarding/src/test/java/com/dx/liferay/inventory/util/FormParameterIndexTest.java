@@ -0,0 +1,74 @@
+package com.dx.liferay.inventory.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.portlet.PortletRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FormParameterIndexTest {
+
+    @Test
+    public void testFilesDatasetAndAttributeFields() {
+        FormParameterIndex formParameterIndex = createIndex(Map.of(
+                "datasetName_1", new String[] {"Roads"},
+                "userDemand_1", new String[] {"3"},
+                "attributeName_1_1", new String[] {"Length"},
+                "attributeDescription_1_1", new String[] {"Road length in km"}));
+
+        FormParameterIndex.DatasetParameters dataset = formParameterIndex.getDatasets().get(1);
+
+        Assert.assertEquals("Roads", dataset.get("datasetName"));
+        Assert.assertEquals("3", dataset.get("userDemand"));
+        Assert.assertEquals(
+                Map.of("attributeName", "Length", "attributeDescription", "Road length in km"),
+                dataset.getAttributes().get(1));
+    }
+
+    @Test
+    public void testIgnoresParametersOfOtherShapes() {
+        FormParameterIndex formParameterIndex = createIndex(Map.of(
+                "inventoryId", new String[] {"12"},
+                "_datasetName", new String[] {"Leading separator"},
+                "datasetName_x", new String[] {"Not a dataset ID"},
+                "attributeName_1_y", new String[] {"Not an attribute index"},
+                "datasetName_2", new String[0]));
+
+        Assert.assertTrue(formParameterIndex.getDatasets().isEmpty());
+    }
+
+    @Test
+    public void testKeepsDatasetsAndAttributesInAscendingOrder() {
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        parameters.put("datasetName_10", new String[] {"Ten"});
+        parameters.put("datasetName_2", new String[] {"Two"});
+        parameters.put("attributeName_2_3", new String[] {"Third"});
+        parameters.put("attributeName_2_1", new String[] {"First"});
+
+        FormParameterIndex formParameterIndex = createIndex(parameters);
+
+        Assert.assertEquals(List.of(2, 10), List.copyOf(formParameterIndex.getDatasets().keySet()));
+        Assert.assertEquals(
+                List.of(1, 3), List.copyOf(formParameterIndex.getDatasets().get(2).getAttributes().keySet()));
+    }
+
+    @Test
+    public void testUsesFirstValueOfRepeatedParameter() {
+        FormParameterIndex formParameterIndex = createIndex(
+                Map.of("datasetName_1", new String[] {"First", "Second"}));
+
+        Assert.assertEquals("First", formParameterIndex.getDatasets().get(1).get("datasetName"));
+    }
+
+    private FormParameterIndex createIndex(Map<String, String[]> parameters) {
+        PortletRequest portletRequest = Mockito.mock(PortletRequest.class);
+
+        Mockito.when(portletRequest.getParameterMap()).thenReturn(parameters);
+
+        return new FormParameterIndex(portletRequest);
+    }
+
+}
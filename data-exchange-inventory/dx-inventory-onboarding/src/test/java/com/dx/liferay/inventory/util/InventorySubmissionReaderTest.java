@@ -0,0 +1,97 @@
+package com.dx.liferay.inventory.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class InventorySubmissionReaderTest {
+
+    @Test
+    public void testDefaultsWhenFieldsAreMissing() throws IOException {
+        InventorySubmissionReader reader = read("{}");
+
+        Assert.assertEquals("submit", reader.getActionType());
+        Assert.assertEquals(0, reader.getInventoryId());
+        Assert.assertEquals("", reader.getIdempotencyKey());
+        Assert.assertTrue(reader.getDatasets().isEmpty());
+    }
+
+    @Test
+    public void testNumbersDatasetsFromOneAndAttributesFromZero() throws IOException {
+        InventorySubmissionReader reader = read(
+                "{\"datasets\": [" +
+                        "{\"datasetName\": \"Roads\", \"attributes\": [" +
+                        "{\"attributeName\": \"Length\"}, {\"attributeName\": \"Width\"}]}, " +
+                        "{\"datasetName\": \"Bridges\"}]}");
+
+        Map<Integer, FormParameterIndex.DatasetParameters> datasets = reader.getDatasets();
+
+        Assert.assertEquals(List.of(1, 2), List.copyOf(datasets.keySet()));
+        Assert.assertEquals("Roads", datasets.get(1).get("datasetName"));
+        Assert.assertEquals("Bridges", datasets.get(2).get("datasetName"));
+        Assert.assertEquals(List.of(0, 1), List.copyOf(datasets.get(1).getAttributes().keySet()));
+        Assert.assertEquals("Width", datasets.get(1).getAttributes().get(1).get("attributeName"));
+        Assert.assertTrue(datasets.get(2).getAttributes().isEmpty());
+    }
+
+    @Test
+    public void testReadsScalarValuesAsStrings() throws IOException {
+        InventorySubmissionReader reader = read(
+                "{\"datasets\": [{\"userDemand\": 3, \"actualDatasetId\": 456, \"version\": 2, " +
+                        "\"attributes\": [{\"actualAttributeId\": 789, \"version\": 1}]}]}");
+
+        FormParameterIndex.DatasetParameters dataset = reader.getDatasets().get(1);
+
+        Assert.assertEquals("3", dataset.get("userDemand"));
+        Assert.assertEquals("456", dataset.get("actualDatasetId"));
+        Assert.assertEquals("2", dataset.get("version"));
+        Assert.assertEquals(Map.of("actualAttributeId", "789", "version", "1"), dataset.getAttributes().get(0));
+    }
+
+    @Test
+    public void testReadsSubmissionFields() throws IOException {
+        InventorySubmissionReader reader = read(
+                "{\"actionType\": \"draft\", \"inventoryId\": 123, \"idempotencyKey\": \"key-1\", \"datasets\": []}");
+
+        Assert.assertEquals("draft", reader.getActionType());
+        Assert.assertEquals(123, reader.getInventoryId());
+        Assert.assertEquals("key-1", reader.getIdempotencyKey());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsBodyThatIsNotAnObject() throws IOException {
+        read("[{\"datasetName\": \"Roads\"}]");
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsDatasetsThatAreNotAnArray() throws IOException {
+        read("{\"datasets\": {\"datasetName\": \"Roads\"}}");
+    }
+
+    @Test
+    public void testSkipsUnknownFields() throws IOException {
+        InventorySubmissionReader reader = read(
+                "{\"extra\": {\"nested\": [1, 2]}, \"datasets\": [" +
+                        "{\"datasetName\": \"Roads\", \"tags\": [\"a\", \"b\"], \"meta\": {\"k\": \"v\"}, " +
+                        "\"attributes\": [{\"attributeName\": \"Length\", \"extra\": {\"k\": \"v\"}}]}], " +
+                        "\"trailing\": [\"x\"]}");
+
+        FormParameterIndex.DatasetParameters dataset = reader.getDatasets().get(1);
+
+        Assert.assertEquals(1, reader.getDatasets().size());
+        Assert.assertEquals("Roads", dataset.get("datasetName"));
+        Assert.assertNull(dataset.get("tags"));
+        Assert.assertNull(dataset.get("meta"));
+        Assert.assertEquals(Map.of("attributeName", "Length"), dataset.getAttributes().get(0));
+    }
+
+    private InventorySubmissionReader read(String json) throws IOException {
+        return new InventorySubmissionReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}